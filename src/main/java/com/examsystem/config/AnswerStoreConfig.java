@@ -0,0 +1,31 @@
+package com.examsystem.config;
+
+import com.examsystem.service.AnswerStore;
+import com.examsystem.service.OptionDictionaries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sizes the answer store from {@code exam.answers.*} and backs it with the
+ * {@code exam_submissions} rows; the exam service keeps submitted answers in it.
+ */
+@Configuration
+public class AnswerStoreConfig {
+    
+    @Bean
+    public AnswerStore answerStore(OptionDictionaries dictionaries,
+                                   @Value("${exam.answers.max-entries:10000}") int maxEntries,
+                                   @Value("${exam.answers.max-heap-bytes:67108864}") long maxHeapBytes,
+                                   @Value("${exam.answers.off-heap.enabled:false}") boolean offHeap,
+                                   @Value("${exam.answers.off-heap.threshold-bytes:4096}") int offHeapThreshold,
+                                   @Value("${exam.answers.off-heap.slab-bytes:1048576}") int slabBytes,
+                                   @Value("${exam.answers.off-heap.slabs:64}") int slabs) {
+        AnswerStore store = offHeap
+                ? new AnswerStore(maxEntries, maxHeapBytes, offHeapThreshold, slabBytes, slabs)
+                : new AnswerStore(maxEntries, maxHeapBytes, 0, 0, 0);
+        // Misses decode the submission row the caller already loaded
+        store.setLoader(dictionaries::answersOf);
+        return store;
+    }
+}
@@ -0,0 +1,53 @@
+package com.examsystem.config;
+
+import com.examsystem.model.CacheRegion;
+import com.examsystem.repository.StudentRepository;
+import com.examsystem.service.AnswerStore;
+import com.examsystem.service.CacheChangeService;
+import com.examsystem.service.ExamPaperService;
+import com.examsystem.service.QuestionBankService;
+import com.examsystem.service.SearchIndexService;
+import com.examsystem.service.StudentDirectory;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Scale-out mode: subscribes this node's caches to the changes other nodes publish.
+ * Everything that decides a result (attempts, scores, exam counters, logins) is read
+ * from the shared database; what remains in memory is only a cache of it.
+ */
+@Configuration
+public class ClusterConfig {
+    
+    public ClusterConfig(CacheChangeService cacheChanges,
+                         ExamPaperService paperService,
+                         SearchIndexService searchIndex,
+                         StudentDirectory directory,
+                         StudentRepository studentRepository,
+                         QuestionBankService bankService,
+                         AnswerStore answerStore) {
+        cacheChanges.subscribe(CacheRegion.EXAM, change -> {
+            if (change.getEntityId() != null) {
+                paperService.invalidate(change.getEntityId());
+            } else {
+                paperService.invalidateAll();
+            }
+            // Index entries are built from the exam and its questions; rebuild on next search
+            searchIndex.invalidate();
+        });
+        cacheChanges.subscribe(CacheRegion.STUDENT, change -> {
+            if (change.getEntityId() != null) {
+                studentRepository.findById(change.getEntityId()).ifPresent(directory::update);
+            } else {
+                directory.invalidate();
+            }
+        });
+        cacheChanges.subscribe(CacheRegion.QUESTION_BANK, change -> bankService.invalidate());
+        cacheChanges.subscribe(CacheRegion.ANSWERS, change -> {
+            if (change.getEntityId() != null) {
+                answerStore.remove(change.getEntityId(), change.getSecondaryId());
+            } else {
+                answerStore.clear();
+            }
+        });
+    }
+}
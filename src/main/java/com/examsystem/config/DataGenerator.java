@@ -0,0 +1,302 @@
+package com.examsystem.config;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.model.ExamType;
+import com.examsystem.model.Role;
+import com.examsystem.model.ScorePolicy;
+import com.examsystem.utils.OptionDictionary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic dataset generator for benchmarking (profile {@code datagen}).
+ * Bulk-loads students, exams of every {@link ExamType} with their questions, and
+ * submissions through batched JDBC inserts, bypassing JPA so that large datasets
+ * load in minutes. All randomness comes from one fixed seed, so two runs with the
+ * same settings produce the same rows.
+ * Runs before {@link DataInitializer}, so in-memory indexes that load lazily
+ * from the database see the generated rows.
+ */
+@Component
+@Profile("datagen")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataGenerator implements CommandLineRunner {
+    
+    private static final String PASSWORD = "pass123";
+    private static final String[] OPTIONS = {"A", "B", "C", "D"};
+    private static final OptionDictionary MCQ_DICTIONARY =
+            OptionDictionary.parse(null).extend(Collections.singletonList(OPTIONS));
+    private static final String[] WORDS = {
+        "object", "class", "interface", "inheritance", "polymorphism", "encapsulation", "abstraction",
+        "method", "field", "constructor", "thread", "lock", "stream", "collection", "map", "list",
+        "exception", "generic", "type", "instance", "reference", "memory", "heap", "stack", "garbage",
+        "design", "pattern", "factory", "strategy", "observer", "dependency", "module", "test",
+        "the", "a", "of", "and", "to", "is", "in", "that", "which", "because", "therefore", "when"
+    };
+    private static final String[] CODE_LINES = {
+        "public int solve(int[] input) {",
+        "    int result = 0;",
+        "    for (int i = 0; i < input.length; i++) {",
+        "        result = Math.max(result, input[i]);",
+        "    }",
+        "    Map<Integer, Integer> counts = new HashMap<>();",
+        "    counts.merge(key, 1, Integer::sum);",
+        "    if (result < 0) throw new IllegalArgumentException(\"negative\");",
+        "    return result;",
+        "}"
+    };
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final long seed;
+    private final int students;
+    private final int examsPerType;
+    private final int sections;
+    private final int questionsPerSection;
+    private final double participation;
+    private final int answerLength;
+    private final int batchSize;
+    
+    public DataGenerator(JdbcTemplate jdbcTemplate,
+                         PasswordEncoder passwordEncoder,
+                         @Value("${exam.datagen.seed:42}") long seed,
+                         @Value("${exam.datagen.students:2000}") int students,
+                         @Value("${exam.datagen.exams-per-type:5}") int examsPerType,
+                         @Value("${exam.datagen.sections:2}") int sections,
+                         @Value("${exam.datagen.questions-per-section:10}") int questionsPerSection,
+                         @Value("${exam.datagen.participation:0.6}") double participation,
+                         @Value("${exam.datagen.answer-length:800}") int answerLength,
+                         @Value("${exam.datagen.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.seed = seed;
+        this.students = students;
+        this.examsPerType = examsPerType;
+        this.sections = sections;
+        this.questionsPerSection = questionsPerSection;
+        this.participation = participation;
+        this.answerLength = answerLength;
+        this.batchSize = batchSize;
+    }
+    
+    @Override
+    public void run(String... args) {
+        long start = System.currentTimeMillis();
+        Map<String, Integer> counts = generate();
+        System.out.println("[DATAGEN] Generated " + counts + " in "
+                + (System.currentTimeMillis() - start) + " ms (seed " + seed + ")");
+    }
+    
+    /**
+     * Insert the whole dataset and return the number of rows per table.
+     */
+    public Map<String, Integer> generate() {
+        Random random = new Random(seed);
+        String prefix = "gen" + seed + "-";
+        
+        List<Long> studentIds = insertStudents(prefix);
+        
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("students", studentIds.size());
+        int exams = 0;
+        int questions = 0;
+        int submissions = 0;
+        for (ExamType type : ExamType.values()) {
+            for (int e = 0; e < examsPerType; e++) {
+                long examId = insertExam(prefix + type.name().toLowerCase() + "-" + e, type);
+                List<String> correctAnswers = insertQuestions(examId, type, random);
+                submissions += insertSubmissions(examId, type, correctAnswers, studentIds, random);
+                exams++;
+                questions += correctAnswers.size();
+            }
+        }
+        counts.put("exams", exams);
+        counts.put("questions", questions);
+        counts.put("submissions", submissions);
+        return counts;
+    }
+    
+    private List<Long> insertStudents(String prefix) {
+        // One hash for everyone: bcrypt per row would dominate the load time
+        String password = passwordEncoder.encode(PASSWORD);
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < students; i++) {
+            batch.add(new Object[]{prefix + i, password, "Generated Student " + i, Role.STUDENT.name()});
+            if (batch.size() == batchSize) {
+                flush("INSERT INTO students (username, password, name, role) VALUES (?, ?, ?, ?)", batch);
+            }
+        }
+        flush("INSERT INTO students (username, password, name, role) VALUES (?, ?, ?, ?)", batch);
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM students WHERE username LIKE ? ORDER BY id", Long.class, prefix + "%");
+    }
+    
+    private long insertExam(String title, ExamType type) {
+        jdbcTemplate.update("INSERT INTO exams (exam_type, title, type, total_marks, sections, "
+                        + "questions_per_section, duration_minutes, paper_version, option_dictionary, max_attempts, "
+                        + "score_policy, submission_count, result_count, score_total, passed_count) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0, 0)",
+                type.name(), title, type.name(), 100, sections, questionsPerSection,
+                type == ExamType.MCQ ? 30 : 60, 0, type == ExamType.MCQ ? MCQ_DICTIONARY.toJson() : null,
+                1, ScorePolicy.BEST.name());
+        return jdbcTemplate.queryForObject("SELECT id FROM exams WHERE title = ?", Long.class, title);
+    }
+    
+    /**
+     * Insert the exam's questions and return their correct answers in id order.
+     */
+    private List<String> insertQuestions(long examId, ExamType type, Random random) {
+        List<String> correctAnswers = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int section = 1; section <= sections; section++) {
+            for (int q = 0; q < questionsPerSection; q++) {
+                String text = sentence(random, 8 + random.nextInt(12)) + "?";
+                String options = null;
+                String correct;
+                if (type == ExamType.MCQ) {
+                    options = "[\"A\",\"B\",\"C\",\"D\"]";
+                    correct = OPTIONS[random.nextInt(OPTIONS.length)];
+                } else {
+                    correct = "Manual grading required";
+                }
+                correctAnswers.add(correct);
+                batch.add(new Object[]{text, options, correct, section, examId});
+            }
+        }
+        flush("INSERT INTO questions (text, options_json, correct_answer, section, exam_id) VALUES (?, ?, ?, ?, ?)",
+                batch);
+        return correctAnswers;
+    }
+    
+    /**
+     * Each student takes the exam with the configured probability. A student's ability
+     * is a normal draw around 65%, so MCQ scores follow the repo's percentage formula
+     * applied to answers that are correct with that probability and are stored as
+     * option codes; essay and coding submissions carry long free-text answers,
+     * two thirds of them already graded.
+     */
+    private int insertSubmissions(long examId, ExamType type, List<String> correctAnswers,
+                                  List<Long> studentIds, Random random) {
+        String sql = "INSERT INTO exam_submissions (exam_id, student_id, score, attempt, version, answers_json, "
+                + "answer_codes, graded) VALUES (?, ?, ?, 1, 0, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        int inserted = 0;
+        int n = correctAnswers.size();
+        for (Long studentId : studentIds) {
+            if (random.nextDouble() >= participation) {
+                continue;
+            }
+            double ability = Math.min(1.0, Math.max(0.0, 0.65 + 0.18 * random.nextGaussian()));
+            String[] answers = new String[n];
+            int score;
+            boolean graded;
+            if (type == ExamType.MCQ) {
+                int correctCount = 0;
+                for (int i = 0; i < n; i++) {
+                    if (random.nextDouble() < ability) {
+                        answers[i] = correctAnswers.get(i);
+                        correctCount++;
+                    } else {
+                        answers[i] = OPTIONS[random.nextInt(OPTIONS.length)];
+                        correctCount += answers[i].equals(correctAnswers.get(i)) ? 1 : 0;
+                    }
+                }
+                score = n > 0 ? correctCount * 100 / n : 0;
+                graded = true;
+            } else {
+                for (int i = 0; i < n; i++) {
+                    answers[i] = type == ExamType.CODING ? code(random) : sentence(random, wordCount(random));
+                }
+                graded = random.nextInt(3) > 0;
+                score = graded ? (int) Math.round(ability * 100) : 0;
+            }
+            byte[] codes = type == ExamType.MCQ ? MCQ_DICTIONARY.encode(answers) : null;
+            batch.add(new Object[]{examId, studentId, score, codes == null ? toJson(answers) : null, codes, graded});
+            inserted++;
+            if (batch.size() == batchSize) {
+                flush(sql, batch);
+            }
+        }
+        flush(sql, batch);
+        insertResults(examId);
+        return inserted;
+    }
+    
+    /**
+     * Every generated student has a single attempt, so the result row is that attempt's score;
+     * the exam's counters are then summed from the result rows.
+     */
+    private void insertResults(long examId) {
+        jdbcTemplate.update("INSERT INTO exam_results (exam_id, student_id, attempts, best_score, latest_score, "
+                + "score, version) SELECT exam_id, student_id, MAX(attempt), MAX(score), MAX(score), MAX(score), 0 "
+                + "FROM exam_submissions WHERE exam_id = ? GROUP BY exam_id, student_id", examId);
+        jdbcTemplate.update("UPDATE exams SET "
+                + "submission_count = (SELECT COUNT(*) FROM exam_submissions WHERE exam_id = ?), "
+                + "result_count = (SELECT COUNT(*) FROM exam_results WHERE exam_id = ?), "
+                + "score_total = (SELECT COALESCE(SUM(score), 0) FROM exam_results WHERE exam_id = ?), "
+                + "passed_count = (SELECT COUNT(*) FROM exam_results WHERE exam_id = ? AND score >= ?) "
+                + "WHERE id = ?", examId, examId, examId, examId, Exam.PASS_MARK, examId);
+    }
+    
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+    
+    /**
+     * Answer length varies from a quarter to twice the configured average (in characters).
+     */
+    private int wordCount(Random random) {
+        int chars = answerLength / 4 + random.nextInt(Math.max(1, answerLength * 7 / 4));
+        return Math.max(1, chars / 7);
+    }
+    
+    private String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+    
+    private String code(Random random) {
+        StringBuilder code = new StringBuilder();
+        int target = answerLength / 4 + random.nextInt(Math.max(1, answerLength * 7 / 4));
+        while (code.length() < target) {
+            code.append(CODE_LINES[random.nextInt(CODE_LINES.length)]).append('\n');
+        }
+        return code.toString();
+    }
+    
+    /**
+     * Same encoding as {@code ExamSubmission.setAnswers}.
+     */
+    private static String toJson(String[] answers) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < answers.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(answers[i].replace("\"", "\\\"")).append('"');
+        }
+        return json.append(']').toString();
+    }
+}
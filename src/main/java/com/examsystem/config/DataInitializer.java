@@ -7,14 +7,21 @@ import com.examsystem.repository.ExamRepository;
 import com.examsystem.repository.QuestionRepository;
 import com.examsystem.repository.StudentRepository;
 import com.examsystem.service.IExamService;
+import com.examsystem.service.QuestionBankService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Data Initializer for Demo/Development.
  * Creates sample students, exams, and questions.
+ * Runs on every start, so it skips a database that is already initialized,
+ * e.g. by another node of a scale-out deployment.
  */
 @Configuration
 public class DataInitializer {
@@ -24,8 +31,14 @@ public class DataInitializer {
                                      ExamRepository examRepository,
                                      QuestionRepository questionRepository,
                                      IExamService examService,
+                                     QuestionBankService bankService,
                                      PasswordEncoder passwordEncoder) {
         return args -> {
+            if (studentRepository.existsByUsername("admin")) {
+                System.out.println("✓ Demo data already present; skipping initialization");
+                return;
+            }
+            
             System.out.println("\n╔════════════════════════════════════════════════════════╗");
             System.out.println("║        Initializing Demo Data...                      ║");
             System.out.println("╚════════════════════════════════════════════════════════╝\n");
@@ -36,7 +49,13 @@ public class DataInitializer {
             admin.setUsername("admin");
             admin.setPassword(passwordEncoder.encode("admin123"));
             admin.setRole(Role.ADMIN);
-            studentRepository.save(admin);
+            try {
+                studentRepository.save(admin);
+            } catch (DataIntegrityViolationException e) {
+                // Another node started at the same time and is initializing
+                System.out.println("✓ Demo data being created by another node; skipping initialization");
+                return;
+            }
             System.out.println("✓ Created Admin: admin/admin123");
             
             // Create Sample Students
@@ -83,6 +102,10 @@ public class DataInitializer {
             addEssayQuestions(essayExam, questionRepository);
             System.out.println("✓ Created Essay Exam with 3 questions");
             
+            // Seed the question bank with tagged questions
+            addBankQuestions(bankService);
+            System.out.println("✓ Created Question Bank with 12 tagged questions");
+            
             System.out.println("\n╔════════════════════════════════════════════════════════╗");
             System.out.println("║        Demo Data Initialized Successfully!            ║");
             System.out.println("║                                                        ║");
@@ -93,6 +116,49 @@ public class DataInitializer {
         };
     }
     
+    private void addBankQuestions(QuestionBankService bankService) {
+        // topic, difficulty, question, four options, correct answer
+        String[][] questions = {
+            {"oop", "easy", "Which OOP pillar bundles data with the methods that use it?",
+             "Encapsulation", "Inheritance", "Polymorphism", "Abstraction", "Encapsulation"},
+            {"oop", "easy", "A class that cannot be instantiated is called?",
+             "Abstract class", "Final class", "Static class", "Inner class", "Abstract class"},
+            {"oop", "medium", "Method overriding is an example of?",
+             "Runtime polymorphism", "Compile-time polymorphism", "Encapsulation", "Overloading", "Runtime polymorphism"},
+            {"oop", "hard", "Which principle says subtypes must be substitutable for their base types?",
+             "Liskov substitution", "Open/closed", "Single responsibility", "Dependency inversion", "Liskov substitution"},
+            {"java", "easy", "Which keyword prevents a class from being subclassed?",
+             "final", "static", "abstract", "private", "final"},
+            {"java", "medium", "Which type is immutable in Java?",
+             "String", "StringBuilder", "ArrayList", "HashMap", "String"},
+            {"java", "medium", "What does the JVM execute?",
+             "Bytecode", "Source code", "Machine code only", "Scripts", "Bytecode"},
+            {"java", "hard", "Which keyword guarantees visibility of writes across threads?",
+             "volatile", "transient", "static", "native", "volatile"},
+            {"collections", "easy", "Which collection does not allow duplicates?",
+             "Set", "List", "Queue", "Deque", "Set"},
+            {"collections", "medium", "Which map keeps keys in sorted order?",
+             "TreeMap", "HashMap", "LinkedHashMap", "IdentityHashMap", "TreeMap"},
+            {"collections", "medium", "Average lookup cost of a HashMap?",
+             "O(1)", "O(log n)", "O(n)", "O(n log n)", "O(1)"},
+            {"collections", "hard", "Which map is safe for concurrent updates without external locking?",
+             "ConcurrentHashMap", "HashMap", "TreeMap", "WeakHashMap", "ConcurrentHashMap"}
+        };
+        
+        List<BankQuestion> bank = new ArrayList<>();
+        for (String[] q : questions) {
+            bank.add(BankQuestion.builder()
+                    .type(ExamType.MCQ)
+                    .topic(q[0])
+                    .difficulty(q[1])
+                    .text(q[2])
+                    .optionsJson(String.format("[\"%s\",\"%s\",\"%s\",\"%s\"]", q[3], q[4], q[5], q[6]))
+                    .correctAnswer(q[7])
+                    .build());
+        }
+        bankService.addQuestions(bank);
+    }
+    
     private void addMCQQuestions(Exam exam, QuestionRepository questionRepository) {
         String[][] questions = {
             {"What is encapsulation in OOP?", 
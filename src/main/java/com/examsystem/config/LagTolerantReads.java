@@ -0,0 +1,18 @@
+package com.examsystem.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler whose read-only transactions may use the read pool even right
+ * after the user's own writes, accepting data that lags the primary by up to the
+ * replica's delay. Meant for aggregate views where a moment's delay does not matter.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface LagTolerantReads {
+}
@@ -0,0 +1,234 @@
+package com.examsystem.config;
+
+import com.examsystem.service.AnswerStore;
+import com.examsystem.service.Bulkheads;
+import com.examsystem.service.CacheChangeService;
+import com.examsystem.service.ExamAdmissionService;
+import com.examsystem.service.ExamPaperService;
+import com.examsystem.service.GradingQueue;
+import com.examsystem.service.QuestionBankService;
+import com.examsystem.service.RateLimits;
+import com.examsystem.service.SearchIndexService;
+import com.examsystem.service.StudentDirectory;
+import com.examsystem.service.StudentScoreService;
+import com.examsystem.utils.Bulkhead;
+import com.examsystem.utils.RateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges for the sizes of the application's in-memory structures and the load of its bulkheads.
+ * Timers live next to the code they measure; see ExamServiceImpl and the
+ * timed strategy and password encoder decorators.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public MeterBinder inMemoryStateMetrics(StudentScoreService scoreService,
+                                            ExamPaperService paperService,
+                                            SearchIndexService searchIndex,
+                                            QuestionBankService bankService,
+                                            StudentDirectory directory,
+                                            AnswerStore answerStore,
+                                            CacheChangeService cacheChanges) {
+        return registry -> {
+            FunctionCounter.builder("exam.scores.loads", scoreService, StudentScoreService::getSingleLoads)
+                    .description("Score maps read for a single student on first access")
+                    .tag("mode", "single")
+                    .register(registry);
+            FunctionCounter.builder("exam.scores.loads", scoreService, StudentScoreService::getBulkLoads)
+                    .description("Bulk score loads for analytics")
+                    .tag("mode", "bulk")
+                    .register(registry);
+            FunctionCounter.builder("exam.paper.renders", paperService, ExamPaperService::getRenders)
+                    .description("Full exam papers rendered from the database")
+                    .register(registry);
+            Gauge.builder("exam.memory.entries", paperService, ExamPaperService::getCachedPaperCount)
+                    .description("Rendered exam papers held in the paper cache")
+                    .tag("structure", "paper-cache")
+                    .register(registry);
+            Gauge.builder("exam.memory.entries", searchIndex, SearchIndexService::getDocumentCount)
+                    .description("Live documents in the search index")
+                    .tag("structure", "search-index")
+                    .register(registry);
+            Gauge.builder("exam.memory.entries", bankService, QuestionBankService::getIndexedCount)
+                    .description("Questions in the question bank index")
+                    .tag("structure", "question-bank")
+                    .register(registry);
+            Gauge.builder("exam.memory.entries", directory, StudentDirectory::size)
+                    .description("Students in the roster autocomplete index")
+                    .tag("structure", "student-directory")
+                    .register(registry);
+            Gauge.builder("exam.memory.entries", answerStore, AnswerStore::size)
+                    .description("Answer sets held in the answer store")
+                    .tag("structure", "answer-store")
+                    .register(registry);
+            Gauge.builder("exam.memory.bytes", answerStore, AnswerStore::getHeapBytes)
+                    .description("Estimated heap bytes of the answer store")
+                    .tag("structure", "answer-store")
+                    .tag("area", "heap")
+                    .register(registry);
+            Gauge.builder("exam.memory.bytes", answerStore, AnswerStore::getOffHeapCapacity)
+                    .description("Direct buffer slabs allocated by the answer store")
+                    .tag("structure", "answer-store")
+                    .tag("area", "off-heap")
+                    .register(registry);
+            FunctionCounter.builder("exam.answers.reads", answerStore, AnswerStore::getHits)
+                    .description("Answer reads served from the answer store")
+                    .tag("source", "memory")
+                    .register(registry);
+            FunctionCounter.builder("exam.answers.reads", answerStore, AnswerStore::getMisses)
+                    .description("Answer reads decoded from the submission row")
+                    .tag("source", "database")
+                    .register(registry);
+            if (cacheChanges.isEnabled()) {
+                FunctionCounter.builder("exam.cluster.changes", cacheChanges, CacheChangeService::getPublished)
+                        .description("Cache changes this node published for other nodes")
+                        .tag("direction", "published")
+                        .register(registry);
+                FunctionCounter.builder("exam.cluster.changes", cacheChanges, CacheChangeService::getApplied)
+                        .description("Cache changes of other nodes applied to this node's caches")
+                        .tag("direction", "applied")
+                        .register(registry);
+                FunctionCounter.builder("exam.cluster.resets", cacheChanges, CacheChangeService::getResets)
+                        .description("Times every cache was dropped because changes may have been missed")
+                        .register(registry);
+            }
+        };
+    }
+    
+    /**
+     * Waiting-room activity of exam starts, summed over all exams.
+     */
+    @Bean
+    public MeterBinder admissionMetrics(ExamAdmissionService admission) {
+        return registry -> {
+            Gauge.builder("exam.admission.waiting", admission, ExamAdmissionService::getWaiting)
+                    .description("Students queued in exam waiting rooms")
+                    .register(registry);
+            FunctionCounter.builder("exam.admission.starts", admission, ExamAdmissionService::getAdmitted)
+                    .description("Exam starts admitted")
+                    .tag("outcome", "admitted")
+                    .register(registry);
+            FunctionCounter.builder("exam.admission.starts", admission, ExamAdmissionService::getQueued)
+                    .description("Exam starts sent to the waiting room")
+                    .tag("outcome", "queued")
+                    .register(registry);
+            FunctionCounter.builder("exam.admission.starts", admission, ExamAdmissionService::getAbandoned)
+                    .description("Waiting students who stopped polling and lost their place")
+                    .tag("outcome", "abandoned")
+                    .register(registry);
+            FunctionCounter.builder("exam.admission.starts", admission, ExamAdmissionService::getUnqueued)
+                    .description("Exam starts admitted without a waiting room because every room was in use")
+                    .tag("outcome", "unqueued")
+                    .register(registry);
+            Gauge.builder("exam.admission.rooms", admission, ExamAdmissionService::getRooms)
+                    .description("Open exam waiting rooms")
+                    .register(registry);
+        };
+    }
+    
+    /**
+     * Per-pool load of the bulkheads, tagged with pool=grading, export, analytics or background.
+     */
+    @Bean
+    public MeterBinder bulkheadMetrics(Bulkheads bulkheads) {
+        return registry -> {
+            for (Bulkhead bulkhead : bulkheads.all()) {
+                Tags tags = Tags.of("pool", bulkhead.getName());
+                Gauge.builder("exam.bulkhead.threads", bulkhead, Bulkhead::getThreads)
+                        .description("Tasks the bulkhead runs at once")
+                        .tags(tags)
+                        .register(registry);
+                Gauge.builder("exam.bulkhead.active", bulkhead, Bulkhead::getActive)
+                        .description("Tasks running in the bulkhead")
+                        .tags(tags)
+                        .register(registry);
+                Gauge.builder("exam.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                        .description("Tasks waiting for a bulkhead thread")
+                        .tags(tags)
+                        .register(registry);
+                Gauge.builder("exam.bulkhead.queue.capacity", bulkhead, Bulkhead::getQueueCapacity)
+                        .description("Tasks the bulkhead lets wait before its overflow policy applies")
+                        .tags(tags)
+                        .register(registry);
+                FunctionCounter.builder("exam.bulkhead.completed", bulkhead, Bulkhead::getCompleted)
+                        .description("Tasks the bulkhead finished")
+                        .tags(tags)
+                        .register(registry);
+                FunctionCounter.builder("exam.bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                        .description("Tasks that found the bulkhead full")
+                        .tags(tags.and("overflow", bulkhead.getOverflow().name().toLowerCase()))
+                        .register(registry);
+            }
+        };
+    }
+    
+    /**
+     * Per-student request limits, tagged with limit=submit, autosave or exam.
+     */
+    @Bean
+    public MeterBinder rateLimitMetrics(RateLimits rateLimits) {
+        return registry -> {
+            for (RateLimiter limiter : rateLimits.all()) {
+                Tags tags = Tags.of("limit", limiter.getName());
+                Gauge.builder("exam.ratelimit.rate", limiter, RateLimiter::getRatePerSecond)
+                        .description("Requests per second allowed to each student")
+                        .tags(tags)
+                        .register(registry);
+                Gauge.builder("exam.ratelimit.burst", limiter, RateLimiter::getBurst)
+                        .description("Requests a student may make at once after being idle")
+                        .tags(tags)
+                        .register(registry);
+                Gauge.builder("exam.ratelimit.keys", limiter, RateLimiter::getTrackedKeys)
+                        .description("Students with a partly used bucket")
+                        .tags(tags)
+                        .register(registry);
+                FunctionCounter.builder("exam.ratelimit.requests", limiter, RateLimiter::getAllowed)
+                        .description("Requests let through")
+                        .tags(tags.and("outcome", "allowed"))
+                        .register(registry);
+                FunctionCounter.builder("exam.ratelimit.requests", limiter, RateLimiter::getRejected)
+                        .description("Requests refused with 429")
+                        .tags(tags.and("outcome", "rejected"))
+                        .register(registry);
+                FunctionCounter.builder("exam.ratelimit.untracked", limiter, RateLimiter::getUntracked)
+                        .description("Requests let through without a bucket because too many students were tracked")
+                        .tags(tags)
+                        .register(registry);
+            }
+        };
+    }
+    
+    /**
+     * Grading work queue: ready depth, lease outcomes and graded submissions (grading throughput).
+     */
+    @Bean
+    public MeterBinder gradingQueueMetrics(GradingQueue gradingQueue) {
+        return registry -> {
+            Gauge.builder("exam.grading.ready", gradingQueue, GradingQueue::getReady)
+                    .description("Ungraded submission ids waiting in this node's ready queues")
+                    .register(registry);
+            FunctionCounter.builder("exam.grading.leases", gradingQueue, GradingQueue::getClaimed)
+                    .description("Submissions leased to graders")
+                    .tag("outcome", "claimed")
+                    .register(registry);
+            FunctionCounter.builder("exam.grading.leases", gradingQueue, GradingQueue::getReclaimed)
+                    .description("Leases that expired before grading and were taken back")
+                    .tag("outcome", "reclaimed")
+                    .register(registry);
+            FunctionCounter.builder("exam.grading.leases", gradingQueue, GradingQueue::getReleased)
+                    .description("Leases given back by graders")
+                    .tag("outcome", "released")
+                    .register(registry);
+            FunctionCounter.builder("exam.grading.graded", gradingQueue, GradingQueue::getGraded)
+                    .description("Submissions graded manually")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.examsystem.config;
+
+import com.examsystem.utils.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies one {@link RateLimiter} to the paths it is registered for, keyed by the
+ * logged-in user (or the client address before login). A refused request is
+ * answered with 429 and a {@code Retry-After} in whole seconds, before the handler
+ * or the database is reached.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter limiter;
+
+    public RateLimitInterceptor(RateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        Principal principal = request.getUserPrincipal();
+        String key = principal != null ? principal.getName() : request.getRemoteAddr();
+        long waitNanos = limiter.tryAcquire(key);
+        if (waitNanos == 0) {
+            return true;
+        }
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\",\"limit\":\"" + limiter.getName()
+                + "\",\"retryAfterSeconds\":" + retryAfter + "}");
+        return false;
+    }
+}
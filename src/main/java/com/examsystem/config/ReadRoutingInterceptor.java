@@ -0,0 +1,30 @@
+package com.examsystem.config;
+
+import com.examsystem.utils.ReadRouting;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Lets the read-only transactions of {@link LagTolerantReads} handlers use the
+ * read pool regardless of the user's recent writes.
+ */
+public class ReadRoutingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method
+                && (method.hasMethodAnnotation(LagTolerantReads.class)
+                    || method.getBeanType().isAnnotationPresent(LagTolerantReads.class))) {
+            ReadRouting.set(ReadRouting.Mode.LAG_TOLERANT);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadRouting.reset();
+    }
+}
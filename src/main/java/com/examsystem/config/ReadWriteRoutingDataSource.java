@@ -0,0 +1,118 @@
+package com.examsystem.config;
+
+import com.examsystem.utils.ReadRouting;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to the read pool and everything else to the write pool.
+ * <p>
+ * The route is decided when a connection is first needed, so this must sit behind a
+ * {@code LazyConnectionDataSourceProxy}: by then the transaction's read-only flag is known.
+ * A replica may lag behind the primary, so a user whose read-write transaction committed
+ * within the last {@code maxLagMs} reads from the primary too and sees their own change
+ * (unless {@link ReadRouting.Mode#LAG_TOLERANT} says they need not).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { WRITE, READ }
+
+    // Beyond this many remembered writers the expired ones are dropped
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long maxLagNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private final AtomicLong writeRoutes = new AtomicLong();
+    private final AtomicLong readRoutes = new AtomicLong();
+    private final AtomicLong pinnedReads = new AtomicLong();
+
+    public ReadWriteRoutingDataSource(DataSource writePool, DataSource readPool, long maxLagMs) {
+        this.maxLagNanos = maxLagMs * 1_000_000L;
+        setTargetDataSources(Map.of(Route.WRITE, writePool, Route.READ, readPool));
+        setDefaultTargetDataSource(writePool);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            writeRoutes.incrementAndGet();
+            return Route.WRITE;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriteOnCommit();
+            writeRoutes.incrementAndGet();
+            return Route.WRITE;
+        }
+        ReadRouting.Mode mode = ReadRouting.current();
+        if (mode == ReadRouting.Mode.PRIMARY
+                || (mode == ReadRouting.Mode.DEFAULT && wroteRecently(currentUser()))) {
+            pinnedReads.incrementAndGet();
+            return Route.WRITE;
+        }
+        readRoutes.incrementAndGet();
+        return Route.READ;
+    }
+
+    private void rememberWriteOnCommit() {
+        String user = currentUser();
+        if (user == null || maxLagNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (lastWrites.size() > SWEEP_THRESHOLD) {
+                    long now = System.nanoTime();
+                    lastWrites.values().removeIf(at -> now - at > maxLagNanos);
+                }
+                lastWrites.put(user, System.nanoTime());
+            }
+        });
+    }
+
+    private boolean wroteRecently(String user) {
+        if (user == null) {
+            return false;
+        }
+        Long at = lastWrites.get(user);
+        return at != null && System.nanoTime() - at <= maxLagNanos;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Connections taken outside a transaction or for a read-write one.
+     */
+    public long getWriteRoutes() {
+        return writeRoutes.get();
+    }
+
+    public long getReadRoutes() {
+        return readRoutes.get();
+    }
+
+    /**
+     * Read-only transactions kept on the primary, after a recent write or by request.
+     */
+    public long getPinnedReads() {
+        return pinnedReads.get();
+    }
+}
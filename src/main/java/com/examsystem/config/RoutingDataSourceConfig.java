@@ -0,0 +1,137 @@
+package com.examsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Two connection pools behind one DataSource: submissions and other writes take
+ * connections from the write pool, {@code @Transactional(readOnly = true)} work
+ * such as analytics, exports and dashboards from the read pool, so a heavy report
+ * cannot leave a submission waiting for a connection.
+ * <p>
+ * The read pool connects to {@code exam.datasource.read.url}, a replica in
+ * production. By default that is the primary database itself, which keeps the
+ * pools apart without any replication to set up. Switched off with
+ * {@code exam.datasource.read.enabled=false}, which leaves Spring Boot's single pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "exam.datasource.read.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    /**
+     * Holds the pools and the routing between them outside the DataSource type, so that
+     * only the application DataSource is injected and wrapped for statement tracking.
+     * Closed with the context.
+     */
+    public static class Pools implements AutoCloseable {
+
+        private final HikariDataSource write;
+        private final HikariDataSource read;
+        private final ReadWriteRoutingDataSource routing;
+
+        Pools(HikariDataSource write, HikariDataSource read, long maxLagMs) {
+            this.write = write;
+            this.read = read;
+            this.routing = new ReadWriteRoutingDataSource(write, read, maxLagMs);
+            routing.afterPropertiesSet();
+        }
+
+        public HikariDataSource getWrite() {
+            return write;
+        }
+
+        public HikariDataSource getRead() {
+            return read;
+        }
+
+        public ReadWriteRoutingDataSource getRouting() {
+            return routing;
+        }
+
+        @Override
+        public void close() {
+            read.close();
+            write.close();
+        }
+    }
+
+    @Bean
+    public Pools dataSourcePools(DataSourceProperties properties,
+                                 @Value("${exam.datasource.write.maximum-pool-size:10}") int writePoolSize,
+                                 @Value("${exam.datasource.read.url:}") String readUrl,
+                                 @Value("${exam.datasource.read.username:}") String readUsername,
+                                 @Value("${exam.datasource.read.password:}") String readPassword,
+                                 @Value("${exam.datasource.read.maximum-pool-size:5}") int readPoolSize,
+                                 @Value("${exam.datasource.read.max-lag-ms:2000}") long maxLagMs) {
+        HikariDataSource write = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        write.setPoolName("exam-write");
+        write.setMaximumPoolSize(writePoolSize);
+
+        HikariDataSource read = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(readUrl.isBlank() ? properties.determineUrl() : readUrl)
+                .username(readUsername.isBlank() ? properties.determineUsername() : readUsername)
+                .password(readUsername.isBlank() ? properties.determinePassword() : readPassword)
+                .build();
+        read.setPoolName("exam-read");
+        read.setMaximumPoolSize(readPoolSize);
+        read.setReadOnly(true);
+        return new Pools(write, read, maxLagMs);
+    }
+
+    /**
+     * The DataSource the application uses. Connections are only taken once a statement
+     * runs, by which time the transaction's read-only flag decides the pool.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(Pools pools) {
+        return new LazyConnectionDataSourceProxy(pools.getRouting());
+    }
+
+    /**
+     * Pool metrics under {@code hikaricp.connections.*} tagged with pool={@code exam-write}
+     * or {@code exam-read}, and how connections were routed.
+     */
+    @Bean
+    public MeterBinder dataSourceRoutingMetrics(Pools pools) {
+        ReadWriteRoutingDataSource routing = pools.getRouting();
+        return registry -> {
+            bindPool(pools.getWrite(), registry);
+            bindPool(pools.getRead(), registry);
+            FunctionCounter.builder("exam.datasource.routes", routing, ReadWriteRoutingDataSource::getWriteRoutes)
+                    .description("Connections taken from the write pool outside read-only transactions")
+                    .tag("route", "write")
+                    .register(registry);
+            FunctionCounter.builder("exam.datasource.routes", routing, ReadWriteRoutingDataSource::getReadRoutes)
+                    .description("Read-only transactions served by the read pool")
+                    .tag("route", "read")
+                    .register(registry);
+            FunctionCounter.builder("exam.datasource.routes", routing, ReadWriteRoutingDataSource::getPinnedReads)
+                    .description("Read-only transactions kept on the write pool to read recent writes")
+                    .tag("route", "pinned")
+                    .register(registry);
+        };
+    }
+
+    private static void bindPool(HikariDataSource pool, MeterRegistry registry) {
+        if (pool.getMetricRegistry() == null) {
+            pool.setMetricRegistry(registry);
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package com.examsystem.config;
 
+import com.examsystem.monitoring.ServerTimingFilter;
+import com.examsystem.security.JwtUtil;
+import com.examsystem.security.TimedPasswordEncoder;
+import com.examsystem.security.TokenCookieSecurityContextRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -8,22 +14,41 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 
 /**
  * Spring Security Configuration.
  * Configures authentication, authorization, and session management.
+ * In scale-out mode ({@code exam.cluster.enabled}) the login is kept in a signed
+ * cookie rather than the node-local HTTP session.
  */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
     
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
     
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           JwtUtil jwtUtil,
+                                           @Value("${exam.cluster.enabled:false}") boolean cluster) throws Exception {
+        if (cluster) {
+            http
+                .securityContext(context -> context
+                    .securityContextRepository(new TokenCookieSecurityContextRepository(jwtUtil))
+                )
+                .sessionManagement(session -> session
+                    .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                );
+        } else {
+            http
+                .sessionManagement(session -> session
+                    .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
+                );
+        }
         http
             .csrf(csrf -> csrf.disable()) // Disable for demo/development
             .authorizeHttpRequests(auth -> auth
@@ -33,18 +58,16 @@ public class SecurityConfig {
                     "/register",
                     "/api/auth/**",
                     "/h2-console/**",
-                    "/actuator/**",
+                    "/actuator/health/**",
+                    "/actuator/info",
                     "/css/**",
                     "/js/**",
                     "/error"
                 ).permitAll()
-                .requestMatchers("/admin/**").hasAuthority("ADMIN")
+                .requestMatchers("/admin/**", "/actuator/**").hasAuthority("ADMIN")
                 .requestMatchers("/student/**").hasAuthority("STUDENT")
                 .anyRequest().authenticated()
             )
-            .sessionManagement(session -> session
-                .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
-            )
             .formLogin(form -> form
                 .loginPage("/login")
                 .defaultSuccessUrl("/dashboard", true)
@@ -56,7 +79,9 @@ public class SecurityConfig {
             )
             .headers(headers -> headers
                 .frameOptions(frame -> frame.sameOrigin()) // For H2 console
-            );
+            )
+            // Server-Timing: everything up to here is reported as the "auth" phase
+            .addFilterAfter(ServerTimingFilter.securityPhaseMarker(), AuthorizationFilter.class);
         
         return http.build();
     }
@@ -0,0 +1,34 @@
+package com.examsystem.config;
+
+import com.examsystem.monitoring.StatementStats;
+import com.examsystem.monitoring.StatementTrackingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource so that every JDBC statement is recorded
+ * in {@link StatementStats}. Switched off with {@code exam.sql.tracking=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "exam.sql.tracking", havingValue = "true", matchIfMissing = true)
+public class SqlMonitoringConfig {
+    
+    // Static so that the post-processor does not force early initialisation of this class
+    @Bean
+    public static BeanPostProcessor statementTrackingPostProcessor(ObjectProvider<StatementStats> stats) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementTrackingDataSource)) {
+                    return new StatementTrackingDataSource(dataSource, stats.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,6 +1,9 @@
 package com.examsystem.config;
 
+import com.examsystem.monitoring.ServerTimingInterceptor;
+import com.examsystem.service.RateLimits;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -9,10 +12,31 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
-    
+
+    private final RateLimits rateLimits;
+
+    public WebConfig(RateLimits rateLimits) {
+        this.rateLimits = rateLimits;
+    }
+
     @Override
     public void addViewControllers(ViewControllerRegistry registry) {
         registry.addViewController("/").setViewName("redirect:/login");
         registry.addViewController("/login").setViewName("login");
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ServerTimingInterceptor());
+        if (rateLimits.isEnabled()) {
+            registry.addInterceptor(new RateLimitInterceptor(rateLimits.submit()))
+                    .addPathPatterns("/student/submit", "/student/api/submit");
+            registry.addInterceptor(new RateLimitInterceptor(rateLimits.autosave()))
+                    .addPathPatterns("/student/api/exam/*/autosave");
+            registry.addInterceptor(new RateLimitInterceptor(rateLimits.exam()))
+                    .addPathPatterns("/student/exam/**", "/student/api/exam/**")
+                    .excludePathPatterns("/student/api/exam/*/autosave");
+        }
+        registry.addInterceptor(new ReadRoutingInterceptor());
+    }
 }
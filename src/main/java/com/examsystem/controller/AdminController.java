@@ -1,21 +1,47 @@
 package com.examsystem.controller;
 
+import com.examsystem.config.LagTolerantReads;
+import com.examsystem.entity.BankQuestion;
 import com.examsystem.entity.Exam;
 import com.examsystem.entity.ExamSubmission;
 import com.examsystem.entity.Question;
 import com.examsystem.entity.Student;
 import com.examsystem.model.ExamType;
+import com.examsystem.model.GradingResult;
+import com.examsystem.model.PaperBlueprint;
+import com.examsystem.model.ScorePolicy;
+import com.examsystem.model.SearchHit;
+import com.examsystem.model.StudentSuggestion;
+import com.examsystem.model.SubmissionGrade;
+import com.examsystem.monitoring.AuditLog;
+import com.examsystem.monitoring.JfrRecordingService;
+import com.examsystem.monitoring.RequestTiming;
+import com.examsystem.monitoring.SqlStatisticsService;
 import com.examsystem.repository.ExamSubmissionRepository;
+import com.examsystem.service.AnswerStore;
+import com.examsystem.service.Bulkheads;
+import com.examsystem.service.ExamResultService;
 import com.examsystem.service.ExamServiceImpl;
+import com.examsystem.service.GradingQueue;
 import com.examsystem.service.IExamService;
 import com.examsystem.service.IStudentService;
+import com.examsystem.service.QuestionBankService;
+import com.examsystem.service.SearchIndexService;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Admin Controller.
@@ -30,15 +56,48 @@ public class AdminController {
     private final IStudentService studentService;
     private final ExamServiceImpl examServiceImpl; // For advanced features
     private final ExamSubmissionRepository submissionRepository;
+    private final QuestionBankService bankService;
+    private final SearchIndexService searchIndex;
+    private final ExamResultService resultService;
+    private final JfrRecordingService jfrRecording;
+    private final AuditLog auditLog;
+    private final SqlStatisticsService sqlStatistics;
+    private final Bulkheads bulkheads;
+    private final GradingQueue gradingQueue;
+    private final AnswerStore answerStore;
+    
+    // Students listed on the dashboard; the rest are reached through autocomplete
+    private static final int ROSTER_PAGE_SIZE = 50;
+    
+    // Grades accepted by one bulk grading request
+    static final int MAX_GRADES_PER_REQUEST = 500;
     
     public AdminController(IExamService examService, 
                           IStudentService studentService,
                           ExamServiceImpl examServiceImpl,
-                          ExamSubmissionRepository submissionRepository) {
+                          ExamSubmissionRepository submissionRepository,
+                          QuestionBankService bankService,
+                          SearchIndexService searchIndex,
+                          ExamResultService resultService,
+                          JfrRecordingService jfrRecording,
+                          AuditLog auditLog,
+                          SqlStatisticsService sqlStatistics,
+                          Bulkheads bulkheads,
+                          GradingQueue gradingQueue,
+                          AnswerStore answerStore) {
         this.examService = examService;
         this.studentService = studentService;
         this.examServiceImpl = examServiceImpl;
         this.submissionRepository = submissionRepository;
+        this.bankService = bankService;
+        this.searchIndex = searchIndex;
+        this.resultService = resultService;
+        this.jfrRecording = jfrRecording;
+        this.auditLog = auditLog;
+        this.sqlStatistics = sqlStatistics;
+        this.bulkheads = bulkheads;
+        this.gradingQueue = gradingQueue;
+        this.answerStore = answerStore;
     }
     
     /**
@@ -46,33 +105,32 @@ public class AdminController {
      * Demonstrates Streams API usage for data processing.
      */
     @GetMapping("/dashboard")
+    @LagTolerantReads
     public String dashboard(Model model) {
+        long phase = RequestTiming.start();
         List<Exam> exams = examService.getAllExams();
-        List<Student> students = studentService.getAllStudents();
+        List<Student> students = studentService.getStudentsPage(0, ROSTER_PAGE_SIZE);
         
-        // Calculate total submissions across all exams
-        int totalSubmissions = 0;
-        for (Exam exam : exams) {
-            totalSubmissions += examService.getStudentsForExam(exam.getId()).size();
-        }
-        
-        // Calculate average pass rate across all exams
+        // Total submissions and average pass rate across all exams,
+        // from the result counters each exam row carries
+        long totalSubmissions = 0;
         double totalPassRate = 0;
         int examsWithSubmissions = 0;
         for (Exam exam : exams) {
-            List<Student> examStudents = examService.getStudentsForExam(exam.getId());
-            if (!examStudents.isEmpty()) {
-                int passed = examService.getPassedStudents(exam.getId(), 50).size();
-                totalPassRate += (passed * 100.0) / examStudents.size();
+            totalSubmissions += exam.getSubmissionCount();
+            if (exam.getResultCount() > 0) {
+                totalPassRate += exam.passRate();
                 examsWithSubmissions++;
             }
         }
         double avgPassRate = examsWithSubmissions > 0 ? totalPassRate / examsWithSubmissions : 0;
+        RequestTiming.stop(RequestTiming.ANALYTICS, phase);
         
         model.addAttribute("exams", exams);
+        model.addAttribute("questionCounts", examService.getQuestionCounts());
         model.addAttribute("students", students);
         model.addAttribute("totalExams", exams.size());
-        model.addAttribute("totalStudents", students.size());
+        model.addAttribute("totalStudents", studentService.countStudents());
         model.addAttribute("totalSubmissions", totalSubmissions);
         model.addAttribute("avgPassRate", Math.round(avgPassRate));
         
@@ -84,6 +142,7 @@ public class AdminController {
      * Uses Streams API for aggregations.
      */
     @GetMapping("/analytics")
+    @LagTolerantReads
     public String analytics(Model model) {
         List<Exam> exams = examService.getAllExams();
         model.addAttribute("exams", exams);
@@ -91,12 +150,17 @@ public class AdminController {
     }
     
     /**
-     * REST API for exam analytics.
+     * REST API for exam analytics, computed in the analytics bulkhead.
      * Demonstrates Streams: filter, average, groupingBy.
      */
     @GetMapping("/api/analytics/{examId}")
+    @LagTolerantReads
     @ResponseBody
     public Map<String, Object> getExamAnalytics(@PathVariable Long examId) {
+        return bulkheads.analytics().call(() -> examAnalytics(examId));
+    }
+    
+    private Map<String, Object> examAnalytics(Long examId) {
         List<Student> students = examService.getStudentsForExam(examId);
         
         // Streams API - filter for passed students
@@ -123,18 +187,30 @@ public class AdminController {
      * Demonstrates Streams groupingBy collector.
      */
     @GetMapping("/api/students/grouped")
+    @LagTolerantReads
     @ResponseBody
     public Map<String, List<Student>> getGroupedStudents() {
         List<Student> allStudents = studentService.getAllStudents();
         return examService.groupStudentsByExamType(allStudents);
     }
     
+    /**
+     * Roster autocomplete by username or name prefix.
+     */
+    @GetMapping("/api/students/suggest")
+    @ResponseBody
+    public List<StudentSuggestion> suggestStudents(@RequestParam String q,
+                                                   @RequestParam(defaultValue = "10") int limit) {
+        return studentService.suggestStudents(q, Math.min(Math.max(limit, 1), 50));
+    }
+    
     /**
      * Create new exam page.
      */
     @GetMapping("/exam/create")
     public String createExamPage(Model model) {
         model.addAttribute("examTypes", ExamType.values());
+        model.addAttribute("scorePolicies", ScorePolicy.values());
         return "admin/create-exam";
     }
     
@@ -146,10 +222,14 @@ public class AdminController {
                             @RequestParam String title,
                             @RequestParam int sections,
                             @RequestParam int questionsPerSection,
+                            @RequestParam(defaultValue = "1") int maxAttempts,
+                            @RequestParam(defaultValue = "BEST") String scorePolicy,
                             Model model) {
         try {
             ExamType examType = ExamType.valueOf(type.toUpperCase());
             Exam exam = examService.createExam(examType, title, sections, questionsPerSection);
+            exam.setMaxAttempts(Math.max(1, maxAttempts));
+            exam.setScorePolicy(ScorePolicy.valueOf(scorePolicy.toUpperCase()));
             examService.saveExam(exam);
             
             model.addAttribute("success", "Exam created successfully!");
@@ -157,6 +237,7 @@ public class AdminController {
         } catch (Exception e) {
             model.addAttribute("error", e.getMessage());
             model.addAttribute("examTypes", ExamType.values());
+            model.addAttribute("scorePolicies", ScorePolicy.values());
             return "admin/create-exam";
         }
     }
@@ -206,46 +287,293 @@ public class AdminController {
     }
     
     /**
-     * View submissions for manual grading.
+     * View submissions for manual grading: all of them, or with {@code claimed} the
+     * ungraded ones this grader holds leases on. Viewing never takes leases.
      */
     @GetMapping("/exam/{examId}/submissions")
-    public String viewSubmissions(@PathVariable Long examId, Model model) {
-        Exam exam = examService.getExamById(examId);
-        List<ExamSubmission> submissions = submissionRepository.findByExamId(examId);
+    public String viewSubmissions(@PathVariable Long examId,
+                                  @RequestParam(defaultValue = "false") boolean claimed,
+                                  Authentication authentication,
+                                  Model model) {
+        Exam exam = examService.getExamWithQuestions(examId);
+        List<ExamSubmission> submissions = claimed
+                ? gradingQueue.held(examId, authentication.getName())
+                : submissionRepository.findGradingViewByExamId(examId);
         
         model.addAttribute("exam", exam);
+        Map<Long, String[]> answers = new HashMap<>(submissions.size() * 2);
+        for (ExamSubmission submission : submissions) {
+            answers.put(submission.getId(), answerStore.get(submission));
+        }
         model.addAttribute("submissions", submissions);
+        model.addAttribute("answers", answers);
+        model.addAttribute("claimed", claimed);
+        model.addAttribute("claimSize", gradingQueue.getMaxClaim());
         
         return "admin/view-submissions";
     }
     
+    /**
+     * Lease a batch of ungraded submissions from the grading queue to this grader,
+     * then show the grader's held submissions.
+     */
+    @PostMapping("/exam/{examId}/submissions/claim")
+    public String claimBatch(@PathVariable Long examId,
+                             @RequestParam(required = false) Integer size,
+                             Authentication authentication) {
+        examService.getExamById(examId);
+        gradingQueue.claim(examId, authentication.getName(), size != null ? size : gradingQueue.getMaxClaim());
+        return "redirect:/admin/exam/" + examId + "/submissions?claimed=true";
+    }
+    
+    /**
+     * Lease a batch of ungraded submissions to the calling grader.
+     */
+    @PostMapping("/api/exam/{examId}/grading/claim")
+    @ResponseBody
+    public Map<String, Object> claimSubmissions(@PathVariable Long examId,
+                                                @RequestParam(defaultValue = "10") int size,
+                                                Authentication authentication) {
+        List<Map<String, Object>> claimed = new ArrayList<>();
+        Object expiresAt = null;
+        for (ExamSubmission submission : gradingQueue.claim(examId, authentication.getName(), size)) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("submissionId", submission.getId());
+            entry.put("studentId", submission.getStudent().getId());
+            entry.put("studentName", submission.getStudent().getName());
+            entry.put("attempt", submission.getAttempt());
+            entry.put("answers", answerStore.get(submission));
+            claimed.add(entry);
+            expiresAt = submission.getLeaseExpiresAt();
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("submissions", claimed);
+        response.put("leaseExpiresAt", expiresAt);
+        return response;
+    }
+    
+    /**
+     * Give back claimed submissions the grader will not grade.
+     */
+    @PostMapping("/api/exam/{examId}/grading/release")
+    @ResponseBody
+    public Map<String, Object> releaseSubmissions(@PathVariable Long examId,
+                                                  @RequestBody List<Long> submissionIds,
+                                                  Authentication authentication) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("released", gradingQueue.release(examId, authentication.getName(), submissionIds));
+        return response;
+    }
+    
+    /**
+     * Grading queue depth of an exam.
+     */
+    @GetMapping("/api/exam/{examId}/grading")
+    @ResponseBody
+    public Map<String, Object> gradingStatus(@PathVariable Long examId) {
+        return gradingQueue.status(examId);
+    }
+    
     /**
      * Manual grading - assign score to a student.
+     * Like bulk grading, a submission another grader holds under an unexpired lease
+     * is refused (409) so their claimed work is not overwritten; the lease is checked
+     * by the grading update itself, so a claim racing this request cannot slip in between.
      */
     @PostMapping("/exam/{examId}/grade")
     public String gradeSubmission(@PathVariable Long examId,
                                    @RequestParam Long studentId,
+                                   @RequestParam(required = false) Long submissionId,
                                    @RequestParam int score,
+                                   Authentication authentication,
                                    Model model) {
+        long phase = RequestTiming.start();
         Student student = studentService.getStudentById(studentId);
         Exam exam = examService.getExamById(examId);
+        RequestTiming.stop(RequestTiming.STUDENT, phase);
         
-        // Update the score in student entity
-        student.addExamScore(examId, score);
-        studentService.saveStudent(student);
+        // Update the graded attempt (the latest one unless a submission is named)
+        phase = RequestTiming.start();
+        Optional<ExamSubmission> graded = submissionId != null
+                ? submissionRepository.findById(submissionId)
+                        .filter(submission -> submission.getExam().getId().equals(examId)
+                                && submission.getStudent().getId().equals(studentId))
+                : submissionRepository.findByExamIdAndStudentId(examId, studentId);
+        if (graded.isPresent() && !gradingQueue.grade(graded.get().getId(), authentication.getName(), score)) {
+            ExamSubmission leased = submissionRepository.findById(graded.get().getId()).orElse(graded.get());
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Submission " + leased.getId()
+                    + " is being graded by " + leased.getLeasedBy() + " until " + leased.getLeaseExpiresAt());
+        }
         
-        // Update the submission record and mark as graded
-        submissionRepository.findByExamIdAndStudentId(examId, studentId)
-                .ifPresent(submission -> {
-                    submission.setScore(score);
-                    submission.setGraded(true);
-                    submissionRepository.save(submission);
-                });
+        // The counting score follows the exam's policy across all attempts
+        student.addExamScore(examId, graded.isPresent() ? resultService.rescore(examId, studentId) : score);
+        studentService.saveStudent(student);
+        RequestTiming.stop(RequestTiming.UPDATE, phase);
+        auditLog.gradeChange(examId, studentId, score, authentication.getName());
+        gradingQueue.recordGraded(graded.isPresent() ? 1 : 0);
         
         model.addAttribute("success", "Score updated successfully for " + student.getName());
         return "redirect:/admin/exam/" + examId + "/submissions";
     }
     
+    /**
+     * Bulk manual grading: apply many (submissionId, score) pairs in one transaction.
+     * The grading page sends its ungraded and changed scores in batches of at most
+     * {@value #MAX_GRADES_PER_REQUEST}. A batch with an out-of-range score, or for an
+     * auto-graded exam, is refused as a whole (400).
+     */
+    @PostMapping("/api/exam/{examId}/grades")
+    @ResponseBody
+    public GradingResult gradeSubmissions(@PathVariable Long examId,
+                                          @RequestBody List<SubmissionGrade> grades,
+                                          Authentication authentication) {
+        if (grades.size() > MAX_GRADES_PER_REQUEST) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_GRADES_PER_REQUEST + " grades per request");
+        }
+        examService.getExamById(examId);
+        GradingResult result;
+        try {
+            result = examService.gradeSubmissions(examId, grades, authentication.getName());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        gradingQueue.recordGraded(result.getGraded());
+        return result;
+    }
+    
+    /**
+     * Add a question to the question bank.
+     */
+    @PostMapping("/api/bank/questions")
+    @ResponseBody
+    public Map<String, Object> addBankQuestion(@RequestBody BankQuestion question) {
+        question.setId(null);
+        BankQuestion saved = bankService.addQuestion(question);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", saved.getId());
+        response.put("tags", saved.getTagList());
+        return response;
+    }
+    
+    /**
+     * Question bank tags with the number of questions carrying each.
+     */
+    @GetMapping("/api/bank/tags")
+    @ResponseBody
+    public Map<String, Integer> getBankTags() {
+        return bankService.getTagCounts();
+    }
+    
+    /**
+     * Preview the question ids a blueprint draws for a given seed.
+     */
+    @PostMapping("/api/bank/sample")
+    @ResponseBody
+    public Map<Integer, long[]> sampleFromBank(@RequestBody PaperBlueprint blueprint,
+                                               @RequestParam(required = false) Long seed) {
+        return bankService.sample(blueprint, seed != null ? seed : ThreadLocalRandom.current().nextLong());
+    }
+    
+    /**
+     * Create an exam whose questions are drawn from the bank by tag.
+     */
+    @PostMapping("/api/bank/generate")
+    @ResponseBody
+    public Map<String, Object> generateExamFromBank(@RequestBody PaperBlueprint blueprint,
+                                                    @RequestParam(required = false) Long seed) {
+        Exam exam = bankService.generateExam(blueprint,
+                seed != null ? seed : ThreadLocalRandom.current().nextLong());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("examId", exam.getId());
+        response.put("questionCount", exam.getQuestions().size());
+        return response;
+    }
+    
+    /**
+     * Full-text search over exam titles and questions, best matches first.
+     * The last word also matches as a prefix, so the endpoint can back a typeahead.
+     */
+    @GetMapping("/api/search")
+    @ResponseBody
+    public List<SearchHit> search(@RequestParam String q,
+                                  @RequestParam(defaultValue = "10") int limit) {
+        return searchIndex.search(q, Math.min(Math.max(limit, 1), 50));
+    }
+    
+    /**
+     * Re-evaluate stored submissions of an auto-graded exam, in the grading bulkhead.
+     */
+    @PostMapping("/exam/{examId}/regrade")
+    @ResponseBody
+    public Map<String, Object> regradeExam(@PathVariable Long examId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("examId", examId);
+        response.put("changed", bulkheads.grading().call(() -> examService.regradeSubmissions(examId)));
+        return response;
+    }
+    
+    /**
+     * Start a flight recording with the given JDK settings ("default" or "profile").
+     */
+    @PostMapping("/api/jfr/start")
+    @ResponseBody
+    public Map<String, Object> startRecording(@RequestParam(defaultValue = "default") String settings)
+            throws IOException, ParseException {
+        return jfrRecording.start(settings);
+    }
+    
+    @PostMapping("/api/jfr/stop")
+    @ResponseBody
+    public Map<String, Object> stopRecording() {
+        return jfrRecording.stop();
+    }
+    
+    /**
+     * Dump the current recording to a file in the server's dump directory.
+     */
+    @PostMapping("/api/jfr/dump")
+    @ResponseBody
+    public Map<String, Object> dumpRecording() throws IOException {
+        Map<String, Object> response = jfrRecording.status();
+        response.put("file", jfrRecording.dump().toString());
+        return response;
+    }
+    
+    @GetMapping("/api/jfr")
+    @ResponseBody
+    public Map<String, Object> recordingStatus() {
+        return jfrRecording.status();
+    }
+    
+    /**
+     * Hibernate statistics and JDBC statement shapes, most expensive first.
+     */
+    @GetMapping("/api/sql")
+    @ResponseBody
+    public Map<String, Object> sqlStatistics(@RequestParam(defaultValue = "20") int limit) {
+        return sqlStatistics.report(limit);
+    }
+    
+    /**
+     * Recent statements slower than the configured threshold, newest first.
+     */
+    @GetMapping("/api/sql/slow")
+    @ResponseBody
+    public List<Map<String, Object>> slowStatements() {
+        return sqlStatistics.slowStatements();
+    }
+    
+    @PostMapping("/api/sql/reset")
+    @ResponseBody
+    public Map<String, Object> resetSqlStatistics() {
+        sqlStatistics.reset();
+        return sqlStatistics.report(0);
+    }
+    
     private String arrayToJson(String[] arr) {
         if (arr == null || arr.length == 0) return "[]";
         StringBuilder sb = new StringBuilder("[");
@@ -2,6 +2,7 @@ package com.examsystem.controller;
 
 import com.examsystem.entity.Student;
 import com.examsystem.model.LoginRequest;
+import com.examsystem.monitoring.AuditLog;
 import com.examsystem.security.JwtUtil;
 import com.examsystem.service.IStudentService;
 import org.springframework.stereotype.Controller;
@@ -20,10 +21,12 @@ public class AuthController {
     
     private final IStudentService studentService;
     private final JwtUtil jwtUtil;
+    private final AuditLog auditLog;
     
-    public AuthController(IStudentService studentService, JwtUtil jwtUtil) {
+    public AuthController(IStudentService studentService, JwtUtil jwtUtil, AuditLog auditLog) {
         this.studentService = studentService;
         this.jwtUtil = jwtUtil;
+        this.auditLog = auditLog;
     }
     
     @GetMapping("/login")
@@ -59,7 +62,9 @@ public class AuthController {
     public Map<String, String> login(@RequestBody LoginRequest request) {
         Map<String, String> response = new HashMap<>();
         
-        if (studentService.authenticate(request.getUsername(), request.getPassword())) {
+        boolean authenticated = studentService.authenticate(request.getUsername(), request.getPassword());
+        auditLog.login(request.getUsername(), authenticated, "api");
+        if (authenticated) {
             Student student = studentService.findByUsername(request.getUsername());
             String token = jwtUtil.generateToken(student.getUsername(), student.getRole().name());
             
@@ -2,20 +2,38 @@ package com.examsystem.controller;
 
 import com.examsystem.entity.Exam;
 import com.examsystem.entity.ExamSubmission;
-import com.examsystem.entity.Question;
 import com.examsystem.entity.Student;
+import com.examsystem.exception.ExamNotFoundException;
+import com.examsystem.model.AdmissionStatus;
+import com.examsystem.model.ExamPaper;
 import com.examsystem.model.ExamSubmissionRequest;
+import com.examsystem.model.PaperOutline;
+import com.examsystem.model.PaperSection;
+import com.examsystem.monitoring.RequestTiming;
 import com.examsystem.repository.ExamSubmissionRepository;
+import com.examsystem.service.AnswerStore;
+import com.examsystem.service.ExamAdmissionService;
+import com.examsystem.service.ExamPaperService;
 import com.examsystem.service.IExamService;
 import com.examsystem.service.IStudentService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Student Controller.
@@ -29,12 +47,32 @@ public class StudentController {
     private final IExamService examService;
     private final IStudentService studentService;
     private final ExamSubmissionRepository submissionRepository;
+    private final ExamPaperService paperService;
+    private final ExamAdmissionService admission;
+    private final AnswerStore answerStore;
+    private final int pagedThreshold;
+    private final boolean autosaveEnabled;
+    
+    private static final String AUTOSAVE_ATTRIBUTE = "autosave:";
+    // Version of the paper a response was rendered from, echoed back on submission
+    static final String PAPER_VERSION_HEADER = "X-Paper-Version";
     
     public StudentController(IExamService examService, IStudentService studentService, 
-                           ExamSubmissionRepository submissionRepository) {
+                           ExamSubmissionRepository submissionRepository,
+                           ExamPaperService paperService,
+                           ExamAdmissionService admission,
+                           AnswerStore answerStore,
+                           @Value("${exam.paper.paged-threshold:100}") int pagedThreshold,
+                           @Value("${exam.cluster.enabled:false}") boolean cluster) {
         this.examService = examService;
         this.studentService = studentService;
         this.submissionRepository = submissionRepository;
+        this.paperService = paperService;
+        this.admission = admission;
+        this.answerStore = answerStore;
+        this.pagedThreshold = pagedThreshold;
+        // Drafts are kept in this node's HTTP session, which other cluster nodes do not see
+        this.autosaveEnabled = !cluster;
     }
     
     /**
@@ -46,10 +84,11 @@ public class StudentController {
         List<Exam> exams = examService.getAllExams();
         
         // Get all previous submissions for this student
-        List<ExamSubmission> previousSubmissions = submissionRepository.findByStudentId(student.getId());
+        List<ExamSubmission> previousSubmissions = submissionRepository.findDashboardViewByStudentId(student.getId());
         
         model.addAttribute("student", student);
         model.addAttribute("exams", exams);
+        model.addAttribute("questionCounts", examService.getQuestionCounts());
         model.addAttribute("totalExams", exams.size());
         model.addAttribute("previousSubmissions", previousSubmissions);
         model.addAttribute("totalAttempts", previousSubmissions.size());
@@ -58,35 +97,106 @@ public class StudentController {
     }
     
     /**
-     * Start exam - shows exam questions.
+     * Start exam - shows the exam shell; questions are loaded from the pre-rendered paper.
+     * Large papers are delivered one section at a time unless {@code paged=false} is requested.
+     * Students beyond the exam's admission rate are sent to the waiting room; the exam
+     * time counts from admission.
      */
     @GetMapping("/exam/{examId}")
-    public String startExam(@PathVariable Long examId, Model model, Authentication auth) {
-        Student student = studentService.findByUsername(auth.getName());
-        Exam exam = examService.getExamById(examId);
+    public String startExam(@PathVariable Long examId,
+                            @RequestParam(required = false) Boolean paged,
+                            Authentication auth,
+                            Model model) {
+        long started = RequestTiming.start();
+        PaperOutline outline = startableOutline(examId);
+        AdmissionStatus status = admission.enter(examId, auth.getName());
+        if (!status.isAdmitted()) {
+            return "redirect:/student/exam/" + examId + "/waiting";
+        }
         
-        model.addAttribute("student", student);
-        model.addAttribute("exam", exam);
-        model.addAttribute("questions", exam.getQuestions());
+        boolean sectionPaged = paged != null
+                ? paged && outline.getSectionCount() > 0
+                : outline.getQuestionCount() > pagedThreshold && outline.getSectionCount() > 1;
+        long elapsed = (System.currentTimeMillis() - status.getAdmittedAt()) / 1000;
         
+        model.addAttribute("paper", outline);
+        model.addAttribute("paged", sectionPaged);
+        model.addAttribute("autosave", autosaveEnabled);
+        model.addAttribute("remainingSeconds", Math.max(0, outline.getDurationMinutes() * 60L - elapsed));
+        // Time in the server so far, login and session lookup included when the request is timed
+        long latency = RequestTiming.isActive() ? RequestTiming.elapsedNanos() : System.nanoTime() - started;
+        admission.recordStart(examId, latency);
         return "student/exam";
     }
     
+    /**
+     * Waiting room page; it only polls the queue endpoint, so waiting costs no database work.
+     */
+    @GetMapping("/exam/{examId}/waiting")
+    public String waitingRoom(@PathVariable Long examId, Authentication auth, Model model) {
+        startableOutline(examId);
+        AdmissionStatus status = admission.poll(examId, auth.getName());
+        if (status.isAdmitted()) {
+            return "redirect:/student/exam/" + examId;
+        }
+        model.addAttribute("examId", examId);
+        model.addAttribute("status", status);
+        return "student/waiting";
+    }
+    
+    /**
+     * Queue position in the exam's waiting room, from memory once the exam's outline is cached.
+     */
+    @GetMapping("/api/exam/{examId}/queue")
+    @ResponseBody
+    public AdmissionStatus queuePosition(@PathVariable Long examId, Authentication auth) {
+        startableOutline(examId);
+        return admission.poll(examId, auth.getName());
+    }
+    
+    /**
+     * Outline of an exam that exists and has questions; waiting rooms are only opened
+     * for these, so made-up exam ids cannot fill the admission service with rooms.
+     */
+    private PaperOutline startableOutline(Long examId) {
+        PaperOutline outline;
+        try {
+            outline = paperService.getOutline(examId);
+        } catch (ExamNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+        if (outline.getQuestionCount() == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Exam " + examId + " has no questions yet");
+        }
+        return outline;
+    }
+    
     /**
      * Submit exam - processes answers and shows results.
      * Demonstrates synchronized submission (concurrency).
+     * Answers are in question id order unless {@code servedOrder=true} says they
+     * follow the student's shuffled paper, of the {@code paperVersion} it was served in.
      */
     @PostMapping("/submit")
     public String submitExam(@RequestParam Long examId,
                             @RequestParam String[] answers,
+                            @RequestParam(defaultValue = "false") boolean servedOrder,
+                            @RequestParam(required = false) Integer paperVersion,
                             Authentication auth,
+                            HttpSession session,
                             Model model) {
+        long phase = RequestTiming.start();
         Student student = studentService.findByUsername(auth.getName());
+        RequestTiming.stop(RequestTiming.STUDENT, phase);
         
         // Thread-safe submission
-        int score = examService.submitExam(examId, student, answers);
+        int score = examService.submitExam(examId, student, answers, servedOrder, paperVersion);
+        admission.finish(examId, auth.getName());
+        session.removeAttribute(AUTOSAVE_ATTRIBUTE + examId);
         
+        phase = RequestTiming.start();
         Exam exam = examService.getExamById(examId);
+        RequestTiming.stop(RequestTiming.EXAM, phase);
         
         // Get the submission ID for review link
         var submission = submissionRepository.findByExamIdAndStudentId(examId, student.getId())
@@ -104,33 +214,129 @@ public class StudentController {
     
     /**
      * REST API to get exam questions as JSON.
+     * Served from the pre-rendered paper; answers If-None-Match without a database lookup.
      */
     @GetMapping("/api/exam/{examId}/questions")
-    @ResponseBody
-    public Map<String, Object> getExamQuestions(@PathVariable Long examId) {
-        Exam exam = examService.getExamById(examId);
-        List<Question> questions = exam.getQuestions();
+    public ResponseEntity<byte[]> getExamQuestions(@PathVariable Long examId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                   Authentication auth) {
+        ExamPaper cached = paperService.getCachedPaper(examId);
+        if (cached != null) {
+            String etag = paperService.personalEtag(cached.getJsonEtag(), auth.getName());
+            if (etagMatches(ifNoneMatch, etag)) {
+                return withPaperVersion(notModified(etag), cached.getVersion());
+            }
+        }
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("examId", exam.getId());
-        response.put("title", exam.getTitle());
-        response.put("type", exam.getType());
-        response.put("duration", exam.getDurationMinutes());
-        response.put("totalMarks", exam.getTotalMarks());
-        response.put("questions", questions);
+        ExamPaper paper = cached != null ? cached : paperService.getPaper(examId);
+        return withPaperVersion(personalBody(paper.getJsonEtag(), paper.getJson(), paper.getJsonGzip(),
+                studentId -> paperService.personalJson(paper, studentId),
+                MediaType.APPLICATION_JSON, ifNoneMatch, acceptEncoding, auth), paper.getVersion());
+    }
+    
+    /**
+     * Pre-rendered HTML fragment with the exam's question cards.
+     */
+    @GetMapping("/api/exam/{examId}/paper")
+    public ResponseEntity<byte[]> getExamPaperHtml(@PathVariable Long examId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                   Authentication auth) {
+        ExamPaper cached = paperService.getCachedPaper(examId);
+        if (cached != null) {
+            String etag = paperService.personalEtag(cached.getHtmlEtag(), auth.getName());
+            if (etagMatches(ifNoneMatch, etag)) {
+                return withPaperVersion(notModified(etag), cached.getVersion());
+            }
+        }
         
-        return response;
+        ExamPaper paper = cached != null ? cached : paperService.getPaper(examId);
+        return withPaperVersion(personalBody(paper.getHtmlEtag(), paper.getHtml(), paper.getHtmlGzip(),
+                studentId -> paperService.personalHtml(paper, studentId),
+                new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8), ifNoneMatch, acceptEncoding, auth),
+                paper.getVersion());
+    }
+    
+    /**
+     * Section index of an exam paper: section numbers and their question ids.
+     */
+    @GetMapping("/api/exam/{examId}/sections")
+    public ResponseEntity<byte[]> getExamSections(@PathVariable Long examId,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PaperOutline cached = paperService.getCachedOutline(examId);
+        if (cached != null && etagMatches(ifNoneMatch, cached.getJsonEtag())) {
+            return notModified(cached.getJsonEtag());
+        }
+        
+        PaperOutline outline = cached != null ? cached : paperService.getOutline(examId);
+        return paperBody(outline.getJsonEtag(), outline.getJson(), null,
+                MediaType.APPLICATION_JSON, ifNoneMatch, null);
+    }
+    
+    /**
+     * One section of an exam paper as JSON.
+     */
+    @GetMapping("/api/exam/{examId}/sections/{section}")
+    public ResponseEntity<byte[]> getExamSection(@PathVariable Long examId,
+                                                 @PathVariable int section,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                 Authentication auth) {
+        PaperSection cached = paperService.getCachedSection(examId, section);
+        if (cached != null) {
+            String etag = paperService.personalEtag(cached.getJsonEtag(), auth.getName());
+            if (etagMatches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+        }
+        
+        PaperSection page = cached != null ? cached : paperService.getSection(examId, section);
+        PaperOutline outline = paperService.getOutline(examId);
+        return personalBody(page.getJsonEtag(), page.getJson(), page.getJsonGzip(),
+                studentId -> paperService.personalSectionJson(page, outline, studentId),
+                MediaType.APPLICATION_JSON, ifNoneMatch, acceptEncoding, auth);
+    }
+    
+    /**
+     * One section of an exam paper as an HTML fragment.
+     */
+    @GetMapping("/api/exam/{examId}/sections/{section}/paper")
+    public ResponseEntity<byte[]> getExamSectionHtml(@PathVariable Long examId,
+                                                     @PathVariable int section,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                     Authentication auth) {
+        PaperSection cached = paperService.getCachedSection(examId, section);
+        if (cached != null) {
+            String etag = paperService.personalEtag(cached.getHtmlEtag(), auth.getName());
+            if (etagMatches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+        }
+        
+        PaperSection page = cached != null ? cached : paperService.getSection(examId, section);
+        PaperOutline outline = paperService.getOutline(examId);
+        return personalBody(page.getHtmlEtag(), page.getHtml(), page.getHtmlGzip(),
+                studentId -> paperService.personalSectionHtml(page, outline, studentId),
+                new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8), ifNoneMatch, acceptEncoding, auth);
     }
     
     /**
-     * REST API for exam submission.
+     * REST API for exam submission; answers follow the same order rules as the form.
      */
     @PostMapping("/api/submit")
     @ResponseBody
     public Map<String, Object> submitExamApi(@RequestBody ExamSubmissionRequest request,
-                                             Authentication auth) {
+                                             Authentication auth,
+                                             HttpSession session) {
+        long phase = RequestTiming.start();
         Student student = studentService.findByUsername(auth.getName());
-        int score = examService.submitExam(request.getExamId(), student, request.getAnswers());
+        RequestTiming.stop(RequestTiming.STUDENT, phase);
+        int score = examService.submitExam(request.getExamId(), student, request.getAnswers(),
+                request.isServedOrder(), request.getPaperVersion());
+        admission.finish(request.getExamId(), auth.getName());
+        session.removeAttribute(AUTOSAVE_ATTRIBUTE + request.getExamId());
         
         Map<String, Object> response = new HashMap<>();
         response.put("score", score);
@@ -140,6 +346,38 @@ public class StudentController {
         return response;
     }
     
+    /**
+     * Autosave in-progress answers, in question id order; the draft lives in the HTTP
+     * session until submission. Sessions are local to one node, so in cluster mode
+     * drafts would be lost whenever a request reaches another node, and the exam
+     * page does not auto-save there.
+     */
+    @PostMapping("/api/exam/{examId}/autosave")
+    @ResponseBody
+    public Map<String, Object> autosave(@PathVariable Long examId,
+                                        @RequestBody ExamSubmissionRequest request,
+                                        HttpSession session) {
+        String[] answers = request.getAnswers() != null ? request.getAnswers() : new String[0];
+        session.setAttribute(AUTOSAVE_ATTRIBUTE + examId, answers);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("saved", answers.length);
+        response.put("timestamp", System.currentTimeMillis());
+        return response;
+    }
+    
+    /**
+     * The autosaved draft, for restoring answers when the exam page is reopened; empty if none.
+     */
+    @GetMapping("/api/exam/{examId}/autosave")
+    @ResponseBody
+    public Map<String, Object> draft(@PathVariable Long examId, HttpSession session) {
+        Object answers = session.getAttribute(AUTOSAVE_ATTRIBUTE + examId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("answers", answers != null ? answers : new String[0]);
+        return response;
+    }
+    
     /**
      * Review previous exam submission - shows questions, student's answers, and correct answers.
      */
@@ -147,8 +385,8 @@ public class StudentController {
     public String reviewSubmission(@PathVariable Long submissionId, Model model, Authentication auth) {
         Student student = studentService.findByUsername(auth.getName());
         
-        // Get the submission
-        var submission = submissionRepository.findById(submissionId)
+        // Get the submission together with its exam and questions
+        var submission = submissionRepository.findReviewViewById(submissionId)
                 .orElseThrow(() -> new RuntimeException("Submission not found"));
         
         // Verify this submission belongs to the logged-in student
@@ -157,7 +395,7 @@ public class StudentController {
         }
         
         Exam exam = submission.getExam();
-        String[] studentAnswers = submission.getAnswers();
+        String[] studentAnswers = answerStore.get(submission);
         
         model.addAttribute("student", student);
         model.addAttribute("exam", exam);
@@ -167,4 +405,119 @@ public class StudentController {
         
         return "student/review-answers";
     }
+    
+    private ResponseEntity<byte[]> paperBody(String etag, byte[] identity, byte[] gzip, MediaType type,
+                                             String ifNoneMatch, String acceptEncoding) {
+        if (etagMatches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        
+        boolean useGzip = gzip != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(type)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (useGzip) {
+            return response.eTag(gzipEtag(etag))
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(gzip);
+        }
+        return response.eTag(etag).body(identity);
+    }
+    
+    /**
+     * Serve the shared bytes, or the student's own shuffled copy when shuffling is on.
+     * The student row is only looked up once the personal tag did not match.
+     */
+    private ResponseEntity<byte[]> personalBody(String etag, byte[] identity, byte[] gzip,
+                                                Function<Long, byte[]> render, MediaType type,
+                                                String ifNoneMatch, String acceptEncoding,
+                                                Authentication auth) {
+        if (!paperService.isShuffleEnabled()) {
+            return paperBody(etag, identity, gzip, type, ifNoneMatch, acceptEncoding);
+        }
+        
+        String personalEtag = paperService.personalEtag(etag, auth.getName());
+        if (etagMatches(ifNoneMatch, personalEtag)) {
+            return notModified(personalEtag);
+        }
+        
+        Student student = studentService.findByUsername(auth.getName());
+        byte[] personal = render.apply(student.getId());
+        boolean useGzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        return paperBody(personalEtag, personal, useGzip ? ExamPaperService.gzip(personal) : null,
+                type, ifNoneMatch, acceptEncoding);
+    }
+    
+    /**
+     * Tell the client which paper version it was served, for it to send back with served-order answers.
+     */
+    private static ResponseEntity<byte[]> withPaperVersion(ResponseEntity<byte[]> response, int version) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.set(PAPER_VERSION_HEADER, Integer.toString(version));
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+    
+    private ResponseEntity<byte[]> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+    
+    /**
+     * Whether If-None-Match lists the tag, its gzip variant, or {@code *}. The header is a
+     * comma-separated list of entity tags, each compared whole (weakly, so {@code W/} is
+     * ignored); a tag that merely contains ours, or is contained in it, does not match.
+     * Parsed in place, so revalidation allocates nothing.
+     */
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        int length = ifNoneMatch.length();
+        int i = 0;
+        while (i < length) {
+            char c = ifNoneMatch.charAt(i);
+            if (c == ',' || c == ' ' || c == '\t') {
+                i++;
+                continue;
+            }
+            if (c == '*') {
+                return true;
+            }
+            int start = ifNoneMatch.startsWith("W/", i) ? i + 2 : i;
+            int end;
+            if (start < length && ifNoneMatch.charAt(start) == '"') {
+                end = ifNoneMatch.indexOf('"', start + 1);
+                end = end < 0 ? length : end + 1;
+            } else {
+                // Not a quoted tag; skip to the next list member
+                end = ifNoneMatch.indexOf(',', start);
+                end = end < 0 ? length : end;
+            }
+            if (sameTag(ifNoneMatch, start, end, etag)) {
+                return true;
+            }
+            i = end;
+        }
+        return false;
+    }
+    
+    private static boolean sameTag(String header, int start, int end, String etag) {
+        int length = end - start;
+        if (length == etag.length()) {
+            return header.regionMatches(start, etag, 0, length);
+        }
+        // The gzip variant: the tag with "-gz" before its closing quote
+        return length == etag.length() + 3
+                && header.regionMatches(start, etag, 0, etag.length() - 1)
+                && header.regionMatches(end - 4, "-gz\"", 0, 4);
+    }
+    
+    private static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
 }
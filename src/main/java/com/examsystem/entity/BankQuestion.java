@@ -0,0 +1,86 @@
+package com.examsystem.entity;
+
+import com.examsystem.model.ExamType;
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reusable question held in the question bank, independent of any exam.
+ * Carries tags (topic, difficulty, type and free-form labels) that are indexed
+ * in memory so exam papers can be drawn from tag predicates.
+ */
+@Entity
+@Table(name = "question_bank")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BankQuestion implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 1000)
+    private String text;
+    
+    @Column(length = 2000)
+    private String optionsJson;
+    
+    @Column(nullable = false)
+    private String correctAnswer;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExamType type;
+    
+    @Column(nullable = false)
+    private String topic;
+    
+    @Column(nullable = false)
+    private String difficulty;
+    
+    @Column(length = 500)
+    private String tags; // Extra labels, comma separated
+    
+    /**
+     * All tags of a question in their indexed form, e.g. {@code topic:oop}.
+     */
+    public List<String> getTagList() {
+        return tagList(type, topic, difficulty, tags);
+    }
+    
+    /**
+     * Tags built from column values; shared with the index loader's projection.
+     */
+    public static List<String> tagList(ExamType type, String topic, String difficulty, String tags) {
+        List<String> list = new ArrayList<>();
+        list.add("type:" + type.name().toLowerCase());
+        list.add("topic:" + topic.trim().toLowerCase());
+        list.add("difficulty:" + difficulty.trim().toLowerCase());
+        if (tags != null) {
+            for (String tag : tags.split(",")) {
+                if (!tag.isBlank()) {
+                    list.add(tag.trim().toLowerCase());
+                }
+            }
+        }
+        return list;
+    }
+    
+    /**
+     * Copy into an exam question, leaving the bank entry untouched.
+     */
+    public Question toQuestion() {
+        Question question = new Question();
+        question.setText(text);
+        question.setOptionsJson(optionsJson);
+        question.setCorrectAnswer(correctAnswer);
+        return question;
+    }
+}
@@ -0,0 +1,41 @@
+package com.examsystem.entity;
+
+import com.examsystem.model.CacheRegion;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification that a node changed data other nodes may hold in a local cache.
+ * Rows are append-only; every node remembers the highest id it has applied and
+ * polls for newer rows, and rows older than the retention period are deleted.
+ */
+@Entity
+@Table(name = "cache_changes", indexes = @Index(name = "idx_cache_change_created", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CacheRegion region;
+    
+    // Null invalidates the whole region
+    private Long entityId;
+    
+    private Long secondaryId;
+    
+    // Node that made the change; it has already updated its own caches
+    @Column(nullable = false, length = 64)
+    private String node;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
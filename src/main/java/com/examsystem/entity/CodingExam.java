@@ -35,7 +35,7 @@ public class CodingExam extends Exam {
     
     @Override
     public String toString() {
-        return String.format("CodingExam[id=%d, title='%s', questions=%d, manualGrading=true]",
-                           getId(), getTitle(), getQuestions().size());
+        return String.format("CodingExam[id=%d, title='%s', questions=%s, manualGrading=true]",
+                           getId(), getTitle(), questionCountText());
     }
 }
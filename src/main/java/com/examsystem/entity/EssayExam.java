@@ -42,7 +42,7 @@ public class EssayExam extends Exam {
     
     @Override
     public String toString() {
-        return String.format("EssayExam[id=%d, title='%s', questions=%d, manualGading=true]",
-                           getId(), getTitle(), getQuestions().size());
+        return String.format("EssayExam[id=%d, title='%s', questions=%s, manualGading=true]",
+                           getId(), getTitle(), questionCountText());
     }
 }
@@ -1,25 +1,32 @@
 package com.examsystem.entity;
 
 import com.examsystem.model.ExamType;
+import com.examsystem.model.ScorePolicy;
 import com.examsystem.strategy.EvaluationStrategy;
+import com.examsystem.utils.PaperShuffle;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.DynamicUpdate;
 import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstract Exam entity demonstrating Abstraction and Inheritance.
  * Base class for different exam types (MCQ, Coding, Essay).
  * Uses Template Method pattern for evaluation.
  * Demonstrates: Abstract methods, Polymorphism, Reflection.
+ * The result counters are incremented in place after submissions commit, so
+ * updates of an exam only write the columns they changed.
  */
 @Entity
 @Table(name = "exams")
+@DynamicUpdate
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "exam_type", discriminatorType = DiscriminatorType.STRING)
 @Data
@@ -29,6 +36,9 @@ public abstract class Exam implements Serializable {
     
     private static final long serialVersionUID = 1L;
     
+    /** Score at or above which a student's result counts as passed in the counters. */
+    public static final int PASS_MARK = 50;
+    
     // Static counter for exam IDs (demonstrates static fields in OOP)
     private static int examCounter = 0;
     
@@ -55,21 +65,50 @@ public abstract class Exam implements Serializable {
     @Column
     private int durationMinutes = 30;
     
-    @OneToMany(mappedBy = "exam", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<Question> questions = new ArrayList<>();
+    // Incremented whenever the questions change; identifies the rendered paper
+    @Column
+    private int paperVersion = 0;
     
-    // Thread-safe map for concurrent submissions (demonstrates concurrency)
-    @Transient
-    private Map<Long, Integer> studentScores = new ConcurrentHashMap<>();
+    @Column(nullable = false)
+    private int maxAttempts = 1;
     
-    // Store student answers for manual grading
-    @Transient
-    private Map<Long, String[]> studentAnswers = new ConcurrentHashMap<>();
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ScorePolicy scorePolicy = ScorePolicy.BEST;
+    
+    // Result counters, maintained through ExamCounters; see ExamRepository.addToResultCounters
+    @Column(nullable = false)
+    private long submissionCount;
+    
+    @Column(nullable = false)
+    private int resultCount;
+    
+    @Column(nullable = false)
+    private long scoreTotal;
+    
+    @Column(nullable = false)
+    private int passedCount;
+    
+    // Distinct MCQ option texts, append-only; submissions store codes into it, see OptionDictionaries
+    @Column(columnDefinition = "TEXT")
+    @ToString.Exclude
+    private String optionDictionary;
+    
+    // Fixed order so the served paper and the grading loop see the same sequence
+    @OneToMany(mappedBy = "exam", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OrderBy("id ASC")
+    private List<Question> questions = new ArrayList<>();
     
     // Strategy pattern - injected evaluation strategy
     @Transient
     private EvaluationStrategy evaluationStrategy;
     
+    // Questions grouped by section, built once on first lookup
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Map<Integer, List<Question>> sectionIndex;
+    
     /**
      * Constructor increments static counter.
      */
@@ -87,6 +126,15 @@ public abstract class Exam implements Serializable {
      */
     public abstract int evaluate(String[] answers);
     
+    /**
+     * Evaluate answers given in a student's served question order,
+     * where {@code servedOrder[i]} is the canonical index of the i-th served question.
+     * Subclasses may override to grade without building the canonical array.
+     */
+    public int evaluate(String[] answers, int[] servedOrder) {
+        return evaluate(servedOrder != null ? PaperShuffle.toCanonical(answers, servedOrder) : answers);
+    }
+    
     /**
      * Template method using Strategy pattern.
      * Demonstrates polymorphic behavior.
@@ -98,26 +146,37 @@ public abstract class Exam implements Serializable {
         return evaluate(answers);
     }
     
+    /**
+     * Average counting score over all students with a result, from the counters.
+     */
+    public double averageScore() {
+        return resultCount > 0 ? (double) scoreTotal / resultCount : 0.0;
+    }
+    
+    /**
+     * Percentage of students with a result at or above {@link #PASS_MARK}, from the counters.
+     */
+    public double passRate() {
+        return resultCount > 0 ? passedCount * 100.0 / resultCount : 0.0;
+    }
+    
     /**
      * Synchronized method for concurrent exam submissions.
      * Demonstrates thread-safety in OOP.
      * Note: Actual database persistence happens in the service layer.
      */
     public synchronized int submit(Student student, String[] answers) {
-        int score = evaluate(answers);
-        studentScores.put(student.getId(), score);
-        studentAnswers.put(student.getId(), answers); // Store answers in memory
-        student.addExamScore(this.id, score);
-        System.out.println("[CONCURRENT] Student " + student.getName() + 
-                         " submitted exam. Score: " + score);
-        return score;
+        return submit(student, answers, null);
     }
     
     /**
-     * Get student's answers for this exam from memory.
+     * Grade answers given in the student's served order and record the score on the student.
+     * Keeping the answers is up to the caller.
      */
-    public String[] getStudentAnswers(Long studentId) {
-        return studentAnswers.getOrDefault(studentId, new String[0]);
+    public synchronized int submit(Student student, String[] answers, int[] servedOrder) {
+        int score = evaluate(answers, servedOrder);
+        student.addExamScore(this.id, score);
+        return score;
     }
     
     /**
@@ -127,15 +186,40 @@ public abstract class Exam implements Serializable {
         question.setSection(section);
         question.setExam(this);
         this.questions.add(question);
+        this.sectionIndex = null;
     }
     
     /**
      * Get questions for a specific section.
+     * Served from a section index that is rebuilt only when the question list changes size.
      */
     public List<Question> getQuestionsForSection(int section) {
-        return questions.stream()
-                .filter(q -> q.getSection() == section)
-                .toList();
+        Map<Integer, List<Question>> index = sectionIndex;
+        if (index == null || countIndexed(index) != questions.size()) {
+            index = new HashMap<>();
+            for (Question question : questions) {
+                index.computeIfAbsent(question.getSection(), k -> new ArrayList<>()).add(question);
+            }
+            index.replaceAll((k, list) -> List.copyOf(list));
+            sectionIndex = index;
+        }
+        return index.getOrDefault(section, List.of());
+    }
+    
+    /**
+     * Question count for {@code toString}; "?" while the questions are an unloaded lazy
+     * collection, so describing a detached exam never needs the database.
+     */
+    protected String questionCountText() {
+        return Hibernate.isInitialized(questions) ? String.valueOf(questions.size()) : "?";
+    }
+    
+    private static int countIndexed(Map<Integer, List<Question>> index) {
+        int count = 0;
+        for (List<Question> sectionQuestions : index.values()) {
+            count += sectionQuestions.size();
+        }
+        return count;
     }
     
     /**
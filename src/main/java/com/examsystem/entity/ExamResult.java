@@ -0,0 +1,82 @@
+package com.examsystem.entity;
+
+import com.examsystem.model.ScorePolicy;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One student's standing in one exam across all of their attempts.
+ * Maintained incrementally as attempts are submitted and graded, so score
+ * lookups and exam analytics read one row instead of scanning submissions.
+ * Concurrent updates of the same row are caught by the version column.
+ */
+@Entity
+@Table(name = "exam_results", uniqueConstraints =
+        @UniqueConstraint(name = "uk_result_exam_student", columnNames = {"exam_id", "student_id"}),
+        indexes = @Index(name = "idx_result_student", columnList = "student_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExamResult {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "exam_id", nullable = false)
+    @ToString.Exclude
+    private Exam exam;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    @ToString.Exclude
+    private Student student;
+    
+    // Highest attempt number recorded so far
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(nullable = false)
+    private int bestScore;
+    
+    @Column(nullable = false)
+    private int latestScore;
+    
+    // The score that counts under the exam's policy
+    @Column(nullable = false)
+    private int score;
+    
+    @Version
+    private long version;
+    
+    public ExamResult(Exam exam, Student student) {
+        this.exam = exam;
+        this.student = student;
+    }
+    
+    /**
+     * Record a newly submitted attempt.
+     */
+    public void addAttempt(int attempt, int attemptScore, ScorePolicy policy) {
+        if (attempts == 0 || attemptScore > bestScore) {
+            bestScore = attemptScore;
+        }
+        if (attempt >= attempts) {
+            latestScore = attemptScore;
+            attempts = attempt;
+        }
+        score = policy.effective(bestScore, latestScore);
+    }
+    
+    /**
+     * Replace the aggregates after attempts were regraded.
+     */
+    public void rescore(int best, int latest, int lastAttempt, ScorePolicy policy) {
+        bestScore = best;
+        latestScore = latest;
+        attempts = lastAttempt;
+        score = policy.effective(best, latest);
+    }
+}
@@ -1,20 +1,57 @@
 package com.examsystem.entity;
 
+import com.examsystem.utils.OptionDictionary;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 /**
  * Entity to store student exam submissions with answers.
  * Persists to database to survive application restarts.
+ * Named entity graphs describe the fetch plan of each page that lists submissions,
+ * so the lazy associations are loaded in the same statement instead of one by one.
+ * A student may submit an exam several times; each attempt is its own row,
+ * numbered from 1. The unique (exam, student, attempt) index keeps two
+ * concurrent submissions from taking the same attempt number and also serves
+ * the exam-and-student lookups (review, grading, latest attempt). Submissions
+ * are further looked up by student (dashboard) and by exam and grading state.
+ * MCQ answers are stored as codes into the exam's option dictionary;
+ * answers that are not options (essays, code) are stored as JSON.
+ * Ungraded submissions of manually graded exams are handed out to graders under
+ * time-limited leases; the (exam, graded) index also serves the lease queries.
  */
 @Entity
-@Table(name = "exam_submissions")
+@Table(name = "exam_submissions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_submission_attempt",
+                columnNames = {"exam_id", "student_id", "attempt"}),
+        indexes = {
+                @Index(name = "idx_submission_student_exam", columnList = "student_id, exam_id"),
+                @Index(name = "idx_submission_exam_graded", columnList = "exam_id, graded")
+        })
+@NamedEntityGraph(name = ExamSubmission.GRAPH_WITH_STUDENT,
+        attributeNodes = @NamedAttributeNode("student"))
+@NamedEntityGraph(name = ExamSubmission.GRAPH_WITH_EXAM,
+        attributeNodes = @NamedAttributeNode("exam"))
+@NamedEntityGraph(name = ExamSubmission.GRAPH_WITH_EXAM_QUESTIONS,
+        attributeNodes = @NamedAttributeNode(value = "exam", subgraph = "exam.questions"),
+        subgraphs = @NamedSubgraph(name = "exam.questions",
+                attributeNodes = @NamedAttributeNode("questions")))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class ExamSubmission {
     
+    /** Grading page: submission rows with their student. */
+    public static final String GRAPH_WITH_STUDENT = "ExamSubmission.withStudent";
+    
+    /** Student dashboard: submission rows with their exam. */
+    public static final String GRAPH_WITH_EXAM = "ExamSubmission.withExam";
+    
+    /** Review page: one submission with its exam and the exam's questions. */
+    public static final String GRAPH_WITH_EXAM_QUESTIONS = "ExamSubmission.withExamQuestions";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -30,16 +67,83 @@ public class ExamSubmission {
     @Column(nullable = false)
     private Integer score;
     
+    // 1 for the first attempt of this student at this exam
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempt = 1;
+    
+    // Guards manual grading and regrading against lost updates
+    @Version
+    private long version;
+    
     @Column(columnDefinition = "TEXT")
     private String answersJson; // Store answers as JSON string
     
+    // Width byte followed by one option code per question; see OptionDictionary
+    @Column(length = 4096)
+    private byte[] answerCodes;
+    
+    // Answers decoded from the codes, pointing at the dictionary's shared strings
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient String[] decodedAnswers;
+    
     @Column(nullable = false)
     private Boolean graded = false;
     
+    // Grading work queue: who holds the submission and until when; see GradingQueue
+    @Column(length = 50)
+    private String leasedBy;
+    
+    // Identifies the claim that took the lease, so a grader reads back exactly what it claimed
+    @Column(length = 36)
+    private String leaseToken;
+    
+    private LocalDateTime leaseExpiresAt;
+    
+    /**
+     * Whether someone other than the grader holds an unexpired lease on this submission.
+     */
+    public boolean isLeasedByOther(String grader, LocalDateTime now) {
+        return leasedBy != null && !leasedBy.equals(grader)
+                && leaseExpiresAt != null && leaseExpiresAt.isAfter(now);
+    }
+    
+    /**
+     * Record a manual score; grading ends any lease on the submission.
+     */
+    public void grade(int score) {
+        this.score = score;
+        this.graded = true;
+        this.leasedBy = null;
+        this.leaseToken = null;
+        this.leaseExpiresAt = null;
+    }
+    
+    /**
+     * Store answers as dictionary codes when every answer is one of the exam's options,
+     * and as JSON otherwise.
+     */
+    public void setAnswers(String[] answers, OptionDictionary dictionary) {
+        byte[] codes = dictionary != null ? dictionary.encode(answers) : null;
+        if (codes == null) {
+            setAnswers(answers);
+            return;
+        }
+        this.answerCodes = codes;
+        this.answersJson = null;
+        this.decodedAnswers = null;
+    }
+    
     /**
      * Convert String[] answers to JSON format for storage.
      */
     public void setAnswers(String[] answers) {
+        this.answerCodes = null;
+        this.decodedAnswers = null;
         StringBuilder json = new StringBuilder("[");
         for (int i = 0; i < answers.length; i++) {
             String answer = answers[i] != null ? answers[i].replace("\"", "\\\"") : "";
@@ -53,9 +157,18 @@ public class ExamSubmission {
     }
     
     /**
-     * Parse JSON string back to String[] answers.
+     * Stored answers: the decoded option codes, or parsed from JSON.
+     *
+     * @throws IllegalStateException if the answers are codes that were not decoded yet;
+     *         see {@code OptionDictionaries.answersOf}
      */
     public String[] getAnswers() {
+        if (answerCodes != null) {
+            if (decodedAnswers == null) {
+                throw new IllegalStateException("Answers of submission " + id + " have not been decoded");
+            }
+            return decodedAnswers;
+        }
         if (answersJson == null || answersJson.isEmpty()) {
             return new String[0];
         }
@@ -80,4 +193,20 @@ public class ExamSubmission {
         
         return answers;
     }
+    
+    /**
+     * Whether {@link #getAnswers()} can be read without a dictionary.
+     */
+    public boolean isAnswersDecoded() {
+        return answerCodes == null || decodedAnswers != null;
+    }
+    
+    /**
+     * Decode the stored option codes with the exam's dictionary.
+     */
+    public void decodeAnswers(OptionDictionary dictionary) {
+        if (answerCodes != null) {
+            decodedAnswers = dictionary.decode(answerCodes);
+        }
+    }
 }
@@ -6,6 +6,8 @@ import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * MCQ Exam subclass demonstrating Inheritance and Polymorphism.
  * Implements auto-grading logic by overriding abstract evaluate() method.
@@ -55,12 +57,41 @@ public class MCQExam extends Exam {
         return totalQuestions > 0 ? (correctCount * getTotalMarks()) / totalQuestions : 0;
     }
     
+    /**
+     * Grade answers in served order directly against the permuted questions,
+     * without materialising the canonical answer array.
+     */
+    @Override
+    public int evaluate(String[] answers, int[] servedOrder) {
+        if (servedOrder == null) {
+            return evaluate(answers);
+        }
+        if (answers == null || answers.length == 0) {
+            throw new InvalidAnswerException("Answers cannot be null or empty");
+        }
+        
+        List<Question> questions = getQuestions();
+        if (answers.length != questions.size() || servedOrder.length != questions.size()) {
+            throw new InvalidAnswerException(
+                String.format("Expected %d answers, got %d", questions.size(), answers.length)
+            );
+        }
+        
+        int correctCount = 0;
+        for (int i = 0; i < answers.length; i++) {
+            if (questions.get(servedOrder[i]).getCorrectAnswer().equalsIgnoreCase(answers[i].trim())) {
+                correctCount++;
+            }
+        }
+        return (correctCount * getTotalMarks()) / questions.size();
+    }
+    
     /**
      * Overriding toString() for better object representation.
      */
     @Override
     public String toString() {
-        return String.format("MCQExam[id=%d, title='%s', questions=%d, marks=%d]",
-                           getId(), getTitle(), getQuestions().size(), getTotalMarks());
+        return String.format("MCQExam[id=%d, title='%s', questions=%s, marks=%d]",
+                           getId(), getTitle(), questionCountText(), getTotalMarks());
     }
 }
@@ -1,16 +1,19 @@
 package com.examsystem.entity;
 
 import com.examsystem.model.Role;
+import com.examsystem.utils.LongIntMap;
 import jakarta.persistence.*;
 import lombok.*;
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Student entity demonstrating Encapsulation with private fields.
  * Uses static counter for tracking total students (OOP concept).
  * Serializable for file I/O operations.
+ * Exam scores are not stored on the student: StudentScoreService reads them
+ * from {@code exam_results} and installs them with {@link #preloadScores};
+ * asking a saved student for a score it cannot know yet fails instead of
+ * answering 0.
  */
 @Entity
 @Table(name = "students")
@@ -42,9 +45,20 @@ public class Student implements Serializable {
     @Column(nullable = false)
     private Role role = Role.STUDENT;
     
-    // Transient field - not persisted, used for in-memory score tracking
+    // Scores by exam id: scores added locally, plus the full set from the database once installed
     @Transient
-    private Map<Long, Integer> examScores = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient LongIntMap examScores;
+    
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient boolean scoresLoaded;
     
     @Column
     private Integer lastExamScore;
@@ -79,18 +93,66 @@ public class Student implements Serializable {
     }
     
     /**
-     * Add score for a specific exam.
+     * Add score for a specific exam. Does not load the stored scores.
      */
-    public void addExamScore(Long examId, Integer score) {
-        this.examScores.put(examId, score);
+    public synchronized void addExamScore(Long examId, Integer score) {
+        if (examScores == null) {
+            examScores = new LongIntMap();
+        }
+        examScores.put(key(examId), score);
         this.lastExamScore = score;
         this.currentExamId = examId;
     }
     
     /**
-     * Get score for a specific exam.
+     * Get score for a specific exam, 0 if the student has none.
+     * A saved student must have its stored scores installed first, unless the score
+     * was added on this instance; an unsaved one only has the scores added locally.
+     *
+     * @throws IllegalStateException if the answer would depend on scores not loaded yet
+     */
+    public synchronized int getScoreForExam(Long examId) {
+        long key = key(examId);
+        if (examScores != null && examScores.containsKey(key)) {
+            return examScores.get(key, 0);
+        }
+        if (id != null && !scoresLoaded) {
+            throw new IllegalStateException("Scores of student " + id
+                    + " are not loaded; use StudentScoreService.loadScores or preload first");
+        }
+        return 0;
+    }
+    
+    /**
+     * Install scores fetched in bulk, unless this student has already loaded its own.
+     * Scores added locally since the student was read take precedence.
+     *
+     * @return true if the scores were installed
+     */
+    public synchronized boolean preloadScores(LongIntMap stored) {
+        if (scoresLoaded) {
+            return false;
+        }
+        install(stored);
+        return true;
+    }
+    
+    public synchronized boolean isScoresLoaded() {
+        return scoresLoaded;
+    }
+    
+    /**
+     * Exams not saved yet have no id; their scores share key 0.
      */
-    public Integer getScoreForExam(Long examId) {
-        return examScores.getOrDefault(examId, 0);
+    private static long key(Long examId) {
+        return examId != null ? examId : 0L;
+    }
+    
+    private void install(LongIntMap stored) {
+        if (examScores != null) {
+            stored.putAll(examScores);
+        }
+        examScores = stored;
+        scoresLoaded = true;
     }
 }
@@ -0,0 +1,18 @@
+package com.examsystem.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a bulkhead's threads are busy and its queue is full,
+ * so the work is refused instead of taking resources from submissions.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BulkheadFullException(String bulkhead) {
+        super("The " + bulkhead + " pool is at capacity; try again later");
+    }
+}
@@ -0,0 +1,23 @@
+package com.examsystem.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a submission cannot be accepted as a new attempt:
+ * the exam's attempt limit is reached, or another submission of the same
+ * student took the attempt number first.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SubmissionConflictException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public SubmissionConflictException(String message) {
+        super(message);
+    }
+    
+    public SubmissionConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
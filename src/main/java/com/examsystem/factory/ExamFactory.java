@@ -5,6 +5,8 @@ import com.examsystem.model.ExamType;
 import com.examsystem.strategy.EvaluationStrategy;
 import com.examsystem.strategy.MCQStrategy;
 import com.examsystem.strategy.ManualStrategy;
+import com.examsystem.strategy.TimedEvaluationStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
 
 /**
@@ -15,12 +17,13 @@ import org.springframework.stereotype.Component;
 @Component
 public class ExamFactory {
     
-    private final MCQStrategy mcqStrategy;
-    private final ManualStrategy manualStrategy;
+    private final EvaluationStrategy mcqStrategy;
+    private final EvaluationStrategy manualStrategy;
     
-    public ExamFactory(MCQStrategy mcqStrategy, ManualStrategy manualStrategy) {
-        this.mcqStrategy = mcqStrategy;
-        this.manualStrategy = manualStrategy;
+    public ExamFactory(MCQStrategy mcqStrategy, ManualStrategy manualStrategy, MeterRegistry meterRegistry) {
+        // Strategies are wrapped once so every exam shares the same timers
+        this.mcqStrategy = new TimedEvaluationStrategy(mcqStrategy, meterRegistry);
+        this.manualStrategy = new TimedEvaluationStrategy(manualStrategy, meterRegistry);
     }
     
     /**
@@ -0,0 +1,23 @@
+package com.examsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Where a student stands in an exam's waiting room.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdmissionStatus {
+    
+    private boolean admitted;
+    // 1 for the head of the queue; 0 once admitted
+    private long position;
+    private long estimatedWaitSeconds;
+    // Epoch millis at which the student was admitted and their exam time started; 0 while waiting
+    private long admittedAt;
+    // How long the waiting page should wait before asking again
+    private long pollAfterMs;
+}
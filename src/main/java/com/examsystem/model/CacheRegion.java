@@ -0,0 +1,15 @@
+package com.examsystem.model;
+
+/**
+ * Node-local caches that other nodes are told to invalidate in scale-out mode.
+ */
+public enum CacheRegion {
+    /** Rendered papers and the search index; key is the exam id. */
+    EXAM,
+    /** Roster autocomplete; key is the student id. */
+    STUDENT,
+    /** Tag index of the question bank; no key. */
+    QUESTION_BANK,
+    /** Answers held in the answer store; keys are the exam and student id. */
+    ANSWERS
+}
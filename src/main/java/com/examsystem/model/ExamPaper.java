@@ -0,0 +1,113 @@
+package com.examsystem.model;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Pre-rendered exam paper shared by every student taking the exam.
+ * Holds the question payload as UTF-8 bytes, both as an HTML fragment and as JSON,
+ * together with gzip-compressed copies and a strong ETag for the exam version.
+ * Instances are immutable and safe to share between request threads.
+ */
+@Getter
+public class ExamPaper {
+
+    private final Long examId;
+    private final int version;
+    private final String title;
+    private final ExamType type;
+    private final int durationMinutes;
+    private final int totalMarks;
+    private final int questionCount;
+    private final String etag;
+
+    // Per-question pieces, in the exam's canonical question order
+    private final List<QuestionSegment> htmlSegments;
+    private final List<QuestionSegment> jsonSegments;
+
+    // JSON envelope written around the question objects
+    private final byte[] jsonPrefix;
+    private final byte[] jsonSuffix;
+
+    // Fully assembled representations
+    private final byte[] html;
+    private final byte[] htmlGzip;
+    private final byte[] json;
+    private final byte[] jsonGzip;
+
+    public ExamPaper(Long examId, int version, String title, ExamType type,
+                     int durationMinutes, int totalMarks, String etag,
+                     List<QuestionSegment> htmlSegments, List<QuestionSegment> jsonSegments,
+                     byte[] jsonPrefix, byte[] jsonSuffix,
+                     byte[] html, byte[] htmlGzip, byte[] json, byte[] jsonGzip) {
+        this.examId = examId;
+        this.version = version;
+        this.title = title;
+        this.type = type;
+        this.durationMinutes = durationMinutes;
+        this.totalMarks = totalMarks;
+        this.questionCount = htmlSegments.size();
+        this.etag = etag;
+        this.htmlSegments = List.copyOf(htmlSegments);
+        this.jsonSegments = List.copyOf(jsonSegments);
+        this.jsonPrefix = jsonPrefix;
+        this.jsonSuffix = jsonSuffix;
+        this.html = html;
+        this.htmlGzip = htmlGzip;
+        this.json = json;
+        this.jsonGzip = jsonGzip;
+    }
+
+    /**
+     * Strong ETag of the HTML fragment representation.
+     */
+    public String getHtmlEtag() {
+        return "\"" + etag + "-h\"";
+    }
+
+    /**
+     * Strong ETag of the JSON representation.
+     */
+    public String getJsonEtag() {
+        return "\"" + etag + "-j\"";
+    }
+
+    /**
+     * Approximate heap footprint of the rendered bytes (for cache sizing).
+     */
+    public long getRenderedBytes() {
+        return (long) html.length + htmlGzip.length + json.length + jsonGzip.length;
+    }
+
+    /**
+     * Rendered bytes of one question: a head, one piece per option and a tail.
+     * Pieces never contain the question's position, so segments can be
+     * written in any order.
+     */
+    @Getter
+    public static class QuestionSegment {
+
+        private final long questionId;
+        private final int section;
+        private final byte[] head;
+        private final byte[][] options;
+        private final byte[] tail;
+
+        public QuestionSegment(long questionId, int section, byte[] head, byte[][] options, byte[] tail) {
+            this.questionId = questionId;
+            this.section = section;
+            this.head = head;
+            this.options = options;
+            this.tail = tail;
+        }
+
+        public int length(int separatorLength) {
+            int length = head.length + tail.length;
+            for (int i = 0; i < options.length; i++) {
+                length += options[i].length + (i > 0 ? separatorLength : 0);
+            }
+            return length;
+        }
+    }
+}
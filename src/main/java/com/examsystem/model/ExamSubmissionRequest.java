@@ -9,4 +9,10 @@ import lombok.Data;
 public class ExamSubmissionRequest {
     private Long examId;
     private String[] answers;
+    
+    // True when answers follow the student's served (shuffled) paper rather than question id order
+    private boolean servedOrder;
+    
+    // Version of the served paper (the "version" field of the questions JSON); null means the current one
+    private Integer paperVersion;
 }
@@ -0,0 +1,22 @@
+package com.examsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk grading request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingResult {
+    
+    private int graded;
+    // Students whose counting score was recomputed
+    private int students;
+    // Submission ids that do not exist, belong to another exam or are leased to another grader
+    private List<Long> skipped;
+}
@@ -0,0 +1,34 @@
+package com.examsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Definition of an exam in terms of the question bank:
+ * for each section, how many questions to draw and which tags they must carry.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaperBlueprint {
+    
+    private String title;
+    private ExamType type;
+    private List<SectionRule> sections = new ArrayList<>();
+    
+    /**
+     * Draw {@code count} questions carrying every tag in {@code tags}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SectionRule {
+        private int section;
+        private int count;
+        private List<String> tags = new ArrayList<>();
+    }
+}
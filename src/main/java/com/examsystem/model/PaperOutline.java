@@ -0,0 +1,73 @@
+package com.examsystem.model;
+
+import lombok.Getter;
+
+/**
+ * Section index of an exam paper, built once per exam version.
+ * Lists the question ids of every section in canonical order, which is all a
+ * section-paged client needs to navigate the paper and to assemble its answers.
+ */
+@Getter
+public class PaperOutline {
+
+    private final Long examId;
+    private final int version;
+    private final String title;
+    private final ExamType type;
+    private final int durationMinutes;
+    private final int totalMarks;
+    private final int questionCount;
+
+    // Section numbers in ascending order, with the question ids of each one
+    private final int[] sections;
+    private final long[][] sectionQuestionIds;
+
+    // Number of questions before each section, for continuous numbering
+    private final int[] sectionOffsets;
+
+    private final String etag;
+    private final byte[] json;
+
+    public PaperOutline(Long examId, int version, String title, ExamType type,
+                        int durationMinutes, int totalMarks,
+                        int[] sections, long[][] sectionQuestionIds,
+                        String etag, byte[] json) {
+        this.examId = examId;
+        this.version = version;
+        this.title = title;
+        this.type = type;
+        this.durationMinutes = durationMinutes;
+        this.totalMarks = totalMarks;
+        this.sections = sections;
+        this.sectionQuestionIds = sectionQuestionIds;
+        this.sectionOffsets = new int[sections.length];
+        int count = 0;
+        for (int i = 0; i < sections.length; i++) {
+            sectionOffsets[i] = count;
+            count += sectionQuestionIds[i].length;
+        }
+        this.questionCount = count;
+        this.etag = etag;
+        this.json = json;
+    }
+
+    /**
+     * Position of a section number in {@link #getSections()}, or -1 if the exam has no such section.
+     */
+    public int indexOfSection(int section) {
+        for (int i = 0; i < sections.length; i++) {
+            if (sections[i] == section) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getSectionCount() {
+        return sections.length;
+    }
+
+    public String getJsonEtag() {
+        return "\"" + etag + "-j\"";
+    }
+}
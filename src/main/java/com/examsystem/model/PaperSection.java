@@ -0,0 +1,50 @@
+package com.examsystem.model;
+
+import com.examsystem.model.ExamPaper.QuestionSegment;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One pre-rendered section of an exam paper, served to section-paged clients.
+ */
+@Getter
+public class PaperSection {
+
+    private final int section;
+    private final String etag;
+
+    // Pieces kept for per-student assembly
+    private final byte[] htmlPrefix;
+    private final byte[] jsonPrefix;
+    private final List<QuestionSegment> htmlSegments;
+    private final List<QuestionSegment> jsonSegments;
+
+    private final byte[] html;
+    private final byte[] htmlGzip;
+    private final byte[] json;
+    private final byte[] jsonGzip;
+
+    public PaperSection(int section, String etag, byte[] htmlPrefix, byte[] jsonPrefix,
+                        List<QuestionSegment> htmlSegments, List<QuestionSegment> jsonSegments,
+                        byte[] html, byte[] htmlGzip, byte[] json, byte[] jsonGzip) {
+        this.section = section;
+        this.etag = etag;
+        this.htmlPrefix = htmlPrefix;
+        this.jsonPrefix = jsonPrefix;
+        this.htmlSegments = List.copyOf(htmlSegments);
+        this.jsonSegments = List.copyOf(jsonSegments);
+        this.html = html;
+        this.htmlGzip = htmlGzip;
+        this.json = json;
+        this.jsonGzip = jsonGzip;
+    }
+
+    public String getHtmlEtag() {
+        return "\"" + etag + "-h\"";
+    }
+
+    public String getJsonEtag() {
+        return "\"" + etag + "-j\"";
+    }
+}
@@ -0,0 +1,26 @@
+package com.examsystem.model;
+
+/**
+ * Which attempt's score counts when an exam allows several attempts.
+ */
+public enum ScorePolicy {
+    BEST("Best attempt"),
+    LATEST("Latest attempt");
+    
+    private final String displayName;
+    
+    ScorePolicy(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * The score that counts, given the best and the latest attempt's score.
+     */
+    public int effective(int best, int latest) {
+        return this == BEST ? best : latest;
+    }
+}
@@ -0,0 +1,23 @@
+package com.examsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One ranked result of the admin search.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    
+    public enum Kind { EXAM, QUESTION }
+    
+    private Kind kind;
+    private Long id;
+    private Long examId;
+    private String examTitle;
+    private String text;
+    private double score;
+}
@@ -0,0 +1,17 @@
+package com.examsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Roster autocomplete entry: just enough to identify a student.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentSuggestion {
+    private Long id;
+    private String username;
+    private String name;
+}
@@ -0,0 +1,17 @@
+package com.examsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a bulk grading request: the score given to a submission.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionGrade {
+    
+    private Long submissionId;
+    private Integer score;
+}
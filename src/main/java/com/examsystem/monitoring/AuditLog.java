@@ -0,0 +1,340 @@
+package com.examsystem.monitoring;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured audit log of submissions, grade changes and logins.
+ * Request threads publish into a preallocated ring buffer without locks or I/O;
+ * a single background writer drains it in batches as JSON lines through one
+ * long-lived FileChannel, with a configurable fsync policy and size-based rotation.
+ * When the buffer is full, records are dropped and counted rather than blocking the caller.
+ */
+@Service
+public class AuditLog {
+    
+    public enum Type { SUBMISSION, GRADE_CHANGE, LOGIN_SUCCESS, LOGIN_FAILURE }
+    
+    /**
+     * When written data is forced to disk: never explicitly, after every batch,
+     * or at most once per interval.
+     */
+    public enum FsyncPolicy { NONE, BATCH, INTERVAL }
+    
+    private static final int MAX_BATCH = 512;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    // Longer strings are cut, so an escaped record (at most 6 bytes per char) always fits the write buffer
+    private static final int MAX_FIELD_CHARS = 2048;
+    
+    /**
+     * Preallocated record, overwritten in place once the writer has consumed it.
+     */
+    private static final class Slot {
+        long timestamp;
+        Type type;
+        long examId;
+        long studentId;
+        int score;
+        String actor;
+        String detail;
+    }
+    
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long consumed;
+    
+    private final Path file;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final long maxFileSize;
+    private final int maxFiles;
+    
+    // Writer thread state
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final StringBuilder line = new StringBuilder(256);
+    private FileChannel channel;
+    private long fileSize;
+    private long lastForce;
+    private boolean dirty;
+    private volatile boolean running;
+    private Thread writer;
+    
+    public AuditLog(@Value("${exam.audit.file:${java.io.tmpdir}/exam-audit/audit.log}") String file,
+                    @Value("${exam.audit.buffer-size:8192}") int bufferSize,
+                    @Value("${exam.audit.fsync:interval}") String fsyncPolicy,
+                    @Value("${exam.audit.fsync-interval-ms:1000}") long fsyncIntervalMillis,
+                    @Value("${exam.audit.max-file-size:10485760}") long maxFileSize,
+                    @Value("${exam.audit.max-files:5}") int maxFiles) {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.file = Paths.get(file);
+        this.fsyncPolicy = FsyncPolicy.valueOf(fsyncPolicy.trim().toUpperCase());
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+    
+    public boolean submission(long examId, long studentId, int score, String actor) {
+        return publish(Type.SUBMISSION, examId, studentId, score, actor, null);
+    }
+    
+    public boolean gradeChange(long examId, long studentId, int score, String actor) {
+        return publish(Type.GRADE_CHANGE, examId, studentId, score, actor, null);
+    }
+    
+    public boolean login(String username, boolean success, String channel) {
+        return publish(success ? Type.LOGIN_SUCCESS : Type.LOGIN_FAILURE, 0, 0, 0, username, channel);
+    }
+    
+    /**
+     * Records dropped because the buffer was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+    
+    /**
+     * Records published but not yet handed to the file channel.
+     */
+    public long getBacklog() {
+        return claimed.get() - consumed;
+    }
+    
+    private boolean publish(Type type, long examId, long studentId, int score, String actor, String detail) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        
+        int index = (int) sequence & mask;
+        Slot slot = slots[index];
+        slot.timestamp = System.currentTimeMillis();
+        slot.type = type;
+        slot.examId = examId;
+        slot.studentId = studentId;
+        slot.score = score;
+        slot.actor = actor;
+        slot.detail = detail;
+        published.set(index, sequence); // releases the slot fields to the writer
+        return true;
+    }
+    
+    @PostConstruct
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        openChannel();
+        running = true;
+        writer = new Thread(this::runWriter, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    /**
+     * Stop the writer after draining everything published so far.
+     */
+    @PreDestroy
+    public synchronized void close() throws InterruptedException, IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+        channel.force(true);
+        channel.close();
+    }
+    
+    private void runWriter() {
+        lastForce = System.nanoTime();
+        while (running) {
+            try {
+                if (drain() == 0) {
+                    forceIfDue(System.nanoTime());
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (IOException e) {
+                System.err.println("[AUDIT] Write failed: " + e.getMessage());
+                buffer.clear();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        // Drain what was claimed before shutdown; later publishers are not waited for
+        long end = claimed.get();
+        try {
+            while (consumed < end) {
+                if (drain() == 0) {
+                    Thread.onSpinWait(); // a producer claimed a slot but has not filled it yet
+                }
+            }
+            flush();
+        } catch (IOException e) {
+            System.err.println("[AUDIT] Final flush failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Format up to one batch of published records and write them out.
+     */
+    private int drain() throws IOException {
+        long sequence = consumed;
+        int count = 0;
+        while (count < MAX_BATCH && published.get((int) sequence & mask) == sequence) {
+            append(slots[(int) sequence & mask]);
+            sequence++;
+            count++;
+            consumed = sequence; // the slot may now be reused
+        }
+        if (count > 0) {
+            flush();
+            if (fsyncPolicy == FsyncPolicy.BATCH) {
+                force();
+            }
+            if (fileSize >= maxFileSize) {
+                rotate();
+            }
+        }
+        return count;
+    }
+    
+    private void append(Slot slot) throws IOException {
+        line.setLength(0);
+        line.append("{\"ts\":\"").append(Instant.ofEpochMilli(slot.timestamp))
+            .append("\",\"type\":\"").append(slot.type.name()).append('"');
+        if (slot.type == Type.SUBMISSION || slot.type == Type.GRADE_CHANGE) {
+            line.append(",\"examId\":").append(slot.examId)
+                .append(",\"studentId\":").append(slot.studentId)
+                .append(",\"score\":").append(slot.score);
+        }
+        appendString("actor", slot.actor);
+        appendString("channel", slot.detail);
+        line.append("}\n");
+        
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buffer.remaining()) {
+            flush();
+        }
+        buffer.put(bytes);
+    }
+    
+    private void appendString(String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        int length = value.length();
+        if (length > MAX_FIELD_CHARS) {
+            length = MAX_FIELD_CHARS;
+            if (Character.isHighSurrogate(value.charAt(length - 1))) {
+                length--;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        if (length < value.length()) {
+            line.append("...");
+        }
+        line.append('"');
+    }
+    
+    private void flush() throws IOException {
+        if (!channel.isOpen()) {
+            openChannel(); // a failed rotation closed it
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            fileSize += channel.write(buffer);
+            dirty = true;
+        }
+        buffer.clear();
+    }
+    
+    private void forceIfDue(long now) throws IOException {
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && dirty && now - lastForce >= fsyncIntervalNanos) {
+            force();
+        }
+    }
+    
+    private void force() throws IOException {
+        channel.force(false);
+        dirty = false;
+        lastForce = System.nanoTime();
+    }
+    
+    /**
+     * audit.log -> audit.log.1 -> ... -> audit.log.N; the oldest file is discarded.
+     * If a move fails, writing continues in the current file and rotation is tried
+     * again after the next batch.
+     */
+    private void rotate() throws IOException {
+        if (fsyncPolicy != FsyncPolicy.NONE) {
+            force();
+        }
+        channel.close();
+        try {
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path older = rotated(i);
+                if (Files.exists(older)) {
+                    Files.move(older, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            openChannel();
+        }
+    }
+    
+    private Path rotated(int generation) {
+        return file.resolveSibling(file.getFileName() + "." + generation);
+    }
+    
+    private void openChannel() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        fileSize = channel.size();
+    }
+}
@@ -0,0 +1,54 @@
+package com.examsystem.monitoring;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides who is sent the diagnostic response headers ({@code Server-Timing} and
+ * {@code X-SQL-Statements}), which reveal the request's internals.
+ * {@code exam.timing.headers} is {@code none}, {@code admin} (callers with the ADMIN
+ * authority only) or {@code all}, which is meant for development.
+ * The caller is only known inside the security filter chain, so {@link ServerTimingFilter#securityPhaseMarker()}
+ * marks admin requests for the filters that write the headers afterwards.
+ */
+@Component
+public class DiagnosticHeaders {
+
+    static final String ADMIN_CALLER = DiagnosticHeaders.class.getName() + ".ADMIN_CALLER";
+
+    private final String mode;
+
+    public DiagnosticHeaders(@Value("${exam.timing.headers:admin}") String mode) {
+        this.mode = mode.trim().toLowerCase();
+        if (!this.mode.equals("none") && !this.mode.equals("admin") && !this.mode.equals("all")) {
+            throw new IllegalArgumentException("exam.timing.headers must be none, admin or all: " + mode);
+        }
+    }
+
+    /**
+     * Whether the diagnostic headers may be sent in the response to this request.
+     */
+    public boolean allowed(HttpServletRequest request) {
+        return switch (mode) {
+            case "all" -> true;
+            case "admin" -> Boolean.TRUE.equals(request.getAttribute(ADMIN_CALLER));
+            default -> false;
+        };
+    }
+
+    /**
+     * Record on the request whether the authenticated caller is an admin. Called from a
+     * filter inside the security chain, where the security context is populated.
+     */
+    static void markCaller(ServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getAuthorities().stream().anyMatch(a -> "ADMIN".equals(a.getAuthority()))) {
+            request.setAttribute(ADMIN_CALLER, Boolean.TRUE);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.examsystem.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One chunk of rows written by a results export.
+ */
+@Name("com.examsystem.ExportChunk")
+@Label("Export Chunk")
+@Category({"Exam System", "Export"})
+@StackTrace(false)
+public class ExportChunkEvent extends jdk.jfr.Event {
+    
+    @Label("File")
+    public String file;
+    
+    @Label("Chunk Index")
+    public int chunkIndex;
+    
+    @Label("Rows")
+    public int rows;
+    
+    @Label("Characters")
+    @DataAmount(DataAmount.BYTES)
+    public long characters;
+}
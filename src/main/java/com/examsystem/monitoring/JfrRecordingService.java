@@ -0,0 +1,110 @@
+package com.examsystem.monitoring;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-demand Java Flight Recorder sessions for production diagnosis.
+ * The application's events are always compiled in; they cost next to nothing
+ * until a recording enables them. Dumps go to a configured local directory only.
+ */
+@Service
+public class JfrRecordingService {
+    
+    private static final List<Class<? extends jdk.jfr.Event>> EVENTS = List.of(
+            SubmissionReceivedEvent.class, SubmissionGradedEvent.class, SubmissionPersistedEvent.class,
+            RegradeChunkEvent.class, ExportChunkEvent.class);
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    
+    private final Path dumpDirectory;
+    private Recording recording;
+    
+    public JfrRecordingService(@Value("${exam.jfr.dump-dir:${java.io.tmpdir}}") String dumpDirectory) {
+        this.dumpDirectory = Paths.get(dumpDirectory);
+    }
+    
+    /**
+     * Start a recording with a JDK settings profile ("default" or "profile")
+     * plus every application event.
+     */
+    public synchronized Map<String, Object> start(String settings) throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        if (!"default".equals(settings) && !"profile".equals(settings)) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings);
+        }
+        close();
+        recording = new Recording(Configuration.getConfiguration(settings));
+        recording.setName("exam-system");
+        recording.setMaxAge(Duration.ofHours(1));
+        recording.setToDisk(true);
+        for (Class<? extends jdk.jfr.Event> event : EVENTS) {
+            recording.enable(event).withoutThreshold();
+        }
+        recording.start();
+        return status();
+    }
+    
+    public synchronized Map<String, Object> stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("No recording is running");
+        }
+        recording.stop();
+        return status();
+    }
+    
+    /**
+     * Write the recorded data so far to a new file in the dump directory.
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null || recording.getState() == RecordingState.NEW) {
+            throw new IllegalStateException("Nothing has been recorded");
+        }
+        Files.createDirectories(dumpDirectory);
+        Path file = dumpDirectory.resolve("exam-" + LocalDateTime.now().format(FILE_TIME)
+                + "-" + recording.getId() + ".jfr");
+        recording.dump(file);
+        return file;
+    }
+    
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording != null ? recording.getState().name() : "NONE");
+        if (recording != null) {
+            status.put("id", recording.getId());
+            status.put("startTime", recording.getStartTime());
+            status.put("size", recording.getSize());
+        }
+        status.put("dumpDirectory", dumpDirectory.toAbsolutePath().toString());
+        return status;
+    }
+    
+    @PreDestroy
+    public synchronized void shutdown() {
+        close();
+    }
+    
+    private void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
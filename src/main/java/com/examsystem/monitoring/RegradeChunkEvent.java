@@ -0,0 +1,31 @@
+package com.examsystem.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One chunk of a regrade run; duration covers loading, grading and saving the chunk.
+ */
+@Name("com.examsystem.RegradeChunk")
+@Label("Regrade Chunk")
+@Category({"Exam System", "Grading"})
+@StackTrace(false)
+public class RegradeChunkEvent extends jdk.jfr.Event {
+    
+    @Label("Exam Id")
+    public long examId;
+    
+    @Label("Question Count")
+    public int questionCount;
+    
+    @Label("Chunk Index")
+    public int chunkIndex;
+    
+    @Label("Submissions")
+    public int submissions;
+    
+    @Label("Changed Scores")
+    public int changed;
+}
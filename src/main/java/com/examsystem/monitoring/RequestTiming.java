@@ -0,0 +1,196 @@
+package com.examsystem.monitoring;
+
+/**
+ * Request-scoped phase timings for the {@code Server-Timing} header.
+ * Each thread owns one reusable context with fixed-size arrays, so timing a
+ * phase allocates nothing: callers take {@link #start()} and pass it to
+ * {@link #stop(String, long)} with one of the phase-name constants. Repeated phases
+ * accumulate. Outside a request (or when timing is off) every call is a no-op.
+ */
+public final class RequestTiming {
+    
+    public static final String AUTH = "auth";
+    public static final String PASSWORD = "password";
+    public static final String HANDLER = "handler";
+    public static final String RENDER = "render";
+    public static final String STUDENT = "student";
+    public static final String RETRY = "retry";
+    public static final String EXAM = "exam";
+    public static final String GRADE = "grade";
+    public static final String INSERT = "insert";
+    public static final String ANALYTICS = "analytics";
+    public static final String UPDATE = "update";
+    
+    private static final int MAX_PHASES = 16;
+    
+    private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
+    
+    private static final class Context {
+        boolean active;
+        long begin;
+        long handlerStart;
+        boolean handlerDone;
+        long renderStart;
+        int size;
+        final String[] names = new String[MAX_PHASES];
+        final long[] nanos = new long[MAX_PHASES];
+        final StringBuilder text = new StringBuilder(256);
+    }
+    
+    private RequestTiming() {
+    }
+    
+    /**
+     * Start timing a request on this thread.
+     */
+    public static void begin() {
+        Context context = CONTEXT.get();
+        context.active = true;
+        context.begin = System.nanoTime();
+        context.handlerStart = 0;
+        context.handlerDone = false;
+        context.renderStart = 0;
+        context.size = 0;
+    }
+    
+    public static void end() {
+        Context context = CONTEXT.get();
+        context.active = false;
+        context.size = 0;
+    }
+    
+    public static boolean isActive() {
+        return CONTEXT.get().active;
+    }
+    
+    public static long start() {
+        return System.nanoTime();
+    }
+    
+    /**
+     * Add the time since {@code start} to a phase.
+     */
+    public static void stop(String phase, long start) {
+        Context context = CONTEXT.get();
+        if (context.active) {
+            add(context, phase, System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Add the time since the request began to a phase (e.g. everything up to the end of the security chain).
+     */
+    public static void stopSinceBegin(String phase) {
+        Context context = CONTEXT.get();
+        if (context.active) {
+            add(context, phase, System.nanoTime() - context.begin);
+        }
+    }
+    
+    public static long elapsedNanos() {
+        Context context = CONTEXT.get();
+        return context.active ? System.nanoTime() - context.begin : 0;
+    }
+    
+    static void handlerStarted() {
+        Context context = CONTEXT.get();
+        context.handlerStart = System.nanoTime();
+    }
+    
+    /**
+     * End of the handler method; a view (if any) is rendered from here on.
+     */
+    static void handlerFinished(boolean rendersView) {
+        Context context = CONTEXT.get();
+        if (context.active && context.handlerStart != 0) {
+            long now = System.nanoTime();
+            add(context, HANDLER, now - context.handlerStart);
+            context.handlerDone = true;
+            context.renderStart = rendersView ? now : 0;
+        }
+    }
+    
+    static void renderFinished() {
+        Context context = CONTEXT.get();
+        if (context.active && context.renderStart != 0) {
+            add(context, RENDER, System.nanoTime() - context.renderStart);
+            context.renderStart = 0;
+        }
+    }
+    
+    /**
+     * {@code Server-Timing} value for the phases recorded so far, followed by the
+     * database time of the request (when known) and the total. A handler or view that
+     * is still writing when the response commits (e.g. {@code @ResponseBody}) is
+     * reported with its time up to that point.
+     */
+    static String header(int statements, long databaseNanos) {
+        Context context = CONTEXT.get();
+        long now = System.nanoTime();
+        StringBuilder text = context.text;
+        text.setLength(0);
+        for (int i = 0; i < context.size; i++) {
+            appendMetric(text, context.names[i], context.nanos[i]);
+        }
+        if (context.handlerStart != 0 && !context.handlerDone) {
+            appendMetric(text, HANDLER, now - context.handlerStart);
+        } else if (context.renderStart != 0) {
+            appendMetric(text, RENDER, now - context.renderStart);
+        }
+        if (statements > 0) {
+            appendMetric(text, "db", databaseNanos);
+            text.append(";desc=\"").append(statements).append(" statements\"");
+        }
+        appendMetric(text, "total", now - context.begin);
+        return text.toString();
+    }
+    
+    /**
+     * One-line summary for the slow-request log: {@code auth=1.2ms grade=0.4ms ...}.
+     */
+    static String summary() {
+        Context context = CONTEXT.get();
+        StringBuilder text = context.text;
+        text.setLength(0);
+        for (int i = 0; i < context.size; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(context.names[i]).append('=');
+            appendMillis(text, context.nanos[i]);
+            text.append("ms");
+        }
+        return text.toString();
+    }
+    
+    private static void add(Context context, String phase, long nanos) {
+        for (int i = 0; i < context.size; i++) {
+            // Phase names are constants, so identity comparison is enough in practice
+            if (context.names[i] == phase || context.names[i].equals(phase)) {
+                context.nanos[i] += nanos;
+                return;
+            }
+        }
+        if (context.size < MAX_PHASES) {
+            context.names[context.size] = phase;
+            context.nanos[context.size] = nanos;
+            context.size++;
+        }
+    }
+    
+    private static void appendMetric(StringBuilder text, String name, long nanos) {
+        if (text.length() > 0) {
+            text.append(", ");
+        }
+        text.append(name).append(";dur=");
+        appendMillis(text, nanos);
+    }
+    
+    /**
+     * Milliseconds with one decimal, without going through floating-point formatting.
+     */
+    private static void appendMillis(StringBuilder text, long nanos) {
+        long tenths = (nanos + 50_000) / 100_000;
+        text.append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
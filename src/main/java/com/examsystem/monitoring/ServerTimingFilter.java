@@ -0,0 +1,105 @@
+package com.examsystem.monitoring;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens the {@link RequestTiming} context for each request and writes the
+ * {@code Server-Timing} header when the response is committed. Requests slower
+ * than {@code exam.timing.slow-request-ms} are logged with their phase breakdown,
+ * including phases (such as template rendering) that finish after the header was sent.
+ * Runs inside {@link StatementCountFilter}, so the request's database time is included.
+ * The header is only sent to the callers {@link DiagnosticHeaders} allows.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServerTimingFilter extends OncePerRequestFilter {
+    
+    public static final String HEADER = "Server-Timing";
+    
+    private final StatementStats statementStats;
+    private final DiagnosticHeaders diagnosticHeaders;
+    private final boolean enabled;
+    private final long slowRequestNanos;
+    
+    public ServerTimingFilter(StatementStats statementStats,
+                              DiagnosticHeaders diagnosticHeaders,
+                              @Value("${exam.timing.enabled:true}") boolean enabled,
+                              @Value("${exam.timing.slow-request-ms:1000}") long slowRequestMillis) {
+        this.statementStats = statementStats;
+        this.diagnosticHeaders = diagnosticHeaders;
+        this.enabled = enabled;
+        this.slowRequestNanos = slowRequestMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(slowRequestMillis) : Long.MAX_VALUE;
+    }
+    
+    /**
+     * Marker placed at the end of the security filter chain: everything before it is "auth".
+     * It also records whether the caller may see the diagnostic headers.
+     */
+    public static Filter securityPhaseMarker() {
+        return (request, response, chain) -> {
+            RequestTiming.stopSinceBegin(RequestTiming.AUTH);
+            DiagnosticHeaders.markCaller(request);
+            chain.doFilter(request, response);
+        };
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!enabled) {
+            chain.doFilter(request, response);
+            return;
+        }
+        RequestTiming.begin();
+        HttpServletResponse timed = new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                writeHeader(request, response);
+            }
+        };
+        try {
+            chain.doFilter(request, timed);
+            if (!response.isCommitted()) {
+                writeHeader(request, response);
+            }
+            long elapsed = RequestTiming.elapsedNanos();
+            if (elapsed >= slowRequestNanos) {
+                System.out.println("[SLOW] " + request.getMethod() + " " + request.getRequestURI()
+                        + " " + response.getStatus() + " " + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms "
+                        + RequestTiming.summary() + databaseSummary());
+            }
+        } finally {
+            RequestTiming.end();
+        }
+    }
+    
+    private void writeHeader(HttpServletRequest request, HttpServletResponse response) {
+        if (response.containsHeader(HEADER) || !diagnosticHeaders.allowed(request)) {
+            return;
+        }
+        StatementStats.RequestScope scope = statementStats.currentRequest();
+        response.setHeader(HEADER, scope != null
+                ? RequestTiming.header(scope.getStatements(), scope.getNanos())
+                : RequestTiming.header(0, 0));
+    }
+    
+    private String databaseSummary() {
+        StatementStats.RequestScope scope = statementStats.currentRequest();
+        return scope != null && scope.getStatements() > 0
+                ? " db=" + TimeUnit.NANOSECONDS.toMillis(scope.getNanos()) + "ms/" + scope.getStatements() + " statements"
+                : "";
+    }
+}
@@ -0,0 +1,88 @@
+package com.examsystem.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combined SQL report for the admin endpoint: Hibernate session-factory statistics
+ * (entity/collection fetches, HQL query timings) next to the JDBC statement shapes
+ * from {@link StatementStats}.
+ */
+@Service
+public class SqlStatisticsService {
+    
+    private final StatementStats statementStats;
+    private final Statistics hibernateStatistics;
+    
+    public SqlStatisticsService(StatementStats statementStats, EntityManagerFactory entityManagerFactory) {
+        this.statementStats = statementStats;
+        this.hibernateStatistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    public Map<String, Object> report(int limit) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("hibernate", hibernate(limit));
+        report.put("shapeCount", statementStats.getShapeCount());
+        report.put("statements", statementStats.getShapes(limit));
+        return report;
+    }
+    
+    public List<Map<String, Object>> slowStatements() {
+        return statementStats.getSlowSamples();
+    }
+    
+    public void reset() {
+        statementStats.reset();
+        hibernateStatistics.clear();
+    }
+    
+    private Map<String, Object> hibernate(int limit) {
+        Statistics stats = hibernateStatistics;
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enabled", stats.isStatisticsEnabled());
+        if (!stats.isStatisticsEnabled()) {
+            return map;
+        }
+        map.put("prepareStatementCount", stats.getPrepareStatementCount());
+        map.put("queryExecutionCount", stats.getQueryExecutionCount());
+        map.put("queryExecutionMaxTimeMs", stats.getQueryExecutionMaxTime());
+        map.put("queryExecutionMaxTimeQuery", stats.getQueryExecutionMaxTimeQueryString());
+        map.put("entityLoadCount", stats.getEntityLoadCount());
+        map.put("entityFetchCount", stats.getEntityFetchCount());
+        map.put("collectionLoadCount", stats.getCollectionLoadCount());
+        map.put("collectionFetchCount", stats.getCollectionFetchCount());
+        map.put("flushCount", stats.getFlushCount());
+        map.put("transactionCount", stats.getTransactionCount());
+        map.put("queries", Arrays.stream(stats.getQueries())
+                .map(query -> Map.entry(query, stats.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, QueryStatistics> entry) -> totalTime(entry.getValue())).reversed())
+                .limit(limit)
+                .map(entry -> queryMap(entry.getKey(), entry.getValue()))
+                .toList());
+        return map;
+    }
+    
+    private static long totalTime(QueryStatistics query) {
+        return query.getExecutionCount() * query.getExecutionAvgTime();
+    }
+    
+    private static Map<String, Object> queryMap(String query, QueryStatistics statistics) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("query", query);
+        map.put("count", statistics.getExecutionCount());
+        map.put("avgMs", statistics.getExecutionAvgTime());
+        map.put("maxMs", statistics.getExecutionMaxTime());
+        map.put("rows", statistics.getExecutionRowCount());
+        return map;
+    }
+}
@@ -0,0 +1,73 @@
+package com.examsystem.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the JDBC statements issued while serving each request.
+ * The count so far is sent in the {@value #HEADER} response header when the response
+ * is committed, and the final count is recorded per URI pattern in the
+ * {@code http.server.requests.statements} summary, so N+1 regressions show up on a live node.
+ * The header is only sent to the callers {@link DiagnosticHeaders} allows; the summary is always recorded.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementCountFilter extends OncePerRequestFilter {
+    
+    public static final String HEADER = "X-SQL-Statements";
+    
+    private final StatementStats stats;
+    private final MeterRegistry meterRegistry;
+    private final DiagnosticHeaders diagnosticHeaders;
+    
+    public StatementCountFilter(StatementStats stats, MeterRegistry meterRegistry, DiagnosticHeaders diagnosticHeaders) {
+        this.stats = stats;
+        this.meterRegistry = meterRegistry;
+        this.diagnosticHeaders = diagnosticHeaders;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        stats.beginRequest(request.getMethod() + " " + request.getRequestURI());
+        HttpServletResponse counted = new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                writeHeader(request, response);
+            }
+        };
+        try {
+            chain.doFilter(request, counted);
+            if (!response.isCommitted()) {
+                writeHeader(request, response);
+            }
+        } finally {
+            StatementStats.RequestScope scope = stats.endRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.statements")
+                    .description("JDBC statements issued per request")
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(scope != null ? scope.getStatements() : 0);
+        }
+    }
+    
+    private void writeHeader(HttpServletRequest request, HttpServletResponse response) {
+        StatementStats.RequestScope scope = stats.currentRequest();
+        if (scope != null && !response.containsHeader(HEADER) && diagnosticHeaders.allowed(request)) {
+            response.setHeader(HEADER, Integer.toString(scope.getStatements()));
+        }
+    }
+}
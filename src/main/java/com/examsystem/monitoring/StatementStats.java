@@ -0,0 +1,235 @@
+package com.examsystem.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC statement statistics aggregated by statement shape.
+ * A shape is the SQL with literals replaced by {@code ?} and IN lists collapsed,
+ * so every execution of a repository method lands in the same bucket. Executions
+ * slower than the threshold are kept in a bounded sample (newest first), and
+ * statements issued on a request thread are counted against that request.
+ * Fed by {@link StatementTrackingDataSource}.
+ */
+@Component
+public class StatementStats {
+    
+    private static final String OTHER_SHAPE = "<other>";
+    private static final int MAX_SHAPE_LENGTH = 2000;
+    
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    /**
+     * Running totals of one statement shape.
+     */
+    public static final class Shape {
+        private final String sql;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder rows = new LongAdder();
+        
+        Shape(String sql) {
+            this.sql = sql;
+        }
+        
+        public Map<String, Object> toMap() {
+            long executions = count.sum();
+            long total = totalNanos.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("sql", sql);
+            map.put("count", executions);
+            map.put("errors", errors.sum());
+            map.put("totalMs", millis(total));
+            map.put("meanMs", executions > 0 ? millis(total / executions) : 0.0);
+            map.put("maxMs", millis(maxNanos.get()));
+            map.put("rows", rows.sum());
+            return map;
+        }
+    }
+    
+    /**
+     * Statements issued while serving one HTTP request.
+     */
+    public static final class RequestScope {
+        private final String request;
+        private int statements;
+        private long nanos;
+        
+        RequestScope(String request) {
+            this.request = request;
+        }
+        
+        public int getStatements() {
+            return statements;
+        }
+        
+        public long getNanos() {
+            return nanos;
+        }
+    }
+    
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    // Raw SQL -> shape key; Hibernate reuses the same SQL strings, so this stays small
+    private final Map<String, String> normalized = new ConcurrentHashMap<>();
+    private final ArrayDeque<Map<String, Object>> slowSamples = new ArrayDeque<>();
+    private final ThreadLocal<RequestScope> requestScope = new ThreadLocal<>();
+    
+    private final long slowThresholdNanos;
+    private final int maxSlowSamples;
+    private final int maxShapes;
+    
+    public StatementStats(@Value("${exam.sql.slow-threshold-ms:100}") long slowThresholdMillis,
+                          @Value("${exam.sql.slow-samples:100}") int maxSlowSamples,
+                          @Value("${exam.sql.max-shapes:500}") int maxShapes) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.maxSlowSamples = maxSlowSamples;
+        this.maxShapes = maxShapes;
+    }
+    
+    /**
+     * Record one execution; {@code rows} is the update count, or -1 when rows are reported later.
+     */
+    public Shape record(String sql, long nanos, long rows, boolean failed) {
+        Shape shape = shapeOf(sql);
+        shape.count.increment();
+        shape.totalNanos.add(nanos);
+        shape.maxNanos.accumulateAndGet(nanos, Math::max);
+        if (rows > 0) {
+            shape.rows.add(rows);
+        }
+        if (failed) {
+            shape.errors.increment();
+        }
+        
+        RequestScope scope = requestScope.get();
+        if (scope != null) {
+            scope.statements++;
+            scope.nanos += nanos;
+        }
+        if (nanos >= slowThresholdNanos) {
+            recordSlow(shape.sql, nanos, rows, scope);
+        }
+        return shape;
+    }
+    
+    /**
+     * Rows read through a result set after its statement was recorded.
+     */
+    public void addRows(Shape shape, long rows) {
+        if (rows > 0) {
+            shape.rows.add(rows);
+        }
+    }
+    
+    public void beginRequest(String request) {
+        requestScope.set(new RequestScope(request));
+    }
+    
+    public RequestScope currentRequest() {
+        return requestScope.get();
+    }
+    
+    public RequestScope endRequest() {
+        RequestScope scope = requestScope.get();
+        requestScope.remove();
+        return scope;
+    }
+    
+    /**
+     * Shapes ordered by total time, most expensive first.
+     */
+    public List<Map<String, Object>> getShapes(int limit) {
+        return shapes.values().stream()
+                .sorted(Comparator.comparingLong((Shape shape) -> shape.totalNanos.sum()).reversed())
+                .limit(limit)
+                .map(Shape::toMap)
+                .toList();
+    }
+    
+    public int getShapeCount() {
+        return shapes.size();
+    }
+    
+    public List<Map<String, Object>> getSlowSamples() {
+        synchronized (slowSamples) {
+            return new ArrayList<>(slowSamples);
+        }
+    }
+    
+    public void reset() {
+        shapes.clear();
+        synchronized (slowSamples) {
+            slowSamples.clear();
+        }
+    }
+    
+    private Shape shapeOf(String sql) {
+        String key = normalized.get(sql);
+        if (key == null) {
+            key = normalize(sql);
+            if (normalized.size() < maxShapes * 4) {
+                normalized.put(sql, key);
+            }
+        }
+        Shape shape = shapes.get(key);
+        if (shape != null) {
+            return shape;
+        }
+        // Unbounded distinct SQL (e.g. generated IN lists) must not grow the map forever
+        String bucket = shapes.size() < maxShapes ? key : OTHER_SHAPE;
+        return shapes.computeIfAbsent(bucket, Shape::new);
+    }
+    
+    private void recordSlow(String sql, long nanos, long rows, RequestScope scope) {
+        if (maxSlowSamples <= 0) {
+            return;
+        }
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("timestamp", Instant.now().toString());
+        sample.put("sql", sql);
+        sample.put("ms", millis(nanos));
+        if (rows >= 0) {
+            sample.put("rows", rows);
+        }
+        sample.put("thread", Thread.currentThread().getName());
+        if (scope != null) {
+            sample.put("request", scope.request);
+        }
+        synchronized (slowSamples) {
+            while (slowSamples.size() >= maxSlowSamples) {
+                slowSamples.pollLast();
+            }
+            slowSamples.addFirst(sample);
+        }
+    }
+    
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?...)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) : shape;
+    }
+    
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,150 @@
+package com.examsystem.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource wrapper that times every JDBC statement execution into {@link StatementStats}.
+ * Connections, statements and result sets are wrapped in JDK dynamic proxies:
+ * execute calls are timed, update counts and rows read through result sets are
+ * added to the statement's shape. Everything else is passed straight through,
+ * including {@code unwrap}, so pool metrics still reach the underlying pool.
+ */
+public class StatementTrackingDataSource extends DelegatingDataSource {
+    
+    private final StatementStats stats;
+    
+    public StatementTrackingDataSource(DataSource target, StatementStats stats) {
+        super(target);
+        this.stats = stats;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+    
+    private Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement && args != null && args.length > 0
+                    && args[0] instanceof String sql) {
+                // prepareStatement / prepareCall: the SQL is known up front
+                return wrapStatement(statement, sql);
+            }
+            if (result instanceof Statement statement) {
+                return wrapStatement(statement, null);
+            }
+            return result;
+        });
+    }
+    
+    private Statement wrapStatement(Statement statement, String preparedSql) {
+        Class<? extends Statement> type = statement instanceof CallableStatement
+                ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return proxy(type, (proxy, method, args) -> {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            if (sql == null) {
+                return invoke(statement, method, args);
+            }
+            
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(statement, method, args);
+            } catch (SQLException | RuntimeException e) {
+                stats.record(sql, System.nanoTime() - start, -1, true);
+                throw e;
+            }
+            long elapsed = System.nanoTime() - start;
+            
+            StatementStats.Shape shape = stats.record(sql, elapsed, updateCount(result), false);
+            if (result instanceof ResultSet resultSet) {
+                return wrapResultSet(resultSet, shape);
+            }
+            return result;
+        });
+    }
+    
+    private ResultSet wrapResultSet(ResultSet resultSet, StatementStats.Shape shape) {
+        long[] rows = new long[1];
+        boolean[] reported = new boolean[1];
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            Object result = invoke(resultSet, method, args);
+            String name = method.getName();
+            if ("next".equals(name) && Boolean.TRUE.equals(result)) {
+                rows[0]++;
+            } else if ("close".equals(name) && !reported[0]) {
+                reported[0] = true;
+                stats.addRows(shape, rows[0]);
+            }
+            return result;
+        });
+    }
+    
+    private static long updateCount(Object result) {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Long count) {
+            return count;
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        if (result instanceof long[] counts) {
+            long total = 0;
+            for (long count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        return -1;
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+    
+    /**
+     * Identity-based equals/hashCode: Hibernate keys its resource registry by statement.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementTrackingDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> args != null && args.length == 1 ? proxy == args[0] : handler.invoke(proxy, method, args);
+                    case "hashCode" -> args == null ? System.identityHashCode(proxy) : handler.invoke(proxy, method, args);
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+}
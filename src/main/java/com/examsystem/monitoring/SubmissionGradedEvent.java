@@ -0,0 +1,28 @@
+package com.examsystem.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Automatic evaluation of one submission; duration is the grading time.
+ */
+@Name("com.examsystem.SubmissionGraded")
+@Label("Submission Graded")
+@Category({"Exam System", "Submissions"})
+@StackTrace(false)
+public class SubmissionGradedEvent extends jdk.jfr.Event {
+    
+    @Label("Exam Id")
+    public long examId;
+    
+    @Label("Exam Type")
+    public String examType;
+    
+    @Label("Question Count")
+    public int questionCount;
+    
+    @Label("Score")
+    public int score;
+}
@@ -0,0 +1,25 @@
+package com.examsystem.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Submission row written; duration is the repository save.
+ */
+@Name("com.examsystem.SubmissionPersisted")
+@Label("Submission Persisted")
+@Category({"Exam System", "Submissions"})
+@StackTrace(false)
+public class SubmissionPersistedEvent extends jdk.jfr.Event {
+    
+    @Label("Exam Id")
+    public long examId;
+    
+    @Label("Submission Id")
+    public long submissionId;
+    
+    @Label("Question Count")
+    public int questionCount;
+}
@@ -0,0 +1,31 @@
+package com.examsystem.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A submission arrived. Begins when the request reaches the service and commits
+ * once a try was stored, so its duration includes tries lost to conflicts.
+ */
+@Name("com.examsystem.SubmissionReceived")
+@Label("Submission Received")
+@Description("Submission accepted by the service; duration includes retries after attempt conflicts")
+@Category({"Exam System", "Submissions"})
+@StackTrace(false)
+public class SubmissionReceivedEvent extends jdk.jfr.Event {
+    
+    @Label("Exam Id")
+    public long examId;
+    
+    @Label("Student Id")
+    public long studentId;
+    
+    @Label("Answer Count")
+    public int answerCount;
+    
+    @Label("Tries")
+    public int tries;
+}
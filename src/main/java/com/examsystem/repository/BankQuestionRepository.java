@@ -0,0 +1,29 @@
+package com.examsystem.repository;
+
+import com.examsystem.entity.BankQuestion;
+import com.examsystem.model.ExamType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the question bank.
+ */
+@Repository
+public interface BankQuestionRepository extends JpaRepository<BankQuestion, Long> {
+    
+    /**
+     * Tag columns of every bank question, for building the in-memory index
+     * without loading question text.
+     */
+    List<TagView> findAllProjectedByOrderByIdAsc();
+    
+    interface TagView {
+        Long getId();
+        ExamType getType();
+        String getTopic();
+        String getDifficulty();
+        String getTags();
+    }
+}
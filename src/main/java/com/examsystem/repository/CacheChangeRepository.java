@@ -0,0 +1,40 @@
+package com.examsystem.repository;
+
+import com.examsystem.entity.CacheChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CacheChangeRepository extends JpaRepository<CacheChange, Long> {
+    
+    /**
+     * Highest change id, or 0 when there are none. Answered from the primary key index,
+     * so nodes can poll it often.
+     */
+    @Query("select coalesce(max(c.id), 0) from CacheChange c")
+    long findWatermark();
+    
+    /**
+     * Changes after a watermark, oldest first.
+     */
+    List<CacheChange> findByIdGreaterThanOrderByIdAsc(Long watermark, Pageable pageable);
+    
+    /**
+     * Changes whose ids were skipped by an earlier poll because they had not committed yet.
+     */
+    List<CacheChange> findByIdInOrderByIdAsc(Collection<Long> ids);
+    
+    @Modifying
+    @Transactional
+    @Query("delete from CacheChange c where c.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,9 +2,14 @@ package com.examsystem.repository;
 
 import com.examsystem.entity.Exam;
 import com.examsystem.model.ExamType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * JPA Repository for Exam entity.
@@ -22,4 +27,39 @@ public interface ExamRepository extends JpaRepository<Exam, Long> {
      * Find exams by title containing keyword.
      */
     List<Exam> findByTitleContainingIgnoreCase(String keyword);
+    
+    /**
+     * Find exam with its questions loaded in the same statement.
+     */
+    @EntityGraph(attributePaths = "questions")
+    Optional<Exam> findWithQuestionsById(Long id);
+    
+    /**
+     * Id and title of every exam, for building the search index.
+     */
+    @Query("select e.id as id, e.title as title from Exam e")
+    List<TitleEntry> findTitleEntries();
+    
+    /**
+     * Stored option dictionary of one exam, without loading the exam.
+     */
+    @Query("select e.optionDictionary from Exam e where e.id = :id")
+    String findOptionDictionaryById(@Param("id") Long id);
+    
+    /**
+     * Apply deltas to an exam's result counters in one atomic statement,
+     * so concurrent submissions never overwrite each other's counts.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Exam e set e.submissionCount = e.submissionCount + :submissions, "
+            + "e.resultCount = e.resultCount + :results, e.scoreTotal = e.scoreTotal + :score, "
+            + "e.passedCount = e.passedCount + :passed where e.id = :examId")
+    int addToResultCounters(@Param("examId") Long examId, @Param("submissions") long submissions,
+                            @Param("results") int results, @Param("score") long score,
+                            @Param("passed") int passed);
+    
+    interface TitleEntry {
+        Long getId();
+        String getTitle();
+    }
 }
@@ -0,0 +1,55 @@
+package com.examsystem.repository;
+
+import com.examsystem.entity.ExamResult;
+import com.examsystem.entity.Student;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExamResultRepository extends JpaRepository<ExamResult, Long> {
+    
+    /**
+     * Find a student's result for an exam.
+     */
+    Optional<ExamResult> findByExamIdAndStudentId(Long examId, Long studentId);
+    
+    /**
+     * Results of many students for an exam (bulk grading).
+     */
+    List<ExamResult> findByExamIdAndStudentIdIn(Long examId, Collection<Long> studentIds);
+    
+    /**
+     * Students with a result for an exam.
+     */
+    @Query("select r.student from ExamResult r where r.exam.id = :examId")
+    List<Student> findStudentsByExamId(@Param("examId") Long examId);
+    
+    /**
+     * Counting scores of one student, without loading result rows.
+     */
+    @Query("select r.student.id as studentId, r.exam.id as examId, r.score as score "
+            + "from ExamResult r where r.student.id = :studentId")
+    List<ScoreEntry> findScoresByStudentId(@Param("studentId") Long studentId);
+    
+    /**
+     * Counting scores of many students in one statement (analytics bulk load).
+     */
+    @Query("select r.student.id as studentId, r.exam.id as examId, r.score as score "
+            + "from ExamResult r where r.student.id in :studentIds")
+    List<ScoreEntry> findScoresByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+    
+    /**
+     * Projection used to fill the per-student score maps.
+     */
+    interface ScoreEntry {
+        Long getStudentId();
+        Long getExamId();
+        int getScore();
+    }
+}
@@ -1,9 +1,17 @@
 package com.examsystem.repository;
 
 import com.examsystem.entity.ExamSubmission;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,9 +24,18 @@ public interface ExamSubmissionRepository extends JpaRepository<ExamSubmission,
     List<ExamSubmission> findByExamId(Long examId);
     
     /**
-     * Find submission by exam and student.
+     * One chunk of an exam's submissions.
      */
-    Optional<ExamSubmission> findByExamIdAndStudentId(Long examId, Long studentId);
+    Slice<ExamSubmission> findByExamId(Long examId, Pageable pageable);
+    
+    /**
+     * Find a student's latest attempt at an exam.
+     */
+    default Optional<ExamSubmission> findByExamIdAndStudentId(Long examId, Long studentId) {
+        return findFirstByExamIdAndStudentIdOrderByAttemptDesc(examId, studentId);
+    }
+    
+    Optional<ExamSubmission> findFirstByExamIdAndStudentIdOrderByAttemptDesc(Long examId, Long studentId);
     
     /**
      * Find all submissions by a student.
@@ -29,4 +46,131 @@ public interface ExamSubmissionRepository extends JpaRepository<ExamSubmission,
      * Find ungraded submissions for an exam.
      */
     List<ExamSubmission> findByExamIdAndGradedFalse(Long examId);
+    
+    /**
+     * Ids of ungraded submissions of an exam that nobody holds, oldest first (grading queue refill).
+     */
+    @Query("select s.id from ExamSubmission s where s.exam.id = :examId and s.graded = false "
+            + "and (s.leaseExpiresAt is null or s.leaseExpiresAt < :now) order by s.id")
+    List<Long> findClaimableIds(@Param("examId") Long examId, @Param("now") LocalDateTime now, Pageable pageable);
+    
+    /**
+     * Ids of the ungraded submissions of an exam a grader holds an unexpired lease on.
+     */
+    @Query("select s.id from ExamSubmission s where s.exam.id = :examId and s.graded = false "
+            + "and s.leasedBy = :grader and s.leaseExpiresAt >= :now order by s.id")
+    List<Long> findHeldIds(@Param("examId") Long examId, @Param("grader") String grader,
+                           @Param("now") LocalDateTime now);
+    
+    /**
+     * The ungraded submissions of an exam a grader holds an unexpired lease on, with their students.
+     */
+    @EntityGraph(ExamSubmission.GRAPH_WITH_STUDENT)
+    @Query("select s from ExamSubmission s where s.exam.id = :examId and s.graded = false "
+            + "and s.leasedBy = :grader and s.leaseExpiresAt >= :now order by s.id")
+    List<ExamSubmission> findHeld(@Param("examId") Long examId, @Param("grader") String grader,
+                                  @Param("now") LocalDateTime now);
+    
+    /**
+     * Take leases on those of the given submissions that are ungraded and not held by anyone
+     * else; the grader's own leases are renewed. The condition is checked by the update itself,
+     * so of two graders claiming the same submission at once only one gets it.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ExamSubmission s set s.leasedBy = :grader, s.leaseToken = :token, s.leaseExpiresAt = :expiresAt "
+            + "where s.id in :ids and s.graded = false "
+            + "and (s.leaseExpiresAt is null or s.leaseExpiresAt < :now or s.leasedBy = :grader)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("grader") String grader, @Param("token") String token,
+              @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+    
+    /**
+     * Submissions taken by one claim, with their students.
+     */
+    @EntityGraph(ExamSubmission.GRAPH_WITH_STUDENT)
+    List<ExamSubmission> findByLeaseTokenOrderById(String leaseToken);
+    
+    /**
+     * Drop the expired leases of an exam's ungraded submissions; returns how many were reclaimed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ExamSubmission s set s.leasedBy = null, s.leaseToken = null, s.leaseExpiresAt = null "
+            + "where s.exam.id = :examId and s.graded = false and s.leaseExpiresAt < :now")
+    int reclaimExpired(@Param("examId") Long examId, @Param("now") LocalDateTime now);
+    
+    /**
+     * Give back a grader's leases on ungraded submissions.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ExamSubmission s set s.leasedBy = null, s.leaseToken = null, s.leaseExpiresAt = null "
+            + "where s.id in :ids and s.leasedBy = :grader and s.graded = false")
+    int release(@Param("ids") Collection<Long> ids, @Param("grader") String grader);
+    
+    /**
+     * Give a submission its manual score and end its lease, unless another grader holds an
+     * unexpired lease on it. Checked by the update itself, like {@link #claim}, so a lease
+     * taken meanwhile is never overwritten; returns 0 when refused.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ExamSubmission s set s.score = :score, s.graded = true, s.leasedBy = null, "
+            + "s.leaseToken = null, s.leaseExpiresAt = null, s.version = s.version + 1 "
+            + "where s.id = :id and (s.leasedBy is null or s.leasedBy = :grader "
+            + "or s.leaseExpiresAt is null or s.leaseExpiresAt <= :now)")
+    int gradeUnlessLeased(@Param("id") Long id, @Param("score") int score, @Param("grader") String grader,
+                          @Param("now") LocalDateTime now);
+    
+    @Query("select count(s) from ExamSubmission s where s.exam.id = :examId and s.graded = false")
+    long countUngraded(@Param("examId") Long examId);
+    
+    @Query("select count(s) from ExamSubmission s where s.exam.id = :examId and s.graded = false "
+            + "and s.leaseExpiresAt >= :now")
+    long countLeased(@Param("examId") Long examId, @Param("now") LocalDateTime now);
+    
+    /**
+     * Find all submissions for an exam with their students (admin grading page).
+     */
+    @EntityGraph(ExamSubmission.GRAPH_WITH_STUDENT)
+    List<ExamSubmission> findGradingViewByExamId(Long examId);
+    
+    /**
+     * Find all submissions by a student with their exams (student dashboard).
+     */
+    @EntityGraph(ExamSubmission.GRAPH_WITH_EXAM)
+    List<ExamSubmission> findDashboardViewByStudentId(Long studentId);
+    
+    /**
+     * Find a submission with its exam and questions (answer review page).
+     */
+    @EntityGraph(ExamSubmission.GRAPH_WITH_EXAM_QUESTIONS)
+    Optional<ExamSubmission> findReviewViewById(Long id);
+    
+    /**
+     * Highest attempt number of a student for an exam, or 0 before the first attempt.
+     */
+    @Query("select coalesce(max(s.attempt), 0) from ExamSubmission s "
+            + "where s.exam.id = :examId and s.student.id = :studentId")
+    int findLastAttempt(@Param("examId") Long examId, @Param("studentId") Long studentId);
+    
+    /**
+     * Scores of a student's attempts at an exam, oldest first.
+     */
+    @Query("select s.attempt as attempt, s.score as score from ExamSubmission s "
+            + "where s.exam.id = :examId and s.student.id = :studentId order by s.attempt")
+    List<AttemptEntry> findAttemptScores(@Param("examId") Long examId, @Param("studentId") Long studentId);
+    
+    /**
+     * Scores of the attempts of many students at an exam, by student and oldest first (bulk grading).
+     */
+    @Query("select s.student.id as studentId, s.attempt as attempt, s.score as score from ExamSubmission s "
+            + "where s.exam.id = :examId and s.student.id in :studentIds order by s.student.id, s.attempt")
+    List<StudentAttemptEntry> findAttemptScoresByStudentIdIn(@Param("examId") Long examId,
+                                                            @Param("studentIds") Collection<Long> studentIds);
+    
+    interface AttemptEntry {
+        int getAttempt();
+        int getScore();
+    }
+    
+    interface StudentAttemptEntry extends AttemptEntry {
+        Long getStudentId();
+    }
 }
@@ -2,6 +2,7 @@ package com.examsystem.repository;
 
 import com.examsystem.entity.Question;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -20,4 +21,44 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
      * Find questions by exam ID and section.
      */
     List<Question> findByExamIdAndSection(Long examId, int section);
+    
+    /**
+     * Find the section of every question in an exam, without loading question text.
+     */
+    List<SectionEntry> findSectionEntriesByExamIdOrderByIdAsc(Long examId);
+    
+    /**
+     * Searchable columns of every question attached to an exam, for building the search index.
+     */
+    @Query("select q.id as id, q.exam.id as examId, q.text as text, q.optionsJson as optionsJson "
+            + "from Question q where q.exam is not null")
+    List<SearchEntry> findSearchEntries();
+    
+    /**
+     * Number of questions of every exam that has any, in one grouped statement,
+     * so pages listing exams need not load each exam's question collection.
+     */
+    @Query("select q.exam.id as examId, count(q) as questions from Question q "
+            + "where q.exam is not null group by q.exam.id")
+    List<CountEntry> countByExam();
+    
+    /**
+     * Projection used to build the section index of an exam paper.
+     */
+    interface SectionEntry {
+        Long getId();
+        int getSection();
+    }
+    
+    interface CountEntry {
+        Long getExamId();
+        long getQuestions();
+    }
+    
+    interface SearchEntry {
+        Long getId();
+        Long getExamId();
+        String getText();
+        String getOptionsJson();
+    }
 }
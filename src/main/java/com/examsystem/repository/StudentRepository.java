@@ -1,8 +1,10 @@
 package com.examsystem.repository;
 
 import com.examsystem.entity.Student;
+import com.examsystem.model.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,4 +24,15 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      * Check if username exists.
      */
     boolean existsByUsername(String username);
+    
+    /**
+     * Id, username and name of every student with a role, for the roster index.
+     */
+    List<DirectoryEntry> findDirectoryEntriesByRole(Role role);
+    
+    interface DirectoryEntry {
+        Long getId();
+        String getUsername();
+        String getName();
+    }
 }
@@ -106,6 +106,13 @@ public class JwtUtil {
         return extractExpiration(token).before(new Date());
     }
     
+    /**
+     * Lifetime of newly generated tokens.
+     */
+    public long getExpirationMillis() {
+        return expiration;
+    }
+    
     /**
      * Validate token.
      */
@@ -0,0 +1,32 @@
+package com.examsystem.security;
+
+import com.examsystem.monitoring.AuditLog;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records form logins in the audit log.
+ * Listens to the authentication events published by Spring Security's
+ * authentication manager; the JWT login endpoint audits its own attempts.
+ */
+@Component
+public class LoginAuditListener {
+    
+    private final AuditLog auditLog;
+    
+    public LoginAuditListener(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+    
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        auditLog.login(event.getAuthentication().getName(), true, "form");
+    }
+    
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        auditLog.login(event.getAuthentication().getName(), false, "form");
+    }
+}
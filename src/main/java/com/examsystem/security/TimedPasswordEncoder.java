@@ -0,0 +1,47 @@
+package com.examsystem.security;
+
+import com.examsystem.monitoring.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder that records hashing and verification time.
+ * BCrypt is deliberately slow, so it usually dominates login latency.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+    
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.encodeTimer = Timer.builder("auth.password")
+                .description("Password hashing and verification time")
+                .tag("operation", "encode")
+                .register(registry);
+        this.matchesTimer = Timer.builder("auth.password")
+                .description("Password hashing and verification time")
+                .tag("operation", "matches")
+                .register(registry);
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = RequestTiming.start();
+        boolean matches = matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+        RequestTiming.stop(RequestTiming.PASSWORD, start);
+        return matches;
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,103 @@
+package com.examsystem.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+
+import java.util.List;
+
+/**
+ * Keeps the login in a signed token cookie instead of the HTTP session (scale-out mode),
+ * so any node can authenticate a request without sharing session state.
+ * The cookie holds the username and authority, signed and given an expiry by
+ * {@link JwtUtil}; logging out clears it. A token stays valid until it expires,
+ * so role changes take effect at the next login.
+ */
+public class TokenCookieSecurityContextRepository implements SecurityContextRepository {
+
+    public static final String COOKIE_NAME = "EXAM_AUTH";
+
+    private final JwtUtil jwtUtil;
+
+    public TokenCookieSecurityContextRepository(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        String token = readToken(requestResponseHolder.getRequest());
+        if (token == null) {
+            return context;
+        }
+        try {
+            Claims claims = jwtUtil.extractClaim(token, all -> all);
+            String role = claims.get("role", String.class);
+            List<GrantedAuthority> authorities = role != null
+                    ? List.of(new SimpleGrantedAuthority(role))
+                    : List.of();
+            context.setAuthentication(
+                    UsernamePasswordAuthenticationToken.authenticated(claims.getSubject(), null, authorities));
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expired, tampered with or signed with another secret: treat as logged out
+        }
+        return context;
+    }
+
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        Authentication authentication = context.getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            if (readToken(request) != null) {
+                response.addCookie(cookie(request, "", 0));
+            }
+            return;
+        }
+        String role = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst()
+                .orElse(null);
+        String token = jwtUtil.generateToken(authentication.getName(), role);
+        response.addCookie(cookie(request, token, (int) (jwtUtil.getExpirationMillis() / 1000)));
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return readToken(request) != null;
+    }
+
+    private static String readToken(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Cookie cookie(HttpServletRequest request, String value, int maxAge) {
+        Cookie cookie = new Cookie(COOKIE_NAME, value);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setPath("/");
+        cookie.setMaxAge(maxAge);
+        return cookie;
+    }
+}
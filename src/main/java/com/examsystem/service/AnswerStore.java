@@ -0,0 +1,290 @@
+package com.examsystem.service;
+
+import com.examsystem.entity.ExamSubmission;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded store of recently submitted answer sets, keyed by (examId, studentId).
+ * Replaces the per-instance maps that used to live on {@code Exam}: entries are
+ * evicted least-recently-used once the entry count or the estimated heap bytes
+ * exceed their limits, so heap usage stays predictable however many students submit.
+ * Each entry holds the student's latest committed attempt; the exam service puts it
+ * after the submission commits, and the review and grading pages read answers here.
+ * Optionally, answer sets above a size threshold (long essay and coding answers) are
+ * encoded into direct {@link ByteBuffer} slabs used as a ring: when the ring wraps,
+ * the oldest slab is reused and every entry still pointing into it becomes a miss.
+ * Misses, and reads of an older attempt, fall back to the {@link Loader}, which
+ * decodes the {@code exam_submissions} row.
+ */
+public class AnswerStore {
+    
+    /**
+     * Source of answers that are no longer (or were never) held in memory.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        String[] load(ExamSubmission submission);
+    }
+    
+    private record Key(long examId, long studentId) {
+    }
+    
+    /**
+     * Either on-heap answers or a location in an off-heap slab.
+     */
+    private static final class Entry {
+        final int attempt;
+        final String[] answers;
+        final int slab;
+        final long generation;
+        final int offset;
+        final int length;
+        final long heapBytes;
+        
+        Entry(int attempt, String[] answers, long heapBytes) {
+            this(attempt, answers, -1, 0, 0, 0, heapBytes);
+        }
+        
+        Entry(int attempt, String[] answers, int slab, long generation, int offset, int length, long heapBytes) {
+            this.attempt = attempt;
+            this.answers = answers;
+            this.slab = slab;
+            this.generation = generation;
+            this.offset = offset;
+            this.length = length;
+            this.heapBytes = heapBytes;
+        }
+    }
+    
+    private static final long ENTRY_OVERHEAD = 96;
+    private static final long OFF_HEAP_ENTRY_BYTES = ENTRY_OVERHEAD + 32;
+    
+    private final int maxEntries;
+    private final long maxHeapBytes;
+    private final int offHeapThreshold;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long heapBytes;
+    private Loader loader;
+    
+    // Off-heap ring of slabs; allocated lazily
+    private final ByteBuffer[] slabs;
+    private final long[] slabGenerations;
+    private final int slabBytes;
+    private int currentSlab;
+    private int slabPosition;
+    
+    private long hits;
+    private long misses;
+    
+    /**
+     * @param offHeapThreshold encoded size from which answer sets go off-heap; 0 keeps everything on-heap
+     */
+    public AnswerStore(int maxEntries, long maxHeapBytes, int offHeapThreshold, int slabBytes, int slabCount) {
+        this.maxEntries = maxEntries;
+        this.maxHeapBytes = maxHeapBytes;
+        boolean offHeap = offHeapThreshold > 0 && slabBytes > 0 && slabCount > 0;
+        this.offHeapThreshold = offHeap ? offHeapThreshold : Integer.MAX_VALUE;
+        this.slabBytes = offHeap ? slabBytes : 0;
+        this.slabs = new ByteBuffer[offHeap ? slabCount : 0];
+        this.slabGenerations = new long[slabs.length];
+    }
+    
+    public synchronized void setLoader(Loader loader) {
+        this.loader = loader;
+    }
+    
+    /**
+     * Keep the answers of a committed attempt; an entry of a later attempt is not replaced.
+     */
+    public synchronized void put(Long examId, Long studentId, int attempt, String[] answers) {
+        Key key = key(examId, studentId);
+        Entry previous = entries.get(key);
+        if (previous != null) {
+            if (previous.attempt > attempt) {
+                return;
+            }
+            entries.remove(key);
+            heapBytes -= previous.heapBytes;
+        }
+        
+        Entry entry = null;
+        if (slabs.length > 0) {
+            byte[] encoded = encode(answers);
+            if (encoded.length >= offHeapThreshold && encoded.length <= slabBytes) {
+                entry = writeOffHeap(attempt, encoded);
+            }
+        }
+        if (entry == null) {
+            String[] copy = answers.clone();
+            entry = new Entry(attempt, copy, heapSize(copy));
+        }
+        entries.put(key, entry);
+        heapBytes += entry.heapBytes;
+        evict();
+    }
+    
+    /**
+     * Answers of one submission, from memory if it is the attempt held there, else from the loader.
+     */
+    public String[] get(ExamSubmission submission) {
+        Loader fallback;
+        synchronized (this) {
+            Key key = key(submission.getExam() != null ? submission.getExam().getId() : null,
+                    submission.getStudent() != null ? submission.getStudent().getId() : null);
+            Entry entry = entries.get(key);
+            String[] answers = entry != null && entry.attempt == submission.getAttempt() ? read(key, entry) : null;
+            if (answers != null) {
+                hits++;
+                return answers;
+            }
+            misses++;
+            fallback = loader;
+        }
+        // Decoding may read the exam's dictionary, which happens outside the lock
+        return fallback != null ? fallback.load(submission) : submission.getAnswers();
+    }
+    
+    /**
+     * Forget one answer set, e.g. after another node stored a newer attempt.
+     */
+    public synchronized void remove(Long examId, Long studentId) {
+        Entry entry = entries.remove(key(examId, studentId));
+        if (entry != null) {
+            heapBytes -= entry.heapBytes;
+        }
+    }
+    
+    /**
+     * Forget every answer set; later reads go to the loader. Off-heap slabs are kept for reuse.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        heapBytes = 0;
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public synchronized long getHeapBytes() {
+        return heapBytes;
+    }
+    
+    public synchronized long getOffHeapCapacity() {
+        long allocated = 0;
+        for (ByteBuffer slab : slabs) {
+            allocated += slab != null ? slab.capacity() : 0;
+        }
+        return allocated;
+    }
+    
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    public synchronized long getMisses() {
+        return misses;
+    }
+    
+    private String[] read(Key key, Entry entry) {
+        if (entry.answers != null) {
+            return entry.answers.clone();
+        }
+        if (!isLive(entry)) {
+            // The slab was reused after this entry was written
+            entries.remove(key);
+            heapBytes -= entry.heapBytes;
+            return null;
+        }
+        ByteBuffer view = slabs[entry.slab].duplicate();
+        view.limit(entry.offset + entry.length).position(entry.offset);
+        return decode(view);
+    }
+    
+    private boolean isLive(Entry entry) {
+        return entry.answers != null || slabGenerations[entry.slab] == entry.generation;
+    }
+    
+    private Entry writeOffHeap(int attempt, byte[] encoded) {
+        if (slabs[currentSlab] == null) {
+            slabs[currentSlab] = ByteBuffer.allocateDirect(slabBytes);
+        }
+        if (slabPosition + encoded.length > slabBytes) {
+            // Move to the next slab in the ring; whatever it held is invalidated
+            currentSlab = (currentSlab + 1) % slabs.length;
+            if (slabs[currentSlab] == null) {
+                slabs[currentSlab] = ByteBuffer.allocateDirect(slabBytes);
+            } else {
+                slabGenerations[currentSlab]++;
+            }
+            slabPosition = 0;
+        }
+        ByteBuffer slab = slabs[currentSlab];
+        slab.put(slabPosition, encoded);
+        Entry entry = new Entry(attempt, null, currentSlab, slabGenerations[currentSlab], slabPosition,
+                encoded.length, OFF_HEAP_ENTRY_BYTES);
+        slabPosition += encoded.length;
+        return entry;
+    }
+    
+    private void evict() {
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || heapBytes > maxHeapBytes) && eldest.hasNext()) {
+            heapBytes -= eldest.next().getValue().heapBytes;
+            eldest.remove();
+        }
+    }
+    
+    /**
+     * Unsaved exams and students (null ids) share id 0.
+     */
+    private static Key key(Long examId, Long studentId) {
+        return new Key(examId != null ? examId : 0L, studentId != null ? studentId : 0L);
+    }
+    
+    private static long heapSize(String[] answers) {
+        long size = ENTRY_OVERHEAD + 16L + 4L * answers.length;
+        for (String answer : answers) {
+            size += answer != null ? 40 + answer.length() : 0;
+        }
+        return size;
+    }
+    
+    /**
+     * [count][length, UTF-8 bytes]... with length -1 for null answers.
+     */
+    private static byte[] encode(String[] answers) {
+        byte[][] parts = new byte[answers.length][];
+        int size = 4;
+        for (int i = 0; i < answers.length; i++) {
+            parts[i] = answers[i] != null ? answers[i].getBytes(StandardCharsets.UTF_8) : null;
+            size += 4 + (parts[i] != null ? parts[i].length : 0);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(answers.length);
+        for (byte[] part : parts) {
+            buffer.putInt(part != null ? part.length : -1);
+            if (part != null) {
+                buffer.put(part);
+            }
+        }
+        return buffer.array();
+    }
+    
+    private static String[] decode(ByteBuffer buffer) {
+        String[] answers = new String[buffer.getInt()];
+        for (int i = 0; i < answers.length; i++) {
+            int length = buffer.getInt();
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                answers[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return answers;
+    }
+}
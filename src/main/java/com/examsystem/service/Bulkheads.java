@@ -0,0 +1,78 @@
+package com.examsystem.service;
+
+import com.examsystem.utils.Bulkhead;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The application's bulkheads. Submissions keep the request threads to
+ * themselves; other work is capped by its own pool:
+ * <ul>
+ *   <li>grading: regrades of stored submissions</li>
+ *   <li>export: result files</li>
+ *   <li>analytics: admin statistics</li>
+ *   <li>background: best-effort work nobody waits for, such as manual review notes</li>
+ * </ul>
+ * Sizes, queue limits and overflow policies are set under {@code exam.bulkheads.<name>}.
+ */
+@Component
+public class Bulkheads {
+
+    private final Bulkhead grading;
+    private final Bulkhead export;
+    private final Bulkhead analytics;
+    private final Bulkhead background;
+
+    public Bulkheads(@Value("${exam.bulkheads.grading.threads:2}") int gradingThreads,
+                     @Value("${exam.bulkheads.grading.queue-capacity:4}") int gradingQueue,
+                     @Value("${exam.bulkheads.grading.overflow:reject}") String gradingOverflow,
+                     @Value("${exam.bulkheads.export.threads:1}") int exportThreads,
+                     @Value("${exam.bulkheads.export.queue-capacity:2}") int exportQueue,
+                     @Value("${exam.bulkheads.export.overflow:reject}") String exportOverflow,
+                     @Value("${exam.bulkheads.analytics.threads:4}") int analyticsThreads,
+                     @Value("${exam.bulkheads.analytics.queue-capacity:16}") int analyticsQueue,
+                     @Value("${exam.bulkheads.analytics.overflow:reject}") String analyticsOverflow,
+                     @Value("${exam.bulkheads.background.threads:1}") int backgroundThreads,
+                     @Value("${exam.bulkheads.background.queue-capacity:1000}") int backgroundQueue,
+                     @Value("${exam.bulkheads.background.overflow:discard}") String backgroundOverflow) {
+        this.grading = new Bulkhead("grading", gradingThreads, gradingQueue, overflow(gradingOverflow));
+        this.export = new Bulkhead("export", exportThreads, exportQueue, overflow(exportOverflow));
+        this.analytics = new Bulkhead("analytics", analyticsThreads, analyticsQueue, overflow(analyticsOverflow));
+        this.background = new Bulkhead("background", backgroundThreads, backgroundQueue,
+                overflow(backgroundOverflow));
+    }
+
+    private static Bulkhead.Overflow overflow(String policy) {
+        return Bulkhead.Overflow.valueOf(policy.trim().toUpperCase().replace('-', '_'));
+    }
+
+    public Bulkhead grading() {
+        return grading;
+    }
+
+    public Bulkhead export() {
+        return export;
+    }
+
+    public Bulkhead analytics() {
+        return analytics;
+    }
+
+    public Bulkhead background() {
+        return background;
+    }
+
+    public List<Bulkhead> all() {
+        return List.of(grading, export, analytics, background);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        for (Bulkhead bulkhead : all()) {
+            bulkhead.close();
+        }
+    }
+}
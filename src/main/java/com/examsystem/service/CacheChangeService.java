@@ -0,0 +1,261 @@
+package com.examsystem.service;
+
+import com.examsystem.entity.CacheChange;
+import com.examsystem.model.CacheRegion;
+import com.examsystem.repository.CacheChangeRepository;
+import com.examsystem.utils.ReadRouting;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Keeps node-local caches consistent when several nodes share one database
+ * (scale-out mode, {@code exam.cluster.enabled}).
+ * <p>
+ * A transaction that changes cached data appends a row to {@code cache_changes},
+ * so the notification commits or rolls back with the change itself. Every node
+ * polls the highest change id, a primary key lookup, and only when it moved reads
+ * the newer rows and hands those of other nodes to the handlers of their region.
+ * Identity values can become visible out of order when two transactions insert at
+ * once, so ids a poll skipped are looked for again during a grace period before
+ * they are given up as rolled back. A node that could not poll for longer than the
+ * retention period may have missed pruned rows and drops every region instead.
+ * Outside scale-out mode nothing is published or polled.
+ */
+@Service
+public class CacheChangeService {
+
+    private static final int POLL_BATCH = 500;
+    // Longer than a publishing transaction stays open after its insert
+    private static final long GAP_GRACE_NANOS = TimeUnit.SECONDS.toNanos(10);
+    // Identity values skipped in bulk (e.g. a sequence cache lost on restart) are not worth tracking
+    private static final int MAX_TRACKED_GAPS = 1000;
+    private static final long PRUNE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final CacheChangeRepository changeRepository;
+    private final boolean enabled;
+    private final String node;
+    private final long pollIntervalMs;
+    private final Duration retention;
+
+    private final Map<CacheRegion, List<Consumer<CacheChange>>> handlers = new EnumMap<>(CacheRegion.class);
+
+    // Poller state, only touched by the polling thread once it runs
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private volatile long watermark;
+    private long lastPolled;
+    private long lastPruned;
+    private ScheduledExecutorService poller;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+
+    public CacheChangeService(CacheChangeRepository changeRepository,
+                              @Value("${exam.cluster.enabled:false}") boolean enabled,
+                              @Value("${exam.cluster.node-id:}") String node,
+                              @Value("${exam.cluster.poll-interval-ms:500}") long pollIntervalMs,
+                              @Value("${exam.cluster.retention-minutes:10}") long retentionMinutes) {
+        this.changeRepository = changeRepository;
+        this.enabled = enabled;
+        this.node = node == null || node.isBlank() ? UUID.randomUUID().toString() : node;
+        this.pollIntervalMs = pollIntervalMs;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        for (CacheRegion region : CacheRegion.values()) {
+            handlers.put(region, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    /**
+     * Caches start empty, so changes made before this node started are of no interest.
+     */
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            watermark = changeRepository.findWatermark();
+            lastPolled = lastPruned = System.nanoTime();
+        }
+    }
+
+    /**
+     * Poll once every bean, including the subscribed caches, is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || poller != null) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "cache-change-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollQuietly, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        System.out.println("[CLUSTER] Node " + node + " polling cache changes from id " + watermark);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller.awaitTermination(5, TimeUnit.SECONDS);
+            poller = null;
+        }
+    }
+
+    /**
+     * Handle changes other nodes made in a region. A change without an entity id stands for
+     * the whole region.
+     */
+    public void subscribe(CacheRegion region, Consumer<CacheChange> handler) {
+        handlers.get(region).add(handler);
+    }
+
+    public void publish(CacheRegion region, Long entityId) {
+        publish(region, entityId, null);
+    }
+
+    /**
+     * Tell other nodes that data cached under the given ids changed. Joins the caller's
+     * transaction, so the notification becomes visible exactly when the change does.
+     */
+    public void publish(CacheRegion region, Long entityId, Long secondaryId) {
+        if (!enabled) {
+            return;
+        }
+        changeRepository.save(CacheChange.builder()
+                .region(region)
+                .entityId(entityId)
+                .secondaryId(secondaryId)
+                .node(node)
+                .createdAt(LocalDateTime.now())
+                .build());
+        published.incrementAndGet();
+    }
+
+    private void pollQuietly() {
+        try {
+            // Changes and the caches refilled after them must not come from a lagging replica
+            ReadRouting.onPrimary(this::poll);
+        } catch (RuntimeException e) {
+            System.err.println("[CLUSTER] Polling cache changes failed: " + e.getMessage());
+        }
+    }
+
+    private void poll() {
+        long now = System.nanoTime();
+        if (now - lastPolled > retention.toNanos()) {
+            // Rows this node never saw may have been pruned already
+            long latest = changeRepository.findWatermark();
+            resetAll();
+            watermark = latest;
+            gaps.clear();
+            lastPolled = now;
+            return;
+        }
+
+        long latest = changeRepository.findWatermark();
+        while (latest > watermark) {
+            List<CacheChange> changes = changeRepository.findByIdGreaterThanOrderByIdAsc(
+                    watermark, PageRequest.of(0, POLL_BATCH));
+            if (changes.isEmpty()) {
+                break;
+            }
+            long expected = watermark + 1;
+            for (CacheChange change : changes) {
+                for (long id = expected; id < change.getId() && gaps.size() < MAX_TRACKED_GAPS; id++) {
+                    gaps.put(id, now);
+                }
+                apply(change);
+                expected = change.getId() + 1;
+            }
+            watermark = changes.get(changes.size() - 1).getId();
+        }
+
+        if (!gaps.isEmpty()) {
+            for (CacheChange change : changeRepository.findByIdInOrderByIdAsc(gaps.keySet())) {
+                gaps.remove(change.getId());
+                apply(change);
+            }
+            gaps.values().removeIf(noticed -> now - noticed > GAP_GRACE_NANOS);
+        }
+
+        if (now - lastPruned > PRUNE_INTERVAL_NANOS) {
+            changeRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+            lastPruned = now;
+        }
+        lastPolled = now;
+    }
+
+    private void apply(CacheChange change) {
+        if (node.equals(change.getNode())) {
+            return;
+        }
+        applied.incrementAndGet();
+        dispatch(change);
+    }
+
+    private void resetAll() {
+        resets.incrementAndGet();
+        System.err.println("[CLUSTER] Missed cache changes; dropping every node-local cache");
+        for (CacheRegion region : CacheRegion.values()) {
+            dispatch(CacheChange.builder().region(region).node(node).build());
+        }
+    }
+
+    private void dispatch(CacheChange change) {
+        for (Consumer<CacheChange> handler : handlers.get(change.getRegion())) {
+            try {
+                handler.accept(change);
+            } catch (RuntimeException e) {
+                System.err.println("[CLUSTER] Applying " + change.getRegion() + " change "
+                        + change.getId() + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    /**
+     * Highest change id this node has read.
+     */
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+
+    public long getApplied() {
+        return applied.get();
+    }
+
+    public long getResets() {
+        return resets.get();
+    }
+}
@@ -0,0 +1,401 @@
+package com.examsystem.service;
+
+import com.examsystem.model.AdmissionStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual waiting room for exam starts. When an exam opens and thousands of
+ * students start it in the same second, each exam admits starts at a limited
+ * rate from a token bucket and queues the rest in arrival order; queued students
+ * wait on a lightweight page that polls {@link #poll} for their position.
+ * <p>
+ * The admission rate adapts to how long admitted starts take (an exponentially
+ * weighted average): above {@code target-latency-ms} it is cut by a quarter, below
+ * it grows by a tenth while students are waiting, once per second at most.
+ * A student's exam time starts when they are admitted, not when they arrive, and
+ * reopening the exam page keeps that start until they submit. State is held in
+ * memory per node; a waiting student who stops polling loses their place.
+ * <p>
+ * Callers only open rooms for exams that exist and can be started. Rooms with
+ * nobody waiting are dropped once idle, and at most {@code max-rooms} are kept;
+ * starts of further exams are admitted directly, like starts with the waiting
+ * room disabled.
+ */
+@Service
+public class ExamAdmissionService {
+
+    private static final long ADJUST_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // Admissions of students who never submit are forgotten after this long
+    private static final long ADMISSION_TTL_MILLIS = TimeUnit.HOURS.toMillis(24);
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    // A room nobody waits in and nobody was admitted to recently is dropped after this long
+    private static final long ROOM_IDLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    // Sweeps of a full room map, to make space for a new room
+    private static final long FULL_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final double initialRate;
+    private final double minRate;
+    private final double maxRate;
+    private final double burst;
+    private final long targetLatencyNanos;
+    private final long ticketTimeoutNanos;
+    private final long pollIntervalMs;
+    private final int maxRooms;
+
+    private final Map<Long, Room> rooms = new ConcurrentHashMap<>();
+    private final AtomicLong lastSwept = new AtomicLong(System.nanoTime());
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong abandoned = new AtomicLong();
+    private final AtomicLong unqueued = new AtomicLong();
+
+    public ExamAdmissionService(@Value("${exam.admission.enabled:true}") boolean enabled,
+                                @Value("${exam.admission.initial-rate:20}") double initialRate,
+                                @Value("${exam.admission.min-rate:2}") double minRate,
+                                @Value("${exam.admission.max-rate:200}") double maxRate,
+                                @Value("${exam.admission.burst:50}") double burst,
+                                @Value("${exam.admission.target-latency-ms:500}") long targetLatencyMs,
+                                @Value("${exam.admission.ticket-timeout-ms:30000}") long ticketTimeoutMs,
+                                @Value("${exam.admission.poll-interval-ms:2000}") long pollIntervalMs,
+                                @Value("${exam.admission.max-rooms:1000}") int maxRooms) {
+        this.enabled = enabled;
+        this.minRate = minRate;
+        this.maxRate = Math.max(minRate, maxRate);
+        this.initialRate = Math.min(this.maxRate, Math.max(minRate, initialRate));
+        this.burst = Math.max(1, burst);
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.ticketTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(ticketTimeoutMs);
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxRooms = Math.max(1, maxRooms);
+    }
+
+    /**
+     * A student opens the exam: admit them if nobody is waiting and the rate allows,
+     * otherwise give them a place in the queue. Already admitted students stay admitted.
+     */
+    public AdmissionStatus enter(Long examId, String username) {
+        if (!enabled) {
+            return new AdmissionStatus(true, 0, 0, System.currentTimeMillis(), 0);
+        }
+        long now = System.nanoTime();
+        AdmissionStatus status;
+        do {
+            Room room = room(examId, now);
+            if (room == null) {
+                unqueued.incrementAndGet();
+                return new AdmissionStatus(true, 0, 0, System.currentTimeMillis(), 0);
+            }
+            status = room.enter(username, now);
+        } while (status == null);
+        return status;
+    }
+
+    /**
+     * Position of a waiting student, admitting whoever is at the head of the queue
+     * when the rate allows. A student whose place expired queues again.
+     */
+    public AdmissionStatus poll(Long examId, String username) {
+        if (!enabled) {
+            return new AdmissionStatus(true, 0, 0, System.currentTimeMillis(), 0);
+        }
+        long now = System.nanoTime();
+        AdmissionStatus status;
+        do {
+            Room room = room(examId, now);
+            if (room == null) {
+                unqueued.incrementAndGet();
+                return new AdmissionStatus(true, 0, 0, System.currentTimeMillis(), 0);
+            }
+            status = room.poll(username, now);
+        } while (status == null);
+        return status;
+    }
+
+    /**
+     * Feed the time an admitted start took into the exam's admission rate.
+     */
+    public void recordStart(Long examId, long nanos) {
+        Room room = rooms.get(examId);
+        if (room != null) {
+            room.observe(nanos, System.nanoTime());
+        }
+    }
+
+    /**
+     * The student submitted; their next start is a new attempt with a new exam time.
+     */
+    public void finish(Long examId, String username) {
+        Room room = rooms.get(examId);
+        if (room != null) {
+            room.admittedAt.remove(username);
+        }
+    }
+
+    /**
+     * The exam's room, opened if there is space; null if every room is in use.
+     */
+    private Room room(Long examId, long now) {
+        Room room = rooms.get(examId);
+        if (room != null) {
+            return room;
+        }
+        sweep(now, rooms.size() >= maxRooms ? FULL_SWEEP_INTERVAL_NANOS : SWEEP_INTERVAL_NANOS);
+        if (rooms.size() >= maxRooms) {
+            return rooms.get(examId);
+        }
+        return rooms.computeIfAbsent(examId, id -> new Room(now));
+    }
+
+    /**
+     * Drop idle rooms, by one caller at a time and at most once per interval.
+     */
+    private void sweep(long now, long interval) {
+        long last = lastSwept.get();
+        if (now - last < interval || !lastSwept.compareAndSet(last, now)) {
+            return;
+        }
+        rooms.forEach((examId, room) -> {
+            synchronized (room) {
+                if (room.isIdle(now)) {
+                    room.closed = true;
+                    rooms.remove(examId, room);
+                }
+            }
+        });
+    }
+
+    private static final class Ticket {
+        final String username;
+        final long sequence;
+        long lastSeen;
+
+        Ticket(String username, long sequence, long lastSeen) {
+            this.username = username;
+            this.sequence = sequence;
+            this.lastSeen = lastSeen;
+        }
+    }
+
+    /**
+     * One exam's token bucket and queue. All methods but the admission lookup hold the room's lock,
+     * so a poll costs a few map operations. A closed room was dropped by a sweep; its
+     * callers get null and look the room up again.
+     */
+    private final class Room {
+
+        final Map<String, Long> admittedAt = new ConcurrentHashMap<>();
+        final ArrayDeque<Ticket> queue = new ArrayDeque<>();
+        final Map<String, Ticket> tickets = new HashMap<>();
+        long nextSequence;
+
+        double rate = initialRate;
+        double tokens = burst;
+        long lastRefill;
+        double averageNanos;
+        long lastAdjusted;
+        long lastSwept;
+        long lastUsed;
+        boolean closed;
+
+        Room(long now) {
+            lastRefill = now;
+            lastAdjusted = now;
+            lastSwept = now;
+            lastUsed = now;
+        }
+
+        synchronized AdmissionStatus enter(String username, long now) {
+            if (closed) {
+                return null;
+            }
+            lastUsed = now;
+            Long since = admittedAt.get(username);
+            if (since != null) {
+                return admittedStatus(since);
+            }
+            promote(now);
+            if (tickets.containsKey(username) || admittedAt.containsKey(username)) {
+                return poll(username, now);
+            }
+            if (queue.isEmpty() && takeToken()) {
+                return admittedStatus(admit(username));
+            }
+            Ticket ticket = new Ticket(username, nextSequence++, now);
+            queue.addLast(ticket);
+            tickets.put(username, ticket);
+            queued.incrementAndGet();
+            return waitingStatus(ticket);
+        }
+
+        synchronized AdmissionStatus poll(String username, long now) {
+            if (closed) {
+                return null;
+            }
+            lastUsed = now;
+            Ticket ticket = tickets.get(username);
+            if (ticket != null) {
+                ticket.lastSeen = now;
+            }
+            promote(now);
+            Long since = admittedAt.get(username);
+            if (since != null) {
+                return admittedStatus(since);
+            }
+            ticket = tickets.get(username);
+            return ticket != null ? waitingStatus(ticket) : enter(username, now);
+        }
+
+        synchronized void observe(long nanos, long now) {
+            lastUsed = now;
+            averageNanos = averageNanos == 0 ? nanos : 0.8 * averageNanos + 0.2 * nanos;
+            if (now - lastAdjusted < ADJUST_INTERVAL_NANOS) {
+                return;
+            }
+            lastAdjusted = now;
+            if (averageNanos > targetLatencyNanos) {
+                rate = Math.max(minRate, rate * 0.75);
+            } else if (!queue.isEmpty()) {
+                rate = Math.min(maxRate, rate + Math.max(1, rate * 0.1));
+            }
+        }
+
+        /**
+         * Admit from the head of the queue while tokens last, skipping students who stopped polling.
+         */
+        private void promote(long now) {
+            refill(now);
+            while (!queue.isEmpty()) {
+                Ticket head = queue.peekFirst();
+                if (now - head.lastSeen > ticketTimeoutNanos) {
+                    queue.pollFirst();
+                    tickets.remove(head.username);
+                    abandoned.incrementAndGet();
+                    continue;
+                }
+                if (!takeToken()) {
+                    break;
+                }
+                queue.pollFirst();
+                tickets.remove(head.username);
+                admit(head.username);
+            }
+            if (now - lastSwept > SWEEP_INTERVAL_NANOS) {
+                long cutoff = System.currentTimeMillis() - ADMISSION_TTL_MILLIS;
+                admittedAt.values().removeIf(at -> at < cutoff);
+                lastSwept = now;
+            }
+        }
+
+        /**
+         * Nobody is waiting, and the room was not used for a while; students still taking
+         * the exam keep it open for as long as their admission is remembered.
+         */
+        boolean isIdle(long now) {
+            if (!queue.isEmpty()) {
+                return false;
+            }
+            long idle = now - lastUsed;
+            return admittedAt.isEmpty() ? idle > ROOM_IDLE_NANOS : idle > TimeUnit.MILLISECONDS.toNanos(ADMISSION_TTL_MILLIS);
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(burst, tokens + (now - lastRefill) / 1e9 * rate);
+            lastRefill = now;
+        }
+
+        private boolean takeToken() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        private long admit(String username) {
+            long now = System.currentTimeMillis();
+            admittedAt.put(username, now);
+            admitted.incrementAndGet();
+            return now;
+        }
+
+        private AdmissionStatus waitingStatus(Ticket ticket) {
+            long position = ticket.sequence - queue.peekFirst().sequence + 1;
+            long wait = (long) Math.ceil(position / rate);
+            return new AdmissionStatus(false, position, wait, 0, pollIntervalMs);
+        }
+
+        private AdmissionStatus admittedStatus(long since) {
+            return new AdmissionStatus(true, 0, 0, since, 0);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getPollIntervalMs() {
+        return pollIntervalMs;
+    }
+
+    /**
+     * Current admission rate of an exam in starts per second, or the initial rate before its first start.
+     */
+    public double getRate(Long examId) {
+        Room room = rooms.get(examId);
+        if (room == null) {
+            return initialRate;
+        }
+        synchronized (room) {
+            return room.rate;
+        }
+    }
+
+    /**
+     * Students waiting across all exams.
+     */
+    public int getWaiting() {
+        int waiting = 0;
+        for (Room room : rooms.values()) {
+            synchronized (room) {
+                waiting += room.queue.size();
+            }
+        }
+        return waiting;
+    }
+
+    public long getAdmitted() {
+        return admitted.get();
+    }
+
+    public long getQueued() {
+        return queued.get();
+    }
+
+    public long getAbandoned() {
+        return abandoned.get();
+    }
+
+    /**
+     * Starts admitted without a room because {@code max-rooms} rooms were in use.
+     */
+    public long getUnqueued() {
+        return unqueued.get();
+    }
+
+    /**
+     * Open waiting rooms.
+     */
+    public int getRooms() {
+        return rooms.size();
+    }
+}
@@ -0,0 +1,121 @@
+package com.examsystem.service;
+
+import com.examsystem.repository.ExamRepository;
+import com.examsystem.utils.AfterCommit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exam result counters, applied as deltas after the changing transaction commits.
+ * <p>
+ * Deltas are commutative, so they are summed per exam and written by whichever
+ * committer holds the flush lock, in a short transaction of its own: the exam
+ * row is locked for one UPDATE instead of for a whole submission, and deltas
+ * committed meanwhile are written together. Committers never wait for the lock,
+ * so at most one of them needs a second connection while still holding its own;
+ * the flusher keeps draining until nothing is pending, so no delta is left behind.
+ * A failed write puts its deltas back for the next flush.
+ */
+@Service
+public class ExamCounters {
+
+    private final ExamRepository examRepository;
+    private final TransactionTemplate flushTransaction;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ExamCounters(ExamRepository examRepository, PlatformTransactionManager transactionManager) {
+        this.examRepository = examRepository;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Add deltas to an exam's counters once the current transaction commits,
+     * or right away outside a transaction. A rolled-back change adds nothing.
+     */
+    public void add(Long examId, long submissions, int results, long score, int passed) {
+        if (submissions == 0 && results == 0 && score == 0 && passed == 0) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            pending.computeIfAbsent(examId, id -> new Pending()).add(submissions, results, score, passed);
+            flush();
+        });
+    }
+
+    private void flush() {
+        // Re-checked after unlocking, so a delta added while the flusher finished is not stranded
+        while (hasPending() && flushLock.tryLock()) {
+            try {
+                for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+                    if (!write(entry.getKey(), entry.getValue())) {
+                        return;
+                    }
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private boolean write(Long examId, Pending counters) {
+        long[] delta = counters.drain();
+        if (delta == null) {
+            return true;
+        }
+        try {
+            flushTransaction.executeWithoutResult(status -> examRepository.addToResultCounters(
+                    examId, delta[0], (int) delta[1], delta[2], (int) delta[3]));
+            return true;
+        } catch (RuntimeException e) {
+            counters.add(delta[0], delta[1], delta[2], delta[3]);
+            System.err.println("[COUNTERS] Keeping deltas of exam " + examId + " for the next flush: "
+                    + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean hasPending() {
+        for (Pending counters : pending.values()) {
+            if (!counters.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Pending {
+        private long submissions;
+        private long results;
+        private long score;
+        private long passed;
+
+        synchronized void add(long submissions, long results, long score, long passed) {
+            this.submissions += submissions;
+            this.results += results;
+            this.score += score;
+            this.passed += passed;
+        }
+
+        synchronized boolean isEmpty() {
+            return submissions == 0 && results == 0 && score == 0 && passed == 0;
+        }
+
+        /** Take the summed deltas, or null if there is nothing to write. */
+        synchronized long[] drain() {
+            if (isEmpty()) {
+                return null;
+            }
+            long[] delta = {submissions, results, score, passed};
+            submissions = results = score = passed = 0;
+            return delta;
+        }
+    }
+}
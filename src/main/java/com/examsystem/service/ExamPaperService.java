@@ -0,0 +1,567 @@
+package com.examsystem.service;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.Question;
+import com.examsystem.exception.ExamNotFoundException;
+import com.examsystem.model.ExamPaper;
+import com.examsystem.model.ExamPaper.QuestionSegment;
+import com.examsystem.model.ExamType;
+import com.examsystem.model.PaperOutline;
+import com.examsystem.model.PaperSection;
+import com.examsystem.repository.ExamRepository;
+import com.examsystem.repository.QuestionRepository;
+import com.examsystem.utils.PaperShuffle;
+import com.examsystem.utils.ReadRouting;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exam paper rendering stage.
+ * Renders the question payload of an exam once per exam version and caches the
+ * resulting bytes, so serving a paper to a student is a lookup instead of a
+ * template render and a re-parse of every question's options.
+ * Large papers can also be served one section at a time from a section index.
+ */
+@Service
+public class ExamPaperService {
+
+    private static final byte[] COMMA = {','};
+    private static final byte[] NONE = new byte[0];
+    private static final byte[] JSON_END = "]}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DIV_END = "</div>".getBytes(StandardCharsets.UTF_8);
+
+    private final ExamRepository examRepository;
+    private final QuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxCachedPapers;
+    private final boolean shuffleEnabled;
+
+    // One future per exam, so concurrent first requests share a single render
+    private final Map<Long, CompletableFuture<ExamPaper>> papers = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<ExamSections>> sections = new ConcurrentHashMap<>();
+
+    private final AtomicLong renders = new AtomicLong();
+
+    /**
+     * Section index of one exam plus the section pages rendered so far.
+     */
+    private static final class ExamSections {
+        private final PaperOutline outline;
+        private final Map<Integer, CompletableFuture<PaperSection>> pages = new ConcurrentHashMap<>();
+
+        private ExamSections(PaperOutline outline) {
+            this.outline = outline;
+        }
+    }
+
+    public ExamPaperService(ExamRepository examRepository,
+                            QuestionRepository questionRepository,
+                            ObjectMapper objectMapper,
+                            @Value("${exam.paper.cache-size:256}") int maxCachedPapers,
+                            @Value("${exam.paper.shuffle:true}") boolean shuffleEnabled) {
+        this.examRepository = examRepository;
+        this.questionRepository = questionRepository;
+        this.objectMapper = objectMapper;
+        this.maxCachedPapers = maxCachedPapers;
+        this.shuffleEnabled = shuffleEnabled;
+    }
+
+    /**
+     * Get the rendered paper for an exam, rendering it on first use.
+     */
+    public ExamPaper getPaper(Long examId) {
+        return loadOnce(papers, examId, () -> render(examId));
+    }
+
+    /**
+     * Get the paper only if it is already rendered. Never touches the database.
+     */
+    public ExamPaper getCachedPaper(Long examId) {
+        return cached(papers, examId);
+    }
+
+    /**
+     * Get the section index of an exam, building it on first use.
+     * Uses the rendered paper when available, otherwise reads only question ids and sections.
+     */
+    public PaperOutline getOutline(Long examId) {
+        return loadOnce(sections, examId, () -> new ExamSections(buildOutline(examId))).outline;
+    }
+
+    /**
+     * Get the section index only if it is already built. Never touches the database.
+     */
+    public PaperOutline getCachedOutline(Long examId) {
+        ExamSections examSections = cached(sections, examId);
+        return examSections != null ? examSections.outline : null;
+    }
+
+    /**
+     * Get one rendered section of an exam paper, rendering it on first use.
+     */
+    public PaperSection getSection(Long examId, int section) {
+        ExamSections examSections = loadOnce(sections, examId, () -> new ExamSections(buildOutline(examId)));
+        if (examSections.outline.indexOfSection(section) < 0) {
+            throw new ExamNotFoundException("Section " + section + " not found in exam " + examId);
+        }
+        return loadOnce(examSections.pages, section, () -> renderSection(examSections.outline, section));
+    }
+
+    /**
+     * Get a section page only if it is already rendered. Never touches the database.
+     */
+    public PaperSection getCachedSection(Long examId, int section) {
+        ExamSections examSections = cached(sections, examId);
+        return examSections != null ? cached(examSections.pages, section) : null;
+    }
+
+    /**
+     * Number of exams with a rendered paper in the cache.
+     */
+    public int getCachedPaperCount() {
+        return papers.size();
+    }
+    
+    /**
+     * Full papers rendered since startup.
+     */
+    public long getRenders() {
+        return renders.get();
+    }
+    
+    /**
+     * Whether papers are served in a per-student question and option order.
+     */
+    public boolean isShuffleEnabled() {
+        return shuffleEnabled;
+    }
+
+    /**
+     * Served order of a student's questions: {@code order[served] = canonical index},
+     * or null when papers are not shuffled.
+     */
+    public int[] questionOrder(Long examId, Long studentId, int version, int questionCount) {
+        if (!shuffleEnabled) {
+            return null;
+        }
+        return PaperShuffle.order(questionCount, PaperShuffle.seed(examId, studentId, version));
+    }
+
+    /**
+     * ETag of a student's copy of a representation. Derived from a digest of the
+     * username, so revalidation needs neither the student row nor a render, and two
+     * students never share a tag the way colliding string hash codes would.
+     */
+    public String personalEtag(String etag, String username) {
+        if (!shuffleEnabled) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-u"
+                + digest(username.getBytes(StandardCharsets.UTF_8), NONE) + "\"";
+    }
+
+    /**
+     * A student's copy of the HTML fragment (shared bytes when shuffling is off).
+     */
+    public byte[] personalHtml(ExamPaper paper, Long studentId) {
+        if (!shuffleEnabled) {
+            return paper.getHtml();
+        }
+        long seed = PaperShuffle.seed(paper.getExamId(), studentId, paper.getVersion());
+        return assemble(NONE, paper.getHtmlSegments(), NONE, NONE, NONE, seed, true);
+    }
+
+    /**
+     * A student's copy of the JSON paper (shared bytes when shuffling is off).
+     */
+    public byte[] personalJson(ExamPaper paper, Long studentId) {
+        if (!shuffleEnabled) {
+            return paper.getJson();
+        }
+        long seed = PaperShuffle.seed(paper.getExamId(), studentId, paper.getVersion());
+        return assemble(paper.getJsonPrefix(), paper.getJsonSegments(), COMMA, COMMA, JSON_END, seed, true);
+    }
+
+    /**
+     * A student's copy of one section page as HTML. Section-paged clients submit
+     * answers by question id, so questions are shuffled within the section only.
+     */
+    public byte[] personalSectionHtml(PaperSection page, PaperOutline outline, Long studentId) {
+        if (!shuffleEnabled) {
+            return page.getHtml();
+        }
+        long seed = PaperShuffle.derive(
+                PaperShuffle.seed(outline.getExamId(), studentId, outline.getVersion()), page.getSection());
+        return assemble(page.getHtmlPrefix(), page.getHtmlSegments(), NONE, NONE, DIV_END, seed, true);
+    }
+
+    /**
+     * A student's copy of one section page as JSON.
+     */
+    public byte[] personalSectionJson(PaperSection page, PaperOutline outline, Long studentId) {
+        if (!shuffleEnabled) {
+            return page.getJson();
+        }
+        long seed = PaperShuffle.derive(
+                PaperShuffle.seed(outline.getExamId(), studentId, outline.getVersion()), page.getSection());
+        return assemble(page.getJsonPrefix(), page.getJsonSegments(), COMMA, COMMA, JSON_END, seed, true);
+    }
+
+    /**
+     * Drop the rendered paper and sections after the exam or its questions changed.
+     */
+    public void invalidate(Long examId) {
+        papers.remove(examId);
+        sections.remove(examId);
+    }
+
+    /**
+     * Drop every rendered paper and section, e.g. when changes from other nodes may have been missed.
+     */
+    public void invalidateAll() {
+        papers.clear();
+        sections.clear();
+    }
+
+    private <K, V> V loadOnce(Map<K, CompletableFuture<V>> cache, K key, Supplier<V> loader) {
+        CompletableFuture<V> existing = cache.get(key);
+        if (existing == null) {
+            CompletableFuture<V> created = new CompletableFuture<>();
+            existing = cache.putIfAbsent(key, created);
+            if (existing == null) {
+                evictIfFull(cache);
+                try {
+                    created.complete(ReadRouting.onPrimary(loader));
+                } catch (RuntimeException e) {
+                    cache.remove(key, created);
+                    created.completeExceptionally(e);
+                }
+                existing = created;
+            }
+        }
+        try {
+            return existing.join();
+        } catch (CompletionException e) {
+            throw (e.getCause() instanceof RuntimeException cause) ? cause : e;
+        }
+    }
+
+    private static <K, V> V cached(Map<K, CompletableFuture<V>> cache, K key) {
+        CompletableFuture<V> value = cache.get(key);
+        return value != null && !value.isCompletedExceptionally() ? value.getNow(null) : null;
+    }
+
+    private void evictIfFull(Map<?, ?> cache) {
+        if (cache.size() <= maxCachedPapers) {
+            return;
+        }
+        // Papers are cheap to re-render; drop any one entry to stay within bounds
+        for (Object key : cache.keySet()) {
+            if (cache.size() <= maxCachedPapers) {
+                break;
+            }
+            cache.remove(key);
+        }
+    }
+
+    private ExamPaper render(Long examId) {
+        Exam exam = examRepository.findWithQuestionsById(examId)
+                .orElseThrow(() -> new ExamNotFoundException(examId));
+        List<Question> questions = exam.getQuestions();
+
+        List<QuestionSegment> htmlSegments = new ArrayList<>(questions.size());
+        List<QuestionSegment> jsonSegments = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            String[] options = exam.getType() == ExamType.MCQ ? question.getOptionsArray() : new String[0];
+            htmlSegments.add(renderHtml(exam.getType(), question, options, questions.size()));
+            jsonSegments.add(renderJson(question, options));
+        }
+
+        byte[] jsonPrefix = renderJsonPrefix(exam);
+        byte[] html = assemble(NONE, htmlSegments, NONE, NONE, NONE);
+        byte[] json = assemble(jsonPrefix, jsonSegments, COMMA, COMMA, JSON_END);
+        String etag = "e" + exam.getId() + "v" + exam.getPaperVersion() + "-" + digest(html, json);
+
+        renders.incrementAndGet();
+        return new ExamPaper(exam.getId(), exam.getPaperVersion(), exam.getTitle(), exam.getType(),
+                exam.getDurationMinutes(), exam.getTotalMarks(), etag,
+                htmlSegments, jsonSegments, jsonPrefix, JSON_END,
+                html, gzip(html), json, gzip(json));
+    }
+
+    private PaperOutline buildOutline(Long examId) {
+        Map<Integer, List<Long>> idsBySection = new LinkedHashMap<>();
+        int version;
+        String title;
+        ExamType type;
+        int durationMinutes;
+        int totalMarks;
+
+        ExamPaper paper = getCachedPaper(examId);
+        if (paper != null) {
+            for (QuestionSegment segment : paper.getHtmlSegments()) {
+                idsBySection.computeIfAbsent(segment.getSection(), k -> new ArrayList<>()).add(segment.getQuestionId());
+            }
+            version = paper.getVersion();
+            title = paper.getTitle();
+            type = paper.getType();
+            durationMinutes = paper.getDurationMinutes();
+            totalMarks = paper.getTotalMarks();
+        } else {
+            Exam exam = examRepository.findById(examId)
+                    .orElseThrow(() -> new ExamNotFoundException(examId));
+            for (QuestionRepository.SectionEntry entry : questionRepository.findSectionEntriesByExamIdOrderByIdAsc(examId)) {
+                idsBySection.computeIfAbsent(entry.getSection(), k -> new ArrayList<>()).add(entry.getId());
+            }
+            version = exam.getPaperVersion();
+            title = exam.getTitle();
+            type = exam.getType();
+            durationMinutes = exam.getDurationMinutes();
+            totalMarks = exam.getTotalMarks();
+        }
+
+        int[] sectionNumbers = idsBySection.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        long[][] sectionIds = new long[sectionNumbers.length][];
+        StringBuilder json = new StringBuilder(64 + 8 * sectionNumbers.length)
+                .append("{\"examId\":").append(examId)
+                .append(",\"version\":").append(version)
+                .append(",\"sections\":[");
+        int offset = 0;
+        for (int i = 0; i < sectionNumbers.length; i++) {
+            sectionIds[i] = idsBySection.get(sectionNumbers[i]).stream().mapToLong(Long::longValue).toArray();
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"section\":").append(sectionNumbers[i])
+                .append(",\"offset\":").append(offset)
+                .append(",\"questionIds\":[");
+            for (int j = 0; j < sectionIds[i].length; j++) {
+                json.append(j > 0 ? "," : "").append(sectionIds[i][j]);
+            }
+            json.append("]}");
+            offset += sectionIds[i].length;
+        }
+        json.append("],\"questionCount\":").append(offset).append('}');
+
+        byte[] jsonBytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        String etag = "e" + examId + "v" + version + "o-" + digest(jsonBytes, NONE);
+        return new PaperOutline(examId, version, title, type, durationMinutes, totalMarks,
+                sectionNumbers, sectionIds, etag, jsonBytes);
+    }
+
+    /**
+     * Render one section. Uses the rendered paper when available; otherwise loads
+     * only the questions of that section.
+     */
+    private PaperSection renderSection(PaperOutline outline, int section) {
+        int index = outline.indexOfSection(section);
+        List<QuestionSegment> htmlSegments = new ArrayList<>();
+        List<QuestionSegment> jsonSegments = new ArrayList<>();
+
+        ExamPaper paper = getCachedPaper(outline.getExamId());
+        if (paper != null && paper.getVersion() == outline.getVersion()) {
+            for (int i = 0; i < paper.getQuestionCount(); i++) {
+                if (paper.getHtmlSegments().get(i).getSection() == section) {
+                    htmlSegments.add(paper.getHtmlSegments().get(i));
+                    jsonSegments.add(paper.getJsonSegments().get(i));
+                }
+            }
+        } else {
+            List<Question> questions = new ArrayList<>(
+                    questionRepository.findByExamIdAndSection(outline.getExamId(), section));
+            questions.sort(Comparator.comparing(Question::getId));
+            for (Question question : questions) {
+                String[] options = outline.getType() == ExamType.MCQ ? question.getOptionsArray() : new String[0];
+                htmlSegments.add(renderHtml(outline.getType(), question, options, outline.getQuestionCount()));
+                jsonSegments.add(renderJson(question, options));
+            }
+        }
+
+        int offset = outline.getSectionOffsets()[index];
+        byte[] htmlPrefix = ("<div class=\"paper-section\" data-section=\"" + section
+                + "\" style=\"counter-reset: question " + offset + "\">").getBytes(StandardCharsets.UTF_8);
+        byte[] jsonPrefix = ("{\"examId\":" + outline.getExamId()
+                + ",\"version\":" + outline.getVersion()
+                + ",\"section\":" + section
+                + ",\"offset\":" + offset
+                + ",\"questionCount\":" + outline.getQuestionCount()
+                + ",\"questions\":[").getBytes(StandardCharsets.UTF_8);
+
+        byte[] html = assemble(htmlPrefix, htmlSegments, NONE, NONE, DIV_END);
+        byte[] json = assemble(jsonPrefix, jsonSegments, COMMA, COMMA, JSON_END);
+        String etag = "e" + outline.getExamId() + "v" + outline.getVersion() + "s" + section + "-" + digest(html, json);
+        return new PaperSection(section, etag, htmlPrefix, jsonPrefix, htmlSegments, jsonSegments,
+                html, gzip(html), json, gzip(json));
+    }
+
+    /**
+     * Render one question card. Question numbers and option letters come from
+     * CSS counters, so the markup does not depend on the question's position.
+     */
+    private QuestionSegment renderHtml(ExamType type, Question question, String[] options, int total) {
+        long id = question.getId();
+        StringBuilder head = new StringBuilder(256);
+        head.append("<div class=\"question-card\" data-question-id=\"").append(id)
+            .append("\" data-section=\"").append(question.getSection()).append("\">")
+            .append("<div class=\"question-header\"><h6 class=\"mb-0\">Question ")
+            .append("<span class=\"question-number\"></span> of ").append(total).append("</h6></div>")
+            .append("<div class=\"card-body\"><p class=\"lead\">")
+            .append(HtmlUtils.htmlEscape(question.getText())).append("</p>");
+
+        byte[][] optionBytes = new byte[options.length][];
+        String tail;
+        if (type == ExamType.MCQ) {
+            head.append("<div class=\"mt-3 options\">");
+            for (int i = 0; i < options.length; i++) {
+                String option = HtmlUtils.htmlEscape(options[i]);
+                String inputId = "q" + id + "opt" + i;
+                optionBytes[i] = ("<div class=\"mb-2 option\">"
+                        + "<input type=\"radio\" name=\"answer_" + id + "\" id=\"" + inputId + "\" value=\"" + option
+                        + "\" class=\"d-none answer-input\" data-question-index=\"" + id + "\" required>"
+                        + "<label for=\"" + inputId + "\" class=\"option-label d-block\">"
+                        + "<strong class=\"option-letter\"></strong><span>" + option + "</span></label></div>")
+                        .getBytes(StandardCharsets.UTF_8);
+            }
+            tail = "</div></div></div>";
+        } else {
+            tail = "<div class=\"mt-3\"><textarea class=\"form-control answer-input\" name=\"answer_" + id
+                    + "\" data-question-index=\"" + id + "\" rows=\"6\" placeholder=\"Enter your answer here...\""
+                    + " required></textarea></div></div></div>";
+        }
+        return new QuestionSegment(id, question.getSection(),
+                head.toString().getBytes(StandardCharsets.UTF_8), optionBytes,
+                tail.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Render one question object. The correct answer is never part of the payload.
+     */
+    private QuestionSegment renderJson(Question question, String[] options) {
+        byte[][] optionBytes = new byte[options.length][];
+        for (int i = 0; i < options.length; i++) {
+            optionBytes[i] = toJson(options[i]);
+        }
+        String head = "{\"id\":" + question.getId()
+                + ",\"section\":" + question.getSection()
+                + ",\"text\":" + new String(toJson(question.getText()), StandardCharsets.UTF_8)
+                + ",\"options\":[";
+        return new QuestionSegment(question.getId(), question.getSection(),
+                head.getBytes(StandardCharsets.UTF_8), optionBytes, JSON_END);
+    }
+
+    private byte[] renderJsonPrefix(Exam exam) {
+        String prefix = "{\"examId\":" + exam.getId()
+                + ",\"version\":" + exam.getPaperVersion()
+                + ",\"title\":" + new String(toJson(exam.getTitle()), StandardCharsets.UTF_8)
+                + ",\"type\":\"" + exam.getType().name() + "\""
+                + ",\"duration\":" + exam.getDurationMinutes()
+                + ",\"totalMarks\":" + exam.getTotalMarks()
+                + ",\"questions\":[";
+        return prefix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] toJson(String value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize exam paper text", e);
+        }
+    }
+
+    /**
+     * Concatenate segments in canonical order with the given separators.
+     */
+    static byte[] assemble(byte[] prefix, List<QuestionSegment> segments,
+                           byte[] questionSeparator, byte[] optionSeparator, byte[] suffix) {
+        return assemble(prefix, segments, questionSeparator, optionSeparator, suffix, 0L, false);
+    }
+
+    /**
+     * Concatenate segments, optionally in a seeded per-student question and option order.
+     * The output length does not depend on the order, so it is sized exactly up front.
+     */
+    static byte[] assemble(byte[] prefix, List<QuestionSegment> segments,
+                           byte[] questionSeparator, byte[] optionSeparator, byte[] suffix,
+                           long seed, boolean shuffled) {
+        int n = segments.size();
+        int length = prefix.length + suffix.length;
+        int maxOptions = 0;
+        for (int i = 0; i < n; i++) {
+            length += segments.get(i).length(optionSeparator.length) + (i > 0 ? questionSeparator.length : 0);
+            maxOptions = Math.max(maxOptions, segments.get(i).getOptions().length);
+        }
+        int[] questionOrder = shuffled ? PaperShuffle.order(n, seed) : null;
+        int[] optionOrder = shuffled ? new int[maxOptions] : null;
+
+        byte[] out = new byte[length];
+        int pos = put(out, 0, prefix);
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                pos = put(out, pos, questionSeparator);
+            }
+            QuestionSegment segment = segments.get(shuffled ? questionOrder[i] : i);
+            pos = put(out, pos, segment.getHead());
+            byte[][] options = segment.getOptions();
+            if (shuffled) {
+                PaperShuffle.fillOrder(optionOrder, options.length, PaperShuffle.derive(seed, segment.getQuestionId()));
+            }
+            for (int j = 0; j < options.length; j++) {
+                if (j > 0) {
+                    pos = put(out, pos, optionSeparator);
+                }
+                pos = put(out, pos, options[shuffled ? optionOrder[j] : j]);
+            }
+            pos = put(out, pos, segment.getTail());
+        }
+        put(out, pos, suffix);
+        return out;
+    }
+
+    private static int put(byte[] out, int pos, byte[] bytes) {
+        System.arraycopy(bytes, 0, out, pos, bytes.length);
+        return pos + bytes.length;
+    }
+
+    public static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String digest(byte[] first, byte[] second) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(first);
+            sha.update(second);
+            return HexFormat.of().formatHex(sha.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.examsystem.service;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.ExamResult;
+import com.examsystem.entity.Student;
+import com.examsystem.exception.SubmissionConflictException;
+import com.examsystem.repository.ExamRepository;
+import com.examsystem.repository.ExamResultRepository;
+import com.examsystem.repository.ExamSubmissionRepository;
+import com.examsystem.repository.ExamSubmissionRepository.AttemptEntry;
+import com.examsystem.repository.ExamSubmissionRepository.StudentAttemptEntry;
+import com.examsystem.repository.StudentRepository;
+import com.examsystem.utils.BulkChunks;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attempt numbering and the incrementally maintained exam results.
+ * <p>
+ * Attempt numbers are read without any lock; two submissions that pick the same
+ * number are told apart by the unique (exam, student, attempt) index, which
+ * rejects the second one (the submitter retries with a fresh number). Each
+ * accepted attempt is folded into the student's {@link ExamResult} row, and its
+ * delta goes to {@link ExamCounters} to be added to the exam's counters after
+ * commit, so neither score lookups nor dashboards ever scan the submissions.
+ */
+@Service
+@Transactional
+public class ExamResultService {
+
+    private final ExamResultRepository resultRepository;
+    private final ExamSubmissionRepository submissionRepository;
+    private final ExamRepository examRepository;
+    private final StudentRepository studentRepository;
+    private final ExamCounters counters;
+
+    public ExamResultService(ExamResultRepository resultRepository,
+                             ExamSubmissionRepository submissionRepository,
+                             ExamRepository examRepository,
+                             StudentRepository studentRepository,
+                             ExamCounters counters) {
+        this.resultRepository = resultRepository;
+        this.submissionRepository = submissionRepository;
+        this.examRepository = examRepository;
+        this.studentRepository = studentRepository;
+        this.counters = counters;
+    }
+
+    /**
+     * Number of the student's next attempt at the exam.
+     *
+     * @throws SubmissionConflictException if the exam's attempt limit is reached
+     */
+    public int nextAttempt(Exam exam, Long studentId) {
+        int attempt = submissionRepository.findLastAttempt(exam.getId(), studentId) + 1;
+        if (attempt > exam.getMaxAttempts()) {
+            throw new SubmissionConflictException("Exam " + exam.getId() + " allows "
+                    + exam.getMaxAttempts() + " attempt(s); all have been used");
+        }
+        return attempt;
+    }
+
+    /**
+     * Fold a persisted attempt into the student's result and the exam's counters.
+     *
+     * @return the student's counting score for the exam after this attempt
+     */
+    public int recordAttempt(Exam exam, Long studentId, int attempt, int score) {
+        ExamResult result = resultRepository.findByExamIdAndStudentId(exam.getId(), studentId).orElse(null);
+        boolean first = result == null;
+        if (first) {
+            result = new ExamResult(exam, studentRepository.getReferenceById(studentId));
+        }
+        int before = result.getScore();
+        result.addAttempt(attempt, score, exam.getScorePolicy());
+        resultRepository.save(result);
+
+        addToCounters(exam.getId(), 1, first, before, result.getScore());
+        return result.getScore();
+    }
+
+    /**
+     * Recompute a student's result from their attempts after scores were changed
+     * by grading or regrading.
+     *
+     * @return the student's counting score for the exam, or 0 if they have no attempts
+     */
+    public int rescore(Long examId, Long studentId) {
+        List<AttemptEntry> attempts = submissionRepository.findAttemptScores(examId, studentId);
+        ExamResult result = resultRepository.findByExamIdAndStudentId(examId, studentId).orElse(null);
+        if (attempts.isEmpty()) {
+            return 0;
+        }
+
+        int best = Integer.MIN_VALUE;
+        for (AttemptEntry attempt : attempts) {
+            best = Math.max(best, attempt.getScore());
+        }
+        AttemptEntry last = attempts.get(attempts.size() - 1);
+
+        Exam exam = examRepository.getReferenceById(examId);
+        boolean first = result == null;
+        if (first) {
+            result = new ExamResult(exam, studentRepository.getReferenceById(studentId));
+        }
+        int before = result.getScore();
+        result.rescore(best, last.getScore(), last.getAttempt(), exam.getScorePolicy());
+        resultRepository.save(result);
+
+        addToCounters(examId, 0, first, before, result.getScore());
+        return result.getScore();
+    }
+
+    /**
+     * {@link #rescore} for many students at once: attempts, results and students are
+     * read in one statement each per thousand students, the changed rows are written
+     * in JDBC batches and the exam's counters get one combined delta. Like single grading,
+     * each student's latest score shows the new counting score.
+     *
+     * @return the counting score of each student that has attempts
+     */
+    public Map<Long, Integer> rescoreAll(Long examId, Collection<Long> studentIds) {
+        Map<Long, Integer> scores = new HashMap<>(studentIds.size() * 2);
+        if (studentIds.isEmpty()) {
+            return scores;
+        }
+        Exam exam = examRepository.getReferenceById(examId);
+        int newResults = 0;
+        long scoreDelta = 0;
+        int passedDelta = 0;
+
+        List<Long> ids = new ArrayList<>(studentIds);
+        for (List<Long> chunk : BulkChunks.of(ids)) {
+            Map<Long, List<StudentAttemptEntry>> attempts = new HashMap<>(chunk.size() * 2);
+            for (StudentAttemptEntry entry : submissionRepository.findAttemptScoresByStudentIdIn(examId, chunk)) {
+                attempts.computeIfAbsent(entry.getStudentId(), id -> new ArrayList<>(1)).add(entry);
+            }
+            Map<Long, ExamResult> results = new HashMap<>(chunk.size() * 2);
+            for (ExamResult result : resultRepository.findByExamIdAndStudentIdIn(examId, chunk)) {
+                results.put(result.getStudent().getId(), result);
+            }
+
+            List<ExamResult> changed = new ArrayList<>(attempts.size());
+            for (Map.Entry<Long, List<StudentAttemptEntry>> entry : attempts.entrySet()) {
+                Long studentId = entry.getKey();
+                int best = Integer.MIN_VALUE;
+                for (StudentAttemptEntry attempt : entry.getValue()) {
+                    best = Math.max(best, attempt.getScore());
+                }
+                StudentAttemptEntry last = entry.getValue().get(entry.getValue().size() - 1);
+
+                ExamResult result = results.get(studentId);
+                boolean first = result == null;
+                if (first) {
+                    result = new ExamResult(exam, studentRepository.getReferenceById(studentId));
+                    newResults++;
+                }
+                int before = first ? 0 : result.getScore();
+                result.rescore(best, last.getScore(), last.getAttempt(), exam.getScorePolicy());
+                changed.add(result);
+                scores.put(studentId, result.getScore());
+
+                scoreDelta += result.getScore() - before;
+                passedDelta += (result.getScore() >= Exam.PASS_MARK ? 1 : 0)
+                        - (!first && before >= Exam.PASS_MARK ? 1 : 0);
+            }
+            resultRepository.saveAll(changed);
+
+            for (Student student : studentRepository.findAllById(attempts.keySet())) {
+                student.setLastExamScore(scores.get(student.getId()));
+                student.setCurrentExamId(examId);
+            }
+        }
+
+        counters.add(examId, 0, newResults, scoreDelta, passedDelta);
+        return scores;
+    }
+
+    /**
+     * Students with at least one attempt at the exam.
+     */
+    @Transactional(readOnly = true)
+    public List<Student> findStudents(Long examId) {
+        return resultRepository.findStudentsByExamId(examId);
+    }
+
+    private void addToCounters(Long examId, long submissions, boolean first, int before, int after) {
+        int passedBefore = !first && before >= Exam.PASS_MARK ? 1 : 0;
+        int passedAfter = after >= Exam.PASS_MARK ? 1 : 0;
+        counters.add(examId, submissions, first ? 1 : 0,
+                after - (first ? 0 : before), passedAfter - passedBefore);
+    }
+}
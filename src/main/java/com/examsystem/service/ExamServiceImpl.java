@@ -5,18 +5,43 @@ import com.examsystem.entity.ExamSubmission;
 import com.examsystem.entity.Question;
 import com.examsystem.entity.Student;
 import com.examsystem.exception.ExamNotFoundException;
+import com.examsystem.exception.SubmissionConflictException;
 import com.examsystem.factory.ExamFactory;
+import com.examsystem.model.CacheRegion;
 import com.examsystem.model.ExamType;
+import com.examsystem.model.GradingResult;
+import com.examsystem.model.SubmissionGrade;
 import com.examsystem.repository.ExamRepository;
 import com.examsystem.repository.ExamSubmissionRepository;
 import com.examsystem.repository.QuestionRepository;
+import com.examsystem.utils.AfterCommit;
 import com.examsystem.utils.FileIOUtil;
+import com.examsystem.utils.PaperShuffle;
+import com.examsystem.monitoring.AuditLog;
+import com.examsystem.monitoring.RegradeChunkEvent;
+import com.examsystem.monitoring.RequestTiming;
+import com.examsystem.monitoring.SubmissionGradedEvent;
+import com.examsystem.monitoring.SubmissionPersistedEvent;
+import com.examsystem.monitoring.SubmissionReceivedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -34,18 +59,62 @@ public class ExamServiceImpl implements IExamService {
     private final QuestionRepository questionRepository;
     private final ExamSubmissionRepository submissionRepository;
     private final ExamFactory examFactory;
+    private final ExamPaperService paperService;
+    private final SearchIndexService searchIndex;
+    private final AuditLog auditLog;
+    private final StudentScoreService scoreService;
+    private final ExamResultService resultService;
+    private final CacheChangeService cacheChanges;
+    private final Bulkheads bulkheads;
+    private final AnswerStore answerStore;
+    private final OptionDictionaries dictionaries;
+    private final TransactionTemplate submitTransaction;
     
-    // In-memory storage for exam-student mapping (demonstrates Collections)
-    private static final Map<Long, List<Student>> examStudentsMap = new ConcurrentHashMap<>();
+    // Submission instrumentation
+    private final Timer submitTimer;
+    private final AtomicInteger inFlightSubmissions = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    
+    private static final int REGRADE_CHUNK_SIZE = 200;
+    private static final int SUBMIT_TRIES = 3;
     
     public ExamServiceImpl(ExamRepository examRepository,
                           QuestionRepository questionRepository,
                           ExamSubmissionRepository submissionRepository,
-                          ExamFactory examFactory) {
+                          ExamFactory examFactory,
+                          ExamPaperService paperService,
+                          SearchIndexService searchIndex,
+                          AuditLog auditLog,
+                          StudentScoreService scoreService,
+                          ExamResultService resultService,
+                          CacheChangeService cacheChanges,
+                          Bulkheads bulkheads,
+                          AnswerStore answerStore,
+                          OptionDictionaries dictionaries,
+                          MeterRegistry meterRegistry,
+                          PlatformTransactionManager transactionManager) {
         this.examRepository = examRepository;
         this.questionRepository = questionRepository;
         this.submissionRepository = submissionRepository;
         this.examFactory = examFactory;
+        this.paperService = paperService;
+        this.searchIndex = searchIndex;
+        this.auditLog = auditLog;
+        this.scoreService = scoreService;
+        this.resultService = resultService;
+        this.cacheChanges = cacheChanges;
+        this.bulkheads = bulkheads;
+        this.answerStore = answerStore;
+        this.dictionaries = dictionaries;
+        this.meterRegistry = meterRegistry;
+        this.submitTransaction = new TransactionTemplate(transactionManager);
+        this.submitTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.submitTimer = Timer.builder("exam.submit")
+                .description("Exam submission, including retries after attempt conflicts")
+                .register(meterRegistry);
+        Gauge.builder("exam.submissions.inflight", inFlightSubmissions, AtomicInteger::get)
+                .description("Submissions currently being graded or stored")
+                .register(meterRegistry);
     }
     
     @Override
@@ -56,7 +125,12 @@ public class ExamServiceImpl implements IExamService {
     
     @Override
     public Exam saveExam(Exam exam) {
-        return examRepository.save(exam);
+        Exam saved = examRepository.save(exam);
+        // After commit, so that a paper rendered meanwhile from the old rows is not kept
+        AfterCommit.run(() -> paperService.invalidate(saved.getId()));
+        searchIndex.indexExam(saved);
+        cacheChanges.publish(CacheRegion.EXAM, saved.getId());
+        return saved;
     }
     
     @Override
@@ -66,11 +140,29 @@ public class ExamServiceImpl implements IExamService {
     }
     
     @Override
+    public Exam getExamWithQuestions(Long id) {
+        return examRepository.findWithQuestionsById(id)
+                .orElseThrow(() -> new ExamNotFoundException(id));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
     public List<Exam> getAllExams() {
         return examRepository.findAll();
     }
     
     @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getQuestionCounts() {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (QuestionRepository.CountEntry entry : questionRepository.countByExam()) {
+            counts.put(entry.getExamId(), (int) entry.getQuestions());
+        }
+        return counts;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
     public List<Exam> getExamsByType(ExamType type) {
         return examRepository.findByType(type);
     }
@@ -82,46 +174,282 @@ public class ExamServiceImpl implements IExamService {
         question.setSection(section);
         questionRepository.save(question);
         exam.getQuestions().add(question);
+        exam.setPaperVersion(exam.getPaperVersion() + 1);
+        dictionaries.extend(exam);
         examRepository.save(exam);
+        AfterCommit.run(() -> paperService.invalidate(examId));
+        searchIndex.indexQuestion(examId, question);
+        cacheChanges.publish(CacheRegion.EXAM, examId);
     }
     
     /**
-     * Thread-safe exam submission using synchronized method.
+     * Thread-safe exam submission.
      * Demonstrates concurrency handling.
      * Now persists submissions to database.
      */
     @Override
-    public synchronized int submitExam(Long examId, Student student, String[] answers) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int submitExam(Long examId, Student student, String[] answers) {
+        return submitExam(examId, student, answers, false, null);
+    }
+    
+    /**
+     * Answers in served order are graded against the student's question order,
+     * recomputed from the seed of the paper version that was served (so an exam edited
+     * meanwhile does not reorder them); the stored answers are always canonical.
+     * <p>
+     * Submissions take no lock: each try runs in its own transaction, and two
+     * concurrent tries of one student that pick the same attempt number are told
+     * apart by the unique attempt index (or the result row's version). The loser
+     * is rolled back and tried again with a fresh attempt number, up to
+     * {@value #SUBMIT_TRIES} times; time spent in failed tries shows up as the
+     * {@code retry} phase. The audit record is published once the try committed.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int submitExam(Long examId, Student student, String[] answers, boolean servedOrder,
+                          Integer paperVersion) {
+        inFlightSubmissions.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        SubmissionReceivedEvent received = new SubmissionReceivedEvent();
+        received.begin();
+        try {
+            int score = 0;
+            int tries = 1;
+            for (; ; tries++) {
+                long started = RequestTiming.start();
+                try {
+                    score = submitTransaction.execute(
+                            status -> submitAttempt(examId, student, answers, servedOrder, paperVersion));
+                    break;
+                } catch (SubmissionConflictException | DataIntegrityViolationException
+                         | OptimisticLockingFailureException e) {
+                    // A conflict without a database cause is the attempt limit; retrying cannot help
+                    if (e instanceof SubmissionConflictException && e.getCause() == null) {
+                        throw e;
+                    }
+                    RequestTiming.stop(RequestTiming.RETRY, started);
+                    if (tries == SUBMIT_TRIES) {
+                        throw e instanceof SubmissionConflictException conflict ? conflict
+                                : new SubmissionConflictException("Submission to exam " + examId
+                                        + " kept conflicting with concurrent submissions", e);
+                    }
+                }
+            }
+            if (received.shouldCommit()) {
+                received.examId = examId;
+                received.studentId = student.getId();
+                received.answerCount = answers != null ? answers.length : 0;
+                received.tries = tries;
+                received.commit();
+            }
+            auditLog.submission(examId, student.getId(), score, student.getUsername());
+            return score;
+        } finally {
+            sample.stop(submitTimer);
+            inFlightSubmissions.decrementAndGet();
+        }
+    }
+    
+    private int submitAttempt(Long examId, Student student, String[] answers, boolean servedOrder,
+                              Integer paperVersion) {
+        long phase = RequestTiming.start();
         Exam exam = getExamById(examId);
+        int attempt = resultService.nextAttempt(exam, student.getId());
+        int[] order = servedOrder
+                ? paperService.questionOrder(examId, student.getId(),
+                        paperVersion != null ? paperVersion : exam.getPaperVersion(), exam.getQuestions().size())
+                : null;
+        RequestTiming.stop(RequestTiming.EXAM, phase);
         
         // Use synchronized method from Exam entity
-        int score = exam.submit(student, answers);
+        phase = RequestTiming.start();
+        Timer.Sample grading = Timer.start(meterRegistry);
+        SubmissionGradedEvent graded = new SubmissionGradedEvent();
+        graded.begin();
+        int score = exam.submit(student, answers, order);
+        graded.end();
+        grading.stop(meterRegistry.timer("exam.grade", "type", exam.getType().name()));
+        RequestTiming.stop(RequestTiming.GRADE, phase);
+        if (graded.shouldCommit()) {
+            graded.examId = examId;
+            graded.examType = exam.getType().name();
+            graded.questionCount = exam.getQuestions().size();
+            graded.score = score;
+            graded.commit();
+        }
         
         // Save submission to database
         ExamSubmission submission = ExamSubmission.builder()
                 .exam(exam)
                 .student(student)
                 .score(score)
+                .attempt(attempt)
                 .graded(exam.getType() == ExamType.MCQ) // Auto-graded for MCQ
                 .build();
-        submission.setAnswers(answers);
-        submissionRepository.save(submission);
-        
-        // Add to exam-students map
-        examStudentsMap.computeIfAbsent(examId, k -> new ArrayList<>()).add(student);
+        String[] canonical = order != null ? PaperShuffle.toCanonical(answers, order) : answers;
+        submission.setAnswers(canonical, dictionaries.extend(exam));
+        SubmissionPersistedEvent persisted = new SubmissionPersistedEvent();
+        persisted.begin();
+        phase = RequestTiming.start();
+        try {
+            submissionRepository.saveAndFlush(submission);
+        } catch (DataIntegrityViolationException e) {
+            throw new SubmissionConflictException("Attempt " + attempt + " at exam " + examId
+                    + " was already submitted", e);
+        }
+        int counting = resultService.recordAttempt(exam, student.getId(), attempt, score);
+        // Only a committed attempt is kept; a rejected or rolled-back one leaves the student and store alone
+        Long studentId = student.getId();
+        AfterCommit.run(() -> {
+            student.addExamScore(examId, counting);
+            answerStore.put(examId, studentId, attempt, canonical);
+        });
+        if (attempt > 1) {
+            // Other nodes may still hold the previous attempt's answers
+            cacheChanges.publish(CacheRegion.ANSWERS, examId, student.getId());
+        }
+        RequestTiming.stop(RequestTiming.INSERT, phase);
+        persisted.end();
+        if (persisted.shouldCommit()) {
+            persisted.examId = examId;
+            persisted.submissionId = submission.getId();
+            persisted.questionCount = exam.getQuestions().size();
+            persisted.commit();
+        }
         
-        return student.getScoreForExam(examId);
+        return score;
     }
     
+    /**
+     * Re-evaluates stored answers chunk by chunk, e.g. after an answer key fix.
+     * Submissions whose answer count no longer matches the exam are left alone.
+     */
     @Override
+    public int regradeSubmissions(Long examId) {
+        Exam exam = getExamWithQuestions(examId);
+        if (exam.getType() != ExamType.MCQ) {
+            throw new IllegalArgumentException("Only auto-graded exams can be regraded");
+        }
+        
+        int changed = 0;
+        Slice<ExamSubmission> chunk;
+        int chunkIndex = 0;
+        do {
+            RegradeChunkEvent event = new RegradeChunkEvent();
+            event.begin();
+            chunk = submissionRepository.findByExamId(examId,
+                    PageRequest.of(chunkIndex, REGRADE_CHUNK_SIZE, Sort.by("id")));
+            int chunkChanged = 0;
+            Set<Long> rescored = new HashSet<>();
+            for (ExamSubmission submission : chunk) {
+                String[] answers = dictionaries.answersOf(submission);
+                if (answers.length != exam.getQuestions().size()) {
+                    continue;
+                }
+                int score = exam.evaluate(answers);
+                if (submission.getScore() == null || score != submission.getScore()) {
+                    submission.setScore(score);
+                    auditLog.gradeChange(examId, submission.getStudent().getId(), score, "regrade");
+                    rescored.add(submission.getStudent().getId());
+                    chunkChanged++;
+                }
+            }
+            submissionRepository.saveAll(chunk.getContent());
+            for (Long studentId : rescored) {
+                resultService.rescore(examId, studentId);
+            }
+            changed += chunkChanged;
+            
+            event.end();
+            if (event.shouldCommit()) {
+                event.examId = examId;
+                event.questionCount = exam.getQuestions().size();
+                event.chunkIndex = chunkIndex;
+                event.submissions = chunk.getNumberOfElements();
+                event.changed = chunkChanged;
+                event.commit();
+            }
+            chunkIndex++;
+        } while (chunk.hasNext());
+        return changed;
+    }
+
+    /**
+     * All submissions are read in one statement and their new scores written in JDBC
+     * batches; the students' results and the exam's counters are then recomputed
+     * once for the whole request rather than once per submission. Submissions another
+     * grader holds under an unexpired lease are skipped.
+     */
+    @Override
+    public GradingResult gradeSubmissions(Long examId, List<SubmissionGrade> grades, String grader) {
+        Exam exam = getExamById(examId);
+        if (exam.getType() != ExamType.CODING && exam.getType() != ExamType.ESSAY) {
+            throw new IllegalArgumentException("Only coding and essay exams are graded manually");
+        }
+        Map<Long, Integer> scores = new LinkedHashMap<>();
+        List<Long> skipped = new ArrayList<>();
+        List<Long> outOfRange = new ArrayList<>();
+        for (SubmissionGrade grade : grades) {
+            if (grade.getSubmissionId() == null || grade.getScore() == null) {
+                skipped.add(grade.getSubmissionId());
+            } else if (grade.getScore() < 0 || grade.getScore() > exam.getTotalMarks()) {
+                outOfRange.add(grade.getSubmissionId());
+            } else {
+                scores.put(grade.getSubmissionId(), grade.getScore());
+            }
+        }
+        if (!outOfRange.isEmpty()) {
+            throw new IllegalArgumentException("Scores must be between 0 and " + exam.getTotalMarks()
+                    + "; out of range for submissions " + outOfRange);
+        }
+
+        long phase = RequestTiming.start();
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> found = new HashSet<>();
+        Set<Long> studentIds = new LinkedHashSet<>();
+        List<ExamSubmission> graded = new ArrayList<>(scores.size());
+        for (ExamSubmission submission : submissionRepository.findAllById(scores.keySet())) {
+            found.add(submission.getId());
+            if (!submission.getExam().getId().equals(examId) || submission.isLeasedByOther(grader, now)) {
+                skipped.add(submission.getId());
+                continue;
+            }
+            submission.grade(scores.get(submission.getId()));
+            graded.add(submission);
+            studentIds.add(submission.getStudent().getId());
+        }
+        submissionRepository.saveAll(graded);
+        for (Long submissionId : scores.keySet()) {
+            if (!found.contains(submissionId)) {
+                skipped.add(submissionId);
+            }
+        }
+
+        resultService.rescoreAll(examId, studentIds);
+        RequestTiming.stop(RequestTiming.UPDATE, phase);
+        for (ExamSubmission submission : graded) {
+            auditLog.gradeChange(examId, submission.getStudent().getId(), submission.getScore(), grader);
+        }
+        return new GradingResult(graded.size(), studentIds.size(), skipped);
+    }
+
+    /**
+     * Students who submitted the exam, with their counting scores loaded in bulk.
+     */
+    @Override
+    @Transactional(readOnly = true)
     public List<Student> getStudentsForExam(Long examId) {
-        return examStudentsMap.getOrDefault(examId, new ArrayList<>());
+        List<Student> students = resultService.findStudents(examId);
+        scoreService.preload(students);
+        return students;
     }
     
     /**
      * Demonstrates Streams API - filter operation.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Student> getPassedStudents(Long examId, int passMark) {
         return getStudentsForExam(examId).stream()
                 .filter(student -> student.getScoreForExam(examId) >= passMark)
@@ -129,23 +457,19 @@ public class ExamServiceImpl implements IExamService {
     }
     
     /**
-     * Demonstrates Streams API - mapToInt and average.
+     * Average counting score, read from the exam's result counters.
      */
     @Override
+    @Transactional(readOnly = true)
     public double getAverageScore(Long examId) {
-        List<Student> students = getStudentsForExam(examId);
-        if (students.isEmpty()) return 0.0;
-        
-        return students.stream()
-                .mapToInt(student -> student.getScoreForExam(examId))
-                .average()
-                .orElse(0.0);
+        return getExamById(examId).averageScore();
     }
     
     /**
      * Demonstrates Streams API - groupingBy collector.
      */
     @Override
+    @Transactional(readOnly = true)
     public Map<String, List<Student>> groupStudentsByExamType(List<Student> students) {
         return students.stream()
                 .filter(s -> s.getCurrentExamId() != null)
@@ -159,27 +483,34 @@ public class ExamServiceImpl implements IExamService {
                 }));
     }
     
+    /**
+     * Written in the export bulkhead, so that concurrent exports are capped.
+     */
     @Override
     public void saveResultsToFile(String filePath, Map<Student, Integer> results) {
-        try {
-            FileIOUtil.saveResultsToCSV(filePath, results);
-        } catch (IOException e) {
-            System.err.println("Error saving results to file: " + e.getMessage());
-        }
+        bulkheads.export().call(() -> {
+            try {
+                FileIOUtil.saveResultsToCSV(filePath, results);
+            } catch (IOException e) {
+                System.err.println("Error saving results to file: " + e.getMessage());
+            }
+            return null;
+        });
     }
     
     /**
-     * Get all exam statistics (for admin dashboard).
+     * Get all exam statistics (for admin dashboard), from the exam's result counters.
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getExamStatistics(Long examId) {
         Map<String, Object> stats = new HashMap<>();
-        List<Student> students = getStudentsForExam(examId);
+        Exam exam = getExamById(examId);
         
-        stats.put("totalStudents", students.size());
-        stats.put("averageScore", getAverageScore(examId));
-        stats.put("passedStudents", getPassedStudents(examId, 50).size());
-        stats.put("passPercentage", students.isEmpty() ? 0 : 
-                  (getPassedStudents(examId, 50).size() * 100.0) / students.size());
+        stats.put("totalStudents", exam.getResultCount());
+        stats.put("totalSubmissions", exam.getSubmissionCount());
+        stats.put("averageScore", exam.averageScore());
+        stats.put("passedStudents", exam.getPassedCount());
+        stats.put("passPercentage", exam.getResultCount() == 0 ? 0 : exam.passRate());
         
         return stats;
     }
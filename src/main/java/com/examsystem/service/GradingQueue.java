@@ -0,0 +1,221 @@
+package com.examsystem.service;
+
+import com.examsystem.entity.ExamSubmission;
+import com.examsystem.repository.ExamSubmissionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Work queue that hands out ungraded submissions of manually graded exams to graders.
+ * <p>
+ * A grader claims a batch and holds it under a lease of {@code exam.grading.lease-ms};
+ * nobody else is given, or may bulk-grade, a leased submission until the lease
+ * expires or the submission is graded. Leases live in the submission rows and are
+ * taken by one conditional {@code UPDATE}, which is what decides between graders
+ * claiming at the same time, on this node or another.
+ * <p>
+ * Candidates come from an in-memory ready queue per exam, so claims do not rescan
+ * the ungraded submissions; the queue is refilled with up to {@code refill-size}
+ * ids when it runs dry, which is also when expired leases are reclaimed. A stale
+ * id in the queue costs nothing but a row the update does not match.
+ */
+@Service
+@Transactional
+public class GradingQueue {
+
+    // Claims retried when other graders took the candidates first
+    private static final int CLAIM_ROUNDS = 3;
+
+    private final ExamSubmissionRepository submissionRepository;
+    private final long leaseMs;
+    private final int refillSize;
+    private final int maxClaim;
+
+    private final Map<Long, Queue<Long>> ready = new ConcurrentHashMap<>();
+
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong reclaimed = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong graded = new AtomicLong();
+
+    public GradingQueue(ExamSubmissionRepository submissionRepository,
+                        @Value("${exam.grading.lease-ms:600000}") long leaseMs,
+                        @Value("${exam.grading.refill-size:500}") int refillSize,
+                        @Value("${exam.grading.max-claim:50}") int maxClaim) {
+        this.submissionRepository = submissionRepository;
+        this.leaseMs = leaseMs;
+        this.refillSize = Math.max(1, refillSize);
+        this.maxClaim = Math.max(1, maxClaim);
+    }
+
+    /**
+     * Lease up to {@code size} ungraded submissions of the exam to the grader, oldest first.
+     * Submissions the grader already holds come first and have their leases renewed, so
+     * claiming again (a reloaded grading page) does not hide unfinished work.
+     *
+     * @return the claimed submissions with their students; empty when nothing is left to grade
+     */
+    public List<ExamSubmission> claim(Long examId, String grader, int size) {
+        int wanted = Math.min(Math.max(1, size), maxClaim);
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseMs, ChronoUnit.MILLIS);
+
+        int taken = 0;
+        List<Long> held = submissionRepository.findHeldIds(examId, grader, now);
+        if (!held.isEmpty()) {
+            taken = submissionRepository.claim(held.subList(0, Math.min(held.size(), wanted)),
+                    grader, token, expiresAt, now);
+        }
+        int renewed = taken;
+        for (int round = 0; round < CLAIM_ROUNDS && taken < wanted; round++) {
+            List<Long> candidates = take(examId, wanted - taken, now);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            taken += submissionRepository.claim(candidates, grader, token, expiresAt, now);
+        }
+        if (taken == 0) {
+            return List.of();
+        }
+        claimed.addAndGet(taken - renewed);
+        return submissionRepository.findByLeaseTokenOrderById(token);
+    }
+
+    /**
+     * Submissions the grader currently holds, with their students; leases are left as they are.
+     */
+    @Transactional(readOnly = true)
+    public List<ExamSubmission> held(Long examId, String grader) {
+        return submissionRepository.findHeld(examId, grader, LocalDateTime.now());
+    }
+
+    /**
+     * Give back submissions the grader claimed but will not grade; they go to the front of the line.
+     */
+    public int release(Long examId, String grader, Collection<Long> submissionIds) {
+        if (submissionIds.isEmpty()) {
+            return 0;
+        }
+        int count = submissionRepository.release(submissionIds, grader);
+        released.addAndGet(count);
+        // Refilled from the database, where the released ids are the oldest again
+        ready.remove(examId);
+        return count;
+    }
+
+    /**
+     * Grade one submission unless another grader holds an unexpired lease on it.
+     *
+     * @return false if the submission is leased to someone else (or gone)
+     */
+    public boolean grade(Long submissionId, String grader, int score) {
+        return submissionRepository.gradeUnlessLeased(submissionId, score, grader, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * Count submissions graded, for the throughput metric.
+     */
+    public void recordGraded(int count) {
+        graded.addAndGet(count);
+    }
+
+    /**
+     * Ungraded, leased and ready submissions of an exam. The first two are counted in
+     * the database and therefore include other nodes' leases.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> status(Long examId) {
+        LocalDateTime now = LocalDateTime.now();
+        Queue<Long> queue = ready.get(examId);
+        return Map.of(
+                "examId", examId,
+                "ungraded", submissionRepository.countUngraded(examId),
+                "leased", submissionRepository.countLeased(examId, now),
+                "ready", queue != null ? queue.size() : 0,
+                "leaseSeconds", TimeUnit.MILLISECONDS.toSeconds(leaseMs));
+    }
+
+    private List<Long> take(Long examId, int count, LocalDateTime now) {
+        Queue<Long> queue = ready.computeIfAbsent(examId, id -> new ConcurrentLinkedQueue<>());
+        List<Long> candidates = new ArrayList<>(count);
+        poll(queue, candidates, count);
+        if (candidates.size() < count) {
+            synchronized (queue) {
+                // Another grader may have refilled while this one waited
+                poll(queue, candidates, count);
+                if (candidates.size() < count) {
+                    refill(examId, queue, candidates, now);
+                    poll(queue, candidates, count);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private void refill(Long examId, Queue<Long> queue, List<Long> taken, LocalDateTime now) {
+        reclaimed.addAndGet(submissionRepository.reclaimExpired(examId, now));
+        for (Long id : submissionRepository.findClaimableIds(examId, now, PageRequest.of(0, refillSize))) {
+            if (!taken.contains(id)) {
+                queue.add(id);
+            }
+        }
+    }
+
+    private static void poll(Queue<Long> queue, List<Long> into, int count) {
+        Long id;
+        while (into.size() < count && (id = queue.poll()) != null) {
+            into.add(id);
+        }
+    }
+
+    public long getLeaseMs() {
+        return leaseMs;
+    }
+
+    public int getMaxClaim() {
+        return maxClaim;
+    }
+
+    /**
+     * Submission ids waiting in the ready queues of all exams.
+     */
+    public int getReady() {
+        int total = 0;
+        for (Queue<Long> queue : ready.values()) {
+            total += queue.size();
+        }
+        return total;
+    }
+
+    public long getClaimed() {
+        return claimed.get();
+    }
+
+    public long getReclaimed() {
+        return reclaimed.get();
+    }
+
+    public long getReleased() {
+        return released.get();
+    }
+
+    public long getGraded() {
+        return graded.get();
+    }
+}
@@ -4,6 +4,8 @@ import com.examsystem.entity.Exam;
 import com.examsystem.entity.Question;
 import com.examsystem.entity.Student;
 import com.examsystem.model.ExamType;
+import com.examsystem.model.GradingResult;
+import com.examsystem.model.SubmissionGrade;
 import java.util.List;
 import java.util.Map;
 
@@ -29,11 +31,21 @@ public interface IExamService {
      */
     Exam getExamById(Long id);
     
+    /**
+     * Get exam by ID with its questions fetched eagerly.
+     */
+    Exam getExamWithQuestions(Long id);
+    
     /**
      * Get all exams.
      */
     List<Exam> getAllExams();
     
+    /**
+     * Number of questions of each exam by exam id; exams without questions are absent.
+     */
+    Map<Long, Integer> getQuestionCounts();
+    
     /**
      * Get exams by type.
      */
@@ -49,6 +61,27 @@ public interface IExamService {
      */
     int submitExam(Long examId, Student student, String[] answers);
     
+    /**
+     * Submit exam answers, optionally in the order the student's shuffled paper was served.
+     * The served order is recomputed for {@code paperVersion}, the version of the paper the
+     * student was given, or for the exam's current version when it is null.
+     */
+    int submitExam(Long examId, Student student, String[] answers, boolean servedOrder, Integer paperVersion);
+    
+    /**
+     * Re-evaluate stored submissions of an auto-graded exam.
+     * @return number of submissions whose score changed
+     */
+    int regradeSubmissions(Long examId);
+    
+    /**
+     * Give many submissions of an exam their manual scores in one transaction.
+     * Entries naming a submission of another exam, or one leased to another grader, are skipped.
+     * @throws IllegalArgumentException if the exam is not a coding or essay exam, or any score
+     *         lies outside 0 to the exam's total marks; then nothing is graded
+     */
+    GradingResult gradeSubmissions(Long examId, List<SubmissionGrade> grades, String grader);
+    
     /**
      * Get students who took specific exam.
      */
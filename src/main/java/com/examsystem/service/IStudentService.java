@@ -1,6 +1,7 @@
 package com.examsystem.service;
 
 import com.examsystem.entity.Student;
+import com.examsystem.model.StudentSuggestion;
 import java.util.List;
 
 /**
@@ -24,6 +25,21 @@ public interface IStudentService {
      */
     List<Student> getAllStudents();
     
+    /**
+     * Get one page of students, ordered by ID.
+     */
+    List<Student> getStudentsPage(int page, int size);
+    
+    /**
+     * Count registered accounts.
+     */
+    long countStudents();
+    
+    /**
+     * Roster autocomplete: students whose username or name starts with the prefix.
+     */
+    List<StudentSuggestion> suggestStudents(String prefix, int limit);
+    
     /**
      * Get student by ID.
      */
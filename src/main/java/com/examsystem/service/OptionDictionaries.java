@@ -0,0 +1,111 @@
+package com.examsystem.service;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.ExamSubmission;
+import com.examsystem.entity.Question;
+import com.examsystem.model.ExamType;
+import com.examsystem.repository.ExamRepository;
+import com.examsystem.utils.OptionDictionary;
+import com.examsystem.utils.ReadRouting;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The exams' MCQ option dictionaries, and the encoding and decoding of submitted
+ * answers with them. Parsed dictionaries are shared per exam while its stored JSON
+ * is unchanged, so every decoded submission of an exam points at the same String
+ * instances. Submissions whose exam is not loaded are decoded with the dictionary
+ * read by exam id; a cached dictionary that is missing codes was extended
+ * elsewhere (another node) and is read again.
+ */
+@Service
+public class OptionDictionaries {
+
+    private final ExamRepository examRepository;
+
+    // Parsed dictionaries by exam id; replaced when the exam's column changes
+    private final Map<Long, OptionDictionary> dictionaries = new ConcurrentHashMap<>();
+
+    public OptionDictionaries(ExamRepository examRepository) {
+        this.examRepository = examRepository;
+    }
+
+    /**
+     * Dictionary that MCQ answers of the exam are encoded with.
+     */
+    public OptionDictionary forExam(Exam exam) {
+        return forExam(exam.getId(), exam.getOptionDictionary());
+    }
+
+    /**
+     * Append the options of questions added since the exam's dictionary was last written
+     * and store the result on the exam. Existing codes never change, so answers stored
+     * earlier still decode.
+     */
+    public OptionDictionary extend(Exam exam) {
+        OptionDictionary current = forExam(exam);
+        if (exam.getType() != ExamType.MCQ) {
+            return current;
+        }
+        List<String[]> options = new ArrayList<>(exam.getQuestions().size());
+        for (Question question : exam.getQuestions()) {
+            options.add(question.getOptionsArray());
+        }
+        OptionDictionary extended = current.extend(options);
+        if (extended != current) {
+            exam.setOptionDictionary(extended.toJson());
+        }
+        return extended;
+    }
+
+    /**
+     * Stored answers of a submission, decoding its option codes on first use.
+     */
+    public String[] answersOf(ExamSubmission submission) {
+        if (!submission.isAnswersDecoded()) {
+            submission.decodeAnswers(dictionaryOf(submission));
+        }
+        return submission.getAnswers();
+    }
+
+    /**
+     * A loaded exam carries its dictionary; otherwise only its id is read from the proxy.
+     */
+    private OptionDictionary dictionaryOf(ExamSubmission submission) {
+        Exam exam = submission.getExam();
+        if (exam == null) {
+            return OptionDictionary.parse(null);
+        }
+        if (Hibernate.isInitialized(exam)) {
+            return forExam(exam);
+        }
+        OptionDictionary cached = dictionaries.get(exam.getId());
+        if (cached != null && cached.covers(submission.getAnswerCodes())) {
+            return cached;
+        }
+        // Read from the primary, never from a replica that may lag behind
+        String json = ReadRouting.onPrimary(() -> examRepository.findOptionDictionaryById(exam.getId()));
+        return forExam(exam.getId(), json);
+    }
+
+    private OptionDictionary forExam(Long examId, String json) {
+        if (json == null || json.isEmpty()) {
+            return OptionDictionary.parse(null);
+        }
+        if (examId == null) {
+            return OptionDictionary.parse(json);
+        }
+        OptionDictionary cached = dictionaries.get(examId);
+        if (cached != null && cached.toJson().equals(json)) {
+            return cached;
+        }
+        OptionDictionary parsed = OptionDictionary.parse(json);
+        dictionaries.put(examId, parsed);
+        return parsed;
+    }
+}
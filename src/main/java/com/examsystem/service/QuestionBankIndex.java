@@ -0,0 +1,129 @@
+package com.examsystem.service;
+
+import com.examsystem.model.PaperBlueprint;
+import com.examsystem.model.PaperBlueprint.SectionRule;
+import com.examsystem.utils.QuestionBitmap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index of the question bank: one bitmap of question
+ * ordinals per tag. Tag predicates are answered by intersecting bitmaps and
+ * papers are drawn by sampling ranks within the intersection.
+ * Not thread-safe; {@link QuestionBankService} guards access.
+ */
+public class QuestionBankIndex {
+    
+    private long[] ids = new long[1024];
+    private int size;
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<String, QuestionBitmap> postings = new HashMap<>();
+    
+    /**
+     * Index a question; re-adding a known id is a no-op.
+     */
+    public void add(long id, List<String> tags) {
+        if (ordinals.containsKey(id)) {
+            return;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        int ordinal = size++;
+        ids[ordinal] = id;
+        ordinals.put(id, ordinal);
+        for (String tag : tags) {
+            postings.computeIfAbsent(tag, t -> new QuestionBitmap(ids.length)).set(ordinal);
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Questions carrying every given tag. An empty predicate matches the whole bank.
+     */
+    public QuestionBitmap match(List<String> tags) {
+        QuestionBitmap result = null;
+        for (String tag : tags) {
+            QuestionBitmap posting = postings.get(tag.trim().toLowerCase());
+            if (posting == null) {
+                return new QuestionBitmap();
+            }
+            result = result == null ? posting.copy() : result.and(posting);
+        }
+        return result != null ? result : QuestionBitmap.full(size);
+    }
+    
+    /**
+     * Draw a paper: for each section rule, {@code count} distinct questions matching its tags.
+     * A question is used at most once per paper. The same seed always yields the same paper.
+     *
+     * @return question ids per section, in bank order within a section
+     * @throws IllegalArgumentException if a section cannot be filled
+     */
+    public Map<Integer, long[]> sample(PaperBlueprint blueprint, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        QuestionBitmap used = new QuestionBitmap(size);
+        Map<Integer, long[]> paper = new LinkedHashMap<>();
+        for (SectionRule rule : blueprint.getSections()) {
+            QuestionBitmap candidates = match(rule.getTags()).andNot(used);
+            int available = candidates.cardinality();
+            if (available < rule.getCount()) {
+                throw new IllegalArgumentException(String.format(
+                        "Section %d needs %d questions tagged %s, bank has %d",
+                        rule.getSection(), rule.getCount(), rule.getTags(), available));
+            }
+            
+            int[] bits = candidates.select(sampleRanks(available, rule.getCount(), random));
+            long[] sectionIds = new long[bits.length];
+            for (int i = 0; i < bits.length; i++) {
+                used.set(bits[i]);
+                sectionIds[i] = ids[bits[i]];
+            }
+            paper.put(rule.getSection(), sectionIds);
+        }
+        return paper;
+    }
+    
+    /**
+     * Number of questions per tag.
+     */
+    public Map<String, Integer> tagCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        postings.forEach((tag, bitmap) -> counts.put(tag, bitmap.cardinality()));
+        return counts;
+    }
+    
+    /**
+     * k distinct ranks out of n, ascending (Floyd's subset sampling).
+     * Only k random draws; the candidates themselves are never enumerated.
+     */
+    static int[] sampleRanks(int n, int k, SplittableRandom random) {
+        int[] chosen = new int[k];
+        int count = 0;
+        for (int j = n - k; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            int at = Arrays.binarySearch(chosen, 0, count, t);
+            int value = t;
+            if (at >= 0) {
+                // t already taken: j is new since every earlier draw is < j
+                value = j;
+                at = count;
+            } else {
+                at = -at - 1;
+            }
+            System.arraycopy(chosen, at, chosen, at + 1, count - at);
+            chosen[at] = value;
+            count++;
+        }
+        return chosen;
+    }
+}
@@ -0,0 +1,159 @@
+package com.examsystem.service;
+
+import com.examsystem.entity.BankQuestion;
+import com.examsystem.entity.Exam;
+import com.examsystem.model.CacheRegion;
+import com.examsystem.model.PaperBlueprint;
+import com.examsystem.model.PaperBlueprint.SectionRule;
+import com.examsystem.repository.BankQuestionRepository;
+import com.examsystem.repository.BankQuestionRepository.TagView;
+import com.examsystem.utils.ReadRouting;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Question bank with a tag index kept in memory.
+ * The index is loaded from the tag columns on first use and kept in step
+ * with questions added through this service.
+ */
+@Service
+public class QuestionBankService {
+    
+    private final BankQuestionRepository bankRepository;
+    private final IExamService examService;
+    private final CacheChangeService cacheChanges;
+    
+    private QuestionBankIndex index = new QuestionBankIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+    
+    public QuestionBankService(BankQuestionRepository bankRepository,
+                               IExamService examService,
+                               CacheChangeService cacheChanges) {
+        this.bankRepository = bankRepository;
+        this.examService = examService;
+        this.cacheChanges = cacheChanges;
+    }
+    
+    public BankQuestion addQuestion(BankQuestion question) {
+        return addQuestions(List.of(question)).get(0);
+    }
+    
+    public List<BankQuestion> addQuestions(List<BankQuestion> questions) {
+        List<BankQuestion> saved = bankRepository.saveAll(questions);
+        cacheChanges.publish(CacheRegion.QUESTION_BANK, null);
+        ensureLoaded();
+        lock.writeLock().lock();
+        try {
+            // An index dropped in the meantime reads these questions when it is reloaded
+            if (loaded) {
+                for (BankQuestion question : saved) {
+                    index.add(question.getId(), question.getTagList());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return saved;
+    }
+    
+    /**
+     * Draw question ids per section for a blueprint. Pass a per-student seed
+     * (see {@link com.examsystem.utils.PaperShuffle#seed}) to give each student their own paper.
+     */
+    public Map<Integer, long[]> sample(PaperBlueprint blueprint, long seed) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return index.sample(blueprint, seed);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Questions in the bank index (0 until first use).
+     */
+    public int getIndexedCount() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Integer> getTagCounts() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return index.tagCounts();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Drop the tag index after another node added questions; the next use reloads it.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            index = new QuestionBankIndex();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Create an exam by drawing its questions from the bank.
+     * Questions are copied, so later bank edits never change a published paper.
+     */
+    @Transactional
+    public Exam generateExam(PaperBlueprint blueprint, long seed) {
+        Map<Integer, long[]> paper = sample(blueprint, seed);
+        
+        List<Long> ids = new ArrayList<>();
+        paper.values().forEach(sectionIds -> {
+            for (long id : sectionIds) {
+                ids.add(id);
+            }
+        });
+        Map<Long, BankQuestion> questions = new HashMap<>();
+        bankRepository.findAllById(ids).forEach(q -> questions.put(q.getId(), q));
+        
+        int perSection = blueprint.getSections().stream().mapToInt(SectionRule::getCount).max().orElse(0);
+        Exam exam = examService.createExam(blueprint.getType(), blueprint.getTitle(), paper.size(), perSection);
+        paper.forEach((section, sectionIds) -> {
+            for (long id : sectionIds) {
+                exam.addQuestion(section, questions.get(id).toQuestion());
+            }
+        });
+        return examService.saveExam(exam);
+    }
+    
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                for (TagView view : ReadRouting.onPrimary(bankRepository::findAllProjectedByOrderByIdAsc)) {
+                    index.add(view.getId(), BankQuestion.tagList(
+                            view.getType(), view.getTopic(), view.getDifficulty(), view.getTags()));
+                }
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
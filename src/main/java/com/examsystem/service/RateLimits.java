@@ -0,0 +1,59 @@
+package com.examsystem.service;
+
+import com.examsystem.utils.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Per-student request limits, one token bucket per student and endpoint group:
+ * <ul>
+ *   <li>submit: final submissions, form and JSON</li>
+ *   <li>autosave: draft saves</li>
+ *   <li>exam: the exam page, its paper and section APIs and the waiting-room poll</li>
+ * </ul>
+ * Rates, bursts and the number of students tracked are set under {@code exam.rate-limit}.
+ */
+@Component
+public class RateLimits {
+
+    private final boolean enabled;
+    private final RateLimiter submit;
+    private final RateLimiter autosave;
+    private final RateLimiter exam;
+
+    public RateLimits(@Value("${exam.rate-limit.enabled:true}") boolean enabled,
+                      @Value("${exam.rate-limit.max-keys:100000}") int maxKeys,
+                      @Value("${exam.rate-limit.submit.rate-per-second:1}") double submitRate,
+                      @Value("${exam.rate-limit.submit.burst:5}") int submitBurst,
+                      @Value("${exam.rate-limit.autosave.rate-per-second:1}") double autosaveRate,
+                      @Value("${exam.rate-limit.autosave.burst:10}") int autosaveBurst,
+                      @Value("${exam.rate-limit.exam.rate-per-second:5}") double examRate,
+                      @Value("${exam.rate-limit.exam.burst:30}") int examBurst) {
+        this.enabled = enabled;
+        this.submit = new RateLimiter("submit", submitRate, submitBurst, maxKeys);
+        this.autosave = new RateLimiter("autosave", autosaveRate, autosaveBurst, maxKeys);
+        this.exam = new RateLimiter("exam", examRate, examBurst, maxKeys);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public RateLimiter submit() {
+        return submit;
+    }
+
+    public RateLimiter autosave() {
+        return autosave;
+    }
+
+    public RateLimiter exam() {
+        return exam;
+    }
+
+    public List<RateLimiter> all() {
+        return List.of(submit, autosave, exam);
+    }
+}
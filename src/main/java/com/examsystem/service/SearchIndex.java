@@ -0,0 +1,292 @@
+package com.examsystem.service;
+
+import com.examsystem.model.SearchHit;
+import com.examsystem.model.SearchHit.Kind;
+import com.examsystem.utils.TextAnalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over exam titles and question text with BM25 ranking.
+ * Documents get dense ids in insertion order, so postings stay sorted by appending.
+ * Re-indexing a document with unchanged content is a no-op; otherwise its previous
+ * version is tombstoned, and once tombstones outnumber live documents the ids are
+ * compacted. Queries score by walking the matching postings in doc id order, so
+ * they allocate per query term and hit, not per indexed document.
+ * The last query token also matches as a prefix, for typeahead.
+ * Not thread-safe; {@link SearchIndexService} guards access.
+ */
+public class SearchIndex {
+    
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_PREFIX_TERMS = 32;
+    private static final int MIN_COMPACT_TOMBSTONES = 1024;
+    
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> examDocs = new HashMap<>();
+    private final Map<Long, Integer> questionDocs = new HashMap<>();
+    private final Map<Long, String> examTitles = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    
+    // Per-document columns, indexed by doc id
+    private Kind[] kinds = new Kind[1024];
+    private long[] entityIds = new long[1024];
+    private long[] examIds = new long[1024];
+    private int[] lengths = new int[1024];
+    private long[] hashes = new long[1024];
+    
+    private int docCount;
+    private int liveDocs;
+    private int tombstones;
+    private long totalLength;
+    
+    public void putExam(long examId, String title) {
+        examTitles.put(examId, title);
+        put(examDocs, Kind.EXAM, examId, examId, TextAnalyzer.terms(title));
+    }
+    
+    public void putQuestion(long questionId, long examId, String text, String[] options) {
+        List<String> docTerms = TextAnalyzer.terms(text);
+        for (String option : options) {
+            docTerms.addAll(TextAnalyzer.terms(option));
+        }
+        put(questionDocs, Kind.QUESTION, questionId, examId, docTerms);
+    }
+    
+    public int size() {
+        return liveDocs;
+    }
+    
+    /**
+     * Replaced versions still holding a doc id, until the next compaction.
+     */
+    public int tombstones() {
+        return tombstones;
+    }
+    
+    /**
+     * Top hits for a query. Question hits carry no text; the caller fills it in
+     * so the index does not have to hold question bodies.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        Set<String> queryTerms = queryTerms(query);
+        if (queryTerms.isEmpty() || liveDocs == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        
+        float avgLength = (float) totalLength / liveDocs;
+        Postings[] lists = new Postings[queryTerms.size()];
+        float[] idfs = new float[lists.length];
+        int listCount = 0;
+        for (String term : queryTerms) {
+            Postings postings = terms.get(term);
+            if (postings != null) {
+                lists[listCount] = postings;
+                idfs[listCount] = (float) Math.log(1 + (liveDocs - postings.size + 0.5) / (postings.size + 0.5));
+                listCount++;
+            }
+        }
+        
+        // Walk all matching postings at once in doc id order, keeping the best `limit` documents, best first
+        int[] cursors = new int[listCount];
+        int[] top = new int[Math.min(limit, liveDocs)];
+        float[] topScores = new float[top.length];
+        int topCount = 0;
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int l = 0; l < listCount; l++) {
+                if (cursors[l] < lists[l].size) {
+                    doc = Math.min(doc, lists[l].docs[cursors[l]]);
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+            float score = 0;
+            float norm = K1 * (1 - B + B * lengths[doc] / avgLength);
+            for (int l = 0; l < listCount; l++) {
+                if (cursors[l] < lists[l].size && lists[l].docs[cursors[l]] == doc) {
+                    float tf = lists[l].freqs[cursors[l]++];
+                    score += idfs[l] * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+            if (deleted.get(doc) || (topCount == top.length && score <= topScores[topCount - 1])) {
+                continue;
+            }
+            int at = topCount < top.length ? topCount++ : topCount - 1;
+            while (at > 0 && topScores[at - 1] < score) {
+                top[at] = top[at - 1];
+                topScores[at] = topScores[at - 1];
+                at--;
+            }
+            top[at] = doc;
+            topScores[at] = score;
+        }
+        
+        List<SearchHit> hits = new ArrayList<>(topCount);
+        for (int i = 0; i < topCount; i++) {
+            int doc = top[i];
+            String examTitle = examTitles.get(examIds[doc]);
+            hits.add(new SearchHit(kinds[doc], entityIds[doc], examIds[doc], examTitle,
+                    kinds[doc] == Kind.EXAM ? examTitle : null, topScores[i]));
+        }
+        return hits;
+    }
+    
+    /**
+     * Stemmed query terms plus, when the query does not end in a space,
+     * the index terms starting with the last token as typed.
+     */
+    private Set<String> queryTerms(String query) {
+        Set<String> queryTerms = new LinkedHashSet<>(TextAnalyzer.terms(query));
+        List<String> tokens = TextAnalyzer.tokens(query);
+        if (!tokens.isEmpty() && !Character.isWhitespace(query.charAt(query.length() - 1))) {
+            String prefix = tokens.get(tokens.size() - 1);
+            int expanded = 0;
+            for (String term : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+                if (expanded++ == MAX_PREFIX_TERMS) {
+                    break;
+                }
+                queryTerms.add(term);
+            }
+        }
+        return queryTerms;
+    }
+    
+    /**
+     * Upsert by entity id: unchanged content keeps its doc, changed content replaces it.
+     */
+    private void put(Map<Long, Integer> docs, Kind kind, long entityId, long examId, List<String> docTerms) {
+        long hash = contentHash(docTerms);
+        Integer previous = docs.get(entityId);
+        if (previous != null && hashes[previous] == hash && examIds[previous] == examId
+                && lengths[previous] == docTerms.size()) {
+            return;
+        }
+        docs.put(entityId, addDocument(kind, entityId, examId, docTerms, hash));
+        remove(previous);
+        if (tombstones >= MIN_COMPACT_TOMBSTONES && tombstones > liveDocs) {
+            compact();
+        }
+    }
+    
+    private int addDocument(Kind kind, long entityId, long examId, List<String> docTerms, long hash) {
+        int doc = docCount++;
+        if (doc == kinds.length) {
+            int capacity = doc * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            entityIds = Arrays.copyOf(entityIds, capacity);
+            examIds = Arrays.copyOf(examIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        kinds[doc] = kind;
+        entityIds[doc] = entityId;
+        examIds[doc] = examId;
+        lengths[doc] = docTerms.size();
+        hashes[doc] = hash;
+        
+        Map<String, Integer> freqs = new HashMap<>();
+        for (String term : docTerms) {
+            freqs.merge(term, 1, Integer::sum);
+        }
+        freqs.forEach((term, freq) -> terms.computeIfAbsent(term, t -> new Postings()).add(doc, freq));
+        
+        liveDocs++;
+        totalLength += docTerms.size();
+        return doc;
+    }
+    
+    /** 64-bit FNV-1a over the terms' characters, with a separator between terms. */
+    private static long contentHash(List<String> docTerms) {
+        long hash = 0xcbf29ce484222325L;
+        for (String term : docTerms) {
+            for (int i = 0; i < term.length(); i++) {
+                hash = (hash ^ term.charAt(i)) * 0x100000001b3L;
+            }
+            hash = (hash ^ 0xffff) * 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    private void remove(Integer doc) {
+        if (doc != null && !deleted.get(doc)) {
+            deleted.set(doc);
+            liveDocs--;
+            tombstones++;
+            totalLength -= lengths[doc];
+        }
+    }
+    
+    /**
+     * Renumber the live documents densely, in their old order so postings stay sorted,
+     * and drop tombstoned postings and terms left without any.
+     */
+    private void compact() {
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = next;
+            kinds[next] = kinds[doc];
+            entityIds[next] = entityIds[doc];
+            examIds[next] = examIds[doc];
+            lengths[next] = lengths[doc];
+            hashes[next] = hashes[doc];
+            next++;
+        }
+        Arrays.fill(kinds, next, docCount, null);
+        terms.values().removeIf(postings -> postings.remap(remap) == 0);
+        examDocs.replaceAll((id, doc) -> remap[doc]);
+        questionDocs.replaceAll((id, doc) -> remap[doc]);
+        deleted.clear();
+        docCount = next;
+        tombstones = 0;
+    }
+    
+    /**
+     * Doc ids and term frequencies of one term, ascending by doc id.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+        
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+        
+        /** Renumber in place, dropping docs mapped to -1; returns the remaining size. */
+        int remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    freqs[kept] = freqs[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+}
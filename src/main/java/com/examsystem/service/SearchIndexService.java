@@ -0,0 +1,161 @@
+package com.examsystem.service;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.Question;
+import com.examsystem.model.SearchHit;
+import com.examsystem.model.SearchHit.Kind;
+import com.examsystem.repository.ExamRepository;
+import com.examsystem.repository.QuestionRepository;
+import com.examsystem.repository.QuestionRepository.SearchEntry;
+import com.examsystem.utils.AfterCommit;
+import com.examsystem.utils.ReadRouting;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text search over exam titles and question text and options.
+ * The index is built from the database on first use and updated incrementally
+ * by the exam service once the changing transaction has committed; re-saving
+ * unchanged content leaves the index as it is.
+ */
+@Service
+public class SearchIndexService {
+    
+    private final ExamRepository examRepository;
+    private final QuestionRepository questionRepository;
+    
+    private SearchIndex index = new SearchIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+    
+    public SearchIndexService(ExamRepository examRepository, QuestionRepository questionRepository) {
+        this.examRepository = examRepository;
+        this.questionRepository = questionRepository;
+    }
+    
+    /**
+     * Ranked hits for a query; question hits carry their text.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        ensureLoaded();
+        List<SearchHit> hits;
+        lock.readLock().lock();
+        try {
+            hits = index.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        // Question text is not kept in memory; fetch it for the hits only
+        List<Long> questionIds = new ArrayList<>();
+        hits.stream().filter(hit -> hit.getKind() == Kind.QUESTION).forEach(hit -> questionIds.add(hit.getId()));
+        if (!questionIds.isEmpty()) {
+            Map<Long, String> texts = new HashMap<>();
+            questionRepository.findAllById(questionIds).forEach(q -> texts.put(q.getId(), q.getText()));
+            hits.forEach(hit -> {
+                if (hit.getKind() == Kind.QUESTION) {
+                    hit.setText(texts.get(hit.getId()));
+                }
+            });
+        }
+        return hits;
+    }
+    
+    /**
+     * Live documents in the index (0 until first use).
+     */
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Index an exam's title, and its questions if they are already loaded.
+     */
+    public void indexExam(Exam exam) {
+        long examId = exam.getId();
+        String title = exam.getTitle();
+        List<Question> questions = Hibernate.isInitialized(exam.getQuestions())
+                ? new ArrayList<>(exam.getQuestions())
+                : List.of();
+        afterCommit(() -> {
+            index.putExam(examId, title);
+            for (Question question : questions) {
+                if (question.getId() != null) {
+                    index.putQuestion(question.getId(), examId, question.getText(), question.getOptionsArray());
+                }
+            }
+        });
+    }
+    
+    public void indexQuestion(Long examId, Question question) {
+        long questionId = question.getId();
+        String text = question.getText();
+        String[] options = question.getOptionsArray();
+        afterCommit(() -> index.putQuestion(questionId, examId, text, options));
+    }
+    
+    /**
+     * Drop the index after another node changed exams or questions; the next search rebuilds it.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            index = new SearchIndex();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Apply an index update once the current transaction commits (or now, outside one).
+     * Updates before the first load are dropped: the load reads them from the database.
+     * The check runs under the write lock, so an update committed while a load is
+     * reading waits for it and is applied on top instead of being dropped.
+     */
+    private void afterCommit(Runnable update) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    update.run();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+    
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                ReadRouting.onPrimary(() -> {
+                    examRepository.findTitleEntries().forEach(e -> index.putExam(e.getId(), e.getTitle()));
+                    Question parser = new Question();
+                    for (SearchEntry entry : questionRepository.findSearchEntries()) {
+                        parser.setOptionsJson(entry.getOptionsJson());
+                        index.putQuestion(entry.getId(), entry.getExamId(), entry.getText(), parser.getOptionsArray());
+                    }
+                });
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.examsystem.service;
+
+import com.examsystem.entity.Student;
+import com.examsystem.model.Role;
+import com.examsystem.model.StudentSuggestion;
+import com.examsystem.repository.StudentRepository;
+import com.examsystem.repository.StudentRepository.DirectoryEntry;
+import com.examsystem.utils.AfterCommit;
+import com.examsystem.utils.RadixTrie;
+import com.examsystem.utils.ReadRouting;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory roster of students for autocomplete: a radix trie over usernames,
+ * full names and each later word of a name. Only id, username and name are kept,
+ * never the entity or its password hash.
+ */
+@Service
+public class StudentDirectory {
+    
+    private final StudentRepository studentRepository;
+    
+    private RadixTrie trie = new RadixTrie();
+    private final Map<Long, StudentSuggestion> entries = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+    
+    public StudentDirectory(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+    
+    /**
+     * Students whose username or name (or a word of it) starts with the prefix.
+     */
+    public List<StudentSuggestion> suggest(String prefix, int limit) {
+        String key = prefix.trim().toLowerCase();
+        if (key.isEmpty()) {
+            return new ArrayList<>();
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<StudentSuggestion> suggestions = new ArrayList<>();
+            for (long id : trie.prefixValues(key, limit)) {
+                suggestions.add(entries.get(id));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Students in the roster index (0 until first use).
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Add or update a student once the saving transaction commits.
+     * Non-student accounts are kept out of the roster. Before the first load the
+     * update is dropped (the load reads it); the check runs under the write lock,
+     * so an update committed while a load is reading is applied on top of it.
+     */
+    public void update(Student student) {
+        StudentSuggestion entry = student.getRole() == Role.STUDENT
+                ? new StudentSuggestion(student.getId(), student.getUsername(), student.getName())
+                : null;
+        long id = student.getId();
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    return;
+                }
+                StudentSuggestion previous = entry != null ? entries.put(id, entry) : entries.remove(id);
+                if (previous != null) {
+                    keys(previous).forEach(key -> trie.remove(key, id));
+                }
+                if (entry != null) {
+                    keys(entry).forEach(key -> trie.put(key, id));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+    
+    /**
+     * Drop the roster when changes from other nodes may have been missed; the next lookup reloads it.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            trie = new RadixTrie();
+            entries.clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                for (DirectoryEntry row : ReadRouting.onPrimary(
+                        () -> studentRepository.findDirectoryEntriesByRole(Role.STUDENT))) {
+                    StudentSuggestion entry = new StudentSuggestion(row.getId(), row.getUsername(), row.getName());
+                    entries.put(row.getId(), entry);
+                    keys(entry).forEach(key -> trie.put(key, row.getId()));
+                }
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Username, full name and every later word of the name, lowercased.
+     */
+    private static List<String> keys(StudentSuggestion entry) {
+        List<String> keys = new ArrayList<>();
+        keys.add(entry.getUsername().toLowerCase());
+        if (entry.getName() != null && !entry.getName().isBlank()) {
+            String name = entry.getName().trim().toLowerCase();
+            keys.add(name);
+            String[] words = name.split("\\s+");
+            for (int i = 1; i < words.length; i++) {
+                keys.add(words[i]);
+            }
+        }
+        return keys;
+    }
+}
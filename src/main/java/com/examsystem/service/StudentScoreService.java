@@ -0,0 +1,101 @@
+package com.examsystem.service;
+
+import com.examsystem.entity.Student;
+import com.examsystem.repository.ExamResultRepository;
+import com.examsystem.repository.ExamResultRepository.ScoreEntry;
+import com.examsystem.utils.BulkChunks;
+import com.examsystem.utils.LongIntMap;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves per-student counting scores from the {@code exam_results} table.
+ * Students carry no way to read their own scores: callers install a single
+ * student's scores with {@link #loadScores(Student)}, and analytics that look
+ * at many students load all of their scores in one statement with
+ * {@link #preload(Collection)}.
+ */
+@Service
+public class StudentScoreService {
+
+    private final ExamResultRepository resultRepository;
+
+    private final AtomicLong singleLoads = new AtomicLong();
+    private final AtomicLong bulkLoads = new AtomicLong();
+
+    public StudentScoreService(ExamResultRepository resultRepository) {
+        this.resultRepository = resultRepository;
+    }
+
+    /**
+     * Install the stored scores of one student, unless it has loaded them already.
+     */
+    public Student loadScores(Student student) {
+        if (student.getId() != null && !student.isScoresLoaded()) {
+            student.preloadScores(load(student.getId()));
+        }
+        return student;
+    }
+
+    /**
+     * All exam scores of one student.
+     */
+    public LongIntMap load(Long studentId) {
+        singleLoads.incrementAndGet();
+        List<ScoreEntry> entries = resultRepository.findScoresByStudentId(studentId);
+        LongIntMap scores = new LongIntMap(entries.size());
+        for (ScoreEntry entry : entries) {
+            scores.put(entry.getExamId(), entry.getScore());
+        }
+        return scores;
+    }
+
+    /**
+     * Load the scores of every student that has not loaded them yet, one query per thousand students.
+     */
+    public void preload(Collection<Student> students) {
+        Map<Long, List<Student>> pending = new HashMap<>();
+        for (Student student : students) {
+            if (student.getId() != null && !student.isScoresLoaded()) {
+                pending.computeIfAbsent(student.getId(), id -> new ArrayList<>(1)).add(student);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        bulkLoads.incrementAndGet();
+
+        Map<Long, LongIntMap> scores = new HashMap<>(pending.size() * 2);
+        List<Long> ids = new ArrayList<>(pending.keySet());
+        for (List<Long> chunk : BulkChunks.of(ids)) {
+            for (ScoreEntry entry : resultRepository.findScoresByStudentIdIn(chunk)) {
+                scores.computeIfAbsent(entry.getStudentId(), id -> new LongIntMap())
+                        .put(entry.getExamId(), entry.getScore());
+            }
+        }
+        pending.forEach((studentId, copies) -> {
+            for (Student student : copies) {
+                LongIntMap stored = new LongIntMap();
+                LongIntMap loaded = scores.get(studentId);
+                if (loaded != null) {
+                    stored.putAll(loaded);
+                }
+                student.preloadScores(stored);
+            }
+        });
+    }
+
+    public long getSingleLoads() {
+        return singleLoads.get();
+    }
+
+    public long getBulkLoads() {
+        return bulkLoads.get();
+    }
+}
@@ -1,7 +1,11 @@
 package com.examsystem.service;
 
 import com.examsystem.entity.Student;
+import com.examsystem.model.CacheRegion;
 import com.examsystem.repository.StudentRepository;
+import com.examsystem.model.StudentSuggestion;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,11 +22,17 @@ public class StudentServiceImpl implements IStudentService {
     
     private final StudentRepository studentRepository;
     private final PasswordEncoder passwordEncoder;
+    private final StudentDirectory directory;
+    private final CacheChangeService cacheChanges;
     
     public StudentServiceImpl(StudentRepository studentRepository,
-                             PasswordEncoder passwordEncoder) {
+                             PasswordEncoder passwordEncoder,
+                             StudentDirectory directory,
+                             CacheChangeService cacheChanges) {
         this.studentRepository = studentRepository;
         this.passwordEncoder = passwordEncoder;
+        this.directory = directory;
+        this.cacheChanges = cacheChanges;
     }
     
     @Override
@@ -32,7 +42,10 @@ public class StudentServiceImpl implements IStudentService {
         }
         
         Student student = new Student(name, username, passwordEncoder.encode(password));
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        directory.update(saved);
+        cacheChanges.publish(CacheRegion.STUDENT, saved.getId());
+        return saved;
     }
     
     @Override
@@ -42,6 +55,7 @@ public class StudentServiceImpl implements IStudentService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Student> getAllStudents() {
         return studentRepository.findAll();
     }
@@ -52,9 +66,29 @@ public class StudentServiceImpl implements IStudentService {
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + id));
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<Student> getStudentsPage(int page, int size) {
+        return studentRepository.findAll(PageRequest.of(page, size, Sort.by("id"))).getContent();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long countStudents() {
+        return studentRepository.count();
+    }
+    
+    @Override
+    public List<StudentSuggestion> suggestStudents(String prefix, int limit) {
+        return directory.suggest(prefix, limit);
+    }
+    
     @Override
     public Student saveStudent(Student student) {
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        directory.update(saved);
+        cacheChanges.publish(CacheRegion.STUDENT, saved.getId());
+        return saved;
     }
     
     @Override
@@ -1,5 +1,7 @@
 package com.examsystem.strategy;
 
+import com.examsystem.service.Bulkheads;
+import com.examsystem.utils.Bulkhead;
 import org.springframework.stereotype.Component;
 
 /**
@@ -9,17 +11,22 @@ import org.springframework.stereotype.Component;
 @Component
 public class ManualStrategy implements EvaluationStrategy {
     
+    // Review notes are best effort and written in the background bulkhead, off the submission path
+    private final Bulkhead background;
+    
+    public ManualStrategy(Bulkheads bulkheads) {
+        this.background = bulkheads.background();
+    }
+    
     /**
      * Returns 0 as placeholder - requires admin manual grading.
-     * In production, this would queue the exam for admin review.
+     * Graders are handed the ungraded submission by the grading queue.
      */
     @Override
     public int evaluate(String[] answers, String[] correctAnswers) {
-        System.out.println("[MANUAL STRATEGY] Exam requires manual grading.");
-        System.out.println("Submitted answers: " + (answers != null ? answers.length : 0));
-        
-        // Log for admin review queue
-        logForReview(answers);
+        // Log for admin review queue; the caller may reuse the array once evaluation returns
+        String[] submitted = answers != null ? answers.clone() : null;
+        background.execute(() -> logForReview(submitted));
         
         return 0; // Placeholder - admin will grade
     }
@@ -33,6 +40,8 @@ public class ManualStrategy implements EvaluationStrategy {
      * Logs answers for admin review (demonstration).
      */
     private void logForReview(String[] answers) {
+        System.out.println("[MANUAL STRATEGY] Exam requires manual grading.");
+        System.out.println("Submitted answers: " + (answers != null ? answers.length : 0));
         if (answers != null) {
             System.out.println("Logging " + answers.length + " answers for manual review...");
         }
@@ -0,0 +1,32 @@
+package com.examsystem.strategy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Decorator that records how long a strategy takes to evaluate a submission.
+ * Demonstrates the Decorator pattern: same interface, added behaviour.
+ */
+public class TimedEvaluationStrategy implements EvaluationStrategy {
+    
+    private final EvaluationStrategy delegate;
+    private final Timer timer;
+    
+    public TimedEvaluationStrategy(EvaluationStrategy delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.timer = Timer.builder("exam.strategy.evaluate")
+                .description("Time spent in an evaluation strategy")
+                .tag("strategy", delegate.getClass().getSimpleName())
+                .register(registry);
+    }
+    
+    @Override
+    public int evaluate(String[] answers, String[] correctAnswers) {
+        return timer.record(() -> delegate.evaluate(answers, correctAnswers));
+    }
+    
+    @Override
+    public String getStrategyName() {
+        return delegate.getStrategyName();
+    }
+}
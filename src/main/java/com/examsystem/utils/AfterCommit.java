@@ -0,0 +1,30 @@
+package com.examsystem.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory index updates until the surrounding transaction commits,
+ * so a rolled-back save never shows up in an index.
+ */
+public final class AfterCommit {
+    
+    private AfterCommit() {
+    }
+    
+    /**
+     * Run after the current transaction commits, or immediately outside a transaction.
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
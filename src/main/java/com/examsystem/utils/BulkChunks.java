@@ -0,0 +1,27 @@
+package com.examsystem.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the ids of a bulk read into chunks, so the IN list of one statement
+ * stays within what every database accepts.
+ */
+public final class BulkChunks {
+    
+    public static final int SIZE = 1000;
+    
+    private BulkChunks() {
+    }
+    
+    /**
+     * Consecutive views of at most {@link #SIZE} elements of the list.
+     */
+    public static <T> List<List<T>> of(List<T> ids) {
+        List<List<T>> chunks = new ArrayList<>((ids.size() + SIZE - 1) / SIZE);
+        for (int from = 0; from < ids.size(); from += SIZE) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + SIZE)));
+        }
+        return chunks;
+    }
+}
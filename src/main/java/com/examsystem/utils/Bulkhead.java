@@ -0,0 +1,185 @@
+package com.examsystem.utils;
+
+import com.examsystem.exception.BulkheadFullException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A named, bounded thread pool that isolates one kind of work from the rest.
+ * At most {@code threads} tasks run at once and {@code queueCapacity} wait; what
+ * happens to a task beyond that is the pool's {@link Overflow} policy.
+ * Tasks run with the submitter's security context and read routing mode.
+ */
+public class Bulkhead implements AutoCloseable {
+
+    public enum Overflow {
+        /** Refuse the task with a {@link BulkheadFullException}. */
+        REJECT,
+        /** Run the task on the submitting thread, slowing the submitter down. */
+        CALLER_RUNS,
+        /** Drop the task; for best-effort work only. */
+        DISCARD
+    }
+
+    private final String name;
+    private final Overflow overflow;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    public Bulkhead(String name, int threads, int queueCapacity, Overflow overflow) {
+        this.name = name;
+        this.overflow = overflow;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                task -> {
+                    Thread thread = new Thread(task, "bulkhead-" + name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                overflowHandler());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    private RejectedExecutionHandler overflowHandler() {
+        return (task, pool) -> {
+            rejected.incrementAndGet();
+            if (pool.isShutdown()) {
+                throw new BulkheadFullException(name);
+            }
+            switch (overflow) {
+                case CALLER_RUNS -> task.run();
+                case DISCARD -> {
+                    System.err.println("[BULKHEAD] " + name + " is full; task dropped");
+                    if (task instanceof Task dropped && dropped.result != null) {
+                        dropped.result.completeExceptionally(new BulkheadFullException(name));
+                    }
+                }
+                default -> throw new BulkheadFullException(name);
+            }
+        };
+    }
+
+    /**
+     * Run the task in this pool.
+     *
+     * @throws BulkheadFullException if the pool is full and its policy is {@link Overflow#REJECT}
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(new Task(withContext(() -> {
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }), result));
+        return result;
+    }
+
+    public void execute(Runnable task) {
+        executor.execute(new Task(withContext(task), null));
+    }
+
+    /**
+     * Run the task in this pool and wait for its result, so that the caller's
+     * work counts against this pool's limits.
+     */
+    public <T> T call(Supplier<T> task) {
+        try {
+            return submit(task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A queued task, with the future to fail should the task be dropped.
+     */
+    private record Task(Runnable body, CompletableFuture<?> result) implements Runnable {
+        @Override
+        public void run() {
+            body.run();
+        }
+    }
+
+    private static Runnable withContext(Runnable task) {
+        SecurityContext security = SecurityContextHolder.getContext();
+        ReadRouting.Mode routing = ReadRouting.current();
+        return () -> {
+            // Restored afterwards, as the caller's own thread may run the task
+            SecurityContext previousSecurity = SecurityContextHolder.getContext();
+            ReadRouting.Mode previousRouting = ReadRouting.current();
+            SecurityContextHolder.setContext(security);
+            ReadRouting.set(routing);
+            try {
+                task.run();
+            } finally {
+                SecurityContextHolder.setContext(previousSecurity);
+                ReadRouting.set(previousRouting);
+            }
+        };
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Overflow getOverflow() {
+        return overflow;
+    }
+
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    public long getCompleted() {
+        return executor.getCompletedTaskCount();
+    }
+
+    /**
+     * Tasks that found the pool full, whatever the policy then did with them.
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+}
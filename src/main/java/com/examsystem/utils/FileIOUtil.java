@@ -1,6 +1,7 @@
 package com.examsystem.utils;
 
 import com.examsystem.entity.Student;
+import com.examsystem.monitoring.ExportChunkEvent;
 import java.io.*;
 import java.util.Map;
 
@@ -10,6 +11,8 @@ import java.util.Map;
  */
 public class FileIOUtil {
     
+    private static final int EXPORT_CHUNK_ROWS = 500;
+    
     /**
      * Saves exam results to CSV file.
      * Demonstrates BufferedWriter usage and file I/O.
@@ -25,7 +28,10 @@ public class FileIOUtil {
             writer.write("ID,Name,Username,Score");
             writer.newLine();
             
-            // Write student results
+            // Write student results, reporting each chunk of rows to JFR
+            ExportChunkEvent chunk = new ExportChunkEvent();
+            chunk.begin();
+            int chunkIndex = 0;
             for (Map.Entry<Student, Integer> entry : results.entrySet()) {
                 Student student = entry.getKey();
                 Integer score = entry.getValue();
@@ -39,12 +45,32 @@ public class FileIOUtil {
                 
                 writer.write(line);
                 writer.newLine();
+                
+                chunk.rows++;
+                chunk.characters += line.length() + 1;
+                if (chunk.rows == EXPORT_CHUNK_ROWS) {
+                    commitChunk(chunk, filePath, chunkIndex++);
+                    chunk = new ExportChunkEvent();
+                    chunk.begin();
+                }
+            }
+            if (chunk.rows > 0) {
+                commitChunk(chunk, filePath, chunkIndex);
             }
             
             System.out.println("[FILE I/O] Results saved to CSV: " + filePath);
         }
     }
     
+    private static void commitChunk(ExportChunkEvent chunk, String filePath, int chunkIndex) {
+        chunk.end();
+        if (chunk.shouldCommit()) {
+            chunk.file = filePath;
+            chunk.chunkIndex = chunkIndex;
+            chunk.commit();
+        }
+    }
+    
     /**
      * Escapes CSV special characters.
      */
@@ -84,7 +110,10 @@ public class FileIOUtil {
     /**
      * Appends log entry to file.
      * Demonstrates file append mode.
+     * Opens and closes the file on every call; use
+     * {@link com.examsystem.monitoring.AuditLog} for request-path logging.
      */
+    @Deprecated
     public static void appendLog(String filePath, String logEntry) throws IOException {
         try (BufferedWriter writer = new BufferedWriter(
                 new FileWriter(filePath, true))) { // true = append mode
@@ -0,0 +1,145 @@
+package com.examsystem.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to int values.
+ * Keys and values live in two parallel primitive arrays probed linearly,
+ * so a student's exam scores cost 12 bytes per slot instead of a boxed
+ * {@code HashMap<Long, Integer>} node per entry. Not thread-safe.
+ */
+public final class LongIntMap {
+
+    // Key 0 marks a free slot; a real 0 key is held out of line
+    private static final long FREE = 0L;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public LongIntMap() {
+        this(4);
+    }
+
+    public LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+    }
+
+    public int get(long key, int defaultValue) {
+        if (key == FREE) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) {
+                return values[slot];
+            }
+            if (k == FREE) {
+                return defaultValue;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        if (key == FREE) {
+            return hasZeroKey;
+        }
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) {
+                return true;
+            }
+            if (k == FREE) {
+                return false;
+            }
+        }
+    }
+
+    public void put(long key, int value) {
+        if (key == FREE) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) {
+                values[slot] = value;
+                return;
+            }
+            if (k == FREE) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size > keys.length * LOAD_FACTOR) {
+                    rehash(keys.length << 1);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Copy every entry of another map into this one, overwriting existing keys.
+     */
+    public void putAll(LongIntMap other) {
+        if (other.hasZeroKey) {
+            put(FREE, other.zeroValue);
+        }
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != FREE) {
+                put(other.keys[i], other.values[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != FREE) {
+                int slot = slot(key, mask);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Fibonacci hashing: ids are sequential, so spread them before masking.
+     */
+    private static int slot(long key, int mask) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,205 @@
+package com.examsystem.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-exam dictionary of MCQ option texts.
+ * Submissions store one small code per answer instead of the option text:
+ * code 0 is "no answer" and code {@code n} is the n-th distinct option of the exam.
+ * The dictionary is append-only, so codes written earlier stay valid when
+ * questions are added; it is persisted on the exam as a JSON array.
+ * <p>
+ * Encoded answers start with the code width in bytes (1 or 2), followed by one
+ * big-endian code per question. Entry strings are interned; OptionDictionaries
+ * shares the parsed dictionary of each exam.
+ */
+public final class OptionDictionary {
+
+    /** Largest number of entries that still fits a two-byte code. */
+    public static final int MAX_ENTRIES = 0xFFFF;
+
+    private static final OptionDictionary EMPTY = new OptionDictionary("[]", new String[0]);
+
+    private final String json;
+    private final String[] entries;
+    private final Map<String, Integer> codes;
+
+    private OptionDictionary(String json, String[] entries) {
+        this.json = json;
+        this.entries = entries;
+        this.codes = new HashMap<>(entries.length * 2);
+        for (int i = 0; i < entries.length; i++) {
+            codes.putIfAbsent(entries[i], i + 1);
+        }
+    }
+
+    public static OptionDictionary parse(String json) {
+        if (json == null || json.isEmpty()) {
+            return EMPTY;
+        }
+        return new OptionDictionary(json, readArray(json));
+    }
+
+    /**
+     * This dictionary with any options it does not know yet appended, or itself if nothing is new.
+     */
+    public OptionDictionary extend(Iterable<String[]> optionLists) {
+        List<String> added = null;
+        Map<String, Integer> seen = codes;
+        for (String[] options : optionLists) {
+            for (String option : options) {
+                if (option == null || option.isEmpty() || seen.containsKey(option)) {
+                    continue;
+                }
+                if (added == null) {
+                    added = new ArrayList<>();
+                    seen = new HashMap<>(codes);
+                }
+                seen.put(option, entries.length + added.size() + 1);
+                added.add(option);
+            }
+        }
+        if (added == null) {
+            return this;
+        }
+        String[] extended = Arrays.copyOf(entries, entries.length + added.size());
+        for (int i = 0; i < added.size(); i++) {
+            extended[entries.length + i] = added.get(i).intern();
+        }
+        return new OptionDictionary(writeArray(extended), extended);
+    }
+
+    /**
+     * Encode answers as codes, or return null if an answer is not an option
+     * of this exam (free text, or an option changed since the paper was served).
+     */
+    public byte[] encode(String[] answers) {
+        if (answers == null || entries.length == 0 || entries.length > MAX_ENTRIES) {
+            return null;
+        }
+        int width = entries.length <= 0xFF ? 1 : 2;
+        byte[] encoded = new byte[1 + answers.length * width];
+        encoded[0] = (byte) width;
+        for (int i = 0; i < answers.length; i++) {
+            int code = 0;
+            if (answers[i] != null && !answers[i].isEmpty()) {
+                Integer known = codes.get(answers[i]);
+                if (known == null) {
+                    return null;
+                }
+                code = known;
+            }
+            int at = 1 + i * width;
+            if (width == 2) {
+                encoded[at++] = (byte) (code >>> 8);
+            }
+            encoded[at] = (byte) code;
+        }
+        return encoded;
+    }
+
+    /**
+     * Decode answers written by {@link #encode}; unanswered questions decode to "".
+     */
+    public String[] decode(byte[] encoded) {
+        if (encoded == null || encoded.length == 0) {
+            return new String[0];
+        }
+        int width = encoded[0];
+        if (width != 1 && width != 2) {
+            return new String[0];
+        }
+        String[] answers = new String[(encoded.length - 1) / width];
+        for (int i = 0; i < answers.length; i++) {
+            int code = code(encoded, 1 + i * width, width);
+            answers[i] = code == 0 || code > entries.length ? "" : entries[code - 1];
+        }
+        return answers;
+    }
+
+    private static int code(byte[] encoded, int at, int width) {
+        return width == 2
+                ? ((encoded[at] & 0xFF) << 8) | (encoded[at + 1] & 0xFF)
+                : encoded[at] & 0xFF;
+    }
+
+    /**
+     * Whether every code in the encoded answers has an entry in this dictionary.
+     */
+    public boolean covers(byte[] encoded) {
+        if (encoded == null || encoded.length == 0) {
+            return true;
+        }
+        int width = encoded[0];
+        if (width != 1 && width != 2) {
+            return true;
+        }
+        for (int at = 1; at + width <= encoded.length; at += width) {
+            if (code(encoded, at, width) > entries.length) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    public String toJson() {
+        return json;
+    }
+
+    /**
+     * JSON string escaping of backslashes and quotes, so every option reads back unchanged.
+     */
+    private static String writeArray(String[] values) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"');
+            String entry = values[i];
+            for (int j = 0; j < entry.length(); j++) {
+                char c = entry.charAt(j);
+                if (c == '"' || c == '\\') {
+                    json.append('\\');
+                }
+                json.append(c);
+            }
+            json.append('"');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Only {@code \"} and {@code \\} are escapes; any other backslash is kept, which also
+     * reads dictionaries written before backslashes were escaped.
+     */
+    private static String[] readArray(String json) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = null;
+        for (int i = 0; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (value == null) {
+                if (c == '"') {
+                    value = new StringBuilder();
+                }
+            } else if (c == '\\' && i + 1 < json.length()
+                    && (json.charAt(i + 1) == '"' || json.charAt(i + 1) == '\\')) {
+                value.append(json.charAt(++i));
+            } else if (c == '"') {
+                values.add(value.toString().intern());
+                value = null;
+            } else {
+                value.append(c);
+            }
+        }
+        return values.toArray(new String[0]);
+    }
+}
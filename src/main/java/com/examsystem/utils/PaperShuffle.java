@@ -0,0 +1,89 @@
+package com.examsystem.utils;
+
+/**
+ * Deterministic per-student shuffling of exam papers.
+ * The question and option order of a student's paper is derived from
+ * (examId, studentId, paper version) with a SplitMix64 generator and a
+ * Fisher-Yates shuffle, so nothing has to be stored: the same order is
+ * recomputed when the paper is served and again when it is graded.
+ */
+public final class PaperShuffle {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private PaperShuffle() {
+    }
+
+    /**
+     * Seed of one student's paper for one exam version.
+     */
+    public static long seed(long examId, long studentId, int version) {
+        long seed = mix(examId * GOLDEN_GAMMA);
+        seed = mix(seed ^ (studentId + GOLDEN_GAMMA));
+        return mix(seed ^ ((long) version << 32));
+    }
+
+    /**
+     * Derive an independent seed for a sub-sequence (a question's options, a section).
+     */
+    public static long derive(long seed, long salt) {
+        return mix(seed ^ mix(salt + GOLDEN_GAMMA));
+    }
+
+    /**
+     * Served order of n items: {@code order[served] = canonical}.
+     */
+    public static int[] order(int n, long seed) {
+        int[] order = new int[n];
+        fillOrder(order, n, seed);
+        return order;
+    }
+
+    /**
+     * Fill the first n slots of a caller-supplied buffer with the served order.
+     */
+    public static void fillOrder(int[] order, int n, long seed) {
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        long state = seed;
+        for (int i = n - 1; i > 0; i--) {
+            state += GOLDEN_GAMMA;
+            int j = bounded(mix(state), i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+    }
+
+    /**
+     * Put answers given in served order back into canonical question order.
+     * Answer arrays of the wrong length cannot be mapped and are returned unchanged.
+     */
+    public static String[] toCanonical(String[] servedAnswers, int[] order) {
+        if (servedAnswers == null || servedAnswers.length != order.length) {
+            return servedAnswers;
+        }
+        String[] canonical = new String[servedAnswers.length];
+        for (int served = 0; served < order.length; served++) {
+            canonical[order[served]] = servedAnswers[served];
+        }
+        return canonical;
+    }
+
+    /**
+     * SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Map a random long onto [0, bound) with a multiply-shift (Lemire) reduction.
+     */
+    private static int bounded(long random, int bound) {
+        return (int) (((random >>> 32) * bound) >>> 32);
+    }
+}
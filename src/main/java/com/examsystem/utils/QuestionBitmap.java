@@ -0,0 +1,110 @@
+package com.examsystem.utils;
+
+import java.util.Arrays;
+
+/**
+ * Growable bitmap over dense question ordinals (0..n-1 in bank order).
+ * Plain 64-bit words: intersections are word-wise ANDs and rank selection
+ * skips whole words with {@link Long#bitCount}, so sampling k questions out of
+ * c candidates costs O(n/64 + k) rather than O(c).
+ */
+public final class QuestionBitmap {
+    
+    private long[] words;
+    
+    public QuestionBitmap() {
+        this(64);
+    }
+    
+    public QuestionBitmap(int capacityBits) {
+        this.words = new long[Math.max(1, (capacityBits + 63) >>> 6)];
+    }
+    
+    private QuestionBitmap(long[] words) {
+        this.words = words;
+    }
+    
+    /**
+     * Bitmap with the first n bits set.
+     */
+    public static QuestionBitmap full(int n) {
+        QuestionBitmap bitmap = new QuestionBitmap(n);
+        Arrays.fill(bitmap.words, 0, n >>> 6, -1L);
+        if ((n & 63) != 0) {
+            bitmap.words[n >>> 6] = (1L << n) - 1;
+        }
+        return bitmap;
+    }
+    
+    public void set(int bit) {
+        int word = bit >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(words.length * 2, word + 1));
+        }
+        words[word] |= 1L << bit;
+    }
+    
+    public boolean get(int bit) {
+        int word = bit >>> 6;
+        return word < words.length && (words[word] & (1L << bit)) != 0;
+    }
+    
+    public QuestionBitmap copy() {
+        return new QuestionBitmap(words.clone());
+    }
+    
+    /**
+     * In-place intersection.
+     */
+    public QuestionBitmap and(QuestionBitmap other) {
+        int shared = Math.min(words.length, other.words.length);
+        for (int i = 0; i < shared; i++) {
+            words[i] &= other.words[i];
+        }
+        Arrays.fill(words, shared, words.length, 0L);
+        return this;
+    }
+    
+    /**
+     * In-place difference.
+     */
+    public QuestionBitmap andNot(QuestionBitmap other) {
+        int shared = Math.min(words.length, other.words.length);
+        for (int i = 0; i < shared; i++) {
+            words[i] &= ~other.words[i];
+        }
+        return this;
+    }
+    
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+    
+    /**
+     * Positions of the set bits with the given ranks, in one pass.
+     *
+     * @param ranks ascending ranks in [0, cardinality)
+     */
+    public int[] select(int[] ranks) {
+        int[] bits = new int[ranks.length];
+        int next = 0;
+        int seen = 0;
+        for (int w = 0; w < words.length && next < ranks.length; w++) {
+            long word = words[w];
+            int count = Long.bitCount(word);
+            while (next < ranks.length && ranks[next] < seen + count) {
+                long remaining = word;
+                for (int skip = ranks[next] - seen; skip > 0; skip--) {
+                    remaining &= remaining - 1;
+                }
+                bits[next++] = (w << 6) + Long.numberOfTrailingZeros(remaining);
+            }
+            seen += count;
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,192 @@
+package com.examsystem.utils;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Compressed prefix tree (radix trie) from lowercase string keys to long values.
+ * Chains of single-child nodes are collapsed into one edge label, so a roster of
+ * 100k names needs roughly one node per distinct key. Prefix lookups walk the
+ * prefix and then visit keys in lexicographic order only until enough values are found.
+ * Not thread-safe.
+ */
+public final class RadixTrie {
+    
+    private static final long[] NO_VALUES = new long[0];
+    
+    private final Node root = new Node("");
+    
+    public void put(String key, long value) {
+        Node node = root;
+        String rest = key;
+        while (!rest.isEmpty()) {
+            int slot = node.find(rest.charAt(0));
+            if (slot < 0) {
+                Node leaf = new Node(rest);
+                node.insertChild(-slot - 1, leaf);
+                node = leaf;
+                break;
+            }
+            Node child = node.children[slot];
+            int common = commonPrefix(child.label, rest);
+            if (common < child.label.length()) {
+                // Split the edge: parent -> middle(common) -> child(remainder)
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.insertChild(0, child);
+                node.children[slot] = middle;
+                child = middle;
+            }
+            node = child;
+            rest = rest.substring(common);
+        }
+        node.addValue(value);
+    }
+    
+    public void remove(String key, long value) {
+        remove(root, key, value);
+    }
+    
+    /**
+     * Distinct values of keys starting with the prefix, in key order, at most {@code limit}.
+     */
+    public long[] prefixValues(String prefix, int limit) {
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            int slot = node.find(rest.charAt(0));
+            if (slot < 0) {
+                return NO_VALUES;
+            }
+            Node child = node.children[slot];
+            if (child.label.startsWith(rest)) {
+                node = child;
+                break;
+            }
+            if (!rest.startsWith(child.label)) {
+                return NO_VALUES;
+            }
+            node = child;
+            rest = rest.substring(child.label.length());
+        }
+        
+        Set<Long> found = new LinkedHashSet<>();
+        collect(node, found, limit);
+        long[] values = new long[found.size()];
+        int i = 0;
+        for (long value : found) {
+            values[i++] = value;
+        }
+        return values;
+    }
+    
+    private static void collect(Node node, Set<Long> found, int limit) {
+        for (int i = 0; i < node.valueCount && found.size() < limit; i++) {
+            found.add(node.values[i]);
+        }
+        for (int i = 0; i < node.childCount && found.size() < limit; i++) {
+            collect(node.children[i], found, limit);
+        }
+    }
+    
+    /**
+     * @return true if the node became empty and was unlinked from its parent
+     */
+    private static boolean remove(Node node, String rest, long value) {
+        if (rest.isEmpty()) {
+            node.removeValue(value);
+        } else {
+            int slot = node.find(rest.charAt(0));
+            if (slot < 0 || !rest.startsWith(node.children[slot].label)) {
+                return false;
+            }
+            Node child = node.children[slot];
+            if (remove(child, rest.substring(child.label.length()), value)) {
+                node.removeChild(slot);
+            } else if (child.valueCount == 0 && child.childCount == 1) {
+                // Re-collapse a node that no longer branches
+                Node grandchild = child.children[0];
+                grandchild.label = child.label + grandchild.label;
+                node.children[slot] = grandchild;
+            }
+        }
+        return node.valueCount == 0 && node.childCount == 0 && !node.label.isEmpty();
+    }
+    
+    private static int commonPrefix(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+    
+    private static final class Node {
+        private String label;
+        private Node[] children = new Node[0];
+        private int childCount;
+        private long[] values = NO_VALUES;
+        private int valueCount;
+        
+        Node(String label) {
+            this.label = label;
+        }
+        
+        /**
+         * Binary search on the first character of the child labels.
+         */
+        int find(char first) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+        
+        void insertChild(int at, Node child) {
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+            }
+            System.arraycopy(children, at, children, at + 1, childCount - at);
+            children[at] = child;
+            childCount++;
+        }
+        
+        void removeChild(int at) {
+            System.arraycopy(children, at + 1, children, at, childCount - at - 1);
+            children[--childCount] = null;
+        }
+        
+        void addValue(long value) {
+            for (int i = 0; i < valueCount; i++) {
+                if (values[i] == value) {
+                    return;
+                }
+            }
+            if (valueCount == values.length) {
+                values = Arrays.copyOf(values, Math.max(1, valueCount * 2));
+            }
+            values[valueCount++] = value;
+        }
+        
+        void removeValue(long value) {
+            for (int i = 0; i < valueCount; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--valueCount];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.examsystem.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per key (a username), refilled at {@code ratePerSecond} up to {@code burst}.
+ * <p>
+ * A bucket is a single {@link AtomicLong}: the time at which it will be full again
+ * (the "theoretical arrival time" of the generic cell rate algorithm). Taking a token
+ * moves that time one refill interval forward with a compare-and-set, and is refused
+ * when it would lie more than a burst ahead of now; no locks and no allocation for known keys.
+ * <p>
+ * A bucket whose time has passed is full, which is the same as having no bucket,
+ * so idle buckets are dropped by a sweep without changing any decision. At most
+ * {@code maxKeys} buckets are kept; keys beyond that while the map is full of active
+ * buckets are let through untracked rather than refused.
+ */
+public class RateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    // Sweeps forced by a full map are spaced at least this far apart
+    private static final long FULL_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final double ratePerSecond;
+    private final int burst;
+    private final int maxKeys;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong untracked = new AtomicLong();
+
+    public RateLimiter(String name, double ratePerSecond, int burst, int maxKeys) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate of " + name + " must be positive");
+        }
+        this.name = name;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = Math.max(1, burst);
+        this.maxKeys = Math.max(1, maxKeys);
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        this.toleranceNanos = intervalNanos * (this.burst - 1);
+    }
+
+    /**
+     * Take a token from the key's bucket.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = track(key, now);
+            if (bucket == null) {
+                untracked.incrementAndGet();
+                allowed.incrementAndGet();
+                return 0;
+            }
+        } else if (now - lastSweep.get() > SWEEP_INTERVAL_NANOS) {
+            sweep(now, SWEEP_INTERVAL_NANOS);
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long start = fullAt - now > 0 ? fullAt : now;
+            long ahead = start - now;
+            if (ahead > toleranceNanos) {
+                rejected.incrementAndGet();
+                return ahead - toleranceNanos;
+            }
+            if (bucket.compareAndSet(fullAt, start + intervalNanos)) {
+                allowed.incrementAndGet();
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong track(String key, long now) {
+        if (buckets.size() >= maxKeys) {
+            sweep(now, FULL_SWEEP_INTERVAL_NANOS);
+            if (buckets.size() >= maxKeys) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    /**
+     * Drop full buckets, at most once per {@code interval} across threads. A request
+     * racing with the removal of its bucket may get one token for free.
+     */
+    private void sweep(long now, long interval) {
+        long last = lastSweep.get();
+        if (now - last <= interval || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public int getTrackedKeys() {
+        return buckets.size();
+    }
+
+    public long getAllowed() {
+        return allowed.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Requests let through without a bucket because the map was full.
+     */
+    public long getUntracked() {
+        return untracked.get();
+    }
+}
@@ -0,0 +1,63 @@
+package com.examsystem.utils;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread hint for the read/write routing DataSource about where read-only
+ * transactions may go.
+ * <ul>
+ *   <li>{@link Mode#DEFAULT}: the read pool, unless the current user wrote recently.</li>
+ *   <li>{@link Mode#PRIMARY}: the write pool, for reads whose result is cached and must not be stale.</li>
+ *   <li>{@link Mode#LAG_TOLERANT}: the read pool even right after the user's own writes.</li>
+ * </ul>
+ * Transactions that are not read-only always use the write pool.
+ */
+public final class ReadRouting {
+
+    public enum Mode { DEFAULT, PRIMARY, LAG_TOLERANT }
+
+    private static final ThreadLocal<Mode> MODE = ThreadLocal.withInitial(() -> Mode.DEFAULT);
+
+    private ReadRouting() {
+    }
+
+    public static Mode current() {
+        return MODE.get();
+    }
+
+    /**
+     * Run with read-only transactions on the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        return with(Mode.PRIMARY, work);
+    }
+
+    public static void onPrimary(Runnable work) {
+        with(Mode.PRIMARY, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Set the mode for the current thread until {@link #reset()}, for scopes that
+     * do not fit a callback such as a web request.
+     */
+    public static void set(Mode mode) {
+        MODE.set(mode);
+    }
+
+    public static void reset() {
+        MODE.remove();
+    }
+
+    private static <T> T with(Mode mode, Supplier<T> work) {
+        Mode previous = MODE.get();
+        MODE.set(mode);
+        try {
+            return work.get();
+        } finally {
+            MODE.set(previous);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.examsystem.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tokenizer for the search index: splits on anything that is not a letter or digit,
+ * lowercases, drops common English stop words and applies a light suffix stemmer
+ * so that "methods" matches "method" and "sorting" matches "sorted".
+ */
+public final class TextAnalyzer {
+    
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "can", "do", "does", "for", "from",
+            "how", "in", "is", "it", "of", "on", "or", "the", "to", "what", "which", "with");
+    
+    private TextAnalyzer() {
+    }
+    
+    /**
+     * Index terms of a text, in order, with repeats.
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : tokens(text)) {
+            if (!STOP_WORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+    
+    /**
+     * Lowercased tokens without stemming or stop word removal.
+     */
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+    
+    /**
+     * Strip plural and common verb suffixes (a small subset of Porter's step 1).
+     */
+    public static String stem(String token) {
+        int n = token.length();
+        if (n <= 3) {
+            return token;
+        }
+        if (token.endsWith("sses")) {
+            return token.substring(0, n - 2);
+        }
+        if (token.endsWith("ies") && n > 4) {
+            return token.substring(0, n - 3) + "y";
+        }
+        if (token.endsWith("ing") && n > 5) {
+            return undouble(token.substring(0, n - 3));
+        }
+        if (token.endsWith("ed") && n > 4) {
+            return undouble(token.substring(0, n - 2));
+        }
+        if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us") && !token.endsWith("is")) {
+            return token.substring(0, n - 1);
+        }
+        return token;
+    }
+    
+    private static String undouble(String stem) {
+        int n = stem.length();
+        if (n > 2 && stem.charAt(n - 1) == stem.charAt(n - 2) && "lsz".indexOf(stem.charAt(n - 1)) < 0) {
+            return stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+}
@@ -0,0 +1,188 @@
+package com.examsystem;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.Question;
+import com.examsystem.model.AdmissionStatus;
+import com.examsystem.model.ExamType;
+import com.examsystem.service.ExamAdmissionService;
+import com.examsystem.service.IExamService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+/**
+ * Tests for the exam-start waiting room.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdmissionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExamAdmissionService admission;
+
+    @Autowired
+    private IExamService examService;
+
+    @Test
+    @DisplayName("Test Admission - Starts Beyond The Burst Wait Their Turn In Order")
+    void testQueueInOrder() throws InterruptedException {
+        // 2 at once, then one start per second
+        ExamAdmissionService rooms = new ExamAdmissionService(true, 1, 1, 10, 2, 500, 30_000, 100, 1000);
+        assertTrue(rooms.enter(1L, "first").isAdmitted());
+        assertTrue(rooms.enter(1L, "second").isAdmitted());
+
+        AdmissionStatus third = rooms.enter(1L, "third");
+        AdmissionStatus fourth = rooms.enter(1L, "fourth");
+        assertFalse(third.isAdmitted());
+        assertEquals(1, third.getPosition());
+        assertEquals(2, fourth.getPosition());
+        assertEquals(100, fourth.getPollAfterMs());
+        assertEquals(2, rooms.getWaiting());
+
+        // Other exams have rooms of their own
+        assertTrue(rooms.enter(2L, "fourth").isAdmitted());
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertFalse(rooms.poll(1L, "fourth").isAdmitted());
+        AdmissionStatus admitted = rooms.poll(1L, "third");
+        assertTrue(admitted.isAdmitted());
+        assertEquals(1, rooms.poll(1L, "fourth").getPosition());
+
+        // Reopening keeps the admission time; submitting ends it
+        assertEquals(admitted.getAdmittedAt(), rooms.enter(1L, "third").getAdmittedAt());
+        rooms.finish(1L, "first");
+        assertFalse(rooms.enter(1L, "first").isAdmitted());
+        assertEquals(4, rooms.getAdmitted());
+        assertEquals(3, rooms.getQueued());
+    }
+
+    @Test
+    @DisplayName("Test Admission - Waiting Students Who Stop Polling Lose Their Place")
+    void testAbandonedTickets() throws InterruptedException {
+        ExamAdmissionService rooms = new ExamAdmissionService(true, 1, 1, 10, 1, 500, 500, 100, 1000);
+        assertTrue(rooms.enter(1L, "first").isAdmitted());
+        rooms.enter(1L, "gone");
+        assertEquals(2, rooms.enter(1L, "stays").getPosition());
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertTrue(rooms.poll(1L, "stays").isAdmitted());
+        assertEquals(1, rooms.getAbandoned());
+        assertEquals(0, rooms.getWaiting());
+    }
+
+    @Test
+    @DisplayName("Test Admission - The Rate Follows The Latency Of Admitted Starts")
+    void testAdaptiveRate() throws InterruptedException {
+        ExamAdmissionService rooms = new ExamAdmissionService(true, 20, 2, 40, 1, 100, 30_000, 100, 1000);
+        assertTrue(rooms.enter(1L, "first").isAdmitted());
+        assertFalse(rooms.enter(1L, "second").isAdmitted());
+        TimeUnit.MILLISECONDS.sleep(1100);
+        rooms.recordStart(1L, TimeUnit.MILLISECONDS.toNanos(400));
+        assertEquals(15, rooms.getRate(1L), 0.001);
+
+        // Fast starts bring the average down; the rate is adjusted at most once a second
+        for (int i = 0; i < 20; i++) {
+            rooms.recordStart(1L, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertEquals(15, rooms.getRate(1L), 0.001);
+        TimeUnit.MILLISECONDS.sleep(1100);
+        rooms.recordStart(1L, TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(16.5, rooms.getRate(1L), 0.001);
+    }
+
+    @Test
+    @DisplayName("Test Admission - Starts Beyond The Room Limit Are Admitted Without A Room")
+    void testRoomLimit() {
+        ExamAdmissionService rooms = new ExamAdmissionService(true, 1, 1, 10, 1, 500, 30_000, 100, 1);
+        assertTrue(rooms.enter(1L, "first").isAdmitted());
+        assertFalse(rooms.enter(1L, "second").isAdmitted());
+        assertEquals(1, rooms.getRooms());
+
+        // The one room is in use, so another exam's starts are not queued
+        assertTrue(rooms.enter(2L, "first").isAdmitted());
+        assertTrue(rooms.poll(2L, "second").isAdmitted());
+        assertEquals(1, rooms.getRooms());
+        assertEquals(2, rooms.getUnqueued());
+        assertEquals(1, rooms.poll(1L, "second").getPosition());
+    }
+
+    @Test
+    @DisplayName("Test Admission - Unknown Exams Get No Waiting Room")
+    void testUnknownExam() throws Exception {
+        int open = admission.getRooms();
+        mockMvc.perform(get("/student/exam/{id}", 987654L)
+                        .with(user("student2").authorities(() -> "STUDENT")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/student/exam/{id}/waiting", 987654L)
+                        .with(user("student2").authorities(() -> "STUDENT")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/student/api/exam/{id}/queue", 987654L)
+                        .with(user("student2").authorities(() -> "STUDENT")))
+                .andExpect(status().isNotFound());
+
+        Exam empty = examService.saveExam(examService.createExam(ExamType.MCQ, "Admission Empty Exam", 1, 1));
+        mockMvc.perform(get("/student/exam/{id}", empty.getId())
+                        .with(user("student2").authorities(() -> "STUDENT")))
+                .andExpect(status().isNotFound());
+        assertEquals(open, admission.getRooms());
+    }
+
+    @Test
+    @DisplayName("Test Admission - Queued Starts Are Sent To The Waiting Room")
+    void testWaitingRoomPages() throws Exception {
+        Exam exam = examService.saveExam(examService.createExam(ExamType.MCQ, "Admission Exam", 1, 1));
+        Question question = new Question();
+        question.setText("Admission question");
+        question.setOptionsJson("[\"A\",\"B\"]");
+        question.setCorrectAnswer("A");
+        examService.addQuestionToExam(exam.getId(), 1, question);
+        mockMvc.perform(get("/student/exam/{id}", exam.getId())
+                        .with(user("student2").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("remainingSeconds"));
+
+        // Use up the burst and queue enough students ahead that the next start waits
+        int filler = 0;
+        while (admission.enter(exam.getId(), "admission-filler-" + filler++).isAdmitted()) {
+            // keep going
+        }
+        for (int i = 0; i < 200; i++) {
+            admission.enter(exam.getId(), "admission-filler-" + filler++);
+        }
+        mockMvc.perform(get("/student/exam/{id}", exam.getId())
+                        .with(user("student3").authorities(() -> "STUDENT")))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/student/exam/" + exam.getId() + "/waiting"));
+        mockMvc.perform(get("/student/exam/{id}/waiting", exam.getId())
+                        .with(user("student3").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(view().name("student/waiting"));
+        mockMvc.perform(get("/student/api/exam/{id}/queue", exam.getId())
+                        .with(user("student3").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.admitted").value(false))
+                .andExpect(jsonPath("$.position").isNumber());
+
+        // Already admitted students are not queued again
+        mockMvc.perform(get("/student/exam/{id}", exam.getId())
+                        .with(user("student2").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk());
+    }
+}
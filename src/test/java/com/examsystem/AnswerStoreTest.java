@@ -0,0 +1,106 @@
+package com.examsystem;
+
+import com.examsystem.entity.ExamSubmission;
+import com.examsystem.entity.MCQExam;
+import com.examsystem.entity.Student;
+import com.examsystem.service.AnswerStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bounded answer store.
+ */
+class AnswerStoreTest {
+    
+    private static final String[] FROM_DB = {"from-db"};
+    
+    @Test
+    @DisplayName("Test Answer Store - Least Recently Used Entries Are Evicted")
+    void testEvictionByCount() {
+        AnswerStore store = store(3, 1 << 20, 0, 0, 0, new AtomicInteger());
+        for (long student = 1; student <= 3; student++) {
+            store.put(1L, student, 1, new String[]{"A", "B"});
+        }
+        assertArrayEquals(new String[]{"A", "B"}, store.get(submission(1L, 1L, 1))); // touch student 1
+        store.put(1L, 4L, 1, new String[]{"C"});
+        
+        assertEquals(3, store.size());
+        assertArrayEquals(FROM_DB, store.get(submission(1L, 2L, 1)));
+        assertArrayEquals(new String[]{"A", "B"}, store.get(submission(1L, 1L, 1)));
+        assertArrayEquals(new String[]{"C"}, store.get(submission(1L, 4L, 1)));
+    }
+    
+    @Test
+    @DisplayName("Test Answer Store - Heap Budget Bounds Large Answers")
+    void testEvictionByBytes() {
+        AnswerStore store = store(1000, 20_000, 0, 0, 0, new AtomicInteger());
+        String essay = "x".repeat(5_000);
+        for (long student = 1; student <= 10; student++) {
+            store.put(2L, student, 1, new String[]{essay});
+        }
+        assertTrue(store.getHeapBytes() <= 20_000);
+        assertTrue(store.size() < 10);
+        assertArrayEquals(new String[]{essay}, store.get(submission(2L, 10L, 1)));
+    }
+    
+    @Test
+    @DisplayName("Test Answer Store - Off-Heap Slabs Round Trip And Wrap")
+    void testOffHeap() {
+        AnswerStore store = store(1000, 1 << 20, 100, 600, 2, new AtomicInteger());
+        String essay = "Encapsulation hides state; ünïcödé survives. ".repeat(8);
+        String[] answers = {essay, null, "short"};
+        store.put(3L, 1L, 1, answers);
+        
+        assertArrayEquals(answers, store.get(submission(3L, 1L, 1)));
+        assertTrue(store.getHeapBytes() < essay.length());
+        
+        // One record per slab, so the ring of two slabs wraps and drops student 1
+        for (long student = 2; student <= 4; student++) {
+            store.put(3L, student, 1, answers);
+        }
+        assertArrayEquals(FROM_DB, store.get(submission(3L, 1L, 1)));
+        assertArrayEquals(answers, store.get(submission(3L, 4L, 1)));
+        assertEquals(1200, store.getOffHeapCapacity());
+    }
+    
+    @Test
+    @DisplayName("Test Answer Store - Misses And Other Attempts Fall Back To The Loader")
+    void testLoaderFallback() {
+        AtomicInteger loads = new AtomicInteger();
+        AnswerStore store = store(10, 1 << 20, 0, 0, 0, loads);
+        
+        assertArrayEquals(FROM_DB, store.get(submission(5L, 7L, 1)));
+        store.put(5L, 9L, 2, new String[]{"memory"});
+        assertArrayEquals(new String[]{"memory"}, store.get(submission(5L, 9L, 2)));
+        assertArrayEquals(FROM_DB, store.get(submission(5L, 9L, 1)));
+        
+        // A late put of an earlier attempt does not replace the latest one
+        store.put(5L, 9L, 1, new String[]{"older"});
+        assertArrayEquals(new String[]{"memory"}, store.get(submission(5L, 9L, 2)));
+        assertEquals(2, loads.get());
+        assertEquals(2, store.getHits());
+        assertEquals(2, store.getMisses());
+    }
+    
+    private static AnswerStore store(int maxEntries, long maxHeapBytes, int threshold, int slabBytes, int slabs,
+                                     AtomicInteger loads) {
+        AnswerStore store = new AnswerStore(maxEntries, maxHeapBytes, threshold, slabBytes, slabs);
+        store.setLoader(submission -> {
+            loads.incrementAndGet();
+            return FROM_DB;
+        });
+        return store;
+    }
+    
+    private static ExamSubmission submission(long examId, long studentId, int attempt) {
+        MCQExam exam = new MCQExam("Answer Store Exam", 1, 1);
+        exam.setId(examId);
+        Student student = new Student("Answer Store Student", "answer-store", "pass");
+        student.setId(studentId);
+        return ExamSubmission.builder().exam(exam).student(student).attempt(attempt).score(0).graded(true).build();
+    }
+}
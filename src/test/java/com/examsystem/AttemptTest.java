@@ -0,0 +1,187 @@
+package com.examsystem;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.ExamResult;
+import com.examsystem.entity.ExamSubmission;
+import com.examsystem.entity.Question;
+import com.examsystem.entity.Student;
+import com.examsystem.exception.SubmissionConflictException;
+import com.examsystem.model.ExamType;
+import com.examsystem.model.ScorePolicy;
+import com.examsystem.repository.ExamResultRepository;
+import com.examsystem.repository.ExamSubmissionRepository;
+import com.examsystem.repository.StudentRepository;
+import com.examsystem.service.IExamService;
+import com.examsystem.service.IStudentService;
+import com.examsystem.service.StudentScoreService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for numbered attempts and the incrementally kept exam results.
+ */
+@SpringBootTest
+class AttemptTest {
+
+    @Autowired
+    private IExamService examService;
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ExamSubmissionRepository submissionRepository;
+
+    @Autowired
+    private ExamResultRepository resultRepository;
+    
+    @Autowired
+    private StudentScoreService scoreService;
+
+    @Test
+    @DisplayName("Test Attempts - Best Attempt Counts Until The Limit Is Reached")
+    void testBestPolicy() {
+        Exam exam = createExam("Attempt Best Exam", 3, ScorePolicy.BEST);
+        Student student = studentService.registerStudent("Attempt Best", "attempt-best", "pass123");
+
+        assertEquals(50, examService.submitExam(exam.getId(), student, new String[]{"A", "A"}));
+        assertEquals(100, examService.submitExam(exam.getId(), student, new String[]{"A", "B"}));
+        assertEquals(0, examService.submitExam(exam.getId(), student, new String[]{"B", "A"}));
+        assertThrows(SubmissionConflictException.class,
+                () -> examService.submitExam(exam.getId(), student, new String[]{"A", "B"}));
+
+        ExamSubmission latest = submissionRepository.findByExamIdAndStudentId(exam.getId(), student.getId()).orElseThrow();
+        assertEquals(3, latest.getAttempt());
+
+        ExamResult result = resultRepository.findByExamIdAndStudentId(exam.getId(), student.getId()).orElseThrow();
+        assertEquals(3, result.getAttempts());
+        assertEquals(100, result.getBestScore());
+        assertEquals(0, result.getLatestScore());
+        assertEquals(100, result.getScore());
+
+        Exam counted = examService.getExamById(exam.getId());
+        assertEquals(3, counted.getSubmissionCount());
+        assertEquals(1, counted.getResultCount());
+        assertEquals(100, counted.getScoreTotal());
+        assertEquals(1, counted.getPassedCount());
+
+        Student reloaded = scoreService.loadScores(studentRepository.findById(student.getId()).orElseThrow());
+        assertEquals(100, reloaded.getScoreForExam(exam.getId()));
+    }
+
+    @Test
+    @DisplayName("Test Attempts - Latest Policy Moves Scores And Pass Counts")
+    void testLatestPolicy() {
+        Exam exam = createExam("Attempt Latest Exam", 2, ScorePolicy.LATEST);
+        Student first = studentService.registerStudent("Attempt Latest 1", "attempt-latest1", "pass123");
+        Student second = studentService.registerStudent("Attempt Latest 2", "attempt-latest2", "pass123");
+
+        examService.submitExam(exam.getId(), first, new String[]{"A", "B"});
+        assertEquals(0, examService.submitExam(exam.getId(), first, new String[]{"B", "A"}));
+        examService.submitExam(exam.getId(), second, new String[]{"A", "A"});
+
+        Exam counted = examService.getExamById(exam.getId());
+        assertEquals(3, counted.getSubmissionCount());
+        assertEquals(2, counted.getResultCount());
+        assertEquals(50, counted.getScoreTotal());
+        assertEquals(1, counted.getPassedCount());
+        assertEquals(25.0, examService.getAverageScore(exam.getId()), 0.001);
+        assertEquals(50.0, counted.passRate(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Test Attempts - Duplicate Attempt Numbers Are Rejected By The Database")
+    void testDuplicateAttemptRejected() {
+        Exam exam = createExam("Attempt Duplicate Exam", 2, ScorePolicy.BEST);
+        Student student = studentService.registerStudent("Attempt Duplicate", "attempt-duplicate", "pass123");
+        examService.submitExam(exam.getId(), student, new String[]{"A", "B"});
+
+        ExamSubmission duplicate = ExamSubmission.builder()
+                .exam(examService.getExamById(exam.getId()))
+                .student(student)
+                .attempt(1)
+                .score(0)
+                .graded(true)
+                .build();
+        duplicate.setAnswers(new String[]{"B", "A"});
+        DataIntegrityViolationException rejected = assertThrows(DataIntegrityViolationException.class,
+                () -> submissionRepository.saveAndFlush(duplicate));
+        // Rejected by the attempt index, not by some other constraint of an incomplete row
+        String cause = rejected.getMostSpecificCause().getMessage();
+        assertTrue(cause.toLowerCase().contains("uk_submission_attempt"), cause);
+    }
+
+    @Test
+    @DisplayName("Test Attempts - Concurrent Attempts Of One Student Get Distinct Numbers")
+    void testConcurrentAttempts() throws Exception {
+        int threads = 4;
+        Exam exam = createExam("Attempt Concurrent Exam", threads, ScorePolicy.BEST);
+        Student student = studentService.registerStudent("Attempt Concurrent", "attempt-concurrent", "pass123");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return examService.submitExam(exam.getId(), student, new String[]{"A", "B"});
+            }));
+        }
+        start.countDown();
+
+        int accepted = 0;
+        for (Future<Integer> future : futures) {
+            try {
+                assertEquals(100, future.get(30, TimeUnit.SECONDS));
+                accepted++;
+            } catch (ExecutionException e) {
+                // Only a conflict that outlasted its retries may be turned away
+                assertInstanceOf(SubmissionConflictException.class, e.getCause());
+            }
+        }
+        executor.shutdown();
+
+        assertTrue(accepted > 0, "At least one attempt should be stored");
+        Set<Integer> numbers = new HashSet<>();
+        submissionRepository.findAttemptScores(exam.getId(), student.getId())
+                .forEach(entry -> numbers.add(entry.getAttempt()));
+        assertEquals(accepted, numbers.size(), "Every accepted attempt should be stored once");
+        Exam counted = examService.getExamById(exam.getId());
+        assertEquals(accepted, counted.getSubmissionCount());
+        assertEquals(1, counted.getResultCount());
+        assertEquals(100, counted.getScoreTotal());
+    }
+
+    private Exam createExam(String title, int maxAttempts, ScorePolicy policy) {
+        Exam created = examService.createExam(ExamType.MCQ, title, 1, 2);
+        created.setMaxAttempts(maxAttempts);
+        created.setScorePolicy(policy);
+        Exam exam = examService.saveExam(created);
+        for (String answer : new String[]{"A", "B"}) {
+            Question question = new Question();
+            question.setText(title + " question " + answer);
+            question.setOptionsJson("[\"A\",\"B\"]");
+            question.setCorrectAnswer(answer);
+            examService.addQuestionToExam(exam.getId(), 1, question);
+        }
+        return exam;
+    }
+}
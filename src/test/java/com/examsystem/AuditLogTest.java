@@ -0,0 +1,135 @@
+package com.examsystem;
+
+import com.examsystem.monitoring.AuditLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ring-buffer audit log.
+ */
+class AuditLogTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    @DisplayName("Test Audit Log - Concurrent Publishers Are All Written")
+    void testConcurrentPublishers() throws Exception {
+        Path file = tempDir.resolve("audit.log");
+        AuditLog audit = new AuditLog(file.toString(), 1024, "batch", 1000, 10_000_000, 3);
+        audit.start();
+        
+        int threads = 8;
+        int perThread = 2000;
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            long studentId = t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    if (audit.submission(1L, studentId, i, "student" + studentId)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        audit.close();
+        
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(accepted.get(), lines.size());
+        assertEquals(threads * perThread, accepted.get() + audit.getDroppedCount());
+        assertTrue(lines.get(0).startsWith("{\"ts\":\""));
+        assertTrue(lines.get(0).contains("\"type\":\"SUBMISSION\""));
+        assertEquals(0, audit.getBacklog());
+    }
+    
+    @Test
+    @DisplayName("Test Audit Log - Full Buffer Drops Instead Of Blocking")
+    void testFullBufferDrops() throws Exception {
+        Path file = tempDir.resolve("audit.log");
+        // Not started: nothing drains the buffer
+        AuditLog audit = new AuditLog(file.toString(), 16, "none", 1000, 10_000_000, 3);
+        for (int i = 0; i < 16; i++) {
+            assertTrue(audit.login("user" + i, true, "form"));
+        }
+        assertFalse(audit.login("overflow", false, "api"));
+        assertEquals(1, audit.getDroppedCount());
+        
+        audit.start();
+        audit.close();
+        assertEquals(16, Files.readAllLines(file).size());
+    }
+    
+    @Test
+    @DisplayName("Test Audit Log - Files Rotate By Size")
+    void testRotation() throws Exception {
+        Path file = tempDir.resolve("audit.log");
+        AuditLog audit = new AuditLog(file.toString(), 64, "batch", 1000, 2048, 2);
+        audit.start();
+        for (int i = 0; i < 500; i++) {
+            while (!audit.gradeChange(7L, i, i % 10, "admin \"quoted\"")) {
+                Thread.onSpinWait();
+            }
+        }
+        audit.close();
+        
+        assertTrue(Files.exists(tempDir.resolve("audit.log.1")));
+        assertTrue(Files.exists(tempDir.resolve("audit.log.2")));
+        assertFalse(Files.exists(tempDir.resolve("audit.log.3")));
+        assertTrue(Files.readAllLines(tempDir.resolve("audit.log.1")).get(0)
+                .contains("\"actor\":\"admin \\\"quoted\\\"\""));
+    }
+    
+    @Test
+    @DisplayName("Test Audit Log - Oversized Fields Are Cut And Every Record Stays One Line")
+    void testOversizedFields() throws Exception {
+        Path file = tempDir.resolve("audit.log");
+        AuditLog audit = new AuditLog(file.toString(), 64, "batch", 1000, 10_000_000, 3);
+        audit.start();
+        assertTrue(audit.login("\u0001".repeat(100_000), false, "form"));
+        assertTrue(audit.login("after", true, "form"));
+        audit.close();
+        
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).endsWith("...\",\"channel\":\"form\"}"));
+        assertTrue(lines.get(1).contains("\"actor\":\"after\""));
+    }
+    
+    @Test
+    @DisplayName("Test Audit Log - Writing Continues When Rotation Fails")
+    void testFailedRotation() throws Exception {
+        Path file = tempDir.resolve("audit.log");
+        // A non-empty directory where the rotated file should go makes the move fail
+        Files.createDirectories(tempDir.resolve("audit.log.1"));
+        Files.writeString(tempDir.resolve("audit.log.1").resolve("keep"), "x");
+        AuditLog audit = new AuditLog(file.toString(), 64, "batch", 1000, 256, 1);
+        audit.start();
+        for (int i = 0; i < 50; i++) {
+            while (!audit.gradeChange(7L, i, 1, "admin")) {
+                Thread.onSpinWait();
+            }
+        }
+        audit.close();
+        
+        assertEquals(50, Files.readAllLines(file).size());
+    }
+}
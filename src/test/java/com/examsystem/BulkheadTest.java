@@ -0,0 +1,105 @@
+package com.examsystem;
+
+import com.examsystem.exception.BulkheadFullException;
+import com.examsystem.utils.Bulkhead;
+import com.examsystem.utils.ReadRouting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bounded pools that isolate non-critical work.
+ */
+class BulkheadTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        SecurityContextHolder.clearContext();
+        ReadRouting.reset();
+    }
+
+    @Test
+    @DisplayName("Test Bulkhead - Work Beyond Threads And Queue Is Rejected")
+    void testReject() throws Exception {
+        try (Bulkhead bulkhead = new Bulkhead("test-reject", 1, 1, Bulkhead.Overflow.REJECT)) {
+            CompletableFuture<String> running = bulkhead.submit(this::blockUntilReleased);
+            CompletableFuture<String> queued = bulkhead.submit(() -> "queued");
+            assertThrows(BulkheadFullException.class, () -> bulkhead.submit(() -> "rejected"));
+            assertEquals(1, bulkhead.getRejected());
+            assertEquals(1, bulkhead.getQueued());
+
+            release.countDown();
+            assertEquals("released", running.get(5, TimeUnit.SECONDS));
+            assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+            assertEquals("again", bulkhead.call(() -> "again"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test Bulkhead - Caller Runs Overflow On Its Own Thread")
+    void testCallerRuns() throws Exception {
+        try (Bulkhead bulkhead = new Bulkhead("test-caller", 1, 1, Bulkhead.Overflow.CALLER_RUNS)) {
+            bulkhead.submit(this::blockUntilReleased);
+            bulkhead.submit(() -> "queued");
+            String caller = Thread.currentThread().getName();
+            assertEquals(caller, bulkhead.call(() -> Thread.currentThread().getName()));
+            assertEquals(1, bulkhead.getRejected());
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test Bulkhead - Discarded Work Fails Its Future")
+    void testDiscard() throws Exception {
+        try (Bulkhead bulkhead = new Bulkhead("test-discard", 1, 1, Bulkhead.Overflow.DISCARD)) {
+            bulkhead.submit(this::blockUntilReleased);
+            bulkhead.submit(() -> "queued");
+            CompletableFuture<String> dropped = bulkhead.submit(() -> "dropped");
+            CompletionException e = assertThrows(CompletionException.class, dropped::join);
+            assertInstanceOf(BulkheadFullException.class, e.getCause());
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test Bulkhead - Tasks Run As The Submitting User")
+    void testContextPropagated() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("bulkhead-admin", null, List.of()));
+        ReadRouting.set(ReadRouting.Mode.LAG_TOLERANT);
+        try (Bulkhead bulkhead = new Bulkhead("test-context", 1, 1, Bulkhead.Overflow.CALLER_RUNS)) {
+            assertEquals("bulkhead-admin", bulkhead.call(
+                    () -> SecurityContextHolder.getContext().getAuthentication().getName()));
+            assertEquals(ReadRouting.Mode.LAG_TOLERANT, bulkhead.call(ReadRouting::current));
+
+            // The worker thread is left without the submitter's context
+            bulkhead.submit(() -> null).get(5, TimeUnit.SECONDS);
+            SecurityContextHolder.clearContext();
+            ReadRouting.reset();
+            assertNull(bulkhead.call(() -> SecurityContextHolder.getContext().getAuthentication()));
+            assertEquals(ReadRouting.Mode.DEFAULT, bulkhead.call(ReadRouting::current));
+        }
+    }
+
+    private String blockUntilReleased() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "released";
+    }
+}
@@ -1,11 +1,19 @@
 package com.examsystem;
 
-import com.examsystem.entity.MCQExam;
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.ExamSubmission;
 import com.examsystem.entity.Question;
 import com.examsystem.entity.Student;
+import com.examsystem.model.ExamType;
+import com.examsystem.repository.ExamSubmissionRepository;
+import com.examsystem.service.AnswerStore;
+import com.examsystem.service.IExamService;
+import com.examsystem.service.IStudentService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,136 +23,139 @@ import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * JUnit 5 Tests for Concurrency.
- * Tests synchronized exam submission with multiple threads.
+ * Tests exam submission through the exam service with multiple threads.
  */
+@SpringBootTest
 class ConcurrencyTest {
     
-    private MCQExam exam;
+    private static final String[] CORRECT = {"A", "A", "A", "A", "A"};
+    private static final String[] WRONG = {"B", "B", "B", "B", "B"};
+    
+    @Autowired
+    private IExamService examService;
+    
+    @Autowired
+    private IStudentService studentService;
+    
+    @Autowired
+    private ExamSubmissionRepository submissionRepository;
+    
+    @Autowired
+    private AnswerStore answerStore;
+    
+    private Exam exam;
     
     @BeforeEach
     void setUp() {
-        exam = new MCQExam("Concurrent Test", 1, 5);
-        exam.setTotalMarks(100);
+        exam = examService.saveExam(examService.createExam(ExamType.MCQ, "Concurrent Test", 1, 5));
         
         // Add questions
         for (int i = 0; i < 5; i++) {
             Question q = new Question();
-            q.setText("Question " + (i + 1));
+            q.setText("Concurrent question " + (i + 1));
+            q.setOptionsJson("[\"A\",\"B\"]");
             q.setCorrectAnswer("A");
-            exam.getQuestions().add(q);
+            examService.addQuestionToExam(exam.getId(), 1, q);
         }
     }
     
     @Test
     @DisplayName("Test Concurrent Exam Submission")
-    void testConcurrentSubmission() throws InterruptedException {
+    void testConcurrentSubmission() throws Exception {
         // Given
-        int numStudents = 10;
-        CountDownLatch latch = new CountDownLatch(numStudents);
-        List<Student> students = new ArrayList<>();
-        
-        for (int i = 0; i < numStudents; i++) {
-            Student s = new Student("Student" + i, "user" + i, "pass");
-            s.setId((long) i);
-            students.add(s);
-        }
+        List<Student> students = register("concurrent", 10);
         
         // When - Submit exams concurrently
         ExecutorService executor = Executors.newFixedThreadPool(5);
-        
+        List<Future<Integer>> scores = new ArrayList<>();
         for (Student student : students) {
-            executor.submit(() -> {
-                try {
-                    String[] answers = {"A", "A", "A", "A", "A"}; // All correct
-                    exam.submit(student, answers);
-                } finally {
-                    latch.countDown();
-                }
-            });
+            scores.add(executor.submit(() -> examService.submitExam(exam.getId(), student, CORRECT.clone())));
         }
         
-        latch.await(10, TimeUnit.SECONDS);
+        // Then - all got the correct score (100) and kept their committed answers
+        for (Future<Integer> score : scores) {
+            assertEquals(100, score.get(30, TimeUnit.SECONDS), "All correct answers should give 100");
+        }
         executor.shutdown();
-        
-        // Then
-        assertEquals(numStudents, exam.getStudentScores().size(),
+        long hits = answerStore.getHits();
+        for (Student student : students) {
+            ExamSubmission submission = submissionRepository.findByExamIdAndStudentId(exam.getId(), student.getId())
+                    .orElseThrow();
+            assertEquals(100, submission.getScore());
+            assertArrayEquals(CORRECT, answerStore.get(submission));
+        }
+        assertEquals(hits + students.size(), answerStore.getHits(), "Answers should be served from the store");
+        assertEquals(students.size(), examService.getExamById(exam.getId()).getSubmissionCount(),
                     "All students should have submitted");
-        
-        // Verify all got correct score (100)
-        exam.getStudentScores().values().forEach(score -> {
-            assertEquals(100, score, "All correct answers should give 100");
-        });
     }
     
     @Test
     @DisplayName("Test Thread Safety with Mixed Results")
-    void testThreadSafetyMixedResults() throws InterruptedException, ExecutionException {
+    void testThreadSafetyMixedResults() throws Exception {
         // Given
         int numThreads = 5;
+        List<Student> students = register("mixed", numThreads);
         ExecutorService executor = Executors.newFixedThreadPool(numThreads);
         List<Future<Integer>> futures = new ArrayList<>();
         
         // When - Submit with different answer patterns
         for (int i = 0; i < numThreads; i++) {
-            final int studentId = i;
-            Future<Integer> future = executor.submit(() -> {
-                Student s = new Student("Student" + studentId, "user" + studentId, "pass");
-                s.setId((long) studentId);
-                
-                // Different answer patterns
-                String[] answers = studentId % 2 == 0 
-                    ? new String[]{"A", "A", "A", "A", "A"} // All correct
-                    : new String[]{"B", "B", "B", "B", "B"}; // All wrong
-                
-                exam.submit(s, answers);
-                return s.getScoreForExam(exam.getId());
-            });
-            futures.add(future);
+            Student student = students.get(i);
+            String[] answers = i % 2 == 0 ? CORRECT.clone() : WRONG.clone();
+            futures.add(executor.submit(() -> examService.submitExam(exam.getId(), student, answers)));
         }
         
         // Then
         for (int i = 0; i < futures.size(); i++) {
-            int score = futures.get(i).get();
+            int score = futures.get(i).get(30, TimeUnit.SECONDS);
             if (i % 2 == 0) {
                 assertEquals(100, score, "Even indexed students should get 100");
             } else {
                 assertEquals(0, score, "Odd indexed students should get 0");
             }
+            assertEquals(score, students.get(i).getScoreForExam(exam.getId()));
         }
         
         executor.shutdown();
     }
     
     @Test
-    @DisplayName("Test Synchronized Method Prevents Race Conditions")
-    void testSynchronizedMethod() throws InterruptedException {
+    @DisplayName("Test Simultaneous Submissions Are All Recorded")
+    void testSimultaneousSubmissions() throws Exception {
         // Given
-        int numThreads = 100;
+        int numThreads = 30;
+        List<Student> students = register("simultaneous", numThreads);
         CountDownLatch startLatch = new CountDownLatch(1);
-        CountDownLatch endLatch = new CountDownLatch(numThreads);
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        List<Future<Integer>> futures = new ArrayList<>();
         
         // When - All threads try to submit at the same time
-        for (int i = 0; i < numThreads; i++) {
-            final int studentId = i;
-            new Thread(() -> {
-                try {
-                    startLatch.await(); // Wait for signal
-                    Student s = new Student("Student" + studentId, "user" + studentId, "pass");
-                    s.setId((long) studentId);
-                    exam.submit(s, new String[]{"A", "A", "A", "A", "A"});
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                } finally {
-                    endLatch.countDown();
-                }
-            }).start();
+        for (Student student : students) {
+            futures.add(executor.submit(() -> {
+                startLatch.await(); // Wait for signal
+                return examService.submitExam(exam.getId(), student, CORRECT.clone());
+            }));
         }
-        
         startLatch.countDown(); // Signal all threads to start
-        endLatch.await(10, TimeUnit.SECONDS);
+        for (Future<Integer> future : futures) {
+            assertEquals(100, future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
         
         // Then
-        assertEquals(numThreads, exam.getStudentScores().size(),
-                    "Synchronized method should handle all submissions correctly");
+        Exam counted = examService.getExamById(exam.getId());
+        assertEquals(numThreads, counted.getSubmissionCount(),
+                    "Every submission should be counted exactly once");
+        assertEquals(numThreads, counted.getPassedCount());
+        assertEquals(numThreads * 100L, counted.getScoreTotal());
+    }
+    
+    private List<Student> register(String prefix, int count) {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String username = "concurrency-" + prefix + "-" + exam.getId() + "-" + i;
+            students.add(studentService.registerStudent("Student " + i, username, "pass"));
+        }
+        return students;
     }
 }
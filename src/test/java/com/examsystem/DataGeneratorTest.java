@@ -0,0 +1,77 @@
+package com.examsystem;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.ExamSubmission;
+import com.examsystem.model.ExamType;
+import com.examsystem.repository.ExamRepository;
+import com.examsystem.repository.ExamSubmissionRepository;
+import com.examsystem.service.OptionDictionaries;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the benchmark dataset generator.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:examdatagen",
+        "exam.datagen.students=50",
+        "exam.datagen.exams-per-type=2",
+        "exam.datagen.sections=2",
+        "exam.datagen.questions-per-section=5",
+        "exam.datagen.participation=0.5",
+        "exam.datagen.batch-size=16"
+})
+@ActiveProfiles("datagen")
+class DataGeneratorTest {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ExamRepository examRepository;
+    
+    @Autowired
+    private ExamSubmissionRepository submissionRepository;
+    
+    @Autowired
+    private OptionDictionaries dictionaries;
+    
+    @Test
+    @Transactional
+    @DisplayName("Test Data Generator - Rows Are Generated And MCQ Scores Match Their Answers")
+    void testGeneratedDataset() {
+        assertEquals(50, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM students WHERE username LIKE 'gen42-%'", Integer.class));
+        
+        List<Exam> generated = examRepository.findAll().stream()
+                .filter(exam -> exam.getTitle().startsWith("gen42-"))
+                .toList();
+        assertEquals(2 * ExamType.values().length, generated.size());
+        
+        int submissions = 0;
+        for (Exam exam : generated) {
+            assertEquals(10, exam.getQuestions().size());
+            List<ExamSubmission> rows = submissionRepository.findByExamId(exam.getId());
+            submissions += rows.size();
+            for (ExamSubmission submission : rows) {
+                String[] answers = dictionaries.answersOf(submission);
+                assertEquals(10, answers.length);
+                if (exam.getType() == ExamType.MCQ) {
+                    assertEquals(exam.evaluate(answers), submission.getScore());
+                } else {
+                    assertTrue(answers[0].length() > 20);
+                }
+            }
+        }
+        assertTrue(submissions > 0);
+    }
+}
@@ -0,0 +1,364 @@
+package com.examsystem;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.Question;
+import com.examsystem.exception.ExamNotFoundException;
+import com.examsystem.model.ExamPaper;
+import com.examsystem.model.ExamType;
+import com.examsystem.repository.ExamRepository;
+import com.examsystem.service.ExamPaperService;
+import com.examsystem.service.IExamService;
+import com.examsystem.service.IStudentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for pre-rendered exam paper delivery.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExamPaperTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ExamRepository examRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private IExamService examService;
+    
+    @Autowired
+    private IStudentService studentService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ExamPaperService paperService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private Exam mcqExam;
+    
+    @BeforeEach
+    void setUp() {
+        mcqExam = examRepository.findByTitleContainingIgnoreCase("OOP Fundamentals").get(0);
+    }
+    
+    @Test
+    @DisplayName("Test Paper JSON - Revalidation Returns 304 Without Queries")
+    void testJsonNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/student/api/exam/{id}/questions", mcqExam.getId())
+                        .with(user("student1").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        String body = first.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        
+        assertNotNull(etag);
+        assertTrue(body.contains("What is encapsulation in OOP?"));
+        assertFalse(body.contains("correctAnswer"), "Paper must not reveal the answer key");
+        
+        QueryCountAssert queries = new QueryCountAssert(entityManagerFactory);
+        queries.assertAtMost(0, "Paper revalidation", () ->
+                mockMvc.perform(get("/student/api/exam/{id}/questions", mcqExam.getId())
+                                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                                .with(user("student1").authorities(() -> "STUDENT")))
+                        .andExpect(status().isNotModified())
+                        .andExpect(header().string(HttpHeaders.ETAG, etag)));
+    }
+    
+    @Test
+    @DisplayName("Test Paper JSON - If-None-Match Lists Are Compared Tag By Tag")
+    void testIfNoneMatchList() throws Exception {
+        String etag = mockMvc.perform(get("/student/api/exam/{id}/questions", mcqExam.getId())
+                        .with(user("student1").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipEtag = etag.substring(0, etag.length() - 1) + "-gz\"";
+        
+        for (String matching : new String[]{"\"other\", W/" + etag, gzipEtag, "\"a\",*"}) {
+            mockMvc.perform(get("/student/api/exam/{id}/questions", mcqExam.getId())
+                            .header(HttpHeaders.IF_NONE_MATCH, matching)
+                            .with(user("student1").authorities(() -> "STUDENT")))
+                    .andExpect(status().isNotModified());
+        }
+        // Tags that only share a prefix or contain ours are different tags
+        String longer = etag.substring(0, etag.length() - 1) + "x\"";
+        String shorter = etag.substring(0, etag.length() - 2) + "\"";
+        for (String other : new String[]{longer, shorter, "\"x" + etag + "\"", etag.substring(1, etag.length() - 1)}) {
+            mockMvc.perform(get("/student/api/exam/{id}/questions", mcqExam.getId())
+                            .header(HttpHeaders.IF_NONE_MATCH, other)
+                            .with(user("student1").authorities(() -> "STUDENT")))
+                    .andExpect(status().isOk());
+        }
+    }
+    
+    @Test
+    @DisplayName("Test Paper HTML - Gzip Variant Matches Identity Bytes")
+    void testHtmlGzip() throws Exception {
+        MvcResult plain = mockMvc.perform(get("/student/api/exam/{id}/paper", mcqExam.getId())
+                        .with(user("student1").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andReturn();
+        MvcResult gzip = mockMvc.perform(get("/student/api/exam/{id}/paper", mcqExam.getId())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                        .with(user("student1").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        
+        byte[] inflated;
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(gzip.getResponse().getContentAsByteArray()))) {
+            inflated = in.readAllBytes();
+        }
+        assertArrayEquals(plain.getResponse().getContentAsByteArray(), inflated);
+        
+        // The gzip tag revalidates too
+        mockMvc.perform(get("/student/api/exam/{id}/paper", mcqExam.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, gzip.getResponse().getHeader(HttpHeaders.ETAG))
+                        .with(user("student1").authorities(() -> "STUDENT")))
+                .andExpect(status().isNotModified());
+    }
+    
+    @Test
+    @DisplayName("Test Section Paging - Index And Section Pages")
+    void testSectionPaging() throws Exception {
+        String index = mockMvc.perform(get("/student/api/exam/{id}/sections", mcqExam.getId())
+                        .with(user("student1").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(index.contains("\"section\":1"));
+        assertTrue(index.contains("\"questionCount\":10"));
+        
+        String section = mockMvc.perform(get("/student/api/exam/{id}/sections/1/paper", mcqExam.getId())
+                        .with(user("student1").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(section.startsWith("<div class=\"paper-section\" data-section=\"1\""));
+        assertTrue(section.contains("What is encapsulation in OOP?"));
+        
+        Exception missing = assertThrows(Exception.class, () ->
+                mockMvc.perform(get("/student/api/exam/{id}/sections/99", mcqExam.getId())
+                        .with(user("student1").authorities(() -> "STUDENT"))));
+        assertTrue(missing.getCause() instanceof ExamNotFoundException);
+        
+        mockMvc.perform(get("/student/exam/{id}", mcqExam.getId()).param("paged", "true")
+                        .with(user("student1").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk());
+    }
+    
+    @Test
+    @DisplayName("Test Shuffle - Students Get Own Order And Served Answers Grade Correctly")
+    void testShuffledPaperGrading() throws Exception {
+        String student4Etag = mockMvc.perform(get("/student/api/exam/{id}/questions", mcqExam.getId())
+                        .with(user("student4").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        MvcResult served = mockMvc.perform(get("/student/api/exam/{id}/questions", mcqExam.getId())
+                        .with(user("student5").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotEquals(student4Etag, served.getResponse().getHeader(HttpHeaders.ETAG));
+        
+        // Answer every question correctly in the order the paper was served
+        List<Question> questions = examService.getExamWithQuestions(mcqExam.getId()).getQuestions();
+        Map<Long, String> key = new HashMap<>();
+        questions.forEach(q -> key.put(q.getId(), q.getCorrectAnswer()));
+        JsonNode paper = objectMapper.readTree(served.getResponse().getContentAsByteArray());
+        String[] answers = new String[questions.size()];
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = key.get(paper.get("questions").get(i).get("id").asLong());
+        }
+        
+        Map<String, Object> request = Map.of("examId", mcqExam.getId(), "answers", answers, "servedOrder", true);
+        String result = mockMvc.perform(post("/student/api/submit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(request))
+                        .with(user("student5").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(result.contains("\"score\":" + mcqExam.getTotalMarks()), result);
+    }
+    
+    @Test
+    @DisplayName("Test Shuffle - Served Answers Grade Against The Version That Was Served")
+    void testServedVersionGrading() throws Exception {
+        Exam exam = examService.saveExam(examService.createExam(ExamType.MCQ, "Served Version Exam", 1, 6));
+        String[] correct = {"A", "B", "C", "D", "A", "B"};
+        for (int i = 0; i < correct.length; i++) {
+            Question question = new Question();
+            question.setText("Served version question " + i);
+            question.setOptionsJson("[\"A\",\"B\",\"C\",\"D\"]");
+            question.setCorrectAnswer(correct[i]);
+            examService.addQuestionToExam(exam.getId(), 1, question);
+        }
+        studentService.registerStudent("Served Version", "served-version", "pass123");
+        
+        MvcResult served = mockMvc.perform(get("/student/api/exam/{id}/questions", exam.getId())
+                        .with(user("served-version").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode paper = objectMapper.readTree(served.getResponse().getContentAsByteArray());
+        int version = paper.get("version").asInt();
+        assertEquals(String.valueOf(version), served.getResponse().getHeader("X-Paper-Version"));
+        Map<Long, String> key = new HashMap<>();
+        examService.getExamWithQuestions(exam.getId()).getQuestions()
+                .forEach(q -> key.put(q.getId(), q.getCorrectAnswer()));
+        String[] answers = new String[correct.length];
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = key.get(paper.get("questions").get(i).get("id").asLong());
+        }
+        
+        // The exam moves on to a new version (and so a new shuffle) before the student submits
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                examRepository.findById(exam.getId()).orElseThrow().setPaperVersion(version + 1));
+        paperService.invalidate(exam.getId());
+        
+        Map<String, Object> request = Map.of("examId", exam.getId(), "answers", answers,
+                "servedOrder", true, "paperVersion", version);
+        String result = mockMvc.perform(post("/student/api/submit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(request))
+                        .with(user("served-version").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(result.contains("\"score\":" + exam.getTotalMarks()), result);
+    }
+    
+    @Test
+    @DisplayName("Test Shuffle - Personal Tags Differ For Usernames With Equal Hash Codes")
+    void testPersonalEtagCollision() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(paperService.personalEtag("\"e1v1-abc\"", "Aa"),
+                paperService.personalEtag("\"e1v1-abc\"", "BB"));
+    }
+    
+    @Test
+    @DisplayName("Test Shuffle - Clients That Send Canonical Order Without A Flag Still Score Correctly")
+    void testCanonicalOrderByDefault() throws Exception {
+        studentService.registerStudent("Canonical Client", "canonical-client", "pass123");
+        mockMvc.perform(get("/student/api/exam/{id}/questions", mcqExam.getId())
+                        .with(user("canonical-client").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk());
+        
+        // Answers in question id order, as clients sent them before papers were shuffled
+        String[] answers = examService.getExamWithQuestions(mcqExam.getId()).getQuestions().stream()
+                .map(Question::getCorrectAnswer)
+                .toArray(String[]::new);
+        Map<String, Object> request = Map.of("examId", mcqExam.getId(), "answers", answers);
+        String result = mockMvc.perform(post("/student/api/submit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(request))
+                        .with(user("canonical-client").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(result.contains("\"score\":" + mcqExam.getTotalMarks()), result);
+    }
+    
+    @Test
+    @DisplayName("Test Autosave - Drafts Are Restored Until The Exam Is Submitted")
+    void testAutosaveDraft() throws Exception {
+        studentService.registerStudent("Autosave Student", "autosave-student", "pass123");
+        MockHttpSession session = new MockHttpSession();
+        mockMvc.perform(get("/student/exam/{id}", mcqExam.getId()).session(session)
+                        .with(user("autosave-student").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("autosave", true));
+        mockMvc.perform(get("/student/api/exam/{id}/autosave", mcqExam.getId()).session(session)
+                        .with(user("autosave-student").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.answers.length()").value(0));
+        
+        Map<String, Object> draft = Map.of("examId", mcqExam.getId(), "answers", new String[]{"A", "", "C"});
+        mockMvc.perform(post("/student/api/exam/{id}/autosave", mcqExam.getId()).session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(draft))
+                        .with(user("autosave-student").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(3));
+        mockMvc.perform(get("/student/api/exam/{id}/autosave", mcqExam.getId()).session(session)
+                        .with(user("autosave-student").authorities(() -> "STUDENT")))
+                .andExpect(jsonPath("$.answers[0]").value("A"))
+                .andExpect(jsonPath("$.answers[2]").value("C"));
+        
+        String[] answers = examService.getExamWithQuestions(mcqExam.getId()).getQuestions().stream()
+                .map(Question::getCorrectAnswer)
+                .toArray(String[]::new);
+        mockMvc.perform(post("/student/api/submit").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(Map.of("examId", mcqExam.getId(), "answers", answers)))
+                        .with(user("autosave-student").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/student/api/exam/{id}/autosave", mcqExam.getId()).session(session)
+                        .with(user("autosave-student").authorities(() -> "STUDENT")))
+                .andExpect(jsonPath("$.answers.length()").value(0));
+    }
+    
+    @Test
+    @DisplayName("Test Paper Cache - A Paper Rendered During An Update Is Evicted On Commit")
+    void testRenderDuringUpdate() throws Exception {
+        Exam exam = examService.saveExam(examService.createExam(ExamType.ESSAY, "Paper Race Essay", 1, 1));
+        examService.addQuestionToExam(exam.getId(), 1, essayQuestion("First"));
+        assertNull(paperService.getCachedPaper(exam.getId()));
+        long renders = paperService.getRenders();
+        
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            examService.addQuestionToExam(exam.getId(), 1, essayQuestion("Second"));
+            // A student opening the paper now renders it from the committed rows
+            ExamPaper meanwhile = CompletableFuture.supplyAsync(() -> paperService.getPaper(exam.getId()))
+                    .orTimeout(30, TimeUnit.SECONDS).join();
+            assertEquals(1, meanwhile.getQuestionCount());
+        });
+        
+        ExamPaper paper = paperService.getPaper(exam.getId());
+        assertEquals(2, paper.getQuestionCount());
+        assertEquals(examService.getExamById(exam.getId()).getPaperVersion(), paper.getVersion());
+        assertEquals(renders + 2, paperService.getRenders());
+    }
+    
+    private static Question essayQuestion(String text) {
+        Question question = new Question();
+        question.setText(text + " essay question");
+        question.setCorrectAnswer("Reference answer");
+        return question;
+    }
+}
@@ -3,18 +3,34 @@ package com.examsystem;
 import com.examsystem.entity.*;
 import com.examsystem.exception.InvalidAnswerException;
 import com.examsystem.model.ExamType;
+import com.examsystem.monitoring.AuditLog;
 import com.examsystem.repository.ExamRepository;
+import com.examsystem.repository.ExamResultRepository;
 import com.examsystem.repository.ExamSubmissionRepository;
 import com.examsystem.repository.QuestionRepository;
+import com.examsystem.repository.StudentRepository;
+import com.examsystem.service.AnswerStore;
+import com.examsystem.service.Bulkheads;
+import com.examsystem.service.ExamCounters;
+import com.examsystem.service.CacheChangeService;
+import com.examsystem.service.ExamPaperService;
+import com.examsystem.service.ExamResultService;
 import com.examsystem.service.ExamServiceImpl;
+import com.examsystem.service.OptionDictionaries;
+import com.examsystem.service.SearchIndexService;
+import com.examsystem.service.StudentScoreService;
 import com.examsystem.factory.ExamFactory;
 import com.examsystem.strategy.MCQStrategy;
 import com.examsystem.strategy.ManualStrategy;
+import com.examsystem.utils.Bulkhead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Arrays;
 import java.util.List;
@@ -39,6 +55,31 @@ class ExamServiceTest {
     @Mock
     private ExamSubmissionRepository submissionRepository;
     
+    @Mock
+    private ExamResultRepository resultRepository;
+    
+    @Mock
+    private StudentRepository studentRepository;
+    
+    @Mock
+    private ExamPaperService paperService;
+    
+    @Mock
+    private SearchIndexService searchIndex;
+    
+    @Mock
+    private AuditLog auditLog;
+    
+    @Mock
+    private CacheChangeService cacheChanges;
+    
+    @Mock
+    private Bulkheads bulkheads;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final Bulkhead background = new Bulkhead("test-background", 1, 1, Bulkhead.Overflow.CALLER_RUNS);
     private ExamFactory examFactory;
     private ExamServiceImpl examService;
     
@@ -46,9 +87,20 @@ class ExamServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         MCQStrategy mcqStrategy = new MCQStrategy();
-        ManualStrategy manualStrategy = new ManualStrategy();
-        examFactory = new ExamFactory(mcqStrategy, manualStrategy);
-        examService = new ExamServiceImpl(examRepository, questionRepository, submissionRepository, examFactory);
+        when(bulkheads.background()).thenReturn(background);
+        ManualStrategy manualStrategy = new ManualStrategy(bulkheads);
+        examFactory = new ExamFactory(mcqStrategy, manualStrategy, new SimpleMeterRegistry());
+        examService = new ExamServiceImpl(examRepository, questionRepository, submissionRepository,
+                examFactory, paperService, searchIndex, auditLog, new StudentScoreService(resultRepository),
+                new ExamResultService(resultRepository, submissionRepository, examRepository, studentRepository,
+                        new ExamCounters(examRepository, transactionManager)),
+                cacheChanges, bulkheads, new AnswerStore(1000, 1 << 20, 0, 0, 0),
+                new OptionDictionaries(examRepository), new SimpleMeterRegistry(), transactionManager);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        background.close();
     }
     
     @Test
@@ -0,0 +1,114 @@
+package com.examsystem;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.ExamSubmission;
+import com.examsystem.entity.Student;
+import com.examsystem.repository.ExamRepository;
+import com.examsystem.repository.ExamSubmissionRepository;
+import com.examsystem.service.IExamService;
+import com.examsystem.service.IStudentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasEntry;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for the pages that list submissions and exams.
+ * Each page must load its data with a fixed number of statements,
+ * independent of how many submissions or exams there are.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class FetchPlanTest {
+    
+    private static final int SUBMITTING_STUDENTS = 5;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private IExamService examService;
+    
+    @Autowired
+    private IStudentService studentService;
+    
+    @Autowired
+    private ExamRepository examRepository;
+    
+    @Autowired
+    private ExamSubmissionRepository submissionRepository;
+    
+    private QueryCountAssert queries;
+    private Exam essayExam;
+    
+    @BeforeEach
+    void setUp() {
+        queries = new QueryCountAssert(entityManagerFactory);
+        essayExam = examRepository.findByTitleContainingIgnoreCase("Software Design").get(0);
+        
+        if (submissionRepository.findByExamId(essayExam.getId()).isEmpty()) {
+            for (int i = 1; i <= SUBMITTING_STUDENTS; i++) {
+                Student student = studentService.findByUsername("student" + i);
+                examService.submitExam(essayExam.getId(), student,
+                        new String[]{"Answer one", "Answer two", "Answer three"});
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Test Grading Page - Constant Statement Count")
+    void testGradingPageStatementBudget() throws Exception {
+        queries.assertAtMost(2, "Admin grading page", () ->
+                mockMvc.perform(get("/admin/exam/{examId}/submissions", essayExam.getId())
+                                .with(user("admin").authorities(() -> "ADMIN")))
+                        .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("Test Review Page - Constant Statement Count")
+    void testReviewPageStatementBudget() throws Exception {
+        Student student = studentService.findByUsername("student1");
+        ExamSubmission submission = submissionRepository
+                .findByExamIdAndStudentId(essayExam.getId(), student.getId())
+                .orElseThrow();
+        
+        queries.assertAtMost(2, "Student review page", () ->
+                mockMvc.perform(get("/student/review/{id}", submission.getId())
+                                .with(user("student1").authorities(() -> "STUDENT")))
+                        .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("Test Student Dashboard - Submissions Fetched With Exams")
+    void testStudentDashboardStatementBudget() throws Exception {
+        // student + exam list + question counts of all exams + submissions with exams
+        queries.assertAtMost(4, "Student dashboard", () ->
+                mockMvc.perform(get("/student/dashboard")
+                                .with(user("student1").authorities(() -> "STUDENT")))
+                        .andExpect(status().isOk())
+                        .andExpect(model().attribute("questionCounts", hasEntry(essayExam.getId(), 3))));
+    }
+    
+    @Test
+    @DisplayName("Test Admin Dashboard - Question Counts In One Statement")
+    void testAdminDashboardStatementBudget() throws Exception {
+        // exam list + question counts of all exams + roster page + student count
+        queries.assertAtMost(4, "Admin dashboard", () ->
+                mockMvc.perform(get("/admin/dashboard")
+                                .with(user("admin").authorities(() -> "ADMIN")))
+                        .andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,356 @@
+package com.examsystem;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.ExamSubmission;
+import com.examsystem.entity.Question;
+import com.examsystem.entity.Student;
+import com.examsystem.model.ExamType;
+import com.examsystem.repository.ExamResultRepository;
+import com.examsystem.repository.ExamSubmissionRepository;
+import com.examsystem.repository.StudentRepository;
+import com.examsystem.service.IExamService;
+import com.examsystem.service.GradingQueue;
+import com.examsystem.service.IStudentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for bulk manual grading and the grading work queue.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class GradingTest {
+
+    private static final int STUDENTS = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IExamService examService;
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ExamSubmissionRepository submissionRepository;
+
+    @Autowired
+    private ExamResultRepository resultRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private GradingQueue gradingQueue;
+
+    @Test
+    @DisplayName("Test Grading - Many Scores Are Applied In One Request With Batched Updates")
+    void testBulkGrading() throws Exception {
+        Exam exam = createEssayExam("Bulk Grading Essay");
+        Exam other = createEssayExam("Bulk Grading Other Essay");
+        List<Long> submissionIds = new ArrayList<>();
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = studentService.registerStudent("Bulk Grading " + i, "bulk-grading-" + i, "pass123");
+            examService.submitExam(exam.getId(), student, new String[]{"Essay by student " + i});
+            studentIds.add(student.getId());
+            submissionIds.add(submissionRepository.findByExamIdAndStudentId(exam.getId(), student.getId())
+                    .orElseThrow().getId());
+        }
+        Student outsider = studentService.registerStudent("Bulk Grading Outsider", "bulk-grading-outsider", "pass123");
+        examService.submitExam(other.getId(), outsider, new String[]{"Another essay"});
+        Long otherSubmission = submissionRepository.findByExamIdAndStudentId(other.getId(), outsider.getId())
+                .orElseThrow().getId();
+
+        // Even students pass with 80, odd students fail with 30
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < STUDENTS; i++) {
+            body.append("{\"submissionId\":").append(submissionIds.get(i))
+                    .append(",\"score\":").append(i % 2 == 0 ? 80 : 30).append("},");
+        }
+        body.append("{\"submissionId\":").append(otherSubmission).append(",\"score\":90},");
+        body.append("{\"submissionId\":999999,\"score\":90}]");
+
+        long statements = new QueryCountAssert(entityManagerFactory).assertAtMost(20, "Bulk grading", () ->
+                mockMvc.perform(post("/admin/api/exam/{id}/grades", exam.getId())
+                                .with(user("admin").authorities(() -> "ADMIN"))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body.toString()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.graded").value(STUDENTS))
+                        .andExpect(jsonPath("$.students").value(STUDENTS))
+                        .andExpect(jsonPath("$.skipped.length()").value(2)));
+        assertTrue(statements < STUDENTS, "statements " + statements);
+
+        for (int i = 0; i < STUDENTS; i++) {
+            int expected = i % 2 == 0 ? 80 : 30;
+            ExamSubmission submission = submissionRepository.findById(submissionIds.get(i)).orElseThrow();
+            assertTrue(submission.getGraded());
+            assertEquals(expected, submission.getScore());
+            assertEquals(expected, resultRepository.findByExamIdAndStudentId(exam.getId(), studentIds.get(i))
+                    .orElseThrow().getScore());
+            assertEquals(expected, studentRepository.findById(studentIds.get(i)).orElseThrow().getLastExamScore());
+        }
+        assertFalse(submissionRepository.findById(otherSubmission).orElseThrow().getGraded());
+
+        Exam counted = examService.getExamById(exam.getId());
+        assertEquals(STUDENTS, counted.getSubmissionCount());
+        assertEquals(STUDENTS, counted.getResultCount());
+        assertEquals(STUDENTS / 2 * (80 + 30), counted.getScoreTotal());
+        assertEquals(STUDENTS / 2, counted.getPassedCount());
+    }
+
+    @Test
+    @DisplayName("Test Grading - Oversized Bulk Requests Are Refused")
+    void testTooManyGrades() throws Exception {
+        Exam exam = createEssayExam("Bulk Grading Limit Essay");
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i <= 500; i++) {
+            body.append(i > 0 ? "," : "").append("{\"submissionId\":").append(i + 1).append(",\"score\":1}");
+        }
+        body.append("]");
+        mockMvc.perform(post("/admin/api/exam/{id}/grades", exam.getId())
+                        .with(user("admin").authorities(() -> "ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/admin/api/exam/{id}/grades", exam.getId())
+                        .with(user("student1").authorities(() -> "STUDENT"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Test Grading - Out Of Range Scores And Auto-Graded Exams Are Refused")
+    void testInvalidGrades() throws Exception {
+        Exam exam = createEssayExam("Bulk Grading Range Essay");
+        submitEssays(exam, "grading-range", 2);
+        List<Long> ids = new ArrayList<>(ids(submissionRepository.findAll().stream()
+                .filter(submission -> submission.getExam().getId().equals(exam.getId())).toList()));
+
+        // One bad score refuses the whole batch
+        mockMvc.perform(post("/admin/api/exam/{id}/grades", exam.getId())
+                        .with(user("admin").authorities(() -> "ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"submissionId\":" + ids.get(0) + ",\"score\":0},"
+                                + "{\"submissionId\":" + ids.get(1) + ",\"score\":101}]"))
+                .andExpect(status().isBadRequest());
+        assertFalse(submissionRepository.findById(ids.get(0)).orElseThrow().getGraded());
+
+        // An ungraded submission can be graded 0
+        mockMvc.perform(post("/admin/api/exam/{id}/grades", exam.getId())
+                        .with(user("admin").authorities(() -> "ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"submissionId\":" + ids.get(0) + ",\"score\":0}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.graded").value(1));
+        assertTrue(submissionRepository.findById(ids.get(0)).orElseThrow().getGraded());
+
+        Exam mcq = examService.saveExam(examService.createExam(ExamType.MCQ, "Bulk Grading MCQ", 1, 1));
+        mockMvc.perform(post("/admin/api/exam/{id}/grades", mcq.getId())
+                        .with(user("admin").authorities(() -> "ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Test Grading Queue - Graders Claim Disjoint Batches And Keep Their Own")
+    void testClaimsAreDisjoint() throws Exception {
+        Exam exam = createEssayExam("Grading Queue Essay");
+        submitEssays(exam, "grading-queue", 6);
+
+        List<ExamSubmission> first = gradingQueue.claim(exam.getId(), "grader-a", 4);
+        List<ExamSubmission> second = gradingQueue.claim(exam.getId(), "grader-b", 4);
+        assertEquals(4, first.size());
+        assertEquals(2, second.size());
+        Set<Long> firstIds = ids(first);
+        assertTrue(Collections.disjoint(firstIds, ids(second)));
+        assertEquals(List.of(), gradingQueue.claim(exam.getId(), "grader-c", 4));
+
+        // Claiming again returns the grader's unfinished work with a renewed lease
+        assertEquals(firstIds, ids(gradingQueue.claim(exam.getId(), "grader-a", 4)));
+
+        // Nobody else may grade a leased submission
+        Long leased = first.get(0).getId();
+        mockMvc.perform(post("/admin/api/exam/{id}/grades", exam.getId())
+                        .with(user("grader-b").authorities(() -> "ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"submissionId\":" + leased + ",\"score\":70}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.graded").value(0))
+                .andExpect(jsonPath("$.skipped[0]").value(leased));
+        mockMvc.perform(post("/admin/exam/{id}/grade", exam.getId())
+                        .with(user("grader-b").authorities(() -> "ADMIN"))
+                        .with(csrf())
+                        .param("studentId", first.get(0).getStudent().getId().toString())
+                        .param("submissionId", leased.toString())
+                        .param("score", "70"))
+                .andExpect(status().isConflict());
+        assertFalse(submissionRepository.findById(leased).orElseThrow().getGraded());
+        mockMvc.perform(post("/admin/api/exam/{id}/grades", exam.getId())
+                        .with(user("grader-a").authorities(() -> "ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"submissionId\":" + leased + ",\"score\":70}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.graded").value(1));
+        assertNull(submissionRepository.findById(leased).orElseThrow().getLeasedBy());
+
+        // Released work goes back to the queue
+        assertEquals(3, gradingQueue.release(exam.getId(), "grader-a", firstIds));
+        assertEquals(3, gradingQueue.claim(exam.getId(), "grader-c", 4).size());
+        mockMvc.perform(get("/admin/api/exam/{id}/grading", exam.getId())
+                        .with(user("admin").authorities(() -> "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ungraded").value(5))
+                .andExpect(jsonPath("$.leased").value(5));
+    }
+
+    @Test
+    @DisplayName("Test Grading Queue - The Grading Page Claims By POST And Views Without Leasing")
+    void testClaimFromPage() throws Exception {
+        Exam exam = createEssayExam("Grading Queue Page Essay");
+        submitEssays(exam, "grading-page", 3);
+
+        // Viewing, even with the old claim parameter, takes no leases
+        mockMvc.perform(get("/admin/exam/{id}/submissions", exam.getId())
+                        .with(user("grader-page").authorities(() -> "ADMIN"))
+                        .param("claim", "2"))
+                .andExpect(status().isOk());
+        assertEquals(3, gradingQueue.claim(exam.getId(), "grader-probe", 3).size());
+        assertEquals(3, gradingQueue.release(exam.getId(), "grader-probe",
+                ids(gradingQueue.held(exam.getId(), "grader-probe"))));
+
+        mockMvc.perform(post("/admin/exam/{id}/submissions/claim", exam.getId())
+                        .with(user("grader-page").authorities(() -> "ADMIN"))
+                        .with(csrf())
+                        .param("size", "2"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/exam/" + exam.getId() + "/submissions?claimed=true"));
+        assertEquals(2, gradingQueue.held(exam.getId(), "grader-page").size());
+        mockMvc.perform(get("/admin/exam/{id}/submissions", exam.getId())
+                        .with(user("grader-page").authorities(() -> "ADMIN"))
+                        .param("claimed", "true"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("submissions", hasSize(2)));
+        assertEquals(1, gradingQueue.claim(exam.getId(), "grader-other", 3).size());
+    }
+
+    @Test
+    @DisplayName("Test Grading Queue - Expired Leases Are Reclaimed")
+    void testExpiredLeasesReclaimed() throws Exception {
+        Exam exam = createEssayExam("Grading Queue Expiry Essay");
+        submitEssays(exam, "grading-expiry", 3);
+        List<ExamSubmission> abandoned = gradingQueue.claim(exam.getId(), "grader-gone", 10);
+        assertEquals(3, abandoned.size());
+        assertEquals(List.of(), gradingQueue.claim(exam.getId(), "grader-next", 10));
+
+        for (ExamSubmission submission : submissionRepository.findAllById(ids(abandoned))) {
+            submission.setLeaseExpiresAt(LocalDateTime.now().minusMinutes(1));
+            submissionRepository.save(submission);
+        }
+        long reclaimed = gradingQueue.getReclaimed();
+        List<ExamSubmission> taken = gradingQueue.claim(exam.getId(), "grader-next", 10);
+        assertEquals(ids(abandoned), ids(taken));
+        assertEquals(reclaimed + 3, gradingQueue.getReclaimed());
+        assertTrue(taken.stream().allMatch(submission -> "grader-next".equals(submission.getLeasedBy())));
+
+        // The lease holder may grade its own submission, which ends the lease
+        ExamSubmission own = taken.get(0);
+        mockMvc.perform(post("/admin/exam/{id}/grade", exam.getId())
+                        .with(user("grader-next").authorities(() -> "ADMIN"))
+                        .with(csrf())
+                        .param("studentId", own.getStudent().getId().toString())
+                        .param("submissionId", own.getId().toString())
+                        .param("score", "60"))
+                .andExpect(status().is3xxRedirection());
+        ExamSubmission stored = submissionRepository.findById(own.getId()).orElseThrow();
+        assertTrue(stored.getGraded());
+        assertEquals(60, stored.getScore());
+        assertNull(stored.getLeasedBy());
+    }
+
+    @Test
+    @DisplayName("Test Grading Queue - Concurrent Claims Never Hand Out A Submission Twice")
+    void testConcurrentClaims() throws Exception {
+        Exam exam = createEssayExam("Grading Queue Concurrent Essay");
+        submitEssays(exam, "grading-concurrent", 20);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<ExamSubmission>>> claims = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String grader = "grader-" + i;
+                claims.add(pool.submit(() -> gradingQueue.claim(exam.getId(), grader, 5)));
+            }
+            Set<Long> seen = new HashSet<>();
+            int total = 0;
+            for (Future<List<ExamSubmission>> claim : claims) {
+                List<ExamSubmission> batch = claim.get(30, TimeUnit.SECONDS);
+                total += batch.size();
+                seen.addAll(ids(batch));
+            }
+            assertEquals(total, seen.size());
+            assertEquals(20, total);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void submitEssays(Exam exam, String prefix, int count) {
+        for (int i = 0; i < count; i++) {
+            Student student = studentService.registerStudent("Queue " + prefix + i, prefix + "-" + i, "pass123");
+            examService.submitExam(exam.getId(), student, new String[]{"Essay " + i});
+        }
+    }
+
+    private static Set<Long> ids(List<ExamSubmission> submissions) {
+        Set<Long> ids = new TreeSet<>();
+        for (ExamSubmission submission : submissions) {
+            ids.add(submission.getId());
+        }
+        return ids;
+    }
+
+    private Exam createEssayExam(String title) {
+        Exam exam = examService.saveExam(examService.createExam(ExamType.ESSAY, title, 1, 1));
+        Question question = new Question();
+        question.setText(title + " question");
+        question.setCorrectAnswer("Reference answer");
+        examService.addQuestionToExam(exam.getId(), 1, question);
+        return exam;
+    }
+}
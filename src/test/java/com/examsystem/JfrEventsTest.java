@@ -0,0 +1,65 @@
+package com.examsystem;
+
+import com.examsystem.entity.Student;
+import com.examsystem.monitoring.JfrRecordingService;
+import com.examsystem.utils.FileIOUtil;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the custom JFR events and the on-demand recording service.
+ */
+class JfrEventsTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    @DisplayName("Test JFR - Export Chunks Are Recorded And Dumped")
+    void testExportChunksRecorded() throws Exception {
+        JfrRecordingService jfr = new JfrRecordingService(tempDir.toString());
+        assertEquals("RUNNING", jfr.start("default").get("state"));
+        
+        Map<Student, Integer> results = new LinkedHashMap<>();
+        for (long i = 1; i <= 1200; i++) {
+            Student student = new Student("Student " + i, "student" + i, "hash");
+            student.setId(i);
+            results.put(student, (int) (i % 100));
+        }
+        FileIOUtil.saveResultsToCSV(tempDir.resolve("results.csv").toString(), results);
+        
+        assertEquals("STOPPED", jfr.stop().get("state"));
+        Path dump = jfr.dump();
+        assertTrue(dump.startsWith(tempDir));
+        
+        List<RecordedEvent> chunks = RecordingFile.readAllEvents(dump).stream()
+                .filter(e -> e.getEventType().getName().equals("com.examsystem.ExportChunk"))
+                .toList();
+        assertEquals(List.of(500, 500, 200), chunks.stream().map(e -> e.getInt("rows")).toList());
+        jfr.shutdown();
+    }
+    
+    @Test
+    @DisplayName("Test JFR - Recording Lifecycle Is Guarded")
+    void testLifecycle() throws Exception {
+        JfrRecordingService jfr = new JfrRecordingService(tempDir.toString());
+        assertEquals("NONE", jfr.status().get("state"));
+        assertThrows(IllegalStateException.class, jfr::stop);
+        assertThrows(IllegalStateException.class, jfr::dump);
+        assertThrows(IllegalArgumentException.class, () -> jfr.start("custom"));
+        
+        jfr.start("default");
+        assertThrows(IllegalStateException.class, () -> jfr.start("default"));
+        jfr.shutdown();
+    }
+}
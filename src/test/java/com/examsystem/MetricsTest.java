@@ -0,0 +1,53 @@
+package com.examsystem;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+
+/**
+ * Tests for the metrics exposed through the actuator.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MetricsTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    @DisplayName("Test Metrics - Hot Path Meters Are Published")
+    void testMetersPublished() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(user("admin").authorities(() -> "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.names", hasItem("exam.submit")))
+                .andExpect(jsonPath("$.names", hasItem("exam.submit.percentile")))
+                .andExpect(jsonPath("$.names", hasItem("exam.submissions.inflight")))
+                .andExpect(jsonPath("$.names", hasItem("exam.memory.entries")))
+                .andExpect(jsonPath("$.names", hasItem("spring.data.repository.invocations")));
+        
+        // Demo data hashes every seeded password
+        mockMvc.perform(get("/actuator/metrics/auth.password").param("tag", "operation:encode")
+                        .with(user("admin").authorities(() -> "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value", greaterThan(0.0)));
+    }
+    
+    @Test
+    @DisplayName("Test Metrics - Endpoint Requires Admin")
+    void testMetricsSecured() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(user("student1").authorities(() -> "STUDENT")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
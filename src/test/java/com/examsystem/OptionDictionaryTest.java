@@ -0,0 +1,101 @@
+package com.examsystem;
+
+import com.examsystem.entity.ExamSubmission;
+import com.examsystem.entity.MCQExam;
+import com.examsystem.entity.Question;
+import com.examsystem.service.OptionDictionaries;
+import com.examsystem.utils.OptionDictionary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for dictionary-encoded MCQ answers.
+ */
+class OptionDictionaryTest {
+
+    @Test
+    @DisplayName("Test Option Dictionary - Codes Round Trip To Shared Strings")
+    void testRoundTrip() {
+        OptionDictionary dictionary = OptionDictionary.parse(null).extend(List.of(
+                new String[]{"Hiding implementation details", "Inheritance", "Say \"hi\""},
+                new String[]{"Inheritance", "Polymorphism"}));
+        assertEquals(4, dictionary.size());
+
+        String[] answers = {"Polymorphism", null, "Say \"hi\"", new String("Hiding implementation details")};
+        byte[] codes = dictionary.encode(answers);
+        assertNotNull(codes);
+        assertEquals(1 + answers.length, codes.length);
+
+        String[] decoded = OptionDictionary.parse(dictionary.toJson()).decode(codes);
+        assertArrayEquals(new String[]{"Polymorphism", "", "Say \"hi\"", "Hiding implementation details"}, decoded);
+        assertSame(decoded[3], dictionary.decode(codes)[3]);
+
+        assertNull(dictionary.encode(new String[]{"Free text answer"}));
+    }
+
+    @Test
+    @DisplayName("Test Option Dictionary - Backslashes And Quotes Survive The Stored JSON")
+    void testEscaping() {
+        String[] options = {"C:\\temp", "Say \"hi\"", "ends with \\", "\\\"mixed\\\"", "a\\\\b"};
+        OptionDictionary dictionary = OptionDictionary.parse(null).extend(List.<String[]>of(options));
+        OptionDictionary stored = OptionDictionary.parse(dictionary.toJson());
+        assertEquals(options.length, stored.size());
+        assertArrayEquals(options, stored.decode(dictionary.encode(options)));
+
+        // Dictionaries written before backslashes were escaped still read back
+        assertArrayEquals(new String[]{"C:\\temp"},
+                OptionDictionary.parse("[\"C:\\temp\"]").decode(new byte[]{1, 1}));
+    }
+
+    @Test
+    @DisplayName("Test Option Dictionary - Appending Keeps Existing Codes And Widens")
+    void testAppendOnly() {
+        OptionDictionary small = OptionDictionary.parse(null).extend(List.<String[]>of(new String[]{"A", "B"}));
+        byte[] codes = small.encode(new String[]{"B", "A"});
+
+        List<String[]> many = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            many.add(new String[]{"Option " + i});
+        }
+        OptionDictionary large = small.extend(many);
+        assertSame(small, small.extend(List.<String[]>of(new String[]{"A"})));
+        assertEquals(302, large.size());
+        assertArrayEquals(new String[]{"B", "A"}, large.decode(codes));
+        assertFalse(small.covers(large.encode(new String[]{"Option 299"})));
+
+        byte[] wide = large.encode(new String[]{"Option 299", "A", ""});
+        assertEquals(2, wide[0]);
+        assertArrayEquals(new String[]{"Option 299", "A", ""}, large.decode(wide));
+    }
+
+    @Test
+    @DisplayName("Test Option Dictionary - Submissions Store Codes For Options Only")
+    void testSubmissionStorage() {
+        MCQExam exam = new MCQExam("Dictionary Exam", 1, 2);
+        Question first = new Question("First?", new String[]{"Yes", "No"}, "Yes");
+        Question second = new Question("Second?", new String[]{"Maybe", "No"}, "Maybe");
+        exam.getQuestions().add(first);
+        exam.getQuestions().add(second);
+        OptionDictionaries dictionaries = new OptionDictionaries(null);
+        OptionDictionary dictionary = dictionaries.extend(exam);
+        assertEquals(3, dictionary.size());
+        assertNotNull(exam.getOptionDictionary());
+
+        ExamSubmission coded = ExamSubmission.builder().exam(exam).score(50).build();
+        coded.setAnswers(new String[]{"No", "Maybe"}, dictionary);
+        assertNull(coded.getAnswersJson());
+        assertFalse(coded.isAnswersDecoded());
+        assertThrows(IllegalStateException.class, coded::getAnswers);
+        assertArrayEquals(new String[]{"No", "Maybe"}, dictionaries.answersOf(coded));
+
+        ExamSubmission text = ExamSubmission.builder().exam(exam).score(0).build();
+        text.setAnswers(new String[]{"Something else", "No"}, dictionary);
+        assertNull(text.getAnswerCodes());
+        assertArrayEquals(new String[]{"Something else", "No"}, text.getAnswers());
+    }
+}
@@ -0,0 +1,54 @@
+package com.examsystem;
+
+import com.examsystem.utils.PaperShuffle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for deterministic per-student paper shuffling.
+ */
+class PaperShuffleTest {
+    
+    @Test
+    @DisplayName("Test Order - Same Seed Gives Same Permutation")
+    void testDeterministicPermutation() {
+        long seed = PaperShuffle.seed(7L, 42L, 3);
+        int[] first = PaperShuffle.order(50, seed);
+        int[] second = PaperShuffle.order(50, PaperShuffle.seed(7L, 42L, 3));
+        
+        assertArrayEquals(first, second);
+        int[] sorted = first.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(i, sorted[i], "Order must be a permutation");
+        }
+    }
+    
+    @Test
+    @DisplayName("Test Order - Students And Versions Get Different Papers")
+    void testSeedsDiffer() {
+        int[] studentA = PaperShuffle.order(50, PaperShuffle.seed(7L, 1L, 0));
+        int[] studentB = PaperShuffle.order(50, PaperShuffle.seed(7L, 2L, 0));
+        int[] nextVersion = PaperShuffle.order(50, PaperShuffle.seed(7L, 1L, 1));
+        
+        assertFalse(Arrays.equals(studentA, studentB));
+        assertFalse(Arrays.equals(studentA, nextVersion));
+    }
+    
+    @Test
+    @DisplayName("Test Canonical - Served Answers Map Back To Question Order")
+    void testToCanonical() {
+        String[] canonical = {"A", "B", "C", "D", "E"};
+        int[] order = PaperShuffle.order(canonical.length, PaperShuffle.seed(1L, 1L, 0));
+        String[] served = new String[canonical.length];
+        for (int i = 0; i < order.length; i++) {
+            served[i] = canonical[order[i]];
+        }
+        
+        assertArrayEquals(canonical, PaperShuffle.toCanonical(served, order));
+    }
+}
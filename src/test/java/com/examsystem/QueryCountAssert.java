@@ -0,0 +1,49 @@
+package com.examsystem;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test utility that counts the JDBC statements issued by a block of code.
+ * Backed by Hibernate statistics, so every prepared statement is counted,
+ * including lazy loads triggered while a template renders.
+ */
+public class QueryCountAssert {
+    
+    /**
+     * Block of code under measurement.
+     */
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+    
+    private final Statistics statistics;
+    
+    public QueryCountAssert(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+    
+    /**
+     * Run the action and return the number of statements it prepared.
+     */
+    public long count(Action action) throws Exception {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+    
+    /**
+     * Run the action and fail if it prepared more statements than the budget allows.
+     */
+    public long assertAtMost(long budget, String description, Action action) throws Exception {
+        long statements = count(action);
+        assertTrue(statements <= budget,
+                String.format("%s issued %d statements, budget is %d", description, statements, budget));
+        return statements;
+    }
+}
@@ -0,0 +1,101 @@
+package com.examsystem;
+
+import com.examsystem.model.ExamType;
+import com.examsystem.model.PaperBlueprint;
+import com.examsystem.model.PaperBlueprint.SectionRule;
+import com.examsystem.service.QuestionBankIndex;
+import com.examsystem.utils.QuestionBitmap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the tag-indexed question bank.
+ */
+class QuestionBankTest {
+    
+    private static final String[] TOPICS = {"oop", "java", "collections", "streams"};
+    private static final String[] DIFFICULTIES = {"easy", "medium", "hard"};
+    private static final int BANK_SIZE = 100_000;
+    
+    private QuestionBankIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new QuestionBankIndex();
+        for (int i = 0; i < BANK_SIZE; i++) {
+            index.add(1000L + i, tags(i));
+        }
+    }
+    
+    private static List<String> tags(long ordinal) {
+        return List.of("type:mcq",
+                "topic:" + TOPICS[(int) (ordinal % TOPICS.length)],
+                "difficulty:" + DIFFICULTIES[(int) (ordinal % DIFFICULTIES.length)]);
+    }
+    
+    private static PaperBlueprint blueprint() {
+        return new PaperBlueprint("Generated", ExamType.MCQ, List.of(
+                new SectionRule(1, 20, List.of("topic:oop", "difficulty:easy")),
+                new SectionRule(2, 20, List.of("topic:java")),
+                new SectionRule(3, 10, List.of("difficulty:hard"))));
+    }
+    
+    @Test
+    @DisplayName("Test Sample - Sections Match Their Tags Without Repeats")
+    void testSampleMatchesTags() {
+        Map<Integer, long[]> paper = index.sample(blueprint(), 42L);
+        
+        Set<Long> seen = new HashSet<>();
+        for (SectionRule rule : blueprint().getSections()) {
+            long[] ids = paper.get(rule.getSection());
+            assertEquals(rule.getCount(), ids.length);
+            for (long id : ids) {
+                assertTrue(seen.add(id), "Question drawn twice: " + id);
+                assertTrue(tags(id - 1000L).containsAll(rule.getTags()));
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Test Sample - Same Seed Same Paper, Different Seed Different Paper")
+    void testSampleIsSeeded() {
+        Map<Integer, long[]> first = index.sample(blueprint(), 7L);
+        Map<Integer, long[]> again = index.sample(blueprint(), 7L);
+        Map<Integer, long[]> other = index.sample(blueprint(), 8L);
+        
+        assertArrayEquals(first.get(1), again.get(1));
+        assertFalse(Arrays.equals(first.get(1), other.get(1)));
+    }
+    
+    @Test
+    @DisplayName("Test Sample - Unfillable Section Is Rejected")
+    void testSampleRejectsShortBank() {
+        PaperBlueprint blueprint = new PaperBlueprint("Too big", ExamType.MCQ,
+                List.of(new SectionRule(1, 5, List.of("topic:unknown"))));
+        assertThrows(IllegalArgumentException.class, () -> index.sample(blueprint, 1L));
+    }
+    
+    @Test
+    @DisplayName("Test Bitmap - Rank Selection Across Words")
+    void testBitmapSelect() {
+        QuestionBitmap bitmap = new QuestionBitmap();
+        int[] bits = {0, 63, 64, 130, 1000};
+        for (int bit : bits) {
+            bitmap.set(bit);
+        }
+        
+        assertEquals(bits.length, bitmap.cardinality());
+        assertArrayEquals(bits, bitmap.select(new int[]{0, 1, 2, 3, 4}));
+        assertArrayEquals(new int[]{64, 1000}, bitmap.select(new int[]{2, 4}));
+        assertEquals(70, QuestionBitmap.full(70).cardinality());
+    }
+}
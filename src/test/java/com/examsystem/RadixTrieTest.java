@@ -0,0 +1,56 @@
+package com.examsystem;
+
+import com.examsystem.utils.RadixTrie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the radix trie behind roster autocomplete.
+ */
+class RadixTrieTest {
+    
+    @Test
+    @DisplayName("Test Trie - Prefix Lookup In Key Order")
+    void testPrefixLookup() {
+        RadixTrie trie = new RadixTrie();
+        trie.put("student1", 1L);
+        trie.put("student10", 10L);
+        trie.put("student2", 2L);
+        trie.put("stephen", 3L);
+        trie.put("alice", 4L);
+        
+        assertArrayEquals(new long[]{3L, 1L, 10L, 2L}, trie.prefixValues("st", 10));
+        assertArrayEquals(new long[]{1L, 10L}, trie.prefixValues("student1", 10));
+        assertArrayEquals(new long[]{3L, 1L}, trie.prefixValues("s", 2));
+        assertEquals(0, trie.prefixValues("bob", 10).length);
+        assertEquals(0, trie.prefixValues("studentx", 10).length);
+    }
+    
+    @Test
+    @DisplayName("Test Trie - Values Are Distinct Across Keys")
+    void testDistinctValues() {
+        RadixTrie trie = new RadixTrie();
+        trie.put("smith", 7L);
+        trie.put("sam smith", 7L);
+        
+        assertArrayEquals(new long[]{7L}, trie.prefixValues("s", 10));
+    }
+    
+    @Test
+    @DisplayName("Test Trie - Remove Keeps Other Keys Reachable")
+    void testRemove() {
+        RadixTrie trie = new RadixTrie();
+        trie.put("anna", 1L);
+        trie.put("annabel", 2L);
+        trie.put("anne", 3L);
+        
+        trie.remove("anna", 1L);
+        assertArrayEquals(new long[]{2L, 3L}, trie.prefixValues("ann", 10));
+        
+        trie.remove("anne", 3L);
+        assertArrayEquals(new long[]{2L}, trie.prefixValues("anna", 10));
+        assertArrayEquals(new long[]{2L}, trie.prefixValues("a", 10));
+    }
+}
@@ -0,0 +1,141 @@
+package com.examsystem;
+
+import com.examsystem.service.RateLimits;
+import com.examsystem.utils.RateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the per-student request limits.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RateLimits rateLimits;
+
+    @Test
+    @DisplayName("Test Rate Limit - A Burst Is Allowed, Then One Request Per Interval")
+    void testBurstThenRate() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter("test", 10, 3, 100);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("student"));
+        }
+        long wait = limiter.tryAcquire("student");
+        assertTrue(wait > 0 && wait <= TimeUnit.MILLISECONDS.toNanos(100), "wait " + wait);
+        assertEquals(1, limiter.getRejected());
+
+        // Other students have buckets of their own
+        assertEquals(0, limiter.tryAcquire("other"));
+
+        TimeUnit.MILLISECONDS.sleep(120);
+        assertEquals(0, limiter.tryAcquire("student"));
+        assertTrue(limiter.tryAcquire("student") > 0);
+        assertEquals(5, limiter.getAllowed());
+    }
+
+    @Test
+    @DisplayName("Test Rate Limit - Concurrent Requests Never Exceed The Burst")
+    void testConcurrentAcquire() throws Exception {
+        RateLimiter limiter = new RateLimiter("test", 0.01, 50, 100);
+        AtomicInteger passed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < 1000; i++) {
+                        if (limiter.tryAcquire("student") == 0) {
+                            passed.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(50, passed.get());
+        assertEquals(7950, limiter.getRejected());
+    }
+
+    @Test
+    @DisplayName("Test Rate Limit - Tracked Students Are Bounded And Idle Buckets Expire")
+    void testBoundedKeys() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter("test", 50, 1, 2);
+        assertEquals(0, limiter.tryAcquire("first"));
+        assertEquals(0, limiter.tryAcquire("second"));
+
+        // Both buckets are in use: a third student passes without one
+        assertEquals(0, limiter.tryAcquire("third"));
+        assertEquals(0, limiter.tryAcquire("third"));
+        assertEquals(2, limiter.getUntracked());
+        assertEquals(2, limiter.getTrackedKeys());
+
+        // Once refilled, the old buckets make room
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertEquals(0, limiter.tryAcquire("third"));
+        assertEquals(1, limiter.getTrackedKeys());
+        assertTrue(limiter.tryAcquire("third") > 0);
+    }
+
+    @Test
+    @DisplayName("Test Rate Limit - Refused Requests Get 429 With Retry-After")
+    void testTooManyRequests() throws Exception {
+        int burst = rateLimits.autosave().getBurst();
+        for (int i = 0; i < burst; i++) {
+            mockMvc.perform(post("/student/api/exam/{id}/autosave", 1)
+                            .with(user("ratelimit-student").authorities(() -> "STUDENT"))
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"examId\":1,\"answers\":[\"A\"]}"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(post("/student/api/exam/{id}/autosave", 1)
+                        .with(user("ratelimit-student").authorities(() -> "STUDENT"))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"examId\":1,\"answers\":[\"A\"]}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.limit").value("autosave"));
+
+        // Another student is not affected
+        mockMvc.perform(post("/student/api/exam/{id}/autosave", 1)
+                        .with(user("ratelimit-other").authorities(() -> "STUDENT"))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"examId\":1,\"answers\":[\"A\"]}"))
+                .andExpect(status().isOk());
+    }
+}
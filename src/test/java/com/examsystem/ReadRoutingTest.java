@@ -0,0 +1,107 @@
+package com.examsystem;
+
+import com.examsystem.config.ReadWriteRoutingDataSource;
+import com.examsystem.config.RoutingDataSourceConfig;
+import com.examsystem.service.IStudentService;
+import com.examsystem.utils.ReadRouting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for routing read-only transactions to the read pool.
+ */
+@SpringBootTest
+class ReadRoutingTest {
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Autowired
+    private RoutingDataSourceConfig.Pools pools;
+
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = pools.getRouting();
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+        ReadRouting.reset();
+    }
+
+    @Test
+    @DisplayName("Test Read Routing - Read-Only Work Uses The Read Pool, Writes The Write Pool")
+    void testRoutesByTransaction() {
+        long reads = routing.getReadRoutes();
+        long writes = routing.getWriteRoutes();
+
+        long count = studentService.countStudents();
+        assertEquals(reads + 1, routing.getReadRoutes());
+
+        studentService.registerStudent("Routing Writer", "routing-writer", "pass123");
+        assertTrue(routing.getWriteRoutes() > writes);
+        assertEquals(count + 1, studentService.countStudents());
+
+        assertEquals("exam-read", pools.getRead().getPoolName());
+        assertTrue(pools.getRead().isReadOnly());
+        assertEquals("exam-write", pools.getWrite().getPoolName());
+        assertTrue(pools.getWrite().getMaximumPoolSize() > pools.getRead().getMaximumPoolSize());
+    }
+
+    @Test
+    @DisplayName("Test Read Routing - A User Reads Their Own Recent Writes From The Primary")
+    void testReadYourWrites() {
+        asUser("routing-admin");
+        long count = studentService.countStudents();
+        long reads = routing.getReadRoutes();
+        long pinned = routing.getPinnedReads();
+
+        studentService.registerStudent("Routing Student", "routing-student", "pass123");
+        assertEquals(count + 1, studentService.countStudents());
+        assertEquals(pinned + 1, routing.getPinnedReads());
+        assertEquals(reads, routing.getReadRoutes());
+
+        // Analytics accept a lagging replica
+        ReadRouting.set(ReadRouting.Mode.LAG_TOLERANT);
+        studentService.countStudents();
+        assertEquals(reads + 1, routing.getReadRoutes());
+
+        // Other users are not affected by this user's write
+        ReadRouting.reset();
+        asUser("routing-other");
+        studentService.countStudents();
+        assertEquals(reads + 2, routing.getReadRoutes());
+        assertEquals(pinned + 1, routing.getPinnedReads());
+    }
+
+    @Test
+    @DisplayName("Test Read Routing - Cache Fills Read From The Primary")
+    void testOnPrimary() {
+        long reads = routing.getReadRoutes();
+        long pinned = routing.getPinnedReads();
+
+        ReadRouting.onPrimary(studentService::countStudents);
+        assertEquals(pinned + 1, routing.getPinnedReads());
+        assertEquals(reads, routing.getReadRoutes());
+        assertEquals(ReadRouting.Mode.DEFAULT, ReadRouting.current());
+    }
+
+    private static void asUser(String username) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+}
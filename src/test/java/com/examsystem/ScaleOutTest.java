@@ -0,0 +1,261 @@
+package com.examsystem;
+
+import com.examsystem.entity.BankQuestion;
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.Question;
+import com.examsystem.entity.Student;
+import com.examsystem.exception.SubmissionConflictException;
+import com.examsystem.model.ExamType;
+import com.examsystem.model.SearchHit;
+import com.examsystem.model.StudentSuggestion;
+import com.examsystem.repository.ExamSubmissionRepository;
+import com.examsystem.service.CacheChangeService;
+import com.examsystem.service.ExamPaperService;
+import com.examsystem.service.IExamService;
+import com.examsystem.service.IStudentService;
+import com.examsystem.service.OptionDictionaries;
+import com.examsystem.service.QuestionBankService;
+import com.examsystem.service.SearchIndexService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Scale-out mode: two application nodes, each with its own caches and web server,
+ * sharing one file-based H2 database. All node state lives in each context's beans,
+ * so the two nodes run side by side in this JVM without sharing any of it.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ScaleOutTest {
+
+    @TempDir
+    static Path dataDir;
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Test Scale-Out - Demo Data Is Created By The First Node Only")
+    void testInitializedOnce() {
+        assertEquals(3, nodeB.getBean(IExamService.class).getAllExams().stream()
+                .filter(exam -> exam.getTitle().equals("Java OOP Fundamentals")
+                        || exam.getTitle().equals("Java Programming Challenge")
+                        || exam.getTitle().equals("Software Design Principles"))
+                .count());
+        assertEquals(6, nodeA.getBean(IStudentService.class).getAllStudents().stream()
+                .filter(student -> student.getUsername().matches("admin|student\\d+"))
+                .count());
+    }
+
+    @Test
+    @DisplayName("Test Scale-Out - Attempts And Results Agree On Both Nodes")
+    void testResultsAgreeAcrossNodes() {
+        IExamService examA = nodeA.getBean(IExamService.class);
+        IExamService examB = nodeB.getBean(IExamService.class);
+        Exam exam = createExam(examA, "Scale Out Attempts", 2);
+        nodeA.getBean(IStudentService.class).registerStudent("Scale Out", "scale-out", "pass123");
+
+        Student onA = nodeA.getBean(IStudentService.class).findByUsername("scale-out");
+        assertEquals(50, examA.submitExam(exam.getId(), onA, new String[]{"A", "A"}));
+        Student onB = nodeB.getBean(IStudentService.class).findByUsername("scale-out");
+        assertEquals(100, examB.submitExam(exam.getId(), onB, new String[]{"A", "B"}));
+        Student again = nodeA.getBean(IStudentService.class).findByUsername("scale-out");
+        assertThrows(SubmissionConflictException.class,
+                () -> examA.submitExam(exam.getId(), again, new String[]{"B", "B"}));
+
+        for (IExamService node : List.of(examA, examB)) {
+            List<Student> students = node.getStudentsForExam(exam.getId());
+            assertEquals(1, students.size());
+            assertEquals(100, students.get(0).getScoreForExam(exam.getId()));
+            assertEquals(100.0, node.getAverageScore(exam.getId()), 0.001);
+            assertEquals(1, node.getPassedStudents(exam.getId(), Exam.PASS_MARK).size());
+            assertEquals(2, node.getExamById(exam.getId()).getSubmissionCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test Scale-Out - Node-Local Caches Follow Changes Made On The Other Node")
+    void testCachesFollowOtherNode() throws InterruptedException {
+        IExamService examA = nodeA.getBean(IExamService.class);
+        SearchIndexService searchB = nodeB.getBean(SearchIndexService.class);
+        ExamPaperService papersB = nodeB.getBean(ExamPaperService.class);
+        IStudentService studentsB = nodeB.getBean(IStudentService.class);
+        QuestionBankService bankB = nodeB.getBean(QuestionBankService.class);
+
+        Exam exam = createExam(examA, "Scale Out Caches", 1);
+        assertTrue(searchB.search("quokka", 10).isEmpty());
+        assertNotNull(papersB.getPaper(exam.getId()));
+        assertTrue(studentsB.suggestStudents("zebulon", 10).isEmpty());
+        assertFalse(bankB.getTagCounts().containsKey("topic:clustering"));
+
+        Question question = new Question();
+        question.setText("Which marsupial is the quokka?");
+        question.setOptionsJson("[\"A\",\"B\"]");
+        question.setCorrectAnswer("A");
+        examA.addQuestionToExam(exam.getId(), 1, question);
+        nodeA.getBean(IStudentService.class).registerStudent("Zebulon Node", "zebulon", "pass123");
+        nodeA.getBean(QuestionBankService.class).addQuestion(BankQuestion.builder()
+                .type(ExamType.MCQ)
+                .topic("clustering")
+                .difficulty("easy")
+                .text("What does a load balancer spread?")
+                .optionsJson("[\"Requests\",\"Disks\"]")
+                .correctAnswer("Requests")
+                .build());
+
+        await("paper invalidated on node B", () -> papersB.getCachedPaper(exam.getId()) == null);
+        await("question searchable on node B", () -> searchB.search("quokka", 10).stream()
+                .anyMatch(hit -> hit.getKind() == SearchHit.Kind.QUESTION));
+        await("student suggested on node B", () -> studentsB.suggestStudents("zebulon", 10).stream()
+                .map(StudentSuggestion::getUsername)
+                .anyMatch("zebulon"::equals));
+        await("bank tag counted on node B", () -> bankB.getTagCounts().containsKey("topic:clustering"));
+
+        CacheChangeService changesB = nodeB.getBean(CacheChangeService.class);
+        assertTrue(changesB.getApplied() >= 4);
+        assertEquals(0, changesB.getResets());
+    }
+
+    @Test
+    @DisplayName("Test Scale-Out - Answers Coded On One Node Decode On The Other")
+    void testAnswersDecodeAcrossNodes() {
+        IExamService examA = nodeA.getBean(IExamService.class);
+        IStudentService studentsA = nodeA.getBean(IStudentService.class);
+        ExamSubmissionRepository submissionsB = nodeB.getBean(ExamSubmissionRepository.class);
+        OptionDictionaries dictionariesB = nodeB.getBean(OptionDictionaries.class);
+        assertNotSame(nodeA.getBean(OptionDictionaries.class), dictionariesB);
+
+        Exam exam = createExam(examA, "Scale Out Dictionary", 1);
+        Student first = studentsA.registerStudent("Dictionary One", "dictionary-one", "pass123");
+        examA.submitExam(exam.getId(), first, new String[]{"B", "A"});
+        assertArrayEquals(new String[]{"B", "A"}, dictionariesB.answersOf(
+                submissionsB.findByExamIdAndStudentId(exam.getId(), first.getId()).orElseThrow()));
+
+        // Node A extends the dictionary node B has already cached
+        Question question = new Question();
+        question.setText("Scale Out Dictionary question C");
+        question.setOptionsJson("[\"C\",\"D\"]");
+        question.setCorrectAnswer("C");
+        examA.addQuestionToExam(exam.getId(), 1, question);
+        Student second = studentsA.registerStudent("Dictionary Two", "dictionary-two", "pass123");
+        examA.submitExam(exam.getId(), second, new String[]{"A", "B", "D"});
+        assertArrayEquals(new String[]{"A", "B", "D"}, dictionariesB.answersOf(
+                submissionsB.findByExamIdAndStudentId(exam.getId(), second.getId()).orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("Test Scale-Out - A Login On One Node Is Honoured By The Other")
+    void testLoginSharedAcrossNodes() throws Exception {
+        // Cookies are not scoped by port, so one jar serves both nodes
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        HttpResponse<String> login = client.send(form(nodeA, "/login",
+                Map.of("username", "student1", "password", "pass123")), HttpResponse.BodyHandlers.ofString());
+        assertEquals(302, login.statusCode());
+        assertTrue(login.headers().firstValue("Location").orElse("").endsWith("/dashboard"));
+
+        assertEquals(200, client.send(get(nodeB, "/student/dashboard"), HttpResponse.BodyHandlers.ofString())
+                .statusCode());
+
+        client.send(form(nodeB, "/logout", Map.of()), HttpResponse.BodyHandlers.discarding());
+        HttpResponse<String> loggedOut = client.send(get(nodeA, "/student/dashboard"),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(302, loggedOut.statusCode());
+        assertTrue(loggedOut.headers().firstValue("Location").orElse("").contains("/login"));
+    }
+
+    private static ConfigurableApplicationContext startNode(String name) {
+        // Arguments, so that they take precedence over application.yml
+        return new SpringApplicationBuilder(OnlineExamSystemApplication.class)
+                .profiles("cluster")
+                .run("--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("examdb").toAbsolutePath(),
+                        "--server.port=0",
+                        "--exam.cluster.node-id=" + name,
+                        "--exam.cluster.poll-interval-ms=50",
+                        "--exam.audit.file=" + dataDir.resolve(name + "-audit.log").toAbsolutePath(),
+                        "--logging.level.org.springframework.security=INFO",
+                        "--logging.level.com.examsystem=INFO");
+    }
+
+    private static Exam createExam(IExamService examService, String title, int maxAttempts) {
+        Exam created = examService.createExam(ExamType.MCQ, title, 1, 2);
+        created.setMaxAttempts(maxAttempts);
+        Exam exam = examService.saveExam(created);
+        for (String answer : new String[]{"A", "B"}) {
+            Question question = new Question();
+            question.setText(title + " question " + answer);
+            question.setOptionsJson("[\"A\",\"B\"]");
+            question.setCorrectAnswer(answer);
+            examService.addQuestionToExam(exam.getId(), 1, question);
+        }
+        return exam;
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, what);
+            Thread.sleep(20);
+        }
+    }
+
+    private static URI uri(ConfigurableApplicationContext node, String path) {
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static HttpRequest get(ConfigurableApplicationContext node, String path) {
+        return HttpRequest.newBuilder(uri(node, path)).GET().build();
+    }
+
+    private static HttpRequest form(ConfigurableApplicationContext node, String path, Map<String, String> fields) {
+        StringBuilder body = new StringBuilder();
+        fields.forEach((name, value) -> body.append(body.length() > 0 ? "&" : "")
+                .append(URLEncoder.encode(name, StandardCharsets.UTF_8)).append('=')
+                .append(URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return HttpRequest.newBuilder(uri(node, path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+}
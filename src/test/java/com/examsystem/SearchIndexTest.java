@@ -0,0 +1,94 @@
+package com.examsystem;
+
+import com.examsystem.model.SearchHit;
+import com.examsystem.model.SearchHit.Kind;
+import com.examsystem.service.SearchIndex;
+import com.examsystem.utils.TextAnalyzer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the in-memory full-text search index.
+ */
+class SearchIndexTest {
+    
+    private SearchIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        index.putExam(1L, "Java OOP Fundamentals");
+        index.putExam(2L, "Software Design Principles");
+        index.putQuestion(10L, 1L, "What is encapsulation in OOP?",
+                new String[]{"Hiding implementation details", "Inheritance", "Polymorphism", "Abstraction"});
+        index.putQuestion(11L, 1L, "Which keyword is used for inheritance in Java?",
+                new String[]{"extends", "implements", "inherit", "super"});
+        index.putQuestion(12L, 2L, "Explain the SOLID design principles",
+                new String[0]);
+    }
+    
+    @Test
+    @DisplayName("Test Analyzer - Lowercase, Stop Words And Stemming")
+    void testAnalyzer() {
+        assertEquals(List.of("sort", "method", "class"), TextAnalyzer.terms("The Sorting of METHODS, classes"));
+        assertEquals("sort", TextAnalyzer.stem("sorted"));
+        assertEquals("polymorphism", TextAnalyzer.stem("polymorphism"));
+    }
+    
+    @Test
+    @DisplayName("Test Search - BM25 Ranks Question Text And Options")
+    void testRanking() {
+        List<SearchHit> hits = index.search("inheritance keyword ", 10);
+        
+        assertFalse(hits.isEmpty());
+        assertEquals(Kind.QUESTION, hits.get(0).getKind());
+        assertEquals(11L, hits.get(0).getId());
+        assertEquals("Java OOP Fundamentals", hits.get(0).getExamTitle());
+        assertTrue(hits.stream().anyMatch(hit -> hit.getId() == 10L), "Options are searchable");
+    }
+    
+    @Test
+    @DisplayName("Test Search - Last Word Matches As Prefix")
+    void testPrefix() {
+        List<SearchHit> hits = index.search("encaps", 10);
+        assertEquals(1, hits.size());
+        assertEquals(10L, hits.get(0).getId());
+        
+        assertTrue(index.search("encaps ", 10).isEmpty(), "A finished word is not expanded");
+    }
+    
+    @Test
+    @DisplayName("Test Search - Re-indexing Replaces The Old Version")
+    void testUpdate() {
+        index.putExam(2L, "Advanced Concurrency");
+        
+        assertTrue(index.search("design principles ", 10).stream()
+                .noneMatch(hit -> hit.getKind() == Kind.EXAM));
+        assertEquals(2L, index.search("concurrency", 10).get(0).getId());
+        assertEquals(5, index.size());
+    }
+    
+    @Test
+    @DisplayName("Test Search - Re-indexing Reuses Or Compacts Documents")
+    void testCompaction() {
+        index.putExam(1L, "Java OOP Fundamentals");
+        index.putQuestion(10L, 1L, "What is encapsulation in OOP?",
+                new String[]{"Hiding implementation details", "Inheritance", "Polymorphism", "Abstraction"});
+        assertEquals(0, index.tombstones(), "Unchanged content should keep its document");
+        
+        for (int i = 0; i < 5000; i++) {
+            index.putExam(2L, "Design Revision " + (i % 2 == 0 ? "Alpha" : "Beta"));
+        }
+        assertEquals(5, index.size());
+        assertTrue(index.tombstones() < 1024, "Tombstones should be compacted, got " + index.tombstones());
+        assertEquals(2L, index.search("beta", 10).get(0).getId());
+        assertTrue(index.search("alpha", 10).isEmpty());
+        assertEquals(10L, index.search("encapsulation", 10).get(0).getId());
+        assertEquals(11L, index.search("inheritance keyword", 10).get(0).getId());
+    }
+}
@@ -0,0 +1,87 @@
+package com.examsystem;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.Question;
+import com.examsystem.model.ExamType;
+import com.examsystem.monitoring.ServerTimingFilter;
+import com.examsystem.service.IExamService;
+import com.examsystem.service.IStudentService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the Server-Timing phase breakdown, sent to every caller here.
+ */
+@SpringBootTest(properties = "exam.timing.headers=all")
+@AutoConfigureMockMvc
+class ServerTimingTest {
+    
+    private static final Pattern METRIC = Pattern.compile("[a-z]+;dur=\\d+\\.\\d(;desc=\"[^\"]*\")?");
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private IExamService examService;
+    
+    @Autowired
+    private IStudentService studentService;
+    
+    @Test
+    @DisplayName("Test Server-Timing - Submission Reports Its Phases")
+    void testSubmissionPhases() throws Exception {
+        studentService.registerStudent("Timing Student", "timing-student", "pass123");
+        Exam exam = examService.saveExam(examService.createExam(ExamType.MCQ, "Timing Exam", 1, 2));
+        for (String answer : new String[]{"A", "B"}) {
+            Question question = new Question();
+            question.setText("Timing question " + answer);
+            question.setOptionsJson("[\"A\",\"B\"]");
+            question.setCorrectAnswer(answer);
+            examService.addQuestionToExam(exam.getId(), 1, question);
+        }
+        
+        MvcResult result = mockMvc.perform(post("/student/api/submit")
+                        .with(user("timing-student").authorities(() -> "STUDENT"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"examId\":" + exam.getId() + ",\"answers\":[\"A\",\"B\"]}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        
+        String header = result.getResponse().getHeader(ServerTimingFilter.HEADER);
+        assertNotNull(header);
+        for (String phase : new String[]{"auth", "student", "exam", "grade", "insert", "handler", "db", "total"}) {
+            assertTrue(header.contains(phase + ";dur="), phase + " missing from " + header);
+        }
+        for (String metric : header.split(", ")) {
+            assertTrue(METRIC.matcher(metric).matches(), metric);
+        }
+    }
+    
+    @Test
+    @DisplayName("Test Server-Timing - Rendered Pages Report Auth And Handler")
+    void testPagePhases() throws Exception {
+        MvcResult result = mockMvc.perform(get("/admin/dashboard")
+                        .with(user("admin").authorities(() -> "ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn();
+        String header = result.getResponse().getHeader(ServerTimingFilter.HEADER);
+        assertNotNull(header);
+        assertTrue(header.contains("auth;dur="), header);
+        assertTrue(header.contains("analytics;dur="), header);
+        assertTrue(header.contains("handler;dur="), header);
+    }
+}
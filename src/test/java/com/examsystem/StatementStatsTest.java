@@ -0,0 +1,101 @@
+package com.examsystem;
+
+import com.examsystem.monitoring.ServerTimingFilter;
+import com.examsystem.monitoring.StatementCountFilter;
+import com.examsystem.monitoring.StatementStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for JDBC statement statistics and the slow-statement sample.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatementStatsTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    @DisplayName("Test SQL Stats - Statements Are Counted Per Request And By Shape")
+    void testRequestCountAndShapes() throws Exception {
+        MvcResult result = mockMvc.perform(get("/student/dashboard")
+                        .with(user("student1").authorities(() -> "STUDENT")))
+                .andExpect(status().isOk())
+                .andReturn();
+        // Diagnostic headers are for admins only by default
+        assertNull(result.getResponse().getHeader(StatementCountFilter.HEADER));
+        assertNull(result.getResponse().getHeader(ServerTimingFilter.HEADER));
+        
+        result = mockMvc.perform(get("/admin/dashboard").with(user("admin").authorities(() -> "ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn();
+        String header = result.getResponse().getHeader(StatementCountFilter.HEADER);
+        assertNotNull(header);
+        assertTrue(Integer.parseInt(header) > 0);
+        
+        mockMvc.perform(get("/admin/api/sql").with(user("admin").authorities(() -> "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hibernate.enabled").value(true))
+                .andExpect(jsonPath("$.shapeCount", greaterThan(0)))
+                .andExpect(jsonPath("$.statements[*].sql", hasItem(containsString("students"))));
+        
+        mockMvc.perform(post("/admin/api/sql/reset").with(user("admin").authorities(() -> "ADMIN")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/admin/api/sql").with(user("student1").authorities(() -> "STUDENT")))
+                .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    @DisplayName("Test SQL Stats - Literals Collapse Into One Shape And Slow Statements Are Sampled")
+    void testShapesAndSlowSample() {
+        StatementStats stats = new StatementStats(10, 2, 100);
+        stats.record("select * from exams where id = 1 and title = 'a'", 1_000, -1, false);
+        stats.record("select * from exams  where id = 22 and title = 'it''s'", 2_000, -1, false);
+        stats.record("select * from questions where id in (?, ?, ?)", 30_000_000, 3, false);
+        stats.record("select * from questions where id in (?)", 40_000_000, 1, false);
+        stats.record("select * from students where id = ?", 50_000_000, -1, false);
+        
+        List<Map<String, Object>> shapes = stats.getShapes(10);
+        assertEquals(3, shapes.size());
+        Map<String, Object> exams = shapes.stream()
+                .filter(shape -> shape.get("sql").toString().contains("exams")).findFirst().orElseThrow();
+        assertEquals("select * from exams where id = ? and title = ?", exams.get("sql"));
+        assertEquals(2L, exams.get("count"));
+        Map<String, Object> questions = shapes.stream()
+                .filter(shape -> shape.get("sql").toString().contains("questions")).findFirst().orElseThrow();
+        assertEquals(4L, questions.get("rows"));
+        
+        // Bounded to two samples, newest first
+        List<Map<String, Object>> slow = stats.getSlowSamples();
+        assertEquals(2, slow.size());
+        assertTrue(slow.get(0).get("sql").toString().contains("students"));
+    }
+    
+    @Test
+    @DisplayName("Test SQL Stats - A Zero-Sized Slow Sample Keeps Nothing")
+    void testSlowSampleDisabled() {
+        StatementStats stats = new StatementStats(10, 0, 100);
+        stats.record("select * from students where id = ?", 50_000_000, -1, false);
+        assertTrue(stats.getSlowSamples().isEmpty());
+        assertEquals(1, stats.getShapes(10).size());
+    }
+}
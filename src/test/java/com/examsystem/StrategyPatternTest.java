@@ -1,13 +1,18 @@
 package com.examsystem;
 
 import com.examsystem.exception.InvalidAnswerException;
+import com.examsystem.service.Bulkheads;
 import com.examsystem.strategy.MCQStrategy;
 import com.examsystem.strategy.ManualStrategy;
+import com.examsystem.utils.Bulkhead;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * JUnit 5 Tests for Strategy Pattern.
@@ -17,11 +22,19 @@ class StrategyPatternTest {
     
     private MCQStrategy mcqStrategy;
     private ManualStrategy manualStrategy;
+    private final Bulkhead background = new Bulkhead("test-background", 1, 1, Bulkhead.Overflow.CALLER_RUNS);
     
     @BeforeEach
     void setUp() {
         mcqStrategy = new MCQStrategy();
-        manualStrategy = new ManualStrategy();
+        Bulkheads bulkheads = mock(Bulkheads.class);
+        when(bulkheads.background()).thenReturn(background);
+        manualStrategy = new ManualStrategy(bulkheads);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        background.close();
     }
     
     @Test
@@ -0,0 +1,127 @@
+package com.examsystem;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.Question;
+import com.examsystem.entity.Student;
+import com.examsystem.model.ExamType;
+import com.examsystem.repository.StudentRepository;
+import com.examsystem.service.IExamService;
+import com.examsystem.service.IStudentService;
+import com.examsystem.service.StudentScoreService;
+import com.examsystem.utils.LongIntMap;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the per-student score maps backed by the exam results table.
+ */
+@SpringBootTest
+class StudentScoreTest {
+
+    @Autowired
+    private IExamService examService;
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentScoreService scoreService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Test Long-Int Map - Put, Overwrite, Grow And Zero Key")
+    void testLongIntMap() {
+        LongIntMap map = new LongIntMap();
+        for (long key = 0; key < 1_000; key++) {
+            map.put(key, (int) key * 2);
+        }
+        map.put(7L, -1);
+
+        assertEquals(1_000, map.size());
+        assertEquals(0, map.get(0L, 99));
+        assertEquals(-1, map.get(7L, 99));
+        assertEquals(1_998, map.get(999L, 99));
+        assertEquals(99, map.get(1_000L, 99));
+        assertTrue(map.containsKey(0L));
+        assertFalse(map.containsKey(-5L));
+
+        LongIntMap copy = new LongIntMap();
+        copy.put(7L, 70);
+        copy.putAll(map);
+        assertEquals(-1, copy.get(7L, 0));
+        assertEquals(1_000, copy.size());
+    }
+
+    @Test
+    @DisplayName("Test Student Scores - Survive Reloading The Student")
+    void testScoresLoadedFromSubmissions() {
+        Exam exam = createExam("Score Reload Exam");
+        Student student = studentService.registerStudent("Score Reload", "score-reload", "pass123");
+        int score = examService.submitExam(exam.getId(), student, new String[]{"A", "B"});
+
+        Student reloaded = studentRepository.findById(student.getId()).orElseThrow();
+        assertFalse(reloaded.isScoresLoaded());
+        assertThrows(IllegalStateException.class, () -> reloaded.getScoreForExam(exam.getId()),
+                "An unloaded score must not read as 0");
+        assertSame(reloaded, scoreService.loadScores(reloaded));
+        assertTrue(reloaded.isScoresLoaded());
+        assertEquals(score, reloaded.getScoreForExam(exam.getId()));
+        assertEquals(0, reloaded.getScoreForExam(-1L));
+    }
+
+    @Test
+    @DisplayName("Test Student Scores - Analytics Load All Scores In One Statement")
+    void testBulkLoad() throws Exception {
+        Exam exam = createExam("Score Bulk Exam");
+        Map<Long, Integer> submitted = new HashMap<>();
+        String[][] answers = {{"A", "B"}, {"A", "A"}, {"B", "B"}, {"B", "A"}};
+        for (int i = 0; i < answers.length; i++) {
+            Student student = studentService.registerStudent("Score Bulk " + i, "score-bulk" + i, "pass123");
+            submitted.put(student.getId(), examService.submitExam(exam.getId(), student, answers[i]));
+        }
+
+        QueryCountAssert queries = new QueryCountAssert(entityManagerFactory);
+        AtomicReference<List<Student>> students = new AtomicReference<>();
+        queries.assertAtMost(2, "Students with scores", () ->
+                students.set(examService.getStudentsForExam(exam.getId())));
+
+        assertEquals(answers.length, students.get().size());
+        long statements = queries.count(() -> {
+            for (Student student : students.get()) {
+                assertTrue(student.isScoresLoaded());
+                assertEquals(submitted.get(student.getId()).intValue(), student.getScoreForExam(exam.getId()));
+            }
+        });
+        assertEquals(0, statements);
+
+        double average = submitted.values().stream().mapToInt(Integer::intValue).average().orElse(0);
+        assertEquals(average, examService.getAverageScore(exam.getId()), 0.001);
+    }
+
+    private Exam createExam(String title) {
+        Exam exam = examService.saveExam(examService.createExam(ExamType.MCQ, title, 1, 2));
+        for (String answer : new String[]{"A", "B"}) {
+            Question question = new Question();
+            question.setText(title + " question " + answer);
+            question.setOptionsJson("[\"A\",\"B\"]");
+            question.setCorrectAnswer(answer);
+            examService.addQuestionToExam(exam.getId(), 1, question);
+        }
+        return exam;
+    }
+}
@@ -0,0 +1,330 @@
+package com.examsystem.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Replays a crowd of students taking one exam against a running server.
+ * Setup registers the synthetic students; the storm then starts one virtual
+ * student per arrival slot, each logging in through {@code /api/auth/login} and the
+ * form login, opening the exam (through the waiting room when the start is queued),
+ * autosaving and submitting through {@code /student/api/submit}. Every step is timed into a {@link LoadReport}.
+ * Students run on virtual threads when the JVM has them, otherwise on a cached pool.
+ */
+public class LoadHarness {
+    
+    static final String REGISTER = "register";
+    static final String API_LOGIN = "api-login";
+    static final String FORM_LOGIN = "form-login";
+    static final String OPEN_EXAM = "open-exam";
+    static final String WAITING_ROOM = "waiting-room";
+    static final String PAPER = "paper";
+    static final String AUTOSAVE = "autosave";
+    static final String SUBMIT = "submit";
+    
+    private static final String PASSWORD = "load-pass";
+    private static final String[] OPTIONS = {"A", "B", "C", "D"};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    
+    private final String baseUrl;
+    private final LoadScenario scenario;
+    private final ObjectMapper objectMapper;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    
+    public LoadHarness(String baseUrl, LoadScenario scenario, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.scenario = scenario;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Register the students, run the storm against the exam and return the JSON report.
+     */
+    public Map<String, Object> run(long examId) throws Exception {
+        LoadReport setup = new LoadReport();
+        register(setup);
+        
+        LoadReport storm = new LoadReport();
+        long started = System.nanoTime();
+        storm(examId, storm);
+        long elapsed = System.nanoTime() - started;
+        
+        Map<String, Object> scenarioMap = new LinkedHashMap<>();
+        scenarioMap.put("users", scenario.getUsers());
+        scenarioMap.put("arrivalRate", scenario.getArrivalRate());
+        scenarioMap.put("thinkTimeMs", scenario.getThinkTimeMillis());
+        scenarioMap.put("autosaves", scenario.getAutosaves());
+        scenarioMap.put("questions", scenario.getQuestions());
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", System.currentTimeMillis());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("virtualThreads", virtualThreadsAvailable());
+        report.put("scenario", scenarioMap);
+        report.put("stormDurationMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        report.put("setup", setup.toMap());
+        report.put("operations", storm.toMap());
+        return report;
+    }
+    
+    private void register(LoadReport report) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        Semaphore permits = new Semaphore(scenario.getRegisterConcurrency());
+        try (Workers workers = new Workers()) {
+            for (int i = 0; i < scenario.getUsers(); i++) {
+                String username = username(i);
+                permits.acquire();
+                workers.submit(() -> {
+                    try {
+                        HttpRequest request = form("/register", Map.of(
+                                "name", "Load Student " + username,
+                                "username", username,
+                                "password", PASSWORD));
+                        // The form re-renders with an error on failure, so check the body too
+                        send(client, request, REGISTER, report,
+                                response -> response.statusCode() == 200 && response.body().contains("successful"));
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                });
+            }
+            workers.awaitAll();
+        }
+    }
+    
+    /**
+     * Open model: student i starts at i / arrivalRate seconds regardless of how
+     * earlier students are doing, so a slow server builds up a real backlog.
+     */
+    private void storm(long examId, LoadReport report) throws Exception {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / scenario.getArrivalRate());
+        long start = System.nanoTime();
+        try (Workers workers = new Workers()) {
+            for (int i = 0; i < scenario.getUsers(); i++) {
+                long due = start + i * intervalNanos;
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                String username = username(i);
+                workers.submit(() -> {
+                    takeExam(username, examId, report);
+                    return null;
+                });
+            }
+            workers.awaitAll();
+        }
+    }
+    
+    private void takeExam(String username, long examId, LoadReport report) throws Exception {
+        // One cookie jar per student, so the form login session is carried along
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        
+        Map<String, String> credentials = Map.of("username", username, "password", PASSWORD);
+        if (!send(client, json("/api/auth/login", credentials), API_LOGIN, report,
+                response -> response.statusCode() == 200 && response.body().contains("\"token\""))) {
+            return;
+        }
+        if (!send(client, form("/login", credentials), FORM_LOGIN, report,
+                response -> response.statusCode() == 302
+                        && !response.headers().firstValue("Location").orElse("").contains("error"))) {
+            return;
+        }
+        
+        if (!openExam(client, examId, report)
+                || !send(client, get("/student/api/exam/" + examId + "/questions"), PAPER, report, ok())) {
+            return;
+        }
+        
+        String[] answers = new String[scenario.getQuestions()];
+        for (int save = 0; save < scenario.getAutosaves(); save++) {
+            think();
+            fillAnswers(answers, (save + 1) * answers.length / (scenario.getAutosaves() + 1));
+            send(client, json("/student/api/exam/" + examId + "/autosave",
+                    Map.of("examId", examId, "answers", answers)), AUTOSAVE, report, ok());
+        }
+        
+        think();
+        fillAnswers(answers, answers.length);
+        send(client, json("/student/api/submit",
+                Map.of("examId", examId, "answers", answers)), SUBMIT, report, ok());
+    }
+    
+    /**
+     * Open the exam, waiting in the waiting room first when the server queues the start.
+     */
+    private boolean openExam(HttpClient client, long examId, LoadReport report) throws Exception {
+        String[] location = new String[1];
+        if (!send(client, get("/student/exam/" + examId), OPEN_EXAM, report, response -> {
+            location[0] = response.headers().firstValue("Location").orElse("");
+            return response.statusCode() == 200 || (response.statusCode() == 302 && location[0].contains("/waiting"));
+        })) {
+            return false;
+        }
+        if (!location[0].contains("/waiting")) {
+            return true;
+        }
+        long started = System.nanoTime();
+        while (true) {
+            HttpResponse<String> response = client.send(get("/student/api/exam/" + examId + "/queue"),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                report.record(WAITING_ROOM, started, System.nanoTime(), false);
+                return false;
+            }
+            JsonNode status = objectMapper.readTree(response.body());
+            if (status.path("admitted").asBoolean()) {
+                report.record(WAITING_ROOM, started, System.nanoTime(), true);
+                return send(client, get("/student/exam/" + examId), OPEN_EXAM, report, ok());
+            }
+            Thread.sleep(Math.max(100, status.path("pollAfterMs").asLong(1000)));
+        }
+    }
+    
+    private static void fillAnswers(String[] answers, int upTo) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < upTo; i++) {
+            if (answers[i] == null) {
+                answers[i] = OPTIONS[random.nextInt(OPTIONS.length)];
+            }
+        }
+    }
+    
+    private void think() throws InterruptedException {
+        long think = scenario.getThinkTimeMillis();
+        if (think > 0) {
+            // +-50% jitter so that students do not move in lockstep
+            Thread.sleep(think / 2 + ThreadLocalRandom.current().nextLong(think + 1));
+        }
+    }
+    
+    /**
+     * Send a request and record it; responses the check rejects count as errors.
+     */
+    private boolean send(HttpClient client, HttpRequest request, String operation,
+                         LoadReport report, Predicate<HttpResponse<String>> check) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            boolean success = check.test(response);
+            report.record(operation, start, System.nanoTime(), success);
+            return success;
+        } catch (IOException e) {
+            report.record(operation, start, System.nanoTime(), false);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private static Predicate<HttpResponse<String>> ok() {
+        return response -> response.statusCode() == 200;
+    }
+    
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+    
+    private HttpRequest form(String path, Map<String, String> fields) {
+        StringBuilder body = new StringBuilder();
+        fields.forEach((name, value) -> body
+                .append(body.length() > 0 ? "&" : "")
+                .append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+                .append('=')
+                .append(URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+    
+    private HttpRequest json(String path, Object body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+    
+    private String username(int index) {
+        return "load-" + runId + "-" + index;
+    }
+    
+    static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * One thread per task: virtual threads on JDK 21+, a cached platform pool before that.
+     */
+    private static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+    
+    /**
+     * Tracks submitted tasks so that failures surface when the phase ends.
+     */
+    private static final class Workers implements AutoCloseable {
+        
+        private final ExecutorService executor = newPerTaskExecutor();
+        private final List<Future<?>> futures = new ArrayList<>();
+        
+        void submit(Callable<?> task) {
+            futures.add(executor.submit(task));
+        }
+        
+        void awaitAll() throws Exception {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+}
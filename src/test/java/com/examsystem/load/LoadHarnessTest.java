@@ -0,0 +1,98 @@
+package com.examsystem.load;
+
+import com.examsystem.entity.Exam;
+import com.examsystem.entity.Question;
+import com.examsystem.model.ExamType;
+import com.examsystem.service.IExamService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exam-start storm against the embedded server.
+ * The smoke run keeps the harness itself working; the full run is opt-in:
+ * {@code mvn test -Dtest=LoadHarnessTest -Dexam.load=true [-Dexam.load.users=...]}.
+ * Runs on its own in-memory database, with SQL and security debug logging off
+ * so that console output does not dominate the measurement.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:examload",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "logging.level.com.examsystem=INFO",
+        "exam.audit.file=${java.io.tmpdir}/exam-audit/load-audit.log"
+})
+class LoadHarnessTest {
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private IExamService examService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    @DisplayName("Test Load Harness - Smoke Run Completes Every Step")
+    void testSmokeRun() throws Exception {
+        LoadScenario scenario = new LoadScenario(4, 20, 0, 1, 5, 4, null);
+        Map<String, Object> report = harness(scenario).run(createExam(scenario.getQuestions()));
+        
+        Map<?, ?> operations = (Map<?, ?>) report.get("operations");
+        for (String operation : new String[]{LoadHarness.API_LOGIN, LoadHarness.FORM_LOGIN,
+                LoadHarness.OPEN_EXAM, LoadHarness.PAPER, LoadHarness.AUTOSAVE, LoadHarness.SUBMIT}) {
+            Map<?, ?> stats = (Map<?, ?>) operations.get(operation);
+            assertNotNull(stats, operation);
+            assertEquals(4L, stats.get("count"), operation);
+            assertEquals(0L, stats.get("errors"), operation);
+            assertTrue(stats.containsKey("p999Ms"));
+        }
+    }
+    
+    @Test
+    @EnabledIfSystemProperty(named = "exam.load", matches = "true")
+    @DisplayName("Test Load Harness - Configured Storm")
+    void testStorm() throws Exception {
+        LoadScenario scenario = LoadScenario.fromSystemProperties();
+        Map<String, Object> report = harness(scenario).run(createExam(scenario.getQuestions()));
+        
+        Path out = Paths.get(scenario.getReport());
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(out.toFile(), report);
+        System.out.println("[LOAD] Report written to " + out.toAbsolutePath());
+    }
+    
+    private LoadHarness harness(LoadScenario scenario) {
+        return new LoadHarness("http://localhost:" + port, scenario, objectMapper);
+    }
+    
+    private long createExam(int questions) {
+        Exam exam = examService.createExam(ExamType.MCQ, "Load Exam", 1, questions);
+        exam.setDurationMinutes(30);
+        exam.setTotalMarks(questions);
+        exam = examService.saveExam(exam);
+        for (int i = 0; i < questions; i++) {
+            Question question = new Question();
+            question.setText("Load question " + i);
+            question.setOptionsJson("[\"A\",\"B\",\"C\",\"D\"]");
+            question.setCorrectAnswer("A");
+            examService.addQuestionToExam(exam.getId(), 1, question);
+        }
+        return exam.getId();
+    }
+}
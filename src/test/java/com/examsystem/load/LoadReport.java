@@ -0,0 +1,87 @@
+package com.examsystem.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-operation latency histograms of a load run.
+ * Latencies are recorded in microseconds with three significant digits;
+ * {@link #toMap} produces the JSON-ready summary that runs are compared by.
+ */
+public class LoadReport {
+    
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    
+    private static final class Operation {
+        final Histogram latency = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+        final AtomicLong lastEnd = new AtomicLong(Long.MIN_VALUE);
+    }
+    
+    public void record(String operation, long startNanos, long endNanos, boolean success) {
+        Operation op = operations.computeIfAbsent(operation, k -> new Operation());
+        if (success) {
+            long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos), MAX_TRACKABLE_MICROS);
+            op.latency.recordValue(micros);
+        } else {
+            op.errors.incrementAndGet();
+        }
+        op.firstStart.accumulateAndGet(startNanos, Math::min);
+        op.lastEnd.accumulateAndGet(endNanos, Math::max);
+    }
+    
+    public long getCount(String operation) {
+        Operation op = operations.get(operation);
+        return op != null ? op.latency.getTotalCount() : 0;
+    }
+    
+    public long getErrors(String operation) {
+        Operation op = operations.get(operation);
+        return op != null ? op.errors.get() : 0;
+    }
+    
+    /**
+     * Summary per operation: count, errors, throughput over the operation's active
+     * window, and p50/p99/p999/max latency in milliseconds.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        operations.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> summary.put(entry.getKey(), summarize(entry.getValue())));
+        return summary;
+    }
+    
+    private static Map<String, Object> summarize(Operation op) {
+        Histogram latency = op.latency;
+        double windowSeconds = Math.max(1, op.lastEnd.get() - op.firstStart.get()) / 1e9;
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", latency.getTotalCount());
+        stats.put("errors", op.errors.get());
+        stats.put("throughputPerSecond", round(latency.getTotalCount() / windowSeconds));
+        stats.put("meanMs", round(latency.getMean() / 1000.0));
+        stats.put("p50Ms", millis(latency, 50.0));
+        stats.put("p99Ms", millis(latency, 99.0));
+        stats.put("p999Ms", millis(latency, 99.9));
+        stats.put("maxMs", round(latency.getMaxValue() / 1000.0));
+        return stats;
+    }
+    
+    private static double millis(Histogram histogram, double percentile) {
+        return round(histogram.getValueAtPercentile(percentile) / 1000.0);
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
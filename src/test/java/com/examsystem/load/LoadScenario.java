@@ -0,0 +1,71 @@
+package com.examsystem.load;
+
+/**
+ * Shape of a load run, read from {@code exam.load.*} system properties so that
+ * a storm can be tuned from the command line, e.g.
+ * {@code mvn test -Dtest=LoadHarnessTest -Dexam.load=true -Dexam.load.users=2000 -Dexam.load.arrival-rate=200}.
+ */
+public class LoadScenario {
+    
+    // Synthetic students, each taking the exam once
+    private final int users;
+    // Students arriving per second (open model: arrivals do not wait for earlier students)
+    private final double arrivalRate;
+    // Pause between opening the paper, each autosave and the submission
+    private final long thinkTimeMillis;
+    private final int autosaves;
+    private final int questions;
+    // Parallel registrations during setup (registration is bcrypt-bound and not part of the storm)
+    private final int registerConcurrency;
+    private final String report;
+    
+    public LoadScenario(int users, double arrivalRate, long thinkTimeMillis, int autosaves,
+                        int questions, int registerConcurrency, String report) {
+        this.users = users;
+        this.arrivalRate = arrivalRate;
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.autosaves = autosaves;
+        this.questions = questions;
+        this.registerConcurrency = registerConcurrency;
+        this.report = report;
+    }
+    
+    public static LoadScenario fromSystemProperties() {
+        return new LoadScenario(
+                Integer.getInteger("exam.load.users", 1000),
+                Double.parseDouble(System.getProperty("exam.load.arrival-rate", "100")),
+                Long.getLong("exam.load.think-time-ms", 500),
+                Integer.getInteger("exam.load.autosaves", 2),
+                Integer.getInteger("exam.load.questions", 20),
+                Integer.getInteger("exam.load.register-concurrency", 16),
+                System.getProperty("exam.load.report", "target/load-report.json"));
+    }
+    
+    public int getUsers() {
+        return users;
+    }
+    
+    public double getArrivalRate() {
+        return arrivalRate;
+    }
+    
+    public long getThinkTimeMillis() {
+        return thinkTimeMillis;
+    }
+    
+    public int getAutosaves() {
+        return autosaves;
+    }
+    
+    public int getQuestions() {
+        return questions;
+    }
+    
+    public int getRegisterConcurrency() {
+        return registerConcurrency;
+    }
+    
+    public String getReport() {
+        return report;
+    }
+}